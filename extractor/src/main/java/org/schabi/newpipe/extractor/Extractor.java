@@ -29,13 +29,15 @@ public abstract class Extractor {
     private ContentCountry forcedContentCountry = null;
 
     private boolean pageFetched = false;
+    private final ExtractorContext context;
     // called like this to prevent checkstyle errors about "hiding a field"
     private final Downloader downloader;
 
     protected Extractor(final StreamingService service, final LinkHandler linkHandler) {
         this.service = Objects.requireNonNull(service, "service is null");
         this.linkHandler = Objects.requireNonNull(linkHandler, "LinkHandler is null");
-        this.downloader = Objects.requireNonNull(NewPipe.getDownloader(), "downloader is null");
+        this.context = NewPipe.getContext();
+        this.downloader = Objects.requireNonNull(context.getDownloader(), "downloader is null");
     }
 
     /**
@@ -57,7 +59,16 @@ public abstract class Extractor {
         if (pageFetched) {
             return;
         }
-        onFetchPage(downloader);
+        try {
+            context.run(() -> {
+                onFetchPage(downloader);
+                return null;
+            });
+        } catch (final IOException | ExtractionException | RuntimeException e) {
+            context.getMetrics().increment(ExtractorContext.Metrics.PAGE_FETCH_ERRORS);
+            throw e;
+        }
+        context.getMetrics().increment(ExtractorContext.Metrics.PAGES_FETCHED);
         pageFetched = true;
     }
 
@@ -124,6 +135,14 @@ public abstract class Extractor {
         return downloader;
     }
 
+    /**
+     * @return the context this extractor was created with, which is used when fetching the page
+     */
+    @Nonnull
+    public ExtractorContext getContext() {
+        return context;
+    }
+
     /*//////////////////////////////////////////////////////////////////////////
     // Localization
     //////////////////////////////////////////////////////////////////////////*/
@@ -138,12 +157,13 @@ public abstract class Extractor {
 
     @Nonnull
     public Localization getExtractorLocalization() {
-        return forcedLocalization == null ? getService().getLocalization() : forcedLocalization;
+        return forcedLocalization == null ? getService().getLocalization(context)
+                : forcedLocalization;
     }
 
     @Nonnull
     public ContentCountry getExtractorContentCountry() {
-        return forcedContentCountry == null ? getService().getContentCountry()
+        return forcedContentCountry == null ? getService().getContentCountry(context)
                 : forcedContentCountry;
     }
 
@@ -0,0 +1,416 @@
+package org.schabi.newpipe.extractor;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.localization.Localization;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Everything extractors need besides the {@link StreamingService}s themselves: the
+ * {@link Downloader}, the preferred {@link Localization} and {@link ContentCountry}, a cache for
+ * values services fetch once and reuse (e.g. the SoundCloud client id) and {@link Metrics}.
+ *
+ * <p>
+ * Several contexts can be used at the same time in the same process, e.g. to extract with
+ * different downloaders (proxies, rate limit pools) or localizations concurrently. The static
+ * API of {@link NewPipe} delegates to a default context, which is replaced by
+ * {@link NewPipe#init(Downloader)} and the other setters of {@link NewPipe}.
+ * </p>
+ *
+ * <p>
+ * A context is used for everything {@link #run(Task) run} with it: {@link NewPipe#getContext()}
+ * returns it on the running thread, so the extractors created and the service helpers called
+ * during the task use its downloader, localization and cache. {@link Extractor}s keep the context
+ * they were created with, so they can be used outside of the task too. For example:
+ * </p>
+ *
+ * <pre>{@code
+ * final StreamInfo info = context.run(() -> StreamInfo.getInfo(url));
+ * final StreamExtractor extractor = context.run(() -> service.getStreamExtractor(url));
+ * }</pre>
+ */
+public final class ExtractorContext {
+    private static final ThreadLocal<ExtractorContext> CURRENT = new ThreadLocal<>();
+
+    @Nullable
+    private final Downloader downloader;
+    @Nonnull
+    private final Localization localization;
+    @Nonnull
+    private final ContentCountry contentCountry;
+    private final int maxPrefetchedPages;
+    private final boolean prefetchSecondaryResources;
+    private final ConcurrentMap<CacheKey<?>, CompletableFuture<Object>> cache;
+    private final Metrics metrics;
+
+    private ExtractorContext(final Builder builder) {
+        this.downloader = builder.downloader;
+        this.localization = builder.localization;
+        this.contentCountry = builder.contentCountry;
+        this.maxPrefetchedPages = builder.maxPrefetchedPages;
+        this.prefetchSecondaryResources = builder.prefetchSecondaryResources;
+        this.cache = builder.cache;
+        this.metrics = builder.metrics;
+    }
+
+    /**
+     * @return the context {@link #run(Task) run} on the current thread, or {@code null} if there
+     * is none
+     */
+    @Nullable
+    static ExtractorContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the downloader or {@code null} if it has not been set yet
+     */
+    @Nullable
+    public Downloader getDownloader() {
+        return downloader;
+    }
+
+    @Nonnull
+    public Localization getLocalization() {
+        return localization;
+    }
+
+    @Nonnull
+    public ContentCountry getContentCountry() {
+        return contentCountry;
+    }
+
+    /**
+     * @return the maximum number of pages of a list which extractors fetch in the background
+     * before they are requested, {@code 0} if they don't
+     * @see Builder#maxPrefetchedPages(int)
+     */
+    public int getMaxPrefetchedPages() {
+        return maxPrefetchedPages;
+    }
+
+    /**
+     * @return whether extractors fetch the secondary resources of an item in the background as
+     * soon as the item is fetched
+     * @see Builder#prefetchSecondaryResources(boolean)
+     */
+    public boolean isPrefetchingSecondaryResources() {
+        return prefetchSecondaryResources;
+    }
+
+    @Nonnull
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get a value from the cache of this context, loading it if it isn't cached yet.
+     *
+     * <p>
+     * The value is loaded once: if it is requested by several threads at the same time before it
+     * is cached, the other threads wait for the value loaded by the first one. Nothing is cached
+     * if the loader fails, and the waiting threads get its error.
+     * </p>
+     *
+     * <p>
+     * Lambdas are compatible with both this method and {@link #getCached(CacheKey, Supplier)},
+     * so loaders are given as a variable of either type.
+     * </p>
+     *
+     * @param key    the key of the value
+     * @param loader the loader of the value, which must not return {@code null} nor request the
+     *               same key
+     * @param <T>    the type of the value
+     * @return the cached or loaded value
+     */
+    @Nonnull
+    public <T> T getCached(@Nonnull final CacheKey<T> key,
+                           @Nonnull final Task<T> loader)
+            throws IOException, ExtractionException {
+        final CompletableFuture<Object> loading = new CompletableFuture<>();
+        final CompletableFuture<Object> cached = cache.putIfAbsent(key, loading);
+        if (cached != null) {
+            return await(key, cached);
+        }
+
+        final T loaded;
+        try {
+            loaded = loader.run();
+        } catch (final Throwable e) {
+            cache.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        loading.complete(loaded);
+        return loaded;
+    }
+
+    /**
+     * Same as {@link #getCached(CacheKey, Task)}, for values whose creation can't fail with a
+     * checked exception, e.g. per-context caches and indexes.
+     *
+     * @param key    the key of the value
+     * @param loader the creator of the value, which must not return {@code null} nor request the
+     *               same key
+     * @param <T>    the type of the value
+     * @return the cached or created value
+     */
+    @Nonnull
+    public <T> T getCached(@Nonnull final CacheKey<T> key,
+                           @Nonnull final Supplier<T> loader) {
+        final CompletableFuture<Object> loading = new CompletableFuture<>();
+        final CompletableFuture<Object> cached = cache.putIfAbsent(key, loading);
+        if (cached != null) {
+            try {
+                // Not interruptible, as creating such values doesn't take long
+                @SuppressWarnings("unchecked") final T value = (T) cached.join();
+                return value;
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        final T loaded;
+        try {
+            loaded = loader.get();
+        } catch (final Throwable e) {
+            cache.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        loading.complete(loaded);
+        return loaded;
+    }
+
+    @Nonnull
+    private static <T> T await(@Nonnull final CacheKey<T> key,
+                               @Nonnull final CompletableFuture<Object> future)
+            throws IOException, ExtractionException {
+        try {
+            @SuppressWarnings("unchecked") final T value = (T) future.get();
+            return value;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + key);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof ExtractionException) {
+                throw (ExtractionException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new ExtractionException(e.getCause());
+        }
+    }
+
+    /**
+     * Remove a value from the cache of this context, e.g. because it turned out to be outdated.
+     *
+     * @param key the key of the value
+     */
+    public void invalidate(@Nonnull final CacheKey<?> key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Run the task with this context as the one returned by {@link NewPipe#getContext()} on the
+     * current thread. The previous context of the thread is restored afterwards.
+     *
+     * @param task the task to run
+     * @param <T>  the type of the result of the task
+     * @return the result of the task
+     */
+    public <T> T run(@Nonnull final Task<T> task) throws IOException, ExtractionException {
+        final ExtractorContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return a builder with the values of this context, whose contexts share the cache and the
+     * metrics of this one
+     */
+    @Nonnull
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Something run with an {@link ExtractorContext}.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T run() throws IOException, ExtractionException;
+    }
+
+    /**
+     * The key of a value in the cache of a context. Keys are compared by identity, so they are
+     * usually constants of the classes using them.
+     *
+     * @param <T> the type of the value
+     */
+    public static final class CacheKey<T> {
+        private final String name;
+
+        public CacheKey(@Nonnull final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Counters of what was done with a context, e.g. the number of pages fetched by extractors.
+     */
+    public static final class Metrics {
+        public static final String PAGES_FETCHED = "pages.fetched";
+        public static final String PAGE_FETCH_ERRORS = "pages.errors";
+
+        private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        Metrics() {
+        }
+
+        public void increment(@Nonnull final String name) {
+            add(name, 1);
+        }
+
+        public void add(@Nonnull final String name, final long value) {
+            counters.computeIfAbsent(name, n -> new LongAdder()).add(value);
+        }
+
+        public long get(@Nonnull final String name) {
+            final LongAdder counter = counters.get(name);
+            return counter == null ? 0 : counter.sum();
+        }
+
+        /**
+         * @return the current value of all the counters, sorted by name
+         */
+        @Nonnull
+        public Map<String, Long> snapshot() {
+            final Map<String, Long> snapshot = new TreeMap<>();
+            counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+            return Collections.unmodifiableMap(snapshot);
+        }
+    }
+
+    public static final class Builder {
+        @Nullable
+        private Downloader downloader;
+        @Nonnull
+        private Localization localization = Localization.DEFAULT;
+        @Nonnull
+        private ContentCountry contentCountry = ContentCountry.DEFAULT;
+        private int maxPrefetchedPages = 0;
+        private boolean prefetchSecondaryResources = false;
+        private final ConcurrentMap<CacheKey<?>, CompletableFuture<Object>> cache;
+        private final Metrics metrics;
+
+        public Builder() {
+            this.cache = new ConcurrentHashMap<>();
+            this.metrics = new Metrics();
+        }
+
+        private Builder(@Nonnull final ExtractorContext context) {
+            this.downloader = context.downloader;
+            this.localization = context.localization;
+            this.contentCountry = context.contentCountry;
+            this.maxPrefetchedPages = context.maxPrefetchedPages;
+            this.prefetchSecondaryResources = context.prefetchSecondaryResources;
+            this.cache = context.cache;
+            this.metrics = context.metrics;
+        }
+
+        public Builder downloader(@Nullable final Downloader downloaderToSet) {
+            this.downloader = downloaderToSet;
+            return this;
+        }
+
+        /**
+         * The preferred localization, {@link Localization#DEFAULT} if {@code null}.
+         */
+        public Builder localization(@Nullable final Localization localizationToSet) {
+            this.localization = localizationToSet == null
+                    ? Localization.DEFAULT : localizationToSet;
+            return this;
+        }
+
+        /**
+         * The preferred content country, {@link ContentCountry#DEFAULT} if {@code null}.
+         */
+        public Builder contentCountry(@Nullable final ContentCountry contentCountryToSet) {
+            this.contentCountry = contentCountryToSet == null
+                    ? ContentCountry.DEFAULT : contentCountryToSet;
+            return this;
+        }
+
+        /**
+         * The maximum number of pages of each list which extractors supporting it fetch in the
+         * background as soon as they know them, before they are requested, so that they are
+         * ready when they are. Pages which are never displayed cost requests, so this is
+         * disabled, i.e. {@code 0}, by default.
+         */
+        public Builder maxPrefetchedPages(final int maxPrefetchedPagesToSet) {
+            if (maxPrefetchedPagesToSet < 0) {
+                throw new IllegalArgumentException("maxPrefetchedPages must not be negative");
+            }
+            this.maxPrefetchedPages = maxPrefetchedPagesToSet;
+            return this;
+        }
+
+        /**
+         * Whether extractors supporting it fetch the secondary resources of an item, which need
+         * requests of their own and are otherwise only fetched when they are used, in the
+         * background as soon as the item is fetched, e.g. the captions and the full description
+         * of PeerTube videos. This saves time if they are always used, but costs requests
+         * otherwise, so this is disabled by default.
+         */
+        public Builder prefetchSecondaryResources(final boolean prefetchSecondaryResourcesToSet) {
+            this.prefetchSecondaryResources = prefetchSecondaryResourcesToSet;
+            return this;
+        }
+
+        @Nonnull
+        public ExtractorContext build() {
+            return new ExtractorContext(this);
+        }
+    }
+}
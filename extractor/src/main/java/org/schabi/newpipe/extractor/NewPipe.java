@@ -25,7 +25,9 @@ import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.localization.ContentCountry;
 import org.schabi.newpipe.extractor.localization.Localization;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,9 +36,8 @@ import javax.annotation.Nullable;
  * Provides access to streaming services supported by NewPipe.
  */
 public final class NewPipe {
-    private static Downloader downloader;
-    private static Localization preferredLocalization;
-    private static ContentCountry preferredContentCountry;
+    private static volatile ExtractorContext defaultContext =
+            new ExtractorContext.Builder().build();
 
     private NewPipe() {
     }
@@ -51,13 +52,35 @@ public final class NewPipe {
     }
 
     public static void init(final Downloader d, final Localization l, final ContentCountry c) {
-        downloader = d;
-        preferredLocalization = l;
-        preferredContentCountry = c;
+        defaultContext = defaultContext.toBuilder()
+                .downloader(d)
+                .localization(l)
+                .contentCountry(c)
+                .build();
+    }
+
+    /**
+     * Replace the default context, i.e. the one used when no other context is
+     * {@link ExtractorContext#run(ExtractorContext.Task) run} on the current thread.
+     *
+     * @param context the new default context
+     */
+    public static void init(@Nonnull final ExtractorContext context) {
+        defaultContext = context;
+    }
+
+    /**
+     * @return the context {@link ExtractorContext#run(ExtractorContext.Task) run} on the current
+     * thread, or the default one if there is none
+     */
+    @Nonnull
+    public static ExtractorContext getContext() {
+        final ExtractorContext current = ExtractorContext.current();
+        return current == null ? defaultContext : current;
     }
 
     public static Downloader getDownloader() {
-        return downloader;
+        return getContext().getDownloader();
     }
 
     /*//////////////////////////////////////////////////////////////////////////
@@ -85,12 +108,60 @@ public final class NewPipe {
     }
 
     public static StreamingService getServiceByUrl(final String url) throws ExtractionException {
-        for (final StreamingService service : ServiceList.all()) {
-            if (service.getLinkTypeByUrl(url) != StreamingService.LinkType.NONE) {
-                return service;
-            }
+        return routeUrl(url).getService();
+    }
+
+    /**
+     * Figures out which service can handle the url and where the url is pointing to, in a single
+     * pass over the services which may support its host.
+     *
+     * @param url the url to route, which can be a Google search redirect
+     * @return the {@link UrlRouter.Route route} of the url
+     * @throws ExtractionException if no service can handle the url
+     */
+    @Nonnull
+    public static UrlRouter.Route routeUrl(final String url) throws ExtractionException {
+        final UrlRouter.Route route = UrlRouterHolder.INSTANCE.route(url);
+        if (route == null) {
+            throw new ExtractionException("No service can handle the url = \"" + url + "\"");
+        }
+        return route;
+    }
+
+    /**
+     * Routes all the given urls and normalises them, sequentially on the calling thread.
+     *
+     * @see #routeUrls(Collection, ForkJoinPool)
+     */
+    @Nonnull
+    public static UrlRouter.BatchResult routeUrls(@Nonnull final Collection<String> urls) {
+        return routeUrls(urls, null);
+    }
+
+    /**
+     * Routes all the given urls to the services which can handle them and normalises them,
+     * de-duplicating the urls which point to the same content (e.g. {@code youtu.be},
+     * {@code youtube.com/watch?v=}, Invidious and Hooktube links of the same video).
+     *
+     * @param urls the urls to route, which can be Google search redirects
+     * @param pool the pool on which the urls are resolved in parallel, or {@code null} to resolve
+     *             them sequentially on the calling thread
+     * @return the {@link UrlRouter.BatchResult result} of the batch
+     */
+    @Nonnull
+    public static UrlRouter.BatchResult routeUrls(@Nonnull final Collection<String> urls,
+                                                  @Nullable final ForkJoinPool pool) {
+        return UrlRouterHolder.INSTANCE.routeAll(urls, pool);
+    }
+
+    /**
+     * Holds the {@link UrlRouter} of all the services, which is built on first use only.
+     */
+    private static final class UrlRouterHolder {
+        private static final UrlRouter INSTANCE = new UrlRouter(ServiceList.all());
+
+        private UrlRouterHolder() {
         }
-        throw new ExtractionException("No service can handle the url = \"" + url + "\"");
     }
 
     /*//////////////////////////////////////////////////////////////////////////
@@ -104,32 +175,40 @@ public final class NewPipe {
     public static void setupLocalization(
             final Localization thePreferredLocalization,
             @Nullable final ContentCountry thePreferredContentCountry) {
-        NewPipe.preferredLocalization = thePreferredLocalization;
-
+        final ContentCountry contentCountry;
         if (thePreferredContentCountry != null) {
-            NewPipe.preferredContentCountry = thePreferredContentCountry;
+            contentCountry = thePreferredContentCountry;
         } else {
-            NewPipe.preferredContentCountry = thePreferredLocalization.getCountryCode().isEmpty()
+            contentCountry = thePreferredLocalization.getCountryCode().isEmpty()
                     ? ContentCountry.DEFAULT
                     : new ContentCountry(thePreferredLocalization.getCountryCode());
         }
+
+        defaultContext = defaultContext.toBuilder()
+                .localization(thePreferredLocalization)
+                .contentCountry(contentCountry)
+                .build();
     }
 
     @Nonnull
     public static Localization getPreferredLocalization() {
-        return preferredLocalization == null ? Localization.DEFAULT : preferredLocalization;
+        return getContext().getLocalization();
     }
 
     public static void setPreferredLocalization(final Localization preferredLocalization) {
-        NewPipe.preferredLocalization = preferredLocalization;
+        defaultContext = defaultContext.toBuilder()
+                .localization(preferredLocalization)
+                .build();
     }
 
     @Nonnull
     public static ContentCountry getPreferredContentCountry() {
-        return preferredContentCountry == null ? ContentCountry.DEFAULT : preferredContentCountry;
+        return getContext().getContentCountry();
     }
 
     public static void setPreferredContentCountry(final ContentCountry preferredContentCountry) {
-        NewPipe.preferredContentCountry = preferredContentCountry;
+        defaultContext = defaultContext.toBuilder()
+                .contentCountry(preferredContentCountry)
+                .build();
     }
 }
@@ -0,0 +1,521 @@
+package org.schabi.newpipe.extractor;
+
+import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
+
+import org.schabi.newpipe.extractor.channel.ChannelInfo;
+import org.schabi.newpipe.extractor.comments.CommentsInfo;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.kiosk.KioskInfo;
+import org.schabi.newpipe.extractor.linkhandler.ListLinkHandlerFactory;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfo;
+import org.schabi.newpipe.extractor.search.SearchInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Page} of a listing together with everything needed to fetch it again: the service,
+ * the kind of listing and its URL, ID and filters.
+ *
+ * <p>
+ * A cursor can be {@link #encode() encoded} into a compact, URL-safe string and
+ * {@link #decode(String) decoded} again later, e.g. by another process, so a client can resume
+ * a listing without the server keeping any state between its requests. The encoding starts with
+ * a {@link #VERSION version}, so cursors encoded by older versions of the extractor can still be
+ * decoded or at least rejected cleanly.
+ * </p>
+ *
+ * <p>
+ * The localization and content country are not part of the cursor: the page is fetched with the
+ * ones of the current {@link ExtractorContext context}, which should be the same as the ones of
+ * the previous pages.
+ * </p>
+ *
+ * <p>
+ * Cursors are not signed, so they must be treated as untrusted input when they come from a
+ * client. Before fetching a page, {@link #requireService(Kind)} checks that the listing belongs
+ * to the service and that the page is on the site of the service or of the listing, so that a
+ * tampered cursor can't make the extractor send requests, cookies or bodies to other hosts.
+ * </p>
+ */
+public final class PageCursor {
+    /**
+     * The version of the encoding written by {@link #encode()}.
+     */
+    public static final int VERSION = 1;
+
+    private final int serviceId;
+    @Nonnull
+    private final Kind kind;
+    @Nullable
+    private final String url;
+    @Nullable
+    private final String id;
+    @Nonnull
+    private final List<String> contentFilters;
+    @Nullable
+    private final String sortFilter;
+    @Nonnull
+    private final Page page;
+
+    /**
+     * The kinds of listings which can be resumed, i.e. the {@link ListInfo}s with a
+     * {@code getMoreItems} method.
+     */
+    public enum Kind {
+        CHANNEL(1),
+        PLAYLIST(2),
+        KIOSK(3),
+        COMMENTS(4),
+        SEARCH(5);
+
+        /**
+         * The stable code of the kind in encoded cursors, as the ordinals may change.
+         */
+        private final int code;
+
+        Kind(final int code) {
+            this.code = code;
+        }
+
+        @Nonnull
+        static Kind fromCode(final int code) throws ParsingException {
+            for (final Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new ParsingException("Unknown cursor kind: " + code);
+        }
+    }
+
+    public PageCursor(final int serviceId,
+                      @Nonnull final Kind kind,
+                      @Nullable final String url,
+                      @Nullable final String id,
+                      @Nullable final List<String> contentFilters,
+                      @Nullable final String sortFilter,
+                      @Nonnull final Page page) {
+        this.serviceId = serviceId;
+        this.kind = Objects.requireNonNull(kind, "kind is null");
+        this.url = url;
+        this.id = id;
+        this.contentFilters = contentFilters == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(contentFilters));
+        this.sortFilter = sortFilter;
+        this.page = Objects.requireNonNull(page, "page is null");
+    }
+
+    /**
+     * Create a cursor for a page of the listing of an info.
+     *
+     * @param info the info of the listing, whose {@link ListInfo#getNextPage() next page} is
+     *             usually the page
+     * @param page the page to resume the listing at
+     * @return the cursor of the page
+     * @throws IllegalArgumentException if the listing of the info cannot be resumed
+     */
+    @Nonnull
+    public static PageCursor of(@Nonnull final ListInfo<?> info, @Nonnull final Page page) {
+        final Kind kind;
+        if (info instanceof ChannelInfo) {
+            kind = Kind.CHANNEL;
+        } else if (info instanceof PlaylistInfo) {
+            kind = Kind.PLAYLIST;
+        } else if (info instanceof KioskInfo) {
+            kind = Kind.KIOSK;
+        } else if (info instanceof CommentsInfo) {
+            kind = Kind.COMMENTS;
+        } else if (info instanceof SearchInfo) {
+            kind = Kind.SEARCH;
+        } else {
+            throw new IllegalArgumentException(
+                    "Unsupported listing: " + info.getClass().getSimpleName());
+        }
+        return new PageCursor(info.getServiceId(), kind, info.getUrl(), info.getId(),
+                info.getContentFilters(), info.getSortFilter(), page);
+    }
+
+    /**
+     * @param nextPage the page following the one of this cursor
+     * @return a cursor of the same listing at the given page
+     */
+    @Nonnull
+    public PageCursor withPage(@Nonnull final Page nextPage) {
+        return new PageCursor(serviceId, kind, url, id, contentFilters, sortFilter, nextPage);
+    }
+
+    /**
+     * Fetch the items of the page with the {@code getMoreItems} method of the info of the
+     * listing, e.g. {@link ChannelInfo#getMoreItems(PageCursor)}.
+     *
+     * @return the items of the page
+     */
+    @Nonnull
+    public ListExtractor.InfoItemsPage<? extends InfoItem> getMoreItems()
+            throws IOException, ExtractionException {
+        switch (kind) {
+            case CHANNEL:
+                return ChannelInfo.getMoreItems(this);
+            case PLAYLIST:
+                return PlaylistInfo.getMoreItems(this);
+            case KIOSK:
+                return KioskInfo.getMoreItems(this);
+            case COMMENTS:
+                return CommentsInfo.getMoreItems(this);
+            case SEARCH:
+                return SearchInfo.getMoreItems(this);
+            default:
+                throw new IllegalStateException("Unknown kind: " + kind);
+        }
+    }
+
+    /**
+     * Check that the cursor can be resumed by the caller, and is consistent with its service.
+     *
+     * <p>
+     * The URL of the listing must be one of the service for the kind of the cursor, while a
+     * search cursor must have a search string. The URL of the page, if any, must use HTTP(S) and
+     * be on the host of the {@link StreamingService#getBaseUrl() service} or of the listing, or
+     * on one of their subdomains.
+     * </p>
+     *
+     * @param expectedKind the kind of listing the caller can resume
+     * @return the service of the cursor
+     * @throws ParsingException    if the cursor is not of the expected kind or is not consistent
+     *                             with its service
+     * @throws ExtractionException if there is no service with the ID of the cursor
+     */
+    @Nonnull
+    public StreamingService requireService(@Nonnull final Kind expectedKind)
+            throws ExtractionException {
+        if (kind != expectedKind) {
+            throw new ParsingException("Expected a " + expectedKind + " cursor, but got a "
+                    + kind + " one");
+        }
+        final StreamingService service = NewPipe.getService(serviceId);
+
+        if (kind == Kind.SEARCH) {
+            if (id == null) {
+                throw new ParsingException("Search cursor without a search string");
+            }
+        } else if (isNullOrEmpty(url) || !acceptsListing(service)) {
+            throw new ParsingException("Not a " + kind + " URL of "
+                    + service.getServiceInfo().getName() + ": " + url);
+        }
+
+        final String pageUrl = page.getUrl();
+        if (!isNullOrEmpty(pageUrl) && !isOnSiteOf(pageUrl, service.getBaseUrl())
+                && !isOnSiteOf(pageUrl, getListingUrl(service))) {
+            throw new ParsingException("The page is not on the site of the listing: " + pageUrl);
+        }
+        return service;
+    }
+
+    private boolean acceptsListing(@Nonnull final StreamingService service)
+            throws ExtractionException {
+        switch (kind) {
+            case CHANNEL:
+                return accepts(service.getChannelLHFactory());
+            case PLAYLIST:
+                return accepts(service.getPlaylistLHFactory());
+            case COMMENTS:
+                return accepts(service.getCommentsLHFactory());
+            case KIOSK:
+                try {
+                    service.getKioskList().getKioskIdByUrl(url);
+                    return true;
+                } catch (final ExtractionException e) {
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+    private boolean accepts(@Nullable final ListLinkHandlerFactory factory)
+            throws ParsingException {
+        return factory != null && factory.acceptUrl(url);
+    }
+
+    /**
+     * @return the URL of the listing, which is rebuilt from the search string and the filters
+     * for {@link Kind#SEARCH}, as the one of the cursor is not used to fetch search pages
+     */
+    @Nonnull
+    private String getListingUrl(@Nonnull final StreamingService service)
+            throws ParsingException {
+        if (kind == Kind.SEARCH) {
+            return service.getSearchQHFactory().fromQuery(id, contentFilters, sortFilter)
+                    .getUrl();
+        }
+        return Objects.requireNonNull(url);
+    }
+
+    /**
+     * @return whether the URL uses HTTP(S) and its host is the one of the site URL, without
+     * {@code www.}, or one of its subdomains
+     */
+    private static boolean isOnSiteOf(@Nonnull final String url, @Nonnull final String siteUrl) {
+        try {
+            final URL parsed = new URL(url);
+            final String protocol = parsed.getProtocol();
+            final String host = parsed.getHost().toLowerCase(Locale.ROOT);
+            final String site = new URL(siteUrl).getHost().toLowerCase(Locale.ROOT)
+                    .replaceFirst("^www\\.", "");
+            return (protocol.equals("http") || protocol.equals("https")) && !site.isEmpty()
+                    && (host.equals(site) || host.endsWith("." + site));
+        } catch (final MalformedURLException e) {
+            return false;
+        }
+    }
+
+    public int getServiceId() {
+        return serviceId;
+    }
+
+    @Nonnull
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Nullable
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the ID of the listing, which is the search string for {@link Kind#SEARCH}
+     */
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    @Nonnull
+    public List<String> getContentFilters() {
+        return contentFilters;
+    }
+
+    @Nullable
+    public String getSortFilter() {
+        return sortFilter;
+    }
+
+    @Nonnull
+    public Page getPage() {
+        return page;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Encoding
+    //////////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * Encode the cursor into a string which only contains URL-safe Base64 characters, without
+     * padding.
+     *
+     * @return the encoded cursor
+     */
+    @Nonnull
+    public String encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            writeVarInt(output, serviceId);
+            writeVarInt(output, kind.code);
+            writeString(output, url);
+            writeString(output, id);
+            writeVarInt(output, contentFilters.size());
+            for (final String contentFilter : contentFilters) {
+                writeString(output, contentFilter);
+            }
+            writeString(output, sortFilter);
+
+            writeString(output, page.getUrl());
+            writeString(output, page.getId());
+            final List<String> ids = page.getIds();
+            writeVarInt(output, ids == null ? 0 : ids.size() + 1);
+            if (ids != null) {
+                for (final String pageId : ids) {
+                    writeString(output, pageId);
+                }
+            }
+            final Map<String, String> cookies = page.getCookies();
+            writeVarInt(output, cookies == null ? 0 : cookies.size() + 1);
+            if (cookies != null) {
+                for (final Map.Entry<String, String> cookie : cookies.entrySet()) {
+                    writeString(output, cookie.getKey());
+                    writeString(output, cookie.getValue());
+                }
+            }
+            writeBytes(output, page.getBody());
+        } catch (final IOException e) {
+            // Can't happen, the output is in memory
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decode a cursor encoded by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor
+     * @return the decoded cursor
+     * @throws ParsingException if the cursor is malformed or was encoded with an unsupported
+     *                          version
+     */
+    @Nonnull
+    public static PageCursor decode(@Nonnull final String encoded) throws ParsingException {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded);
+        } catch (final IllegalArgumentException e) {
+            throw new ParsingException("Malformed cursor", e);
+        }
+
+        final ByteArrayInputStream inputBytes = new ByteArrayInputStream(bytes);
+        try (DataInputStream input = new DataInputStream(inputBytes)) {
+            final int version = input.readUnsignedByte();
+            if (version != VERSION) {
+                throw new ParsingException("Unsupported cursor version: " + version);
+            }
+            final int serviceId = readVarInt(input);
+            final Kind kind = Kind.fromCode(readVarInt(input));
+            final String url = readString(input, inputBytes);
+            final String id = readString(input, inputBytes);
+            final int contentFilterCount = readLength(input, inputBytes);
+            final List<String> contentFilters = new ArrayList<>(contentFilterCount);
+            for (int i = 0; i < contentFilterCount; i++) {
+                contentFilters.add(readString(input, inputBytes));
+            }
+            final String sortFilter = readString(input, inputBytes);
+
+            final String pageUrl = readString(input, inputBytes);
+            final String pageId = readString(input, inputBytes);
+            final int idCount = readLength(input, inputBytes) - 1;
+            List<String> ids = null;
+            if (idCount >= 0) {
+                ids = new ArrayList<>(idCount);
+                for (int i = 0; i < idCount; i++) {
+                    ids.add(readString(input, inputBytes));
+                }
+            }
+            final int cookieCount = readLength(input, inputBytes) - 1;
+            Map<String, String> cookies = null;
+            if (cookieCount >= 0) {
+                cookies = new LinkedHashMap<>();
+                for (int i = 0; i < cookieCount; i++) {
+                    cookies.put(readString(input, inputBytes), readString(input, inputBytes));
+                }
+            }
+            final byte[] body = readBytes(input, inputBytes);
+
+            if (inputBytes.available() > 0) {
+                throw new ParsingException("Malformed cursor: trailing bytes");
+            }
+            return new PageCursor(serviceId, kind, url, id, contentFilters, sortFilter,
+                    new Page(pageUrl, pageId, ids, cookies, body));
+        } catch (final EOFException e) {
+            throw new ParsingException("Malformed cursor: truncated", e);
+        } catch (final IOException e) {
+            throw new ParsingException("Malformed cursor", e);
+        }
+    }
+
+    private static void writeVarInt(@Nonnull final DataOutputStream output, final int value)
+            throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private static int readVarInt(@Nonnull final DataInputStream input)
+            throws IOException, ParsingException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ParsingException("Malformed cursor: variable-length integer too long");
+    }
+
+    /**
+     * Read a length, which can't be greater than the number of remaining bytes as every
+     * element takes at least one byte. This avoids allocating huge arrays for malformed cursors.
+     */
+    private static int readLength(@Nonnull final DataInputStream input,
+                                  @Nonnull final ByteArrayInputStream inputBytes)
+            throws IOException, ParsingException {
+        final int length = readVarInt(input);
+        if (length < 0 || length > inputBytes.available() + 1) {
+            throw new ParsingException("Malformed cursor: invalid length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Write nullable bytes, prefixed by their length plus one, or 0 if they are {@code null}.
+     */
+    private static void writeBytes(@Nonnull final DataOutputStream output,
+                                   @Nullable final byte[] value) throws IOException {
+        if (value == null) {
+            writeVarInt(output, 0);
+        } else {
+            writeVarInt(output, value.length + 1);
+            output.write(value);
+        }
+    }
+
+    @Nullable
+    private static byte[] readBytes(@Nonnull final DataInputStream input,
+                                    @Nonnull final ByteArrayInputStream inputBytes)
+            throws IOException, ParsingException {
+        final int length = readLength(input, inputBytes) - 1;
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        input.readFully(value);
+        return value;
+    }
+
+    private static void writeString(@Nonnull final DataOutputStream output,
+                                    @Nullable final String value) throws IOException {
+        writeBytes(output, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    private static String readString(@Nonnull final DataInputStream input,
+                                     @Nonnull final ByteArrayInputStream inputBytes)
+            throws IOException, ParsingException {
+        final byte[] value = readBytes(input, inputBytes);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
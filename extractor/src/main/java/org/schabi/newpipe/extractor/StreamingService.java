@@ -23,9 +23,13 @@ import org.schabi.newpipe.extractor.subscription.SubscriptionExtractor;
 import org.schabi.newpipe.extractor.suggestion.SuggestionExtractor;
 import org.schabi.newpipe.extractor.utils.Utils;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /*
  * Copyright (C) Christian Schabesberger 2018 <chris.schabesberger@mailbox.org>
@@ -288,21 +292,68 @@ public abstract class StreamingService {
      * @return the link type of url
      */
     public final LinkType getLinkTypeByUrl(final String url) throws ParsingException {
-        final String polishedUrl = Utils.followGoogleRedirectIfNeeded(url);
+        final UrlRouter.Route route = route(Utils.followGoogleRedirectIfNeeded(url));
+        return route == null ? LinkType.NONE : route.getLinkType();
+    }
 
+    /**
+     * Same as {@link #getLinkTypeByUrl(String)}, but also keeps the {@link LinkHandlerFactory}
+     * which accepted the url.
+     *
+     * @param polishedUrl the url, already without Google search redirects
+     * @return the {@link UrlRouter.Route route} of the url, or {@code null} if this service can't
+     * handle it
+     */
+    @Nullable
+    final UrlRouter.Route route(final String polishedUrl) throws ParsingException {
         final LinkHandlerFactory sH = getStreamLHFactory();
+        if (sH != null && sH.acceptUrl(polishedUrl)) {
+            return new UrlRouter.Route(this, LinkType.STREAM, sH, polishedUrl);
+        }
+
         final LinkHandlerFactory cH = getChannelLHFactory();
-        final LinkHandlerFactory pH = getPlaylistLHFactory();
+        if (cH != null && cH.acceptUrl(polishedUrl)) {
+            return new UrlRouter.Route(this, LinkType.CHANNEL, cH, polishedUrl);
+        }
 
-        if (sH != null && sH.acceptUrl(polishedUrl)) {
-            return LinkType.STREAM;
-        } else if (cH != null && cH.acceptUrl(polishedUrl)) {
-            return LinkType.CHANNEL;
-        } else if (pH != null && pH.acceptUrl(polishedUrl)) {
-            return LinkType.PLAYLIST;
-        } else {
-            return LinkType.NONE;
+        final LinkHandlerFactory pH = getPlaylistLHFactory();
+        if (pH != null && pH.acceptUrl(polishedUrl)) {
+            return new UrlRouter.Route(this, LinkType.PLAYLIST, pH, polishedUrl);
         }
+
+        return null;
+    }
+
+    /**
+     * Routes all the given urls to this service and normalises them, de-duplicating the urls
+     * which point to the same content.
+     *
+     * @param urls the urls to route, which can be Google search redirects
+     * @param pool the pool on which the urls are resolved in parallel, or {@code null} to resolve
+     *             them sequentially on the calling thread
+     * @return the {@link UrlRouter.BatchResult result} of the batch, in which the urls this
+     * service can't handle are errors
+     * @see NewPipe#routeUrls(Collection, ForkJoinPool)
+     */
+    public UrlRouter.BatchResult routeUrls(final Collection<String> urls,
+                                           @Nullable final ForkJoinPool pool) {
+        return new UrlRouter(Collections.singletonList(this)).routeAll(urls, pool);
+    }
+
+    /**
+     * Returns the hosts of all the urls which the link handler factories of this service can
+     * accept, used by {@link UrlRouter} to only ask the services owning the host of an url.
+     *
+     * <p>
+     * Services which can handle urls of arbitrary hosts (e.g. because they support multiple
+     * instances or custom domains) must return an empty set, which is the default.
+     * </p>
+     *
+     * @return the lowercase hosts supported by this service, or an empty set if any host may be
+     * supported
+     */
+    public Set<String> getSupportedHosts() {
+        return Collections.emptySet();
     }
 
     /*//////////////////////////////////////////////////////////////////////////
@@ -334,7 +385,14 @@ public abstract class StreamingService {
      * </ul>
      */
     public Localization getLocalization() {
-        final Localization preferredLocalization = NewPipe.getPreferredLocalization();
+        return getLocalization(NewPipe.getContext());
+    }
+
+    /**
+     * Same as {@link #getLocalization()}, using the localization preferred in the given context.
+     */
+    public Localization getLocalization(@Nonnull final ExtractorContext context) {
+        final Localization preferredLocalization = context.getLocalization();
 
         // Check the localization's language and country
         if (getSupportedLocalizations().contains(preferredLocalization)) {
@@ -361,7 +419,14 @@ public abstract class StreamingService {
      * </ul>
      */
     public ContentCountry getContentCountry() {
-        final ContentCountry preferredContentCountry = NewPipe.getPreferredContentCountry();
+        return getContentCountry(NewPipe.getContext());
+    }
+
+    /**
+     * Same as {@link #getContentCountry()}, using the country preferred in the given context.
+     */
+    public ContentCountry getContentCountry(@Nonnull final ExtractorContext context) {
+        final ContentCountry preferredContentCountry = context.getContentCountry();
 
         if (getSupportedCountries().contains(preferredContentCountry)) {
             return preferredContentCountry;
@@ -0,0 +1,349 @@
+package org.schabi.newpipe.extractor;
+
+import org.schabi.newpipe.extractor.StreamingService.LinkType;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.linkhandler.LinkHandler;
+import org.schabi.newpipe.extractor.linkhandler.LinkHandlerFactory;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
+import org.schabi.newpipe.extractor.utils.Utils;
+
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the {@link StreamingService} which can handle a URL, using an index built from the hosts
+ * each service declares in {@link StreamingService#getSupportedHosts()}.
+ *
+ * <p>
+ * Only the services owning the host of a URL are asked whether they accept it, together with the
+ * services which don't declare any host because they can handle URLs of arbitrary hosts (e.g.
+ * PeerTube instances or Bandcamp custom domains). Services are always asked in the order in which
+ * they were given, so the result is the same as asking every service in turn.
+ * </p>
+ *
+ * <p>
+ * URLs whose host can't be determined (e.g. {@code vnd.youtube:} links) are offered to all
+ * services.
+ * </p>
+ */
+public final class UrlRouter {
+
+    /**
+     * The result of routing a URL: the service which accepted it, what it points to and the
+     * {@link LinkHandlerFactory} which accepted it.
+     */
+    public static final class Route {
+        private final StreamingService service;
+        private final LinkType linkType;
+        private final LinkHandlerFactory linkHandlerFactory;
+        private final String url;
+        @Nullable
+        private String id;
+        @Nullable
+        private LinkHandler linkHandler;
+
+        Route(@Nonnull final StreamingService service,
+              @Nonnull final LinkType linkType,
+              @Nonnull final LinkHandlerFactory linkHandlerFactory,
+              @Nonnull final String url) {
+            this.service = service;
+            this.linkType = linkType;
+            this.linkHandlerFactory = linkHandlerFactory;
+            this.url = url;
+        }
+
+        @Nonnull
+        public StreamingService getService() {
+            return service;
+        }
+
+        @Nonnull
+        public LinkType getLinkType() {
+            return linkType;
+        }
+
+        @Nonnull
+        public LinkHandlerFactory getLinkHandlerFactory() {
+            return linkHandlerFactory;
+        }
+
+        /**
+         * @return the routed URL, without Google search redirects
+         */
+        @Nonnull
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Get the id of the content the URL points to.
+         *
+         * <p>
+         * The id is extracted on the first call only, as some services (e.g. SoundCloud for
+         * channels and playlists) need a network request to resolve it.
+         * </p>
+         *
+         * @return the id of the content the URL points to
+         */
+        @Nonnull
+        public String getId() throws ParsingException {
+            if (id == null) {
+                id = linkHandlerFactory.getId(url);
+            }
+            return id;
+        }
+
+        /**
+         * Get the {@link LinkHandler} of the URL, whose {@link LinkHandler#getUrl() URL} is the
+         * normalised URL of the content.
+         *
+         * <p>
+         * Like the id, the link handler is only built on the first call.
+         * </p>
+         *
+         * @return the link handler of the URL
+         */
+        @Nonnull
+        public LinkHandler getLinkHandler() throws ParsingException {
+            if (linkHandler == null) {
+                linkHandler = linkHandlerFactory.fromUrl(url);
+            }
+            return linkHandler;
+        }
+
+        /**
+         * Whether this route and the given one point to the same content, e.g. a
+         * {@code youtu.be} link and a {@code youtube.com/watch?v=} link of the same video.
+         *
+         * @param other the route to compare to
+         * @return whether both routes point to the same content
+         */
+        public boolean isEquivalentTo(@Nonnull final Route other) throws ParsingException {
+            return getKey().equals(other.getKey());
+        }
+
+        @Nonnull
+        private String getKey() throws ParsingException {
+            return service.getServiceId() + ":" + linkType + ":" + getLinkHandler().getUrl();
+        }
+    }
+
+    /**
+     * The result of routing several URLs at once with
+     * {@link UrlRouter#routeAll(Collection, ForkJoinPool)}.
+     */
+    public static final class BatchResult {
+        private final Map<String, Route> routes;
+        private final List<Route> distinctRoutes;
+        private final Map<String, Throwable> errors;
+
+        BatchResult(@Nonnull final Map<String, Route> routes,
+                    @Nonnull final List<Route> distinctRoutes,
+                    @Nonnull final Map<String, Throwable> errors) {
+            this.routes = Collections.unmodifiableMap(routes);
+            this.distinctRoutes = Collections.unmodifiableList(distinctRoutes);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * @return the routes of all the URLs which could be resolved, keyed by the given URL, in
+         * the order in which the URLs were given
+         */
+        @Nonnull
+        public Map<String, Route> getRoutes() {
+            return routes;
+        }
+
+        /**
+         * @return one route for each distinct content, i.e. without the routes
+         * {@link Route#isEquivalentTo(Route) equivalent} to a previous one, in the order in which
+         * the URLs were given
+         */
+        @Nonnull
+        public List<Route> getDistinctRoutes() {
+            return distinctRoutes;
+        }
+
+        /**
+         * @return the errors of the URLs which could not be resolved, keyed by the given URL
+         */
+        @Nonnull
+        public Map<String, Throwable> getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * The outcome of routing a single URL in {@link UrlRouter#routeAll(Collection, ForkJoinPool)}:
+     * either its route, with the key of the content it points to, or the error which prevented it.
+     */
+    private static final class Resolution {
+        @Nullable
+        private final Route route;
+        @Nullable
+        private final String key;
+        @Nullable
+        private final Throwable error;
+
+        private Resolution(@Nullable final Route route,
+                           @Nullable final String key,
+                           @Nullable final Throwable error) {
+            this.route = route;
+            this.key = key;
+            this.error = error;
+        }
+
+        static Resolution success(@Nonnull final Route route, @Nonnull final String key) {
+            return new Resolution(route, key, null);
+        }
+
+        static Resolution failure(@Nonnull final Throwable error) {
+            return new Resolution(null, null, error);
+        }
+    }
+
+    private final List<StreamingService> services;
+    private final List<StreamingService> anyHostServices;
+    private final Map<String, List<StreamingService>> servicesByHost;
+
+    public UrlRouter(@Nonnull final List<StreamingService> services) {
+        this.services = Collections.unmodifiableList(new ArrayList<>(services));
+
+        final List<StreamingService> anyHost = new ArrayList<>();
+        final Map<String, List<StreamingService>> byHost = new HashMap<>();
+        for (final StreamingService service : services) {
+            final Set<String> hosts = service.getSupportedHosts();
+            if (hosts.isEmpty()) {
+                anyHost.add(service);
+                // This service has to be asked for every host already indexed too
+                byHost.values().forEach(candidates -> candidates.add(service));
+                continue;
+            }
+
+            for (final String host : hosts) {
+                byHost.computeIfAbsent(host.toLowerCase(Locale.ROOT), h -> new ArrayList<>(anyHost))
+                        .add(service);
+            }
+        }
+
+        this.anyHostServices = Collections.unmodifiableList(anyHost);
+        this.servicesByHost = new HashMap<>();
+        byHost.forEach((host, candidates) ->
+                servicesByHost.put(host, Collections.unmodifiableList(candidates)));
+    }
+
+    /**
+     * Figures out which service can handle the URL and what the URL is pointing to.
+     *
+     * @param url the URL to route, which can be a Google search redirect
+     * @return the {@link Route} of the URL, or {@code null} if no service can handle it
+     */
+    @Nullable
+    public Route route(final String url) throws ParsingException {
+        final String polishedUrl = Utils.followGoogleRedirectIfNeeded(url);
+        for (final StreamingService service : getCandidates(polishedUrl)) {
+            final Route route = service.route(polishedUrl);
+            if (route != null) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Routes all the given URLs and resolves their {@link LinkHandler}s, which normalises them.
+     *
+     * <p>
+     * Every URL is resolved once, even if it is given several times. URLs which can't be handled
+     * by any service, or whose link handler can't be built, don't stop the batch but are reported
+     * in {@link BatchResult#getErrors()}.
+     * </p>
+     *
+     * @param urls the URLs to route, which can be Google search redirects
+     * @param pool the pool on which the URLs are resolved in parallel, or {@code null} to resolve
+     *             them sequentially on the calling thread
+     * @return the routes of the URLs and the errors of the ones which couldn't be resolved
+     */
+    @Nonnull
+    public BatchResult routeAll(@Nonnull final Collection<String> urls,
+                                @Nullable final ForkJoinPool pool) {
+        final List<String> uniqueUrls = new ArrayList<>(new LinkedHashSet<>(urls));
+
+        final List<Resolution> results;
+        if (pool == null) {
+            results = uniqueUrls.stream()
+                    .map(this::routeAndResolve)
+                    .collect(Collectors.toList());
+        } else {
+            // The parallel stream uses the pool it's run on, instead of the common pool
+            results = pool.submit(() -> uniqueUrls.parallelStream()
+                    .map(this::routeAndResolve)
+                    .collect(Collectors.toList()))
+                    .join();
+        }
+
+        final Map<String, Route> routes = new LinkedHashMap<>();
+        final Map<String, Throwable> errors = new LinkedHashMap<>();
+        final Map<String, Route> distinctRoutes = new LinkedHashMap<>();
+        for (int i = 0; i < uniqueUrls.size(); i++) {
+            final String url = uniqueUrls.get(i);
+            final Resolution result = results.get(i);
+            if (result.route != null) {
+                routes.put(url, result.route);
+                distinctRoutes.putIfAbsent(result.key, result.route);
+            } else {
+                errors.put(url, result.error);
+            }
+        }
+
+        return new BatchResult(routes, new ArrayList<>(distinctRoutes.values()), errors);
+    }
+
+    /**
+     * @return the {@link Route} of the URL with its link handler already built, or the
+     * {@link Throwable} which prevented it
+     */
+    @Nonnull
+    private Resolution routeAndResolve(final String url) {
+        try {
+            final Route route = route(url);
+            if (route == null) {
+                return Resolution.failure(new ExtractionException(
+                        "No service can handle the url = \"" + url + "\""));
+            }
+            return Resolution.success(route, route.getKey());
+        } catch (final Exception e) {
+            return Resolution.failure(e);
+        }
+    }
+
+    @Nonnull
+    private List<StreamingService> getCandidates(final String polishedUrl) {
+        final String host;
+        try {
+            host = TokenizedUrl.parse(polishedUrl).getHost();
+        } catch (final MalformedURLException e) {
+            return services;
+        }
+
+        if (Utils.isNullOrEmpty(host)) {
+            return services;
+        }
+        return servicesByHost.getOrDefault(host.toLowerCase(Locale.ROOT), anyHostServices);
+    }
+}
@@ -1,9 +1,11 @@
 package org.schabi.newpipe.extractor.channel;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.PageCursor;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
@@ -12,6 +14,8 @@ import org.schabi.newpipe.extractor.utils.ExtractorHelper;
 
 import java.io.IOException;
 
+import javax.annotation.Nonnull;
+
 /*
  * Created by Christian Schabesberger on 31.07.16.
  *
@@ -55,6 +59,16 @@ public class ChannelInfo extends ListInfo<StreamInfoItem> {
         return getInfo(extractor);
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, extracting with the given context instead
+     * of the one of the current thread.
+     */
+    public static ChannelInfo getInfo(@Nonnull final ExtractorContext context,
+                                      @Nonnull final StreamingService service,
+                                      final String url) throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, url));
+    }
+
     public static InfoItemsPage<StreamInfoItem> getMoreItems(final StreamingService service,
                                                              final String url,
                                                              final Page page)
@@ -62,6 +76,20 @@ public class ChannelInfo extends ListInfo<StreamInfoItem> {
         return service.getChannelExtractor(url).getPage(page);
     }
 
+    /**
+     * Same as {@link #getMoreItems(StreamingService, String, Page)}, for the page of
+     * a {@link PageCursor} of a channel.
+     *
+     * @throws org.schabi.newpipe.extractor.exceptions.ParsingException if the cursor is not of
+     *                                                                  a channel or was tampered
+     *                                                                  with
+     */
+    public static InfoItemsPage<StreamInfoItem> getMoreItems(@Nonnull final PageCursor cursor)
+            throws IOException, ExtractionException {
+        return getMoreItems(cursor.requireService(PageCursor.Kind.CHANNEL), cursor.getUrl(),
+                cursor.getPage());
+    }
+
     public static ChannelInfo getInfo(final ChannelExtractor extractor)
             throws IOException, ExtractionException {
 
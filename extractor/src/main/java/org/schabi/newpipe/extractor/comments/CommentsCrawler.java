@@ -0,0 +1,363 @@
+package org.schabi.newpipe.extractor.comments;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Crawls the whole comment tree of a {@link CommentsExtractor}.
+ *
+ * <p>
+ * The pages of top-level comments are fetched one after another on the calling thread, while the
+ * reply threads found on them are expanded concurrently, with at most
+ * {@link Builder#parallelism(int) parallelism} threads being expanded at the same time. Each reply
+ * thread is fetched with its own extractor of the same service and URL, because extractors are not
+ * thread-safe.
+ * </p>
+ *
+ * <p>
+ * The comments are passed to a consumer as soon as their page has been fetched, so they are not
+ * in the order of the comment tree. The consumer is never called concurrently, so it
+ * doesn't need to be thread-safe.
+ * </p>
+ *
+ * <p>
+ * The crawler works with every comments extractor; the ones whose comments have no
+ * {@link CommentsInfoItem#getReplies() replies} are simply crawled page after page.
+ * </p>
+ */
+public final class CommentsCrawler {
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            DaemonExecutors.newPool("Comments crawler", 4);
+
+    private final int parallelism;
+    private final long maxComments;
+    private final ExecutorService executor;
+
+    /**
+     * What happened during a crawl.
+     */
+    public static final class Result {
+        private final long commentCount;
+        private final long pageCount;
+        private final boolean budgetExhausted;
+        private final List<Throwable> errors;
+
+        Result(final long commentCount,
+               final long pageCount,
+               final boolean budgetExhausted,
+               @Nonnull final List<Throwable> errors) {
+            this.commentCount = commentCount;
+            this.pageCount = pageCount;
+            this.budgetExhausted = budgetExhausted;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * @return the number of comments passed to the consumer
+         */
+        public long getCommentCount() {
+            return commentCount;
+        }
+
+        /**
+         * @return the number of pages fetched, including the initial page
+         */
+        public long getPageCount() {
+            return pageCount;
+        }
+
+        /**
+         * @return whether the crawl stopped because the maximum number of comments was reached
+         */
+        public boolean isBudgetExhausted() {
+            return budgetExhausted;
+        }
+
+        /**
+         * @return the errors of the pages and the errors which prevented reply threads from being
+         * expanded completely
+         */
+        @Nonnull
+        public List<Throwable> getErrors() {
+            return errors;
+        }
+    }
+
+    private CommentsCrawler(@Nonnull final Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.maxComments = builder.maxComments;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Crawl the comments of an extractor, fetching its page first if needed.
+     *
+     * @param extractor the extractor of the comments
+     * @param consumer  the consumer of the comments, which gets the comment to which each
+     *                  comment replies, or {@code null} if it is a top-level comment, and the
+     *                  comment
+     * @return what happened during the crawl
+     * @throws IOException         if the page or a page of top-level comments could not be
+     *                             fetched, or if the crawl was interrupted
+     * @throws ExtractionException if the page or a page of top-level comments could not be
+     *                             extracted
+     */
+    @Nonnull
+    public Result crawl(@Nonnull final CommentsExtractor extractor,
+                        @Nonnull final BiConsumer<CommentsInfoItem, CommentsInfoItem> consumer)
+            throws IOException, ExtractionException {
+        final Crawl crawl = new Crawl(extractor, consumer);
+        try {
+            return crawl.run();
+        } finally {
+            crawl.cancel();
+        }
+    }
+
+    /**
+     * The state of a single call to {@link #crawl(CommentsExtractor, BiConsumer)}. All the fields
+     * are guarded by the instance.
+     */
+    private final class Crawl {
+        private final CommentsExtractor extractor;
+        private final BiConsumer<CommentsInfoItem, CommentsInfoItem> consumer;
+        private final ExtractorContext context;
+
+        private final Deque<Runnable> queuedThreads = new ArrayDeque<>();
+        private int runningThreads = 0;
+        /**
+         * The threads of the executor which are expanding reply threads, to interrupt them if the
+         * crawl is cancelled.
+         */
+        private final Set<Thread> expandingThreads = new HashSet<>();
+        private long commentCount = 0;
+        private long pageCount = 0;
+        private boolean budgetExhausted = false;
+        private boolean stopped = false;
+        private final List<Throwable> errors = new ArrayList<>();
+
+        Crawl(@Nonnull final CommentsExtractor extractor,
+              @Nonnull final BiConsumer<CommentsInfoItem, CommentsInfoItem> consumer) {
+            this.extractor = extractor;
+            this.consumer = consumer;
+            this.context = extractor.getContext();
+        }
+
+        @Nonnull
+        Result run() throws IOException, ExtractionException {
+            InfoItemsPage<CommentsInfoItem> page = context.run(() -> {
+                extractor.fetchPage();
+                return extractor.isCommentsDisabled() ? null : extractor.getInitialPage();
+            });
+
+            while (page != null && onPage(null, page)) {
+                final Page nextPage = page.getNextPage();
+                page = context.run(() -> extractor.getPage(nextPage));
+            }
+
+            synchronized (this) {
+                try {
+                    while (runningThreads > 0 || !queuedThreads.isEmpty()) {
+                        wait();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while expanding replies");
+                }
+                return new Result(commentCount, pageCount, budgetExhausted,
+                        new ArrayList<>(errors));
+            }
+        }
+
+        /**
+         * Pass the comments of a page to the consumer and queue their reply threads.
+         *
+         * @return whether the next page should be fetched
+         */
+        private boolean onPage(@Nullable final CommentsInfoItem parent,
+                               @Nonnull final InfoItemsPage<CommentsInfoItem> page) {
+            synchronized (this) {
+                pageCount++;
+                errors.addAll(page.getErrors());
+            }
+
+            for (final CommentsInfoItem comment : page.getItems()) {
+                if (!onComment(parent, comment)) {
+                    return false;
+                }
+                if (Page.isValid(comment.getReplies())) {
+                    queueThread(comment);
+                }
+            }
+            return page.hasNextPage() && !isStopped();
+        }
+
+        /**
+         * @return whether more comments can be passed to the consumer
+         */
+        private synchronized boolean onComment(@Nullable final CommentsInfoItem parent,
+                                               @Nonnull final CommentsInfoItem comment) {
+            if (stopped) {
+                return false;
+            }
+
+            consumer.accept(parent, comment);
+            commentCount++;
+            if (commentCount >= maxComments) {
+                budgetExhausted = true;
+                stop();
+            }
+            return !stopped;
+        }
+
+        private synchronized boolean isStopped() {
+            return stopped;
+        }
+
+        synchronized void stop() {
+            stopped = true;
+            queuedThreads.clear();
+            notifyAll();
+        }
+
+        /**
+         * Stop the crawl and interrupt the reply threads which are still being expanded, which
+         * only happens if the crawl failed.
+         */
+        synchronized void cancel() {
+            stop();
+            expandingThreads.forEach(Thread::interrupt);
+        }
+
+        private synchronized void queueThread(@Nonnull final CommentsInfoItem parent) {
+            queuedThreads.add(() -> expandThread(parent));
+            startQueuedThreads();
+        }
+
+        private synchronized void startQueuedThreads() {
+            while (!stopped && runningThreads < parallelism && !queuedThreads.isEmpty()) {
+                final Runnable thread = queuedThreads.poll();
+                runningThreads++;
+                try {
+                    executor.execute(() -> {
+                        onThreadStarted();
+                        try {
+                            thread.run();
+                        } finally {
+                            onThreadFinished();
+                        }
+                    });
+                } catch (final RejectedExecutionException e) {
+                    runningThreads--;
+                    errors.add(e);
+                }
+            }
+            notifyAll();
+        }
+
+        private synchronized void onThreadStarted() {
+            expandingThreads.add(Thread.currentThread());
+        }
+
+        private synchronized void onThreadFinished() {
+            expandingThreads.remove(Thread.currentThread());
+            runningThreads--;
+            startQueuedThreads();
+        }
+
+        /**
+         * Fetch all the pages of a reply thread, with a new extractor.
+         */
+        private void expandThread(@Nonnull final CommentsInfoItem parent) {
+            try {
+                final CommentsExtractor replyExtractor = context.run(() -> {
+                    final CommentsExtractor newExtractor = extractor.getService()
+                            .getCommentsExtractor(extractor.getLinkHandler());
+                    newExtractor.forceLocalization(extractor.getExtractorLocalization());
+                    newExtractor.forceContentCountry(extractor.getExtractorContentCountry());
+                    return newExtractor;
+                });
+
+                Page nextPage = parent.getReplies();
+                while (!isStopped()) {
+                    final Page page = nextPage;
+                    final InfoItemsPage<CommentsInfoItem> replies =
+                            context.run(() -> replyExtractor.getPage(page));
+                    if (!onPage(parent, replies)) {
+                        break;
+                    }
+                    nextPage = replies.getNextPage();
+                }
+            } catch (final Exception e) {
+                synchronized (this) {
+                    errors.add(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A builder of {@link CommentsCrawler}s.
+     */
+    public static final class Builder {
+        private int parallelism = 4;
+        private long maxComments = Long.MAX_VALUE;
+        private ExecutorService executor = DEFAULT_EXECUTOR;
+
+        /**
+         * The maximum number of reply threads expanded at the same time, 4 by default.
+         */
+        public Builder parallelism(final int parallelismToSet) {
+            if (parallelismToSet < 1) {
+                throw new IllegalArgumentException("parallelism must be at least 1");
+            }
+            this.parallelism = parallelismToSet;
+            return this;
+        }
+
+        /**
+         * The maximum number of comments, including replies, passed to the consumer, after which
+         * the crawl stops. There is no maximum by default.
+         */
+        public Builder maxComments(final long maxCommentsToSet) {
+            if (maxCommentsToSet < 1) {
+                throw new IllegalArgumentException("maxComments must be at least 1");
+            }
+            this.maxComments = maxCommentsToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which the reply threads are expanded. By default, a pool of four daemon
+         * threads shared by all the crawlers, so a {@link #parallelism(int) parallelism} above
+         * four needs an executor with more threads. The executor is never shut down.
+         */
+        public Builder executor(@Nonnull final ExecutorService executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        public CommentsCrawler build() {
+            return new CommentsCrawler(this);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.schabi.newpipe.extractor.comments;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.PageCursor;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
@@ -11,6 +13,8 @@ import org.schabi.newpipe.extractor.utils.ExtractorHelper;
 
 import java.io.IOException;
 
+import javax.annotation.Nonnull;
+
 public final class CommentsInfo extends ListInfo<CommentsInfoItem> {
 
     private CommentsInfo(
@@ -29,6 +33,16 @@ public final class CommentsInfo extends ListInfo<CommentsInfoItem> {
         return getInfo(service.getCommentsExtractor(url));
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, extracting with the given context instead
+     * of the one of the current thread.
+     */
+    public static CommentsInfo getInfo(@Nonnull final ExtractorContext context,
+                                       @Nonnull final StreamingService service,
+                                       final String url) throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, url));
+    }
+
     public static CommentsInfo getInfo(final CommentsExtractor commentsExtractor)
             throws IOException, ExtractionException {
         // for services which do not have a comments extractor
@@ -79,6 +93,20 @@ public final class CommentsInfo extends ListInfo<CommentsInfoItem> {
         return service.getCommentsExtractor(url).getPage(page);
     }
 
+    /**
+     * Same as {@link #getMoreItems(StreamingService, String, Page)}, for the page of
+     * a {@link PageCursor} of a comments listing.
+     *
+     * @throws org.schabi.newpipe.extractor.exceptions.ParsingException if the cursor is not of
+     *                                                                  a comments listing or was
+     *                                                                  tampered with
+     */
+    public static InfoItemsPage<CommentsInfoItem> getMoreItems(
+            @Nonnull final PageCursor cursor) throws IOException, ExtractionException {
+        return getMoreItems(cursor.requireService(PageCursor.Kind.COMMENTS), cursor.getUrl(),
+                cursor.getPage());
+    }
+
     private transient CommentsExtractor commentsExtractor;
     private boolean commentsDisabled = false;
     private int commentsCount;
@@ -0,0 +1,500 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} which limits the requests made with another one, per host.
+ *
+ * <p>
+ * Each host gets a {@link HostLimit}: a maximum number of concurrent requests and a token bucket
+ * allowing a number of requests per second, with bursts. Requests exceeding the limit of their
+ * host wait in the order they were made. Limits given for a domain apply to its subdomains too,
+ * which then share the same limit (e.g. a limit for {@code youtube.com} is shared by
+ * {@code www.youtube.com} and {@code m.youtube.com}); all the other hosts get the default limit
+ * each.
+ * </p>
+ *
+ * <p>
+ * When a response has the code 429 or 503 and a {@code Retry-After} header, no request is sent to
+ * its host until the given time, or for the {@link Builder#maxRetryAfter(Duration) maximum delay}
+ * if it is later. The request is then retried, if the delay is not too long and the request has
+ * not been retried too many times already; otherwise the response is returned at once.
+ * A {@link ReCaptchaException} thrown by the other downloader is rethrown at once, as retrying
+ * doesn't solve the captcha; it is only counted as a throttled response.
+ * </p>
+ *
+ * <p>
+ * The current queue depth and the wait times of each host are available with
+ * {@link #getStats()}. If {@link ExtractorContext.Metrics} are given, they are updated too.
+ * </p>
+ */
+public final class RateLimitedDownloader extends Downloader {
+    public static final String METRIC_REQUESTS = "downloader.requests";
+    public static final String METRIC_WAIT_NANOS = "downloader.wait.nanos";
+    public static final String METRIC_THROTTLED = "downloader.throttled";
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    private final Downloader delegate;
+    private final HostLimit defaultLimit;
+    private final Map<String, HostLimit> hostLimits;
+    private final int maxRetries;
+    private final long maxRetryAfterNanos;
+    @Nullable
+    private final ExtractorContext.Metrics metrics;
+    private final Clock clock;
+    private final ConcurrentMap<String, HostState> hostStates = new ConcurrentHashMap<>();
+
+    private RateLimitedDownloader(final Builder builder) {
+        this.delegate = builder.delegate;
+        this.defaultLimit = builder.defaultLimit;
+        this.hostLimits = Collections.unmodifiableMap(new HashMap<>(builder.hostLimits));
+        this.maxRetries = builder.maxRetries;
+        this.maxRetryAfterNanos = builder.maxRetryAfter.toNanos();
+        this.metrics = builder.metrics;
+        this.clock = builder.clock;
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        final HostState host = getHostState(request.url());
+        int retries = 0;
+        while (true) {
+            final long waitNanos = host.acquire();
+            if (metrics != null) {
+                metrics.increment(METRIC_REQUESTS);
+                metrics.add(METRIC_WAIT_NANOS, waitNanos);
+            }
+
+            final Response response;
+            try {
+                response = delegate.execute(request);
+            } catch (final ReCaptchaException e) {
+                host.throttled.incrementAndGet();
+                if (metrics != null) {
+                    metrics.increment(METRIC_THROTTLED);
+                }
+                throw e;
+            } finally {
+                host.release();
+            }
+
+            final long retryAfterNanos = getRetryAfterNanos(response);
+            if (retryAfterNanos < 0 || !shouldRetry(host, retryAfterNanos, retries)) {
+                return response;
+            }
+            retries++;
+        }
+    }
+
+    /**
+     * Block the host after a response asking to retry later, for the maximum delay at most.
+     *
+     * @return whether the request should be retried
+     */
+    private boolean shouldRetry(@Nonnull final HostState host,
+                                final long retryAfterNanos,
+                                final int retries) {
+        host.blockFor(Math.min(retryAfterNanos, maxRetryAfterNanos));
+        if (metrics != null) {
+            metrics.increment(METRIC_THROTTLED);
+        }
+        return retries < maxRetries && retryAfterNanos <= maxRetryAfterNanos;
+    }
+
+    /**
+     * @return the current stats of every host a request has been made to, sorted by host
+     */
+    @Nonnull
+    public Map<String, HostStats> getStats() {
+        final Map<String, HostStats> stats = new TreeMap<>();
+        hostStates.forEach((host, state) -> stats.put(host, state.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    @Nonnull
+    private HostState getHostState(final String url) {
+        String host;
+        try {
+            host = TokenizedUrl.parse(url).getHost().toLowerCase(Locale.ROOT);
+        } catch (final MalformedURLException e) {
+            host = "";
+        }
+
+        // Look for a limit for the host or one of its parent domains
+        String domain = host;
+        while (!domain.isEmpty()) {
+            final HostLimit limit = hostLimits.get(domain);
+            if (limit != null) {
+                return hostStates.computeIfAbsent(domain, d -> new HostState(limit));
+            }
+            final int dot = domain.indexOf('.');
+            domain = dot == -1 ? "" : domain.substring(dot + 1);
+        }
+        return hostStates.computeIfAbsent(host, h -> new HostState(defaultLimit));
+    }
+
+    /**
+     * @return the delay asked by the {@code Retry-After} header of a 429 or 503 response in
+     * nanoseconds, or {@code -1} if the request should not be delayed
+     */
+    private long getRetryAfterNanos(@Nonnull final Response response) {
+        if (response.responseCode() != HTTP_TOO_MANY_REQUESTS
+                && response.responseCode() != HTTP_SERVICE_UNAVAILABLE) {
+            return -1;
+        }
+
+        final String retryAfter = response.getHeader("Retry-After");
+        if (retryAfter == null) {
+            return -1;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (final NumberFormatException ignored) {
+            // Not a number of seconds, so it should be an HTTP date
+        }
+
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(),
+                    DateTimeFormatter.RFC_1123_DATE_TIME);
+            final long millis = date.toInstant().toEpochMilli() - clock.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        } catch (final DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The limit of the requests to a host.
+     */
+    public static final class HostLimit {
+        /**
+         * No limit at all.
+         */
+        public static final HostLimit UNLIMITED =
+                new HostLimit(Integer.MAX_VALUE, Double.POSITIVE_INFINITY, 1);
+
+        private final int maxConcurrentRequests;
+        private final double requestsPerSecond;
+        private final int burst;
+
+        /**
+         * @param maxConcurrentRequests the maximum number of requests sent at the same time
+         * @param requestsPerSecond     the number of requests which can be sent per second on
+         *                              average, or {@link Double#POSITIVE_INFINITY} for no limit
+         * @param burst                 the number of requests which can be sent at once after the
+         *                              host has not been used for a while
+         */
+        public HostLimit(final int maxConcurrentRequests,
+                         final double requestsPerSecond,
+                         final int burst) {
+            if (maxConcurrentRequests < 1 || !(requestsPerSecond > 0) || burst < 1) {
+                throw new IllegalArgumentException("Invalid host limit: maxConcurrentRequests="
+                        + maxConcurrentRequests + ", requestsPerSecond=" + requestsPerSecond
+                        + ", burst=" + burst);
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+    }
+
+    /**
+     * A snapshot of the requests to a host.
+     */
+    public static final class HostStats {
+        private final int queued;
+        private final int inFlight;
+        private final long requests;
+        private final long throttled;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        HostStats(final int queued,
+                  final int inFlight,
+                  final long requests,
+                  final long throttled,
+                  final long totalWaitNanos,
+                  final long maxWaitNanos) {
+            this.queued = queued;
+            this.inFlight = inFlight;
+            this.requests = requests;
+            this.throttled = throttled;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        /**
+         * @return the number of requests currently waiting to be sent
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * @return the number of requests currently sent and waiting for their response
+         */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * @return the number of requests sent, including retries
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return the number of responses asking to retry later
+         */
+        public long getThrottled() {
+            return throttled;
+        }
+
+        /**
+         * @return the total time requests waited before being sent, in nanoseconds
+         */
+        public long getTotalWaitNanos() {
+            return totalWaitNanos;
+        }
+
+        /**
+         * @return the longest time a request waited before being sent, in nanoseconds
+         */
+        public long getMaxWaitNanos() {
+            return maxWaitNanos;
+        }
+    }
+
+    /**
+     * The time source, which can be replaced in tests.
+     */
+    interface Clock {
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis();
+            }
+
+            @Override
+            public void sleepNanos(final long nanos) throws InterruptedException {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        };
+
+        long nanoTime();
+
+        long currentTimeMillis();
+
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    private final class HostState {
+        private final HostLimit limit;
+        private final Semaphore concurrency;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        // Guarded by this. Tokens become negative when requests are waiting for them.
+        private double tokens;
+        private long lastRefillNanos;
+        private long blockedUntilNanos;
+
+        HostState(@Nonnull final HostLimit limit) {
+            this.limit = limit;
+            // A fair semaphore lets requests through in the order they asked
+            this.concurrency = new Semaphore(limit.getMaxConcurrentRequests(), true);
+            this.tokens = limit.getBurst();
+            this.lastRefillNanos = clock.nanoTime();
+            this.blockedUntilNanos = lastRefillNanos;
+        }
+
+        /**
+         * Wait until a request can be sent.
+         *
+         * @return the time waited in nanoseconds
+         */
+        long acquire() throws InterruptedIOException {
+            final long start = clock.nanoTime();
+            queued.incrementAndGet();
+            try {
+                final long delay = reserveToken(start);
+                if (delay > 0) {
+                    clock.sleepNanos(delay);
+                }
+                concurrency.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send a request");
+            } finally {
+                queued.decrementAndGet();
+            }
+
+            inFlight.incrementAndGet();
+            requests.incrementAndGet();
+            final long waited = clock.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            return waited;
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+            concurrency.release();
+        }
+
+        /**
+         * Take a token from the bucket, even if there is none left, so that the requests waiting
+         * for tokens are served in order.
+         *
+         * @return the time to wait before the token is available, in nanoseconds
+         */
+        private synchronized long reserveToken(final long now) {
+            long delay = blockedUntilNanos - now;
+            if (Double.isInfinite(limit.getRequestsPerSecond())) {
+                return delay;
+            }
+
+            final double tokensPerNano = limit.getRequestsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            tokens = Math.min(limit.getBurst(), tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+            tokens -= 1;
+            if (tokens < 0) {
+                delay = Math.max(delay, (long) Math.ceil(-tokens / tokensPerNano));
+            }
+            return delay;
+        }
+
+        synchronized void blockFor(final long nanos) {
+            throttled.incrementAndGet();
+            blockedUntilNanos = Math.max(blockedUntilNanos, clock.nanoTime() + nanos);
+        }
+
+        HostStats getStats() {
+            return new HostStats(queued.get(), inFlight.get(), requests.get(), throttled.get(),
+                    totalWaitNanos.get(), maxWaitNanos.get());
+        }
+    }
+
+    public static final class Builder {
+        private final Downloader delegate;
+        private HostLimit defaultLimit = HostLimit.UNLIMITED;
+        private final Map<String, HostLimit> hostLimits = new HashMap<>();
+        private int maxRetries = 1;
+        private Duration maxRetryAfter = Duration.ofMinutes(1);
+        @Nullable
+        private ExtractorContext.Metrics metrics;
+        private Clock clock = Clock.SYSTEM;
+
+        /**
+         * @param delegate the downloader which sends the requests
+         */
+        public Builder(@Nonnull final Downloader delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * The limit of the hosts without a {@link #hostLimit(String, HostLimit) specific} one,
+         * {@link HostLimit#UNLIMITED} by default.
+         */
+        public Builder defaultLimit(@Nonnull final HostLimit limit) {
+            this.defaultLimit = limit;
+            return this;
+        }
+
+        /**
+         * The limit shared by the given domain and all its subdomains.
+         */
+        public Builder hostLimit(@Nonnull final String domain, @Nonnull final HostLimit limit) {
+            this.hostLimits.put(domain.toLowerCase(Locale.ROOT), limit);
+            return this;
+        }
+
+        /**
+         * How many times a request is retried when its response asks to retry later, 1 by
+         * default.
+         */
+        public Builder maxRetries(final int maxRetriesToSet) {
+            this.maxRetries = maxRetriesToSet;
+            return this;
+        }
+
+        /**
+         * The longest {@code Retry-After} delay for which the request is retried, 1 minute by
+         * default. Longer delays still block the host for this delay, but the response is
+         * returned at once.
+         */
+        public Builder maxRetryAfter(@Nonnull final Duration maxRetryAfterToSet) {
+            this.maxRetryAfter = maxRetryAfterToSet;
+            return this;
+        }
+
+        /**
+         * The metrics to update with the number of requests, wait times and throttled responses,
+         * e.g. the ones of the {@link ExtractorContext} using this downloader.
+         */
+        public Builder metrics(@Nullable final ExtractorContext.Metrics metricsToSet) {
+            this.metrics = metricsToSet;
+            return this;
+        }
+
+        Builder clock(@Nonnull final Clock clockToSet) {
+            this.clock = clockToSet;
+            return this;
+        }
+
+        @Nonnull
+        public RateLimitedDownloader build() {
+            return new RateLimitedDownloader(this);
+        }
+    }
+}
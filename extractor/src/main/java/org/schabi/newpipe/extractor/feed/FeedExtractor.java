@@ -5,13 +5,56 @@ import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
 import org.schabi.newpipe.extractor.stream.StreamInfoItem;
 
+import javax.annotation.Nullable;
+
 /**
  * This class helps to extract items from lightweight feeds that the services may provide.
  * <p>
  * YouTube is an example of a service that has this alternative available.
+ * <p>
+ * Feeds can be polled incrementally: the {@link #getState() state} of a fetch can be passed to
+ * the extractor of the next one with {@link #setPreviousState(FeedState)}, so that it only
+ * returns the new items, or nothing at all if the feed was {@link #isNotModified() not
+ * modified}. Extractors which don't support it ignore the previous state.
  */
 public abstract class FeedExtractor extends ListExtractor<StreamInfoItem> {
+    @Nullable
+    private FeedState previousState = null;
+
     public FeedExtractor(final StreamingService service, final ListLinkHandler listLinkHandler) {
         super(service, listLinkHandler);
     }
+
+    /**
+     * Set the state of the previous fetch of the feed. Must be called before the page is
+     * fetched to have an effect.
+     *
+     * @param state the state of the previous fetch, or {@code null} to fetch the whole feed
+     */
+    public void setPreviousState(@Nullable final FeedState state) {
+        this.previousState = state;
+    }
+
+    @Nullable
+    public FeedState getPreviousState() {
+        return previousState;
+    }
+
+    /**
+     * @return whether the service reported that the feed didn't change since the
+     * {@link #setPreviousState(FeedState) previous} fetch, in which case there are no items and
+     * the name of the feed may be empty
+     */
+    public boolean isNotModified() {
+        return false;
+    }
+
+    /**
+     * @return the state to pass to the next fetch of the feed, or {@code null} if the extractor
+     * doesn't support incremental fetches
+     */
+    @Nullable
+    public FeedState getState() {
+        return null;
+    }
 }
@@ -1,5 +1,6 @@
 package org.schabi.newpipe.extractor.feed;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.NewPipe;
@@ -11,7 +12,13 @@ import org.schabi.newpipe.extractor.utils.ExtractorHelper;
 import java.io.IOException;
 import java.util.List;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
 public class FeedInfo extends ListInfo<StreamInfoItem> {
+    private boolean notModified = false;
+    @Nullable
+    private FeedState state = null;
 
     public FeedInfo(final int serviceId,
                     final String id,
@@ -29,6 +36,21 @@ public class FeedInfo extends ListInfo<StreamInfoItem> {
 
     public static FeedInfo getInfo(final StreamingService service, final String url)
             throws IOException, ExtractionException {
+        return getInfo(service, url, null);
+    }
+
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, but only with the items which are new
+     * since the fetch whose {@link #getState() state} is given, if the extractor of the service
+     * supports it.
+     *
+     * @param previousState the state of the previous fetch of the feed, or {@code null} to get
+     *                      the whole feed
+     */
+    public static FeedInfo getInfo(final StreamingService service,
+                                   final String url,
+                                   @Nullable final FeedState previousState)
+            throws IOException, ExtractionException {
         final FeedExtractor extractor = service.getFeedExtractor(url);
 
         if (extractor == null) {
@@ -36,10 +58,21 @@ public class FeedInfo extends ListInfo<StreamInfoItem> {
                     + "\" doesn't support FeedExtractor.");
         }
 
+        extractor.setPreviousState(previousState);
         extractor.fetchPage();
         return getInfo(extractor);
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, extracting with the given context instead
+     * of the one of the current thread.
+     */
+    public static FeedInfo getInfo(@Nonnull final ExtractorContext context,
+                                   @Nonnull final StreamingService service,
+                                   final String url) throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, url));
+    }
+
     public static FeedInfo getInfo(final FeedExtractor extractor)
             throws IOException, ExtractionException {
         extractor.fetchPage();
@@ -56,7 +89,26 @@ public class FeedInfo extends ListInfo<StreamInfoItem> {
                 = ExtractorHelper.getItemsPageOrLogError(info, extractor);
         info.setRelatedItems(itemsPage.getItems());
         info.setNextPage(itemsPage.getNextPage());
+        info.notModified = extractor.isNotModified();
+        info.state = extractor.getState();
 
         return info;
     }
+
+    /**
+     * @return whether the feed didn't change since the previous fetch, in which case it has no
+     * items and its name may be empty
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * @return the state to pass to the next fetch of the feed, or {@code null} if the service
+     * doesn't support incremental fetches
+     */
+    @Nullable
+    public FeedState getState() {
+        return state;
+    }
 }
@@ -0,0 +1,488 @@
+package org.schabi.newpipe.extractor.feed;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.subscription.SubscriptionItem;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Refreshes the feeds of many subscriptions, of possibly different services.
+ *
+ * <p>
+ * The feeds are fetched concurrently, with at most {@link Builder#parallelism(int) parallelism}
+ * feeds being fetched at the same time, and at most a
+ * {@link Builder#serviceParallelism(int) per-service} number of them from the same service. The
+ * services take turns to start their fetches, so a slow service can only hold its own share of
+ * the fetches and doesn't prevent the feeds of the other services from being refreshed.
+ * </p>
+ *
+ * <p>
+ * The results are passed to a {@link Sink} on the thread calling
+ * {@link #refresh(Collection, Sink)} as soon as they are available, so the sink doesn't need to
+ * be thread-safe. A fetch only counts as finished once its result has been passed to the sink,
+ * so a slow sink slows down the refresh instead of letting results pile up in memory.
+ * </p>
+ */
+public final class FeedRefresher {
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            DaemonExecutors.newPool("Feed refresher", 8);
+
+    private final int parallelism;
+    private final int serviceParallelism;
+    private final Map<Integer, Integer> serviceParallelisms;
+    private final List<StreamingService> services;
+    private final Function<SubscriptionItem, FeedState> previousStates;
+    private final ExecutorService executor;
+
+    /**
+     * Receives the results of the refresh. Its methods are never called concurrently.
+     */
+    public interface Sink {
+        /**
+         * @param subscription the subscription whose feed was fetched
+         * @param info         the feed, which may contain {@link FeedInfo#getErrors() errors} if
+         *                     some of its items could not be extracted
+         * @param latency      how long it took to fetch and extract the feed
+         */
+        void onFeed(@Nonnull SubscriptionItem subscription,
+                    @Nonnull FeedInfo info,
+                    @Nonnull Duration latency);
+
+        /**
+         * @param subscription the subscription whose feed could not be fetched
+         * @param error        why the feed could not be fetched
+         * @param latency      how long it took until the fetch failed
+         */
+        void onError(@Nonnull SubscriptionItem subscription,
+                     @Nonnull Throwable error,
+                     @Nonnull Duration latency);
+    }
+
+    /**
+     * The statistics of the subscriptions of a service.
+     */
+    public static final class ServiceStats {
+        private final int serviceId;
+        private long refreshedCount = 0;
+        private long failedCount = 0;
+        private long totalLatencyNanos = 0;
+        private long maxLatencyNanos = 0;
+
+        ServiceStats(final int serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        void add(final boolean failed, final long latencyNanos) {
+            if (failed) {
+                failedCount++;
+            } else {
+                refreshedCount++;
+            }
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        }
+
+        public int getServiceId() {
+            return serviceId;
+        }
+
+        /**
+         * @return the number of feeds which were fetched
+         */
+        public long getRefreshedCount() {
+            return refreshedCount;
+        }
+
+        /**
+         * @return the number of feeds which could not be fetched
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * @return the average latency of the fetches, both successful and failed ones
+         */
+        @Nonnull
+        public Duration getAverageLatency() {
+            final long count = refreshedCount + failedCount;
+            return Duration.ofNanos(count == 0 ? 0 : totalLatencyNanos / count);
+        }
+
+        /**
+         * @return the highest latency of the fetches, both successful and failed ones
+         */
+        @Nonnull
+        public Duration getMaxLatency() {
+            return Duration.ofNanos(maxLatencyNanos);
+        }
+    }
+
+    /**
+     * What happened during a refresh.
+     */
+    public static final class Result {
+        private final Map<Integer, ServiceStats> serviceStats;
+
+        Result(@Nonnull final Map<Integer, ServiceStats> serviceStats) {
+            this.serviceStats = Collections.unmodifiableMap(serviceStats);
+        }
+
+        /**
+         * @return the statistics of the services of the subscriptions, by service ID
+         */
+        @Nonnull
+        public Map<Integer, ServiceStats> getServiceStats() {
+            return serviceStats;
+        }
+
+        /**
+         * @return the number of feeds which were fetched
+         */
+        public long getRefreshedCount() {
+            return serviceStats.values().stream().mapToLong(ServiceStats::getRefreshedCount)
+                    .sum();
+        }
+
+        /**
+         * @return the number of feeds which could not be fetched
+         */
+        public long getFailedCount() {
+            return serviceStats.values().stream().mapToLong(ServiceStats::getFailedCount).sum();
+        }
+    }
+
+    private FeedRefresher(@Nonnull final Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.serviceParallelism = builder.serviceParallelism;
+        this.serviceParallelisms = new HashMap<>(builder.serviceParallelisms);
+        this.services = new ArrayList<>(builder.services);
+        this.previousStates = builder.previousStates;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * The subscriptions of a service which are still to be fetched. Only used by the thread
+     * calling {@link #refresh(Collection, Sink)}.
+     */
+    private static final class ServiceQueue {
+        @Nullable
+        private final StreamingService service;
+        private final int maxRunning;
+        private final Deque<SubscriptionItem> pending = new ArrayDeque<>();
+        private final ServiceStats stats;
+        private int running = 0;
+
+        ServiceQueue(final int serviceId,
+                     @Nullable final StreamingService service,
+                     final int maxRunning) {
+            this.service = service;
+            this.maxRunning = maxRunning;
+            this.stats = new ServiceStats(serviceId);
+        }
+
+        boolean canStart() {
+            return !pending.isEmpty() && running < maxRunning;
+        }
+    }
+
+    /**
+     * The result of a fetch, handed over from the thread which fetched it.
+     */
+    private static final class Completion {
+        private final long sequence;
+        private final ServiceQueue queue;
+        private final SubscriptionItem subscription;
+        @Nullable
+        private final FeedInfo info;
+        @Nullable
+        private final Throwable error;
+        private final long latencyNanos;
+
+        Completion(final long sequence,
+                   @Nonnull final ServiceQueue queue,
+                   @Nonnull final SubscriptionItem subscription,
+                   @Nullable final FeedInfo info,
+                   @Nullable final Throwable error,
+                   final long latencyNanos) {
+            this.sequence = sequence;
+            this.queue = queue;
+            this.subscription = subscription;
+            this.info = info;
+            this.error = error;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+
+    /**
+     * Refresh the feeds of the subscriptions with the context of the current thread, blocking
+     * until all of them have been passed to the sink.
+     *
+     * <p>
+     * The feeds of the subscriptions whose service is unknown or doesn't
+     * {@link StreamingService#getFeedExtractor(String) support} feeds are passed to the sink as
+     * errors.
+     * </p>
+     *
+     * @param subscriptions the subscriptions to refresh
+     * @param sink          the sink of the results
+     * @return the statistics of the refresh
+     * @throws InterruptedIOException if the thread is interrupted, in which case the running
+     *                                fetches are cancelled
+     */
+    @Nonnull
+    public Result refresh(@Nonnull final Collection<SubscriptionItem> subscriptions,
+                          @Nonnull final Sink sink) throws InterruptedIOException {
+        final Map<Integer, ServiceQueue> queues = new LinkedHashMap<>();
+        for (final SubscriptionItem subscription : subscriptions) {
+            queues.computeIfAbsent(subscription.getServiceId(), this::createQueue)
+                    .pending.add(subscription);
+        }
+
+        final Map<Integer, ServiceStats> stats = new LinkedHashMap<>();
+        queues.forEach((serviceId, queue) -> stats.put(serviceId, queue.stats));
+
+        final Refresh refresh = new Refresh(new ArrayList<>(queues.values()), sink);
+        try {
+            refresh.run();
+            return new Result(stats);
+        } finally {
+            refresh.cancel();
+        }
+    }
+
+    @Nonnull
+    private ServiceQueue createQueue(final int serviceId) {
+        StreamingService service = null;
+        for (final StreamingService candidate : services) {
+            if (candidate.getServiceId() == serviceId) {
+                service = candidate;
+                break;
+            }
+        }
+        return new ServiceQueue(serviceId, service,
+                serviceParallelisms.getOrDefault(serviceId, serviceParallelism));
+    }
+
+    /**
+     * The state of a single call to {@link #refresh(Collection, Sink)}, only used by the calling
+     * thread.
+     */
+    private final class Refresh {
+        private final List<ServiceQueue> queues;
+        private final Sink sink;
+        private final ExtractorContext context = NewPipe.getContext();
+
+        private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+        private final Map<Long, Future<?>> running = new HashMap<>();
+        private long nextSequence = 0;
+        /**
+         * The index of the queue which is the first to start a fetch next time, so the services
+         * take turns.
+         */
+        private int nextQueue = 0;
+
+        Refresh(@Nonnull final List<ServiceQueue> queues,
+                @Nonnull final Sink sink) {
+            this.queues = queues;
+            this.sink = sink;
+        }
+
+        void run() throws InterruptedIOException {
+            startFetches();
+            while (!running.isEmpty()) {
+                final Completion completion;
+                try {
+                    completion = completions.take();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while refreshing feeds");
+                }
+                running.remove(completion.sequence);
+
+                final Duration latency = Duration.ofNanos(completion.latencyNanos);
+                completion.queue.stats.add(completion.info == null, completion.latencyNanos);
+                if (completion.info != null) {
+                    sink.onFeed(completion.subscription, completion.info, latency);
+                } else {
+                    sink.onError(completion.subscription, completion.error, latency);
+                }
+
+                completion.queue.running--;
+                startFetches();
+            }
+        }
+
+        /**
+         * Start as many fetches as allowed, one per service in turn.
+         */
+        private void startFetches() {
+            boolean started = true;
+            while (started && running.size() < parallelism) {
+                started = false;
+                for (int i = 0; i < queues.size() && running.size() < parallelism; i++) {
+                    final ServiceQueue queue = queues.get((nextQueue + i) % queues.size());
+                    if (queue.canStart()) {
+                        start(queue, queue.pending.poll());
+                        started = true;
+                    }
+                }
+                if (!queues.isEmpty()) {
+                    nextQueue = (nextQueue + 1) % queues.size();
+                }
+            }
+        }
+
+        private void start(@Nonnull final ServiceQueue queue,
+                           @Nonnull final SubscriptionItem subscription) {
+            final long sequence = nextSequence++;
+            final FeedState previousState = previousStates.apply(subscription);
+            queue.running++;
+            try {
+                running.put(sequence, executor.submit(
+                        () -> fetch(sequence, queue, subscription, previousState)));
+            } catch (final RejectedExecutionException e) {
+                completions.add(new Completion(sequence, queue, subscription, null, e, 0));
+                // Make it count as running until its completion is taken
+                running.put(sequence, null);
+            }
+        }
+
+        private void fetch(final long sequence,
+                           @Nonnull final ServiceQueue queue,
+                           @Nonnull final SubscriptionItem subscription,
+                           @Nullable final FeedState previousState) {
+            final long startNanos = System.nanoTime();
+            FeedInfo info = null;
+            Throwable error = null;
+            try {
+                if (queue.service == null) {
+                    throw new ExtractionException(
+                            "Unknown service: " + subscription.getServiceId());
+                }
+                info = context.run(() -> FeedInfo.getInfo(queue.service, subscription.getUrl(),
+                        previousState));
+            } catch (final Exception e) {
+                error = e;
+            }
+            completions.add(new Completion(sequence, queue, subscription, info, error,
+                    System.nanoTime() - startNanos));
+        }
+
+        void cancel() {
+            for (final Future<?> future : running.values()) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            running.clear();
+        }
+    }
+
+    /**
+     * A builder of {@link FeedRefresher}s.
+     */
+    public static final class Builder {
+        private int parallelism = 8;
+        private int serviceParallelism = 4;
+        private final Map<Integer, Integer> serviceParallelisms = new HashMap<>();
+        private List<StreamingService> services = ServiceList.all();
+        private Function<SubscriptionItem, FeedState> previousStates = subscription -> null;
+        private ExecutorService executor = DEFAULT_EXECUTOR;
+
+        /**
+         * The maximum number of feeds fetched at the same time, 8 by default.
+         */
+        public Builder parallelism(final int parallelismToSet) {
+            if (parallelismToSet < 1) {
+                throw new IllegalArgumentException("parallelism must be at least 1");
+            }
+            this.parallelism = parallelismToSet;
+            return this;
+        }
+
+        /**
+         * The maximum number of feeds fetched at the same time from a service without a
+         * {@link #serviceParallelism(StreamingService, int) specific} one, 4 by default.
+         */
+        public Builder serviceParallelism(final int serviceParallelismToSet) {
+            if (serviceParallelismToSet < 1) {
+                throw new IllegalArgumentException("serviceParallelism must be at least 1");
+            }
+            this.serviceParallelism = serviceParallelismToSet;
+            return this;
+        }
+
+        /**
+         * The maximum number of feeds fetched at the same time from the given service.
+         */
+        public Builder serviceParallelism(@Nonnull final StreamingService service,
+                                          final int serviceParallelismToSet) {
+            if (serviceParallelismToSet < 1) {
+                throw new IllegalArgumentException("serviceParallelism must be at least 1");
+            }
+            this.serviceParallelisms.put(service.getServiceId(), serviceParallelismToSet);
+            return this;
+        }
+
+        /**
+         * The services of the subscriptions, looked up by their ID, all the
+         * {@link ServiceList#all() supported} ones by default.
+         */
+        public Builder services(@Nonnull final List<StreamingService> servicesToSet) {
+            this.services = servicesToSet;
+            return this;
+        }
+
+        /**
+         * The {@link FeedInfo#getState() states} of the previous fetches of the subscriptions, or
+         * {@code null} for the ones which were never fetched, so that only their new items are
+         * fetched. It is called on the thread calling {@link #refresh(Collection, Sink)}. By
+         * default, the whole feeds are fetched.
+         */
+        public Builder previousStates(
+                @Nonnull final Function<SubscriptionItem, FeedState> previousStatesToSet) {
+            this.previousStates = previousStatesToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which the feeds are fetched. By default, a pool of eight daemon
+         * threads shared by all the refreshers, so a {@link #parallelism(int) parallelism} above
+         * eight needs an executor with more threads. The fetches still running when a refresh
+         * ends are cancelled, but the executor is never shut down.
+         */
+        public Builder executor(@Nonnull final ExecutorService executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        public FeedRefresher build() {
+            return new FeedRefresher(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.schabi.newpipe.extractor.feed;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * What a feed looked like when it was last fetched, so the next fetch can be
+ * {@link FeedExtractor#setPreviousState(FeedState) conditional} and only return the new items.
+ *
+ * <p>
+ * It holds the validators sent by the server, i.e. the {@code ETag} and {@code Last-Modified}
+ * headers, and the URL and upload date of the newest item of the feed. All of them are optional:
+ * an extractor uses the ones the service supports.
+ * </p>
+ */
+public class FeedState implements Serializable {
+    /**
+     * Fixed, as applications persist the states between their versions.
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+    @Nullable
+    private final String newestItemUrl;
+    @Nullable
+    private final OffsetDateTime newestUploadDate;
+
+    public FeedState(@Nullable final String etag,
+                     @Nullable final String lastModified,
+                     @Nullable final String newestItemUrl,
+                     @Nullable final OffsetDateTime newestUploadDate) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.newestItemUrl = newestItemUrl;
+        this.newestUploadDate = newestUploadDate;
+    }
+
+    /**
+     * @return the {@code ETag} header of the last response, to be sent as
+     * {@code If-None-Match}
+     */
+    @Nullable
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return the {@code Last-Modified} header of the last response, to be sent as
+     * {@code If-Modified-Since}
+     */
+    @Nullable
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    @Nullable
+    public String getNewestItemUrl() {
+        return newestItemUrl;
+    }
+
+    @Nullable
+    public OffsetDateTime getNewestUploadDate() {
+        return newestUploadDate;
+    }
+
+    /**
+     * Whether an item was already in the feed when it was last fetched, i.e. whether it is the
+     * newest item of that time or older than it.
+     *
+     * <p>
+     * Items uploaded at the same time as the newest one are not considered known, unless they
+     * are the newest one, so that no item is missed; they may be returned twice instead.
+     * </p>
+     *
+     * @param url        the URL of the item
+     * @param uploadDate the upload date of the item, if known
+     * @return whether the item is known
+     */
+    public boolean isKnown(@Nonnull final String url, @Nullable final OffsetDateTime uploadDate) {
+        if (url.equals(newestItemUrl)) {
+            return true;
+        }
+        return uploadDate != null && newestUploadDate != null
+                && uploadDate.isBefore(newestUploadDate);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[etag=" + etag + ", lastModified=" + lastModified
+                + ", newestItemUrl=" + newestItemUrl + ", newestUploadDate=" + newestUploadDate
+                + "]";
+    }
+}
@@ -20,10 +20,12 @@ package org.schabi.newpipe.extractor.kiosk;
  * along with NewPipe.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.ListExtractor;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.PageCursor;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
@@ -32,6 +34,8 @@ import org.schabi.newpipe.extractor.utils.ExtractorHelper;
 
 import java.io.IOException;
 
+import javax.annotation.Nonnull;
+
 public final class KioskInfo extends ListInfo<StreamInfoItem> {
     private KioskInfo(final int serviceId, final ListLinkHandler linkHandler, final String name) {
         super(serviceId, linkHandler, name);
@@ -43,6 +47,19 @@ public final class KioskInfo extends ListInfo<StreamInfoItem> {
         return service.getKioskList().getExtractorByUrl(url, page).getPage(page);
     }
 
+    /**
+     * Same as {@link #getMoreItems(StreamingService, String, Page)}, for the page of
+     * a {@link PageCursor} of a kiosk.
+     *
+     * @throws org.schabi.newpipe.extractor.exceptions.ParsingException if the cursor is not of
+     *                                                                  a kiosk or was tampered with
+     */
+    public static ListExtractor.InfoItemsPage<StreamInfoItem> getMoreItems(
+            @Nonnull final PageCursor cursor) throws IOException, ExtractionException {
+        return getMoreItems(cursor.requireService(PageCursor.Kind.KIOSK), cursor.getUrl(),
+                cursor.getPage());
+    }
+
     public static KioskInfo getInfo(final String url) throws IOException, ExtractionException {
         return getInfo(NewPipe.getServiceByUrl(url), url);
     }
@@ -54,6 +71,16 @@ public final class KioskInfo extends ListInfo<StreamInfoItem> {
         return getInfo(extractor);
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, extracting with the given context instead
+     * of the one of the current thread.
+     */
+    public static KioskInfo getInfo(@Nonnull final ExtractorContext context,
+                                    @Nonnull final StreamingService service,
+                                    final String url) throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, url));
+    }
+
     /**
      * Get KioskInfo from KioskExtractor
      *
@@ -2,6 +2,7 @@ package org.schabi.newpipe.extractor.kiosk;
 
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.StreamingService;
@@ -15,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public class KioskList {
@@ -70,7 +72,17 @@ public class KioskList {
 
     public KioskExtractor getDefaultKioskExtractor(final Page nextPage)
             throws ExtractionException, IOException {
-        return getDefaultKioskExtractor(nextPage, NewPipe.getPreferredLocalization());
+        return getDefaultKioskExtractor(nextPage, NewPipe.getContext());
+    }
+
+    /**
+     * Same as {@link #getDefaultKioskExtractor(Page)}, but the extractor uses the given context
+     * instead of the current one.
+     */
+    public KioskExtractor getDefaultKioskExtractor(final Page nextPage,
+                                                   @Nonnull final ExtractorContext context)
+            throws ExtractionException, IOException {
+        return context.run(() -> getDefaultKioskExtractor(nextPage, context.getLocalization()));
     }
 
     public KioskExtractor getDefaultKioskExtractor(final Page nextPage,
@@ -95,7 +107,18 @@ public class KioskList {
 
     public KioskExtractor getExtractorById(final String kioskId, final Page nextPage)
             throws ExtractionException, IOException {
-        return getExtractorById(kioskId, nextPage, NewPipe.getPreferredLocalization());
+        return getExtractorById(kioskId, nextPage, NewPipe.getContext());
+    }
+
+    /**
+     * Same as {@link #getExtractorById(String, Page)}, but the extractor uses the given context
+     * instead of the current one.
+     */
+    public KioskExtractor getExtractorById(final String kioskId,
+                                           final Page nextPage,
+                                           @Nonnull final ExtractorContext context)
+            throws ExtractionException, IOException {
+        return context.run(() -> getExtractorById(kioskId, nextPage, context.getLocalization()));
     }
 
     public KioskExtractor getExtractorById(final String kioskId,
@@ -133,10 +156,19 @@ public class KioskList {
                                             final Page nextPage,
                                             final Localization localization)
             throws ExtractionException, IOException {
+        return getExtractorById(getKioskIdByUrl(url), nextPage, localization);
+    }
+
+    /**
+     * @param url the url of a kiosk of this list
+     * @return the id of the kiosk
+     * @throws ExtractionException if no kiosk of this list fits to the url
+     */
+    public String getKioskIdByUrl(final String url) throws ExtractionException {
         for (final Map.Entry<String, KioskEntry> e : kioskList.entrySet()) {
             final KioskEntry ke = e.getValue();
             if (ke.handlerFactory.acceptUrl(url)) {
-                return getExtractorById(ke.handlerFactory.getId(url), nextPage, localization);
+                return ke.handlerFactory.getId(url);
             }
         }
         throw new ExtractionException("Could not find a kiosk that fits to the url: " + url);
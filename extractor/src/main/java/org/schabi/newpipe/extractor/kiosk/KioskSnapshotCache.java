@@ -0,0 +1,264 @@
+package org.schabi.newpipe.extractor.kiosk;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A cache of {@link KioskInfo}s, i.e. of snapshots of the first page of kiosks, like YouTube's
+ * trending, which change rarely but are requested by every user.
+ *
+ * <p>
+ * Snapshots are cached per service, kiosk id, and the localization and content country of the
+ * current {@link ExtractorContext context}. A snapshot is fresh for its
+ * {@link Builder#ttl(Duration) time to live}. Then it is still returned during the
+ * {@link Builder#maxStale(Duration) maximum staleness}, while a single new snapshot is fetched in
+ * the background, so that only the requests of kiosks which are not cached wait for them to be
+ * fetched. Concurrent requests of such a kiosk share the same request.
+ * </p>
+ *
+ * <p>
+ * Hot kiosks, i.e. the ones whose snapshot was requested at least
+ * {@link Builder#hotRequests(int) a number of times}, are refreshed as soon as their snapshot
+ * expires, and so is the next snapshot, so that they stay fresh as long as they are requested.
+ * The refreshes are only scheduled on the {@link Builder#scheduler(ScheduledExecutorService)
+ * scheduler}, the snapshots are fetched on the {@link Builder#executor(Executor) executor}.
+ * Snapshots with errors are not cached, as the errors may be temporary. The returned snapshots
+ * are shared, so they must not be modified.
+ * </p>
+ */
+public final class KioskSnapshotCache {
+    private static final char SEPARATOR = '\u0000';
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER =
+            DaemonExecutors.newScheduler("Kiosks scheduler");
+    private static final ExecutorService DEFAULT_EXECUTOR = DaemonExecutors.newPool("Kiosks", 4);
+
+    private final long ttlNanos;
+    private final int hotRequests;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier nanoClock;
+    private final ExpiringCache<String, Snapshot> snapshots;
+
+    private static final class Snapshot {
+        private final StreamingService service;
+        private final String url;
+        private final KioskInfo info;
+        private final long fetchedNanos;
+        /**
+         * The context of the last request, used to fetch the next snapshot in the background.
+         */
+        private volatile ExtractorContext context;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+        Snapshot(@Nonnull final StreamingService service,
+                 @Nonnull final String url,
+                 @Nonnull final ExtractorContext context,
+                 @Nonnull final KioskInfo info,
+                 final long fetchedNanos) {
+            this.service = service;
+            this.url = url;
+            this.context = context;
+            this.info = info;
+            this.fetchedNanos = fetchedNanos;
+        }
+    }
+
+    private KioskSnapshotCache(@Nonnull final Builder builder) {
+        this.ttlNanos = builder.ttl.toNanos();
+        this.hotRequests = builder.hotRequests;
+        this.scheduler = builder.scheduler;
+        this.nanoClock = builder.nanoClock;
+        this.snapshots = new ExpiringCache.Builder<String, Snapshot>(builder.ttl)
+                .maxEntries(builder.maxEntries)
+                .maxStale(builder.maxStale)
+                .refreshExecutor(builder.executor)
+                .cacheIf(snapshot -> snapshot.info.getErrors().isEmpty())
+                .nanoClock(builder.nanoClock)
+                .build();
+    }
+
+    /**
+     * Same as {@link KioskInfo#getInfo(StreamingService, String)}, but returns the cached
+     * snapshot of the kiosk if there is one which is fresh or not too stale.
+     */
+    @Nonnull
+    public KioskInfo getInfo(@Nonnull final StreamingService service, @Nonnull final String url)
+            throws IOException, ExtractionException {
+        final String key = getKey(service, service.getKioskList().getKioskIdByUrl(url));
+        final ExtractorContext context = NewPipe.getContext();
+
+        final Snapshot snapshot = snapshots.get(key, () -> fetch(key, service, url, context));
+        snapshot.context = context;
+        if (snapshot.requests.incrementAndGet() >= hotRequests) {
+            scheduleRefresh(key, snapshot);
+        }
+        return snapshot.info;
+    }
+
+    /**
+     * Remove all the cached snapshots and stop refreshing hot kiosks.
+     */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    /**
+     * @return the number of cached snapshots, including the ones which are too stale to be
+     * returned but have not been removed yet
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    @Nonnull
+    private static String getKey(@Nonnull final StreamingService service,
+                                 @Nonnull final String kioskId) {
+        return String.valueOf(service.getServiceId()) + SEPARATOR
+                + kioskId + SEPARATOR
+                + service.getLocalization().getLocalizationCode() + SEPARATOR
+                + service.getContentCountry().getCountryCode();
+    }
+
+    @Nonnull
+    private Snapshot fetch(@Nonnull final String key,
+                           @Nonnull final StreamingService service,
+                           @Nonnull final String url,
+                           @Nonnull final ExtractorContext context)
+            throws IOException, ExtractionException {
+        // The snapshot this one replaces, as it is only stored once fetched
+        final Snapshot previous = snapshots.peek(key);
+        final KioskInfo info = context.run(() -> KioskInfo.getInfo(service, url));
+        final Snapshot snapshot =
+                new Snapshot(service, url, context, info, nanoClock.getAsLong());
+        if (previous != null && previous.requests.get() >= hotRequests
+                && info.getErrors().isEmpty()) {
+            scheduleRefresh(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Refresh the kiosk when the snapshot expires, unless it is already scheduled or the snapshot
+     * has been replaced or removed in the meantime.
+     */
+    private void scheduleRefresh(@Nonnull final String key, @Nonnull final Snapshot snapshot) {
+        if (!snapshot.refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        final long delayNanos = snapshot.fetchedNanos + ttlNanos - nanoClock.getAsLong();
+        try {
+            scheduler.schedule(() -> {
+                if (snapshots.peek(key) == snapshot) {
+                    snapshots.refresh(key, () -> fetch(key, snapshot.service, snapshot.url,
+                            snapshot.context));
+                }
+            }, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            // The kiosk is fetched again once its snapshot is requested after expiring
+        }
+    }
+
+    /**
+     * A builder of {@link KioskSnapshotCache}s.
+     */
+    public static final class Builder {
+        private int maxEntries = 64;
+        private Duration ttl = Duration.ofMinutes(5);
+        private Duration maxStale = Duration.ofHours(1);
+        private int hotRequests = 2;
+        private ScheduledExecutorService scheduler = DEFAULT_SCHEDULER;
+        private Executor executor = DEFAULT_EXECUTOR;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        /**
+         * The maximum number of cached kiosks, counting each localization and content country
+         * separately, 64 by default.
+         */
+        public Builder maxEntries(final int maxEntriesToSet) {
+            if (maxEntriesToSet < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntriesToSet;
+            return this;
+        }
+
+        /**
+         * How long snapshots are fresh, 5 minutes by default.
+         */
+        public Builder ttl(@Nonnull final Duration ttlToSet) {
+            this.ttl = ttlToSet;
+            return this;
+        }
+
+        /**
+         * How long snapshots are still returned after they expired, while a new one is fetched
+         * in the background, 1 hour by default.
+         */
+        public Builder maxStale(@Nonnull final Duration maxStaleToSet) {
+            this.maxStale = maxStaleToSet;
+            return this;
+        }
+
+        /**
+         * The number of requests of the snapshot of a kiosk, including the one which fetched it,
+         * from which the kiosk is hot, and is refreshed as soon as the snapshot expires,
+         * 2 by default.
+         */
+        public Builder hotRequests(final int hotRequestsToSet) {
+            if (hotRequestsToSet < 1) {
+                throw new IllegalArgumentException("hotRequests must be at least 1");
+            }
+            this.hotRequests = hotRequestsToSet;
+            return this;
+        }
+
+        /**
+         * The scheduler on which the refreshes of hot kiosks wait for their snapshot to expire.
+         * By default, a single daemon thread shared by all the caches.
+         */
+        public Builder scheduler(@Nonnull final ScheduledExecutorService schedulerToSet) {
+            this.scheduler = schedulerToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which snapshots are fetched in the background. By default, a pool of
+         * four daemon threads shared by all the caches, so that a slow kiosk doesn't delay the
+         * others.
+         */
+        public Builder executor(@Nonnull final Executor executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        /**
+         * @see ExpiringCache.Builder#nanoClock(LongSupplier)
+         */
+        Builder nanoClock(@Nonnull final LongSupplier nanoClockToSet) {
+            this.nanoClock = nanoClockToSet;
+            return this;
+        }
+
+        public KioskSnapshotCache build() {
+            return new KioskSnapshotCache(this);
+        }
+    }
+}
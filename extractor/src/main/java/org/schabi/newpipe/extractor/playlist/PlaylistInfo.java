@@ -1,9 +1,11 @@
 package org.schabi.newpipe.extractor.playlist;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.PageCursor;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
@@ -16,6 +18,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.annotation.Nonnull;
+
 public final class PlaylistInfo extends ListInfo<StreamInfoItem> {
 
     /**
@@ -70,6 +74,16 @@ public final class PlaylistInfo extends ListInfo<StreamInfoItem> {
         return getInfo(extractor);
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, String)}, extracting with the given context instead
+     * of the one of the current thread.
+     */
+    public static PlaylistInfo getInfo(@Nonnull final ExtractorContext context,
+                                       @Nonnull final StreamingService service,
+                                       final String url) throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, url));
+    }
+
     public static InfoItemsPage<StreamInfoItem> getMoreItems(final StreamingService service,
                                                              final String url,
                                                              final Page page)
@@ -77,6 +91,20 @@ public final class PlaylistInfo extends ListInfo<StreamInfoItem> {
         return service.getPlaylistExtractor(url).getPage(page);
     }
 
+    /**
+     * Same as {@link #getMoreItems(StreamingService, String, Page)}, for the page of
+     * a {@link PageCursor} of a playlist.
+     *
+     * @throws org.schabi.newpipe.extractor.exceptions.ParsingException if the cursor is not of
+     *                                                                  a playlist or was tampered
+     *                                                                  with
+     */
+    public static InfoItemsPage<StreamInfoItem> getMoreItems(@Nonnull final PageCursor cursor)
+            throws IOException, ExtractionException {
+        return getMoreItems(cursor.requireService(PageCursor.Kind.PLAYLIST), cursor.getUrl(),
+                cursor.getPage());
+    }
+
     /**
      * Get PlaylistInfo from PlaylistExtractor
      *
@@ -0,0 +1,267 @@
+package org.schabi.newpipe.extractor.search;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Searches several services at once.
+ *
+ * <p>
+ * The search of each service is run concurrently and must complete before the deadline of the
+ * service, otherwise it is cancelled and reported as an error. The results of the services which
+ * completed are then merged by a {@link Ranker}, so a slow or failing service only leaves its
+ * results out.
+ * </p>
+ */
+public final class FederatedSearch {
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            DaemonExecutors.newPool("Federated search", 8);
+
+    private final List<StreamingService> services;
+    private final Duration timeout;
+    private final Map<Integer, Duration> serviceTimeouts;
+    private final Ranker ranker;
+    @Nullable
+    private final SearchResultCache cache;
+    private final ExecutorService executor;
+
+    /**
+     * Merges the results of the services into a single list.
+     */
+    @FunctionalInterface
+    public interface Ranker {
+        /**
+         * Take the first result of each service in turn, then the second ones, and so on.
+         */
+        Ranker INTERLEAVE = (query, results) -> {
+            final List<InfoItem> merged = new ArrayList<>();
+            final int maxSize = results.values().stream().mapToInt(List::size).max().orElse(0);
+            for (int i = 0; i < maxSize; i++) {
+                for (final List<InfoItem> items : results.values()) {
+                    if (i < items.size()) {
+                        merged.add(items.get(i));
+                    }
+                }
+            }
+            return merged;
+        };
+
+        /**
+         * @param query   the search query
+         * @param results the results of the services which completed in time, in the order of the
+         *                services given to the {@link Builder}
+         * @return the merged results
+         */
+        @Nonnull
+        List<InfoItem> rank(@Nonnull String query,
+                            @Nonnull Map<StreamingService, List<InfoItem>> results);
+    }
+
+    /**
+     * The result of a federated search.
+     */
+    public static final class Result {
+        private final List<InfoItem> items;
+        private final Map<StreamingService, SearchInfo> infos;
+        private final Map<StreamingService, Throwable> errors;
+
+        Result(@Nonnull final List<InfoItem> items,
+               @Nonnull final Map<StreamingService, SearchInfo> infos,
+               @Nonnull final Map<StreamingService, Throwable> errors) {
+            this.items = Collections.unmodifiableList(items);
+            this.infos = Collections.unmodifiableMap(infos);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * @return the results of all the services which completed in time, merged by the ranker
+         */
+        @Nonnull
+        public List<InfoItem> getItems() {
+            return items;
+        }
+
+        /**
+         * @return the search infos of the services which completed in time, e.g. to get their
+         * next pages
+         */
+        @Nonnull
+        public Map<StreamingService, SearchInfo> getInfos() {
+            return infos;
+        }
+
+        /**
+         * @return the errors of the services which failed, which are {@link TimeoutException}s
+         * for the ones which did not complete in time
+         */
+        @Nonnull
+        public Map<StreamingService, Throwable> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return whether all the services completed in time
+         */
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+    }
+
+    private FederatedSearch(@Nonnull final Builder builder) {
+        this.services = new ArrayList<>(builder.services);
+        this.timeout = builder.timeout;
+        this.serviceTimeouts = new HashMap<>(builder.serviceTimeouts);
+        this.ranker = builder.ranker;
+        this.cache = builder.cache;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Search all the services with the context of the current thread.
+     *
+     * @param query the search query
+     * @return the merged results and the errors of the services
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the services
+     */
+    @Nonnull
+    public Result search(@Nonnull final String query) throws InterruptedIOException {
+        final ExtractorContext context = NewPipe.getContext();
+        final long startNanos = System.nanoTime();
+        final Map<StreamingService, Future<SearchInfo>> futures = new LinkedHashMap<>();
+
+        try {
+            for (final StreamingService service : services) {
+                futures.put(service, executor.submit(() -> context.run(() -> {
+                    final SearchQueryHandler handler = service.getSearchQHFactory()
+                            .fromQuery(query);
+                    return cache == null
+                            ? SearchInfo.getInfo(service, handler)
+                            : cache.getInfo(service, handler);
+                })));
+            }
+
+            final Map<StreamingService, SearchInfo> infos = new LinkedHashMap<>();
+            final Map<StreamingService, Throwable> errors = new LinkedHashMap<>();
+            for (final Map.Entry<StreamingService, Future<SearchInfo>> entry
+                    : futures.entrySet()) {
+                final StreamingService service = entry.getKey();
+                final Future<SearchInfo> future = entry.getValue();
+                final long deadlineNanos = startNanos + serviceTimeouts
+                        .getOrDefault(service.getServiceId(), timeout).toNanos();
+                try {
+                    infos.put(service, future.get(deadlineNanos - System.nanoTime(),
+                            TimeUnit.NANOSECONDS));
+                } catch (final TimeoutException e) {
+                    future.cancel(true);
+                    errors.put(service, new TimeoutException(
+                            service.getServiceInfo().getName() + " did not respond in time"));
+                } catch (final ExecutionException e) {
+                    errors.put(service, e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while searching");
+                }
+            }
+
+            final Map<StreamingService, List<InfoItem>> results = new LinkedHashMap<>();
+            infos.forEach((service, info) -> results.put(service, info.getRelatedItems()));
+            return new Result(ranker.rank(query, Collections.unmodifiableMap(results)), infos,
+                    errors);
+        } finally {
+            // Cancel the searches which are still running if the thread was interrupted
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * A builder of {@link FederatedSearch}es.
+     */
+    public static final class Builder {
+        private List<StreamingService> services = ServiceList.all();
+        private Duration timeout = Duration.ofSeconds(10);
+        private final Map<Integer, Duration> serviceTimeouts = new HashMap<>();
+        private Ranker ranker = Ranker.INTERLEAVE;
+        @Nullable
+        private SearchResultCache cache;
+        private ExecutorService executor = DEFAULT_EXECUTOR;
+
+        /**
+         * The services to search, all the {@link ServiceList#all() supported} ones by default.
+         */
+        public Builder services(@Nonnull final List<StreamingService> servicesToSet) {
+            this.services = servicesToSet;
+            return this;
+        }
+
+        /**
+         * How long to wait for the services without a
+         * {@link #serviceTimeout(StreamingService, Duration) specific} timeout, 10 seconds by
+         * default.
+         */
+        public Builder timeout(@Nonnull final Duration timeoutToSet) {
+            this.timeout = timeoutToSet;
+            return this;
+        }
+
+        /**
+         * How long to wait for the given service.
+         */
+        public Builder serviceTimeout(@Nonnull final StreamingService service,
+                                      @Nonnull final Duration serviceTimeout) {
+            this.serviceTimeouts.put(service.getServiceId(), serviceTimeout);
+            return this;
+        }
+
+        /**
+         * How to merge the results of the services, {@link Ranker#INTERLEAVE} by default.
+         */
+        public Builder ranker(@Nonnull final Ranker rankerToSet) {
+            this.ranker = rankerToSet;
+            return this;
+        }
+
+        /**
+         * The cache of the search results, none by default.
+         */
+        public Builder cache(@Nullable final SearchResultCache cacheToSet) {
+            this.cache = cacheToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which the services are searched. By default, a pool of eight daemon
+         * threads shared by all the federated searches, on which the searches waiting for a
+         * thread count against their deadline. The executor is never shut down.
+         */
+        public Builder executor(@Nonnull final ExecutorService executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        public FederatedSearch build() {
+            return new FederatedSearch(this);
+        }
+    }
+}
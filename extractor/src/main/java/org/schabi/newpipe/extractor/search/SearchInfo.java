@@ -1,10 +1,12 @@
 package org.schabi.newpipe.extractor.search;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.InfoItem;
 import org.schabi.newpipe.extractor.ListExtractor;
 import org.schabi.newpipe.extractor.ListInfo;
 import org.schabi.newpipe.extractor.MetaInfo;
 import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.PageCursor;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
@@ -37,6 +39,17 @@ public class SearchInfo extends ListInfo<InfoItem> {
         return getInfo(extractor);
     }
 
+    /**
+     * Same as {@link #getInfo(StreamingService, SearchQueryHandler)}, extracting with the given
+     * context instead of the one of the current thread.
+     */
+    public static SearchInfo getInfo(@Nonnull final ExtractorContext context,
+                                     @Nonnull final StreamingService service,
+                                     final SearchQueryHandler searchQuery)
+            throws IOException, ExtractionException {
+        return context.run(() -> getInfo(service, searchQuery));
+    }
+
     public static SearchInfo getInfo(final SearchExtractor extractor)
             throws ExtractionException, IOException {
         final SearchInfo info = new SearchInfo(
@@ -81,6 +94,23 @@ public class SearchInfo extends ListInfo<InfoItem> {
         return service.getSearchExtractor(query).getPage(page);
     }
 
+    /**
+     * Same as {@link #getMoreItems(StreamingService, SearchQueryHandler, Page)}, for the page of
+     * a {@link PageCursor} of a search. The query is rebuilt from the search string and the
+     * filters of the cursor.
+     *
+     * @throws org.schabi.newpipe.extractor.exceptions.ParsingException if the cursor is not of
+     *                                                                  a search or was tampered
+     *                                                                  with
+     */
+    public static ListExtractor.InfoItemsPage<InfoItem> getMoreItems(
+            @Nonnull final PageCursor cursor) throws IOException, ExtractionException {
+        final StreamingService service = cursor.requireService(PageCursor.Kind.SEARCH);
+        final SearchQueryHandler query = service.getSearchQHFactory().fromQuery(cursor.getId(),
+                cursor.getContentFilters(), cursor.getSortFilter());
+        return getMoreItems(service, query, cursor.getPage());
+    }
+
     // Getter
     public String getSearchString() {
         return this.searchString;
@@ -0,0 +1,196 @@
+package org.schabi.newpipe.extractor.search;
+
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A cache of search results, i.e. of {@link SearchInfo}s and of the pages returned by
+ * {@link SearchInfo#getMoreItems(StreamingService, SearchQueryHandler, Page)}.
+ *
+ * <p>
+ * Results are cached per service, normalized search string (trimmed, with collapsed whitespace
+ * and in lower case), content filters, sort filter, and the localization and content country of
+ * the current {@link org.schabi.newpipe.extractor.ExtractorContext context}. Continuation pages
+ * are additionally cached per {@link Page}. A cached {@link SearchInfo} returned for another
+ * spelling of its search string is a copy with the search string and the query which were asked
+ * for.
+ * </p>
+ *
+ * <p>
+ * Entries expire after a {@link Builder#ttl(Duration) time to live} and the least recently used
+ * ones are evicted when there are too many of them. Concurrent requests of the same results which
+ * are not cached share the same request. Results with errors are not cached, as the errors may be
+ * temporary. The returned results are shared, so they must not be modified.
+ * </p>
+ */
+public final class SearchResultCache {
+    private static final char SEPARATOR = '\u0000';
+
+    private final ExpiringCache<String, SearchInfo> infos;
+    private final ExpiringCache<String, InfoItemsPage<InfoItem>> pages;
+
+    private SearchResultCache(@Nonnull final Builder builder) {
+        this.infos = new ExpiringCache.Builder<String, SearchInfo>(builder.ttl)
+                .maxEntries(builder.maxEntries)
+                .cacheIf(info -> info.getErrors().isEmpty())
+                .nanoClock(builder.nanoClock)
+                .build();
+        this.pages = new ExpiringCache.Builder<String, InfoItemsPage<InfoItem>>(builder.ttl)
+                .maxEntries(builder.maxEntries)
+                .cacheIf(itemsPage -> itemsPage.getErrors().isEmpty())
+                .nanoClock(builder.nanoClock)
+                .build();
+    }
+
+    /**
+     * Same as {@link SearchInfo#getInfo(StreamingService, SearchQueryHandler)}, but returns the
+     * cached result of the same query if there is one.
+     */
+    @Nonnull
+    public SearchInfo getInfo(@Nonnull final StreamingService service,
+                              @Nonnull final SearchQueryHandler query)
+            throws IOException, ExtractionException {
+        final SearchInfo info = infos.get(getQueryKey(service, query),
+                () -> SearchInfo.getInfo(service, query));
+        return withQuery(info, query);
+    }
+
+    /**
+     * Same as {@link SearchInfo#getMoreItems(StreamingService, SearchQueryHandler, Page)}, but
+     * returns the cached page of the same query if there is one.
+     */
+    @Nonnull
+    public InfoItemsPage<InfoItem> getMoreItems(@Nonnull final StreamingService service,
+                                                @Nonnull final SearchQueryHandler query,
+                                                @Nonnull final Page page)
+            throws IOException, ExtractionException {
+        return pages.get(getQueryKey(service, query) + SEPARATOR + getPageKey(page),
+                () -> SearchInfo.getMoreItems(service, query, page));
+    }
+
+    /**
+     * Remove the cached results of a query, including its continuation pages, for the
+     * localization and content country of the current context.
+     */
+    public void invalidate(@Nonnull final StreamingService service,
+                           @Nonnull final SearchQueryHandler query) {
+        final String key = getQueryKey(service, query);
+        final String pagePrefix = key + SEPARATOR;
+        infos.remove(key);
+        pages.removeIf(pageKey -> pageKey.startsWith(pagePrefix));
+    }
+
+    /**
+     * Remove all the cached results.
+     */
+    public void invalidateAll() {
+        infos.clear();
+        pages.clear();
+    }
+
+    /**
+     * @return the number of cached results, including expired ones which have not been removed
+     * yet
+     */
+    public int size() {
+        return infos.size() + pages.size();
+    }
+
+    @Nonnull
+    static String normalizeSearchString(@Nonnull final String searchString) {
+        return searchString.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @Nonnull
+    private static String getQueryKey(@Nonnull final StreamingService service,
+                                      @Nonnull final SearchQueryHandler query) {
+        return String.valueOf(service.getServiceId()) + SEPARATOR
+                + normalizeSearchString(query.getSearchString()) + SEPARATOR
+                + String.join(",", query.getContentFilters()) + SEPARATOR
+                + query.getSortFilter() + SEPARATOR
+                + service.getLocalization().getLocalizationCode() + SEPARATOR
+                + service.getContentCountry().getCountryCode();
+    }
+
+    @Nonnull
+    private static String getPageKey(@Nonnull final Page page) {
+        return page.getUrl() + SEPARATOR + page.getId() + SEPARATOR + page.getIds()
+                + SEPARATOR + (page.getBody() == null
+                ? "" : new String(page.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the cached info, or a copy of it with the search string and the query handler of
+     * the given query if it was cached for another spelling of the search string
+     */
+    @Nonnull
+    private static SearchInfo withQuery(@Nonnull final SearchInfo cached,
+                                        @Nonnull final SearchQueryHandler query) {
+        if (cached.getSearchString().equals(query.getSearchString())) {
+            return cached;
+        }
+
+        final SearchInfo info =
+                new SearchInfo(cached.getServiceId(), query, query.getSearchString());
+        info.setSearchSuggestion(cached.getSearchSuggestion());
+        info.setIsCorrectedSearch(cached.isCorrectedSearch());
+        info.setMetaInfo(cached.getMetaInfo());
+        info.setRelatedItems(cached.getRelatedItems());
+        info.setNextPage(cached.getNextPage());
+        return info;
+    }
+
+    /**
+     * A builder of {@link SearchResultCache}s.
+     */
+    public static final class Builder {
+        private int maxEntries = 64;
+        private Duration ttl = Duration.ofMinutes(5);
+        private LongSupplier nanoClock = System::nanoTime;
+
+        /**
+         * The maximum number of cached initial pages, and the maximum number of cached
+         * continuation pages, 64 each by default.
+         */
+        public Builder maxEntries(final int maxEntriesToSet) {
+            if (maxEntriesToSet < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntriesToSet;
+            return this;
+        }
+
+        /**
+         * How long results are cached, 5 minutes by default.
+         */
+        public Builder ttl(@Nonnull final Duration ttlToSet) {
+            this.ttl = ttlToSet;
+            return this;
+        }
+
+        /**
+         * @see ExpiringCache.Builder#nanoClock(LongSupplier)
+         */
+        Builder nanoClock(@Nonnull final LongSupplier nanoClockToSet) {
+            this.nanoClock = nanoClockToSet;
+            return this;
+        }
+
+        public SearchResultCache build() {
+            return new SearchResultCache(this);
+        }
+    }
+}
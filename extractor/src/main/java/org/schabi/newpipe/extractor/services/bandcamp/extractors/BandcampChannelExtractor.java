@@ -121,7 +121,8 @@ public class BandcampChannelExtractor extends ChannelExtractor {
                 continue;
             }
 
-            collector.commit(new BandcampDiscographStreamInfoItemExtractor(discograph, getUrl()));
+            collector.commit(new BandcampDiscographStreamInfoItemExtractor(discograph, getUrl(),
+                    getDownloader()));
         }
 
         return new InfoItemsPage<>(collector, null);
@@ -135,7 +136,7 @@ public class BandcampChannelExtractor extends ChannelExtractor {
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
-        channelInfo = BandcampExtractorHelper.getArtistDetails(getId());
+        channelInfo = BandcampExtractorHelper.getArtistDetails(downloader, getId());
     }
 
     @Nonnull
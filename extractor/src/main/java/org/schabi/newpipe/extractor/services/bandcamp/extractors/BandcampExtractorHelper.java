@@ -8,7 +8,7 @@ import com.grack.nanojson.JsonParserException;
 import com.grack.nanojson.JsonWriter;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
-import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.localization.DateWrapper;
@@ -35,11 +35,12 @@ public final class BandcampExtractorHelper {
      * Translate all these parameters together to the URL of the corresponding album or track
      * using the mobile API
      */
-    public static String getStreamUrlFromIds(final long bandId,
+    public static String getStreamUrlFromIds(final Downloader downloader,
+                                             final long bandId,
                                              final long itemId,
                                              final String itemType) throws ParsingException {
         try {
-            final String jsonString = NewPipe.getDownloader().get(
+            final String jsonString = downloader.get(
                     BASE_API_URL + "/mobile/22/tralbum_details?band_id=" + bandId
                             + "&tralbum_id=" + itemId + "&tralbum_type=" + itemType.charAt(0))
                     .responseBody();
@@ -59,9 +60,10 @@ public final class BandcampExtractorHelper {
      * rewindBandcamp+%E2%80%93+Fetching+artist+details">
      * More technical info.</a>
      */
-    public static JsonObject getArtistDetails(final String id) throws ParsingException {
+    public static JsonObject getArtistDetails(final Downloader downloader, final String id)
+            throws ParsingException {
         try {
-            return JsonParser.object().from(NewPipe.getDownloader().postWithContentTypeJson(
+            return JsonParser.object().from(downloader.postWithContentTypeJson(
                     BASE_API_URL + "/mobile/22/band_details",
                     Collections.emptyMap(),
                     JsonWriter.string()
@@ -93,7 +95,8 @@ public final class BandcampExtractorHelper {
      * @return <code>true</code> if the given URL looks like it comes from a bandcamp custom domain
      * or if it comes from <code>bandcamp.com</code> itself
      */
-    public static boolean isSupportedDomain(final String url) throws ParsingException {
+    public static boolean isSupportedDomain(final Downloader downloader, final String url)
+            throws ParsingException {
 
         // Accept all bandcamp.com URLs
         if (url.toLowerCase().matches("https?://.+\\.bandcamp\\.com(/.*)?")) {
@@ -102,7 +105,7 @@ public final class BandcampExtractorHelper {
 
         try {
             // Test other URLs for whether they contain a footer that links to bandcamp
-            return Jsoup.parse(NewPipe.getDownloader().get(url).responseBody())
+            return Jsoup.parse(downloader.get(url).responseBody())
                     .getElementById("pgFt")
                     .getElementById("pgFt-inner")
                     .getElementById("footer-logo-wrapper")
@@ -12,7 +12,6 @@ import com.grack.nanojson.JsonParserException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
 import org.schabi.newpipe.extractor.MediaFormat;
-import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ContentNotSupportedException;
@@ -44,9 +43,9 @@ public class BandcampRadioStreamExtractor extends BandcampStreamExtractor {
         super(service, linkHandler);
     }
 
-    static JsonObject query(final int id) throws ParsingException {
+    static JsonObject query(final Downloader downloader, final int id) throws ParsingException {
         try {
-            return JsonParser.object().from(NewPipe.getDownloader()
+            return JsonParser.object().from(downloader
                     .get(BASE_API_URL + "/bcweekly/1/get?id=" + id).responseBody());
         } catch (final IOException | ReCaptchaException | JsonParserException e) {
             throw new ParsingException("could not get show data", e);
@@ -56,7 +55,7 @@ public class BandcampRadioStreamExtractor extends BandcampStreamExtractor {
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
-        showInfo = query(Integer.parseInt(getId()));
+        showInfo = query(downloader, Integer.parseInt(getId()));
     }
 
     @Nonnull
@@ -1,6 +1,7 @@
 package org.schabi.newpipe.extractor.services.bandcamp.extractors.streaminfoitem;
 
 import com.grack.nanojson.JsonObject;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.services.bandcamp.extractors.BandcampExtractorHelper;
 
@@ -9,10 +10,17 @@ import javax.annotation.Nullable;
 public class BandcampDiscographStreamInfoItemExtractor extends BandcampStreamInfoItemExtractor {
 
     private final JsonObject discograph;
+    private final Downloader downloader;
+
+    /**
+     * @param downloader the downloader of the extractor, with which the URL of the item is got
+     */
     public BandcampDiscographStreamInfoItemExtractor(final JsonObject discograph,
-                                                     final String uploaderUrl) {
+                                                     final String uploaderUrl,
+                                                     final Downloader downloader) {
         super(uploaderUrl);
         this.discograph = discograph;
+        this.downloader = downloader;
     }
 
     @Override
@@ -34,6 +42,7 @@ public class BandcampDiscographStreamInfoItemExtractor extends BandcampStreamInf
     @Override
     public String getUrl() throws ParsingException {
         return BandcampExtractorHelper.getStreamUrlFromIds(
+                downloader,
                 discograph.getLong("band_id"),
                 discograph.getLong("item_id"),
                 discograph.getString("item_type")
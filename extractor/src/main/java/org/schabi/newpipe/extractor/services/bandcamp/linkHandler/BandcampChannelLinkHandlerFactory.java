@@ -43,7 +43,7 @@ public class BandcampChannelLinkHandlerFactory extends ListLinkHandlerFactory {
     public String getUrl(final String id, final List<String> contentFilter, final String sortFilter)
             throws ParsingException {
         try {
-            return BandcampExtractorHelper.getArtistDetails(id)
+            return BandcampExtractorHelper.getArtistDetails(NewPipe.getDownloader(), id)
                     .getString("bandcamp_url")
                     .replace("http://", "https://");
         } catch (final NullPointerException e) {
@@ -84,7 +84,7 @@ public class BandcampChannelLinkHandlerFactory extends ListLinkHandlerFactory {
             }
 
             // Test whether domain is supported
-            return BandcampExtractorHelper.isSupportedDomain(lowercaseUrl);
+            return BandcampExtractorHelper.isSupportedDomain(NewPipe.getDownloader(), lowercaseUrl);
         }
     }
 }
@@ -35,6 +35,8 @@ import org.schabi.newpipe.extractor.stream.StreamExtractor;
 import org.schabi.newpipe.extractor.subscription.SubscriptionExtractor;
 import org.schabi.newpipe.extractor.suggestion.SuggestionExtractor;
 
+import java.util.Set;
+
 public class MediaCCCService extends StreamingService {
     public MediaCCCService(final int id) {
         super(id, "media.ccc.de", asList(AUDIO, VIDEO));
@@ -152,4 +154,10 @@ public class MediaCCCService extends StreamingService {
         return "https://media.ccc.de";
     }
 
+    @Override
+    public Set<String> getSupportedHosts() {
+        return Set.of("media.ccc.de", "www.media.ccc.de", "api.media.ccc.de",
+                "streaming.media.ccc.de");
+    }
+
 }
@@ -0,0 +1,220 @@
+package org.schabi.newpipe.extractor.services.media_ccc.extractors;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Searches the conferences of media.ccc.de locally, so that searching conferences does not need
+ * to download the list of all the conferences each time.
+ *
+ * <p>
+ * The conferences are fetched once for each context, and indexed by the words of their title and
+ * by their acronym. The index is fresh for {@link #TTL_NANOS 1 hour}. The first search after that
+ * starts rebuilding it in the background, and searches keep using the previous index while the
+ * conferences are fetched again or if that fails, for at most {@link #MAX_STALE_NANOS 1 day}. The
+ * index is not rebuilt periodically, as that would download the conferences every hour for
+ * applications which don't search them.
+ * </p>
+ */
+final class MediaCCCConferenceIndex {
+    private static final ExtractorContext.CacheKey<MediaCCCConferenceIndex> KEY =
+            new ExtractorContext.CacheKey<>("mediaccc.conferenceIndex");
+    static final String CONFERENCES_URL = "https://media.ccc.de/public/conferences";
+    static final long TTL_NANOS = TimeUnit.HOURS.toNanos(1);
+    static final long MAX_STALE_NANOS = TimeUnit.DAYS.toNanos(1);
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final ExecutorService EXECUTOR =
+            DaemonExecutors.newPool("media.ccc.de conference index", 1);
+
+    /**
+     * The cached value, keyed by the URL it is fetched from.
+     */
+    private final ExpiringCache<String, Index> index;
+
+    /**
+     * An inverted index of conferences.
+     *
+     * <p>
+     * Each word of a conference, and each suffix of the word, is a term of the index, so that a
+     * query word matches the conferences which have a word containing it, e.g. {@code c3} matches
+     * {@code 36C3}, like the previous substring search did. The terms are sorted, so that the
+     * terms starting with a query word are found with a binary search.
+     * </p>
+     */
+    static final class Index {
+        private final List<JsonObject> conferences;
+        private final String[] terms;
+        private final BitSet[] postings;
+
+        Index(@Nonnull final JsonArray json) {
+            final List<JsonObject> allConferences = new ArrayList<>();
+            final Map<String, BitSet> termPostings = new TreeMap<>();
+            for (final Object conference : json) {
+                if (!(conference instanceof JsonObject)) {
+                    continue;
+                }
+                final JsonObject conferenceObject = (JsonObject) conference;
+                final int position = allConferences.size();
+                allConferences.add(conferenceObject);
+
+                final String text = conferenceObject.getString("title", "") + " "
+                        + conferenceObject.getString("acronym", "");
+                for (final String word : tokenize(text)) {
+                    for (int i = 0; i < word.length(); i++) {
+                        termPostings.computeIfAbsent(word.substring(i), term -> new BitSet())
+                                .set(position);
+                    }
+                }
+            }
+
+            this.conferences = Collections.unmodifiableList(allConferences);
+            this.terms = termPostings.keySet().toArray(new String[0]);
+            this.postings = termPostings.values().toArray(new BitSet[0]);
+        }
+
+        /**
+         * @return the conferences in the order of media.ccc.de
+         */
+        @Nonnull
+        List<JsonObject> getConferences() {
+            return conferences;
+        }
+
+        /**
+         * Find the conferences which have, for each word of the query, a word containing it.
+         * Words are compared in lower case, and a query without words matches all the
+         * conferences.
+         *
+         * @param query the search string
+         * @return the matching conferences, in the order of media.ccc.de
+         */
+        @Nonnull
+        List<JsonObject> search(@Nonnull final String query) {
+            BitSet matches = null;
+            for (final String word : tokenize(query)) {
+                final BitSet wordMatches = new BitSet();
+                int i = Arrays.binarySearch(terms, word);
+                if (i < 0) {
+                    i = -i - 1;
+                }
+                for (; i < terms.length && terms[i].startsWith(word); i++) {
+                    wordMatches.or(postings[i]);
+                }
+
+                if (matches == null) {
+                    matches = wordMatches;
+                } else {
+                    matches.and(wordMatches);
+                }
+                if (matches.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            if (matches == null) {
+                return conferences;
+            }
+            final List<JsonObject> result = new ArrayList<>(matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                result.add(conferences.get(i));
+            }
+            return result;
+        }
+    }
+
+    MediaCCCConferenceIndex(@Nonnull final LongSupplier nanoClock,
+                            @Nonnull final Executor rebuildExecutor) {
+        this.index = new ExpiringCache.Builder<String, Index>(Duration.ofNanos(TTL_NANOS))
+                .maxStale(Duration.ofNanos(MAX_STALE_NANOS))
+                .refreshExecutor(rebuildExecutor)
+                .nanoClock(nanoClock)
+                .build();
+    }
+
+    /**
+     * @param context the context of an extractor
+     * @return the index of the context
+     */
+    @Nonnull
+    static MediaCCCConferenceIndex of(@Nonnull final ExtractorContext context) {
+        final Supplier<MediaCCCConferenceIndex> creator =
+                () -> new MediaCCCConferenceIndex(System::nanoTime, EXECUTOR);
+        return context.getCached(KEY, creator);
+    }
+
+    /**
+     * Search the conferences, building the index first if it is not built or is too stale, or
+     * starting to rebuild it in the background if it is outdated.
+     *
+     * @param downloader   the downloader to use for fetching the conferences
+     * @param localization the localization to be used, which will most likely be ignored
+     * @param query        the search string
+     * @return the matching conferences, see {@link Index#search(String)}
+     * @throws ExtractionException if the conferences could not be fetched or parsed, and there is
+     *                             no previous index which is recent enough
+     */
+    @Nonnull
+    List<JsonObject> search(@Nonnull final Downloader downloader,
+                            @Nonnull final Localization localization,
+                            @Nonnull final String query) throws ExtractionException {
+        try {
+            return index.get(CONFERENCES_URL, () -> new Index(fetch(downloader, localization)))
+                    .search(query);
+        } catch (final IOException e) {
+            throw new ExtractionException("Could not get conferences JSON.", e);
+        }
+    }
+
+    @Nonnull
+    static List<String> tokenize(@Nonnull final String text) {
+        final List<String> words = new ArrayList<>();
+        for (final String word : NON_WORD_CHARACTERS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    @Nonnull
+    private static JsonArray fetch(@Nonnull final Downloader downloader,
+                                   @Nonnull final Localization localization)
+            throws ExtractionException {
+        try {
+            final String site = downloader.get(CONFERENCES_URL, localization).responseBody();
+            return JsonParser.object().from(site).getArray("conferences", new JsonArray());
+        } catch (final IOException | ReCaptchaException e) {
+            throw new ExtractionException("Could not get conferences JSON.", e);
+        } catch (final JsonParserException e) {
+            throw new ExtractionException("Could not parse json.", e);
+        }
+    }
+}
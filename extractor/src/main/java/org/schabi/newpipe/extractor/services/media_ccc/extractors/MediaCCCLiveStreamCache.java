@@ -0,0 +1,208 @@
+package org.schabi.newpipe.extractor.services.media_ccc.extractors;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the live streams of
+ * <a href="https://streaming.media.ccc.de/streams/v2.json">streams/v2.json</a>, which are shared
+ * by {@link MediaCCCLiveStreamKiosk} and {@link MediaCCCLiveStreamExtractor}, as the file can get
+ * quite big.
+ *
+ * <p>
+ * The live streams are fresh for {@link #TTL_NANOS 3 minutes}. The first request after that starts
+ * fetching them again in the background, and requests keep getting the previous ones while they
+ * are fetched again or if that fails, for at most {@link #MAX_STALE_NANOS 30 minutes}.
+ * </p>
+ */
+final class MediaCCCLiveStreamCache {
+    private static final ExtractorContext.CacheKey<MediaCCCLiveStreamCache> KEY =
+            new ExtractorContext.CacheKey<>("mediaccc.liveStreams");
+    static final String LIVE_STREAMS_URL = "https://streaming.media.ccc.de/streams/v2.json";
+    static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(3);
+    static final long MAX_STALE_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final ExecutorService EXECUTOR =
+            DaemonExecutors.newPool("media.ccc.de live streams", 1);
+
+    /**
+     * The cached value, keyed by the URL it is fetched from.
+     */
+    private final ExpiringCache<String, LiveStreams> liveStreams;
+
+    /**
+     * A room of a conference, i.e. a live stream.
+     */
+    static final class Room {
+        private final JsonObject conference;
+        private final String group;
+        private final JsonObject room;
+
+        Room(@Nonnull final JsonObject conference,
+             @Nonnull final String group,
+             @Nonnull final JsonObject room) {
+            this.conference = conference;
+            this.group = group;
+            this.room = room;
+        }
+
+        @Nonnull
+        JsonObject getConference() {
+            return conference;
+        }
+
+        @Nonnull
+        String getGroup() {
+            return group;
+        }
+
+        @Nonnull
+        JsonObject getRoom() {
+            return room;
+        }
+    }
+
+    /**
+     * The live streams fetched at some point, with their rooms indexed by id, i.e. by
+     * {@code {conference_slug}/{room_slug}}.
+     */
+    static final class LiveStreams {
+        private final JsonArray json;
+        private final List<Room> rooms;
+        private final Map<String, Room> roomsById;
+
+        LiveStreams(@Nonnull final JsonArray json) {
+            this.json = json;
+
+            final List<Room> allRooms = new ArrayList<>();
+            final Map<String, Room> byId = new HashMap<>();
+            for (final Object conference : json) {
+                if (!(conference instanceof JsonObject)) {
+                    continue;
+                }
+                final JsonObject conferenceObject = (JsonObject) conference;
+                for (final Object group : conferenceObject.getArray("groups", new JsonArray())) {
+                    if (!(group instanceof JsonObject)) {
+                        continue;
+                    }
+                    final JsonObject groupObject = (JsonObject) group;
+                    final String groupName = groupObject.getString("group", "");
+                    for (final Object room : groupObject.getArray("rooms", new JsonArray())) {
+                        if (!(room instanceof JsonObject)) {
+                            continue;
+                        }
+                        final Room entry = new Room(conferenceObject, groupName, (JsonObject) room);
+                        allRooms.add(entry);
+                        byId.putIfAbsent(conferenceObject.getString("slug") + "/"
+                                + ((JsonObject) room).getString("slug"), entry);
+                    }
+                }
+            }
+            this.rooms = Collections.unmodifiableList(allRooms);
+            this.roomsById = Collections.unmodifiableMap(byId);
+        }
+
+        /**
+         * @return the conferences with their rooms and streams, as returned by media.ccc.de
+         */
+        @Nonnull
+        JsonArray getJson() {
+            return json;
+        }
+
+        /**
+         * @return the rooms of all the conferences, in the order of the JSON document
+         */
+        @Nonnull
+        List<Room> getRooms() {
+            return rooms;
+        }
+
+        /**
+         * @param id the id of a live stream, i.e. {@code {conference_slug}/{room_slug}}
+         * @return the room of the live stream, or {@code null} if there is none
+         */
+        @Nullable
+        Room getRoom(@Nonnull final String id) {
+            return roomsById.get(id);
+        }
+    }
+
+    MediaCCCLiveStreamCache(@Nonnull final LongSupplier nanoClock,
+                            @Nonnull final Executor refreshExecutor) {
+        this.liveStreams = new ExpiringCache.Builder<String, LiveStreams>(
+                Duration.ofNanos(TTL_NANOS))
+                .maxStale(Duration.ofNanos(MAX_STALE_NANOS))
+                .refreshExecutor(refreshExecutor)
+                .nanoClock(nanoClock)
+                .build();
+    }
+
+    /**
+     * @param context the context of an extractor
+     * @return the cache of the context
+     */
+    @Nonnull
+    static MediaCCCLiveStreamCache of(@Nonnull final ExtractorContext context) {
+        final Supplier<MediaCCCLiveStreamCache> creator =
+                () -> new MediaCCCLiveStreamCache(System::nanoTime, EXECUTOR);
+        return context.getCached(KEY, creator);
+    }
+
+    /**
+     * Get the current live streams, fetching them if they are not cached or are outdated.
+     *
+     * @param downloader   the downloader to use for making the request
+     * @param localization the localization to be used, which will most likely be ignored
+     * @throws ExtractionException if the live streams could not be fetched or parsed, and there
+     *                             are no previous ones which are recent enough
+     */
+    @Nonnull
+    LiveStreams get(@Nonnull final Downloader downloader,
+                    @Nonnull final Localization localization) throws ExtractionException {
+        try {
+            return liveStreams.get(LIVE_STREAMS_URL,
+                    () -> new LiveStreams(fetch(downloader, localization)));
+        } catch (final IOException e) {
+            throw new ExtractionException("Could not get live stream JSON.", e);
+        }
+    }
+
+    @Nonnull
+    private static JsonArray fetch(@Nonnull final Downloader downloader,
+                                   @Nonnull final Localization localization)
+            throws ExtractionException {
+        try {
+            final String site = downloader.get(LIVE_STREAMS_URL, localization).responseBody();
+            return JsonParser.array().from(site);
+        } catch (final IOException | ReCaptchaException e) {
+            throw new ExtractionException("Could not get live stream JSON.", e);
+        } catch (final JsonParserException e) {
+            throw new ExtractionException("Could not parse JSON.", e);
+        }
+    }
+}
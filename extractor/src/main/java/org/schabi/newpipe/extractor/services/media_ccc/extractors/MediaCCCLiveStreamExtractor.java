@@ -45,26 +45,14 @@ public class MediaCCCLiveStreamExtractor extends StreamExtractor {
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
-        final JsonArray doc = MediaCCCParsingHelper.getLiveStreams(downloader,
-                getExtractorLocalization());
-        // Find the correct room
-        for (int c = 0; c < doc.size(); c++) {
-            final JsonObject conferenceObject = doc.getObject(c);
-            final JsonArray groups = conferenceObject.getArray("groups");
-            for (int g = 0; g < groups.size(); g++) {
-                final String groupObject = groups.getObject(g).getString("group");
-                final JsonArray rooms = groups.getObject(g).getArray("rooms");
-                for (int r = 0; r < rooms.size(); r++) {
-                    final JsonObject roomObject = rooms.getObject(r);
-                    if (getId().equals(conferenceObject.getString("slug") + "/"
-                            + roomObject.getString("slug"))) {
-                        conference = conferenceObject;
-                        group = groupObject;
-                        room = roomObject;
-                        return;
-                    }
-                }
-            }
+        final MediaCCCLiveStreamCache.Room found = MediaCCCLiveStreamCache.of(getContext())
+                .get(downloader, getExtractorLocalization())
+                .getRoom(getId());
+        if (found != null) {
+            conference = found.getConference();
+            group = found.getGroup();
+            room = found.getRoom();
+            return;
         }
         throw new ExtractionException("Could not find room matching id: '" + getId() + "'");
     }
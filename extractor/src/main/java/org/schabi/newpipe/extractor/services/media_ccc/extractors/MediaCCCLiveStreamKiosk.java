@@ -1,7 +1,5 @@
 package org.schabi.newpipe.extractor.services.media_ccc.extractors;
 
-import com.grack.nanojson.JsonArray;
-import com.grack.nanojson.JsonObject;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.downloader.Downloader;
@@ -16,7 +14,7 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 
 public class MediaCCCLiveStreamKiosk extends KioskExtractor<StreamInfoItem> {
-    private JsonArray doc;
+    private MediaCCCLiveStreamCache.LiveStreams liveStreams;
 
     public MediaCCCLiveStreamKiosk(final StreamingService streamingService,
                                    final ListLinkHandler linkHandler,
@@ -27,25 +25,17 @@ public class MediaCCCLiveStreamKiosk extends KioskExtractor<StreamInfoItem> {
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
-        doc = MediaCCCParsingHelper.getLiveStreams(downloader, getExtractorLocalization());
+        liveStreams = MediaCCCLiveStreamCache.of(getContext())
+                .get(downloader, getExtractorLocalization());
     }
 
     @Nonnull
     @Override
     public InfoItemsPage<StreamInfoItem> getInitialPage() throws IOException, ExtractionException {
         final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        for (int c = 0; c < doc.size(); c++) {
-            final JsonObject conference = doc.getObject(c);
-            final JsonArray groups = conference.getArray("groups");
-            for (int g = 0; g < groups.size(); g++) {
-                final String group = groups.getObject(g).getString("group");
-                final JsonArray rooms = groups.getObject(g).getArray("rooms");
-                for (int r = 0; r < rooms.size(); r++) {
-                    final JsonObject room = rooms.getObject(r);
-                    collector.commit(new MediaCCCLiveStreamKioskExtractor(conference, group, room));
-                }
-            }
-
+        for (final MediaCCCLiveStreamCache.Room room : liveStreams.getRooms()) {
+            collector.commit(new MediaCCCLiveStreamKioskExtractor(room.getConference(),
+                    room.getGroup(), room.getRoom()));
         }
         return new InfoItemsPage<>(collector, null);
     }
@@ -13,15 +13,13 @@ import org.schabi.newpipe.extractor.InfoItem;
 import org.schabi.newpipe.extractor.MetaInfo;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.StreamingService;
-import org.schabi.newpipe.extractor.channel.ChannelInfoItem;
-import org.schabi.newpipe.extractor.channel.ChannelInfoItemExtractor;
 import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
 import org.schabi.newpipe.extractor.MultiInfoItemsCollector;
 import org.schabi.newpipe.extractor.search.SearchExtractor;
+import org.schabi.newpipe.extractor.services.media_ccc.extractors.infoItems.MediaCCCConferenceInfoItemExtractor;
 import org.schabi.newpipe.extractor.services.media_ccc.extractors.infoItems.MediaCCCStreamInfoItemExtractor;
-import org.schabi.newpipe.extractor.services.media_ccc.linkHandler.MediaCCCConferencesListLinkHandlerFactory;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -31,18 +29,11 @@ import javax.annotation.Nonnull;
 
 public class MediaCCCSearchExtractor extends SearchExtractor {
     private JsonObject doc;
-    private MediaCCCConferenceKiosk conferenceKiosk;
+    private List<JsonObject> conferences = Collections.emptyList();
 
     public MediaCCCSearchExtractor(final StreamingService service,
                                    final SearchQueryHandler linkHandler) {
         super(service, linkHandler);
-        try {
-            conferenceKiosk = new MediaCCCConferenceKiosk(service,
-                    new MediaCCCConferencesListLinkHandlerFactory().fromId("conferences"),
-                    "conferences");
-        } catch (final Exception e) {
-            e.printStackTrace();
-        }
     }
 
     @Nonnull
@@ -70,9 +61,9 @@ public class MediaCCCSearchExtractor extends SearchExtractor {
         if (getLinkHandler().getContentFilters().contains(CONFERENCES)
                 || getLinkHandler().getContentFilters().contains(ALL)
                 || getLinkHandler().getContentFilters().isEmpty()) {
-            searchConferences(getSearchString(),
-                    conferenceKiosk.getInitialPage().getItems(),
-                    searchItems);
+            for (final JsonObject conference : conferences) {
+                searchItems.commit(new MediaCCCConferenceInfoItemExtractor(conference));
+            }
         }
 
         if (getLinkHandler().getContentFilters().contains(EVENTS)
@@ -115,53 +106,9 @@ public class MediaCCCSearchExtractor extends SearchExtractor {
         if (getLinkHandler().getContentFilters().contains(CONFERENCES)
                 || getLinkHandler().getContentFilters().contains(ALL)
                 || getLinkHandler().getContentFilters().isEmpty()) {
-            conferenceKiosk.fetchPage();
-        }
-    }
-
-    private void searchConferences(final String searchString,
-                                   final List<ChannelInfoItem> channelItems,
-                                   final MultiInfoItemsCollector collector) {
-        for (final ChannelInfoItem item : channelItems) {
-            if (item.getName().toUpperCase().contains(
-                    searchString.toUpperCase())) {
-                collector.commit(new ChannelInfoItemExtractor() {
-                    @Override
-                    public String getDescription() {
-                        return item.getDescription();
-                    }
-
-                    @Override
-                    public long getSubscriberCount() {
-                        return item.getSubscriberCount();
-                    }
-
-                    @Override
-                    public long getStreamCount() {
-                        return item.getStreamCount();
-                    }
-
-                    @Override
-                    public boolean isVerified() {
-                        return false;
-                    }
-
-                    @Override
-                    public String getName() {
-                        return item.getName();
-                    }
-
-                    @Override
-                    public String getUrl() {
-                        return item.getUrl();
-                    }
-
-                    @Override
-                    public String getThumbnailUrl() {
-                        return item.getThumbnailUrl();
-                    }
-                });
-            }
+            // Conferences are searched locally, as media.ccc.de can only search events
+            conferences = MediaCCCConferenceIndex.of(getContext())
+                    .search(downloader, getExtractorLocalization(), getSearchString());
         }
     }
 }
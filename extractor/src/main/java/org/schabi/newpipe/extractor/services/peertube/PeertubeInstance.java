@@ -1,28 +1,24 @@
 package org.schabi.newpipe.extractor.services.peertube;
 
-import com.grack.nanojson.JsonObject;
-import com.grack.nanojson.JsonParser;
-import com.grack.nanojson.JsonParserException;
-
 import org.schabi.newpipe.extractor.NewPipe;
-import org.schabi.newpipe.extractor.downloader.Response;
-import org.schabi.newpipe.extractor.exceptions.ParsingException;
-import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
-import org.schabi.newpipe.extractor.utils.JsonUtils;
-import org.schabi.newpipe.extractor.utils.Utils;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 
-import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class PeertubeInstance {
 
+    private static final String DEFAULT_NAME = "PeerTube";
+
     private final String url;
+    @Nullable
     private String name;
     public static final PeertubeInstance DEFAULT_INSTANCE
             = new PeertubeInstance("https://framatube.org", "FramaTube");
 
     public PeertubeInstance(final String url) {
         this.url = url;
-        this.name = "PeerTube";
+        this.name = null;
     }
 
     public PeertubeInstance(final String url, final String name) {
@@ -34,27 +30,39 @@ public class PeertubeInstance {
         return url;
     }
 
+    /**
+     * Fetch the metadata of this instance, or get them from the
+     * {@link PeertubeInstanceRegistry registry} if they were already fetched for another
+     * {@link PeertubeInstance} object with the same URL, and take its name from them.
+     */
     public void fetchInstanceMetaData() throws Exception {
-        final Response response;
         try {
-            response = NewPipe.getDownloader().get(url + "/api/v1/config");
-        } catch (ReCaptchaException | IOException e) {
+            this.name = getMetadata().getName();
+        } catch (final ExtractionException e) {
             throw new Exception("unable to configure instance " + url, e);
         }
+    }
 
-        if (response == null || Utils.isBlank(response.responseBody())) {
-            throw new Exception("unable to configure instance " + url);
-        }
-
-        try {
-            final JsonObject json = JsonParser.object().from(response.responseBody());
-            this.name = JsonUtils.getString(json, "instance.name");
-        } catch (JsonParserException | ParsingException e) {
-            throw new Exception("unable to parse instance config", e);
-        }
+    /**
+     * @return the metadata of this instance, from the {@link PeertubeInstanceRegistry registry}
+     * of the current context
+     * @throws ExtractionException if the metadata could not be fetched
+     */
+    @Nonnull
+    public PeertubeInstanceMetadata getMetadata() throws ExtractionException {
+        return PeertubeInstanceRegistry.of(NewPipe.getContext()).get(url);
     }
 
+    /**
+     * @return the name given to this instance, or else the name of its metadata if they were
+     * already fetched, or else a generic name
+     */
     public String getName() {
+        if (name == null) {
+            final PeertubeInstanceMetadata metadata =
+                    PeertubeInstanceRegistry.of(NewPipe.getContext()).getIfPresent(url);
+            return metadata == null ? DEFAULT_NAME : metadata.getName();
+        }
         return name;
     }
 
@@ -0,0 +1,148 @@
+package org.schabi.newpipe.extractor.services.peertube;
+
+import com.grack.nanojson.JsonObject;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.JsonUtils;
+import org.schabi.newpipe.extractor.utils.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The metadata of a PeerTube instance, as returned by its {@code /api/v1/config} endpoint.
+ *
+ * @see PeertubeInstanceRegistry
+ */
+public final class PeertubeInstanceMetadata {
+    public static final String API_PATH = "/api/v1";
+    public static final String CONFIG_ENDPOINT = API_PATH + "/config";
+
+    private final String baseUrl;
+    private final String name;
+    @Nullable
+    private final String version;
+    private final boolean liveEnabled;
+    private final boolean remoteSearchEnabled;
+    @Nullable
+    private final String searchIndexUrl;
+
+    PeertubeInstanceMetadata(@Nonnull final String baseUrl,
+                             @Nonnull final String name,
+                             @Nullable final String version,
+                             final boolean liveEnabled,
+                             final boolean remoteSearchEnabled,
+                             @Nullable final String searchIndexUrl) {
+        this.baseUrl = baseUrl;
+        this.name = name;
+        this.version = version;
+        this.liveEnabled = liveEnabled;
+        this.remoteSearchEnabled = remoteSearchEnabled;
+        this.searchIndexUrl = searchIndexUrl;
+    }
+
+    /**
+     * @param baseUrl the base URL of the instance
+     * @param config  the configuration of the instance
+     * @return the metadata of the instance
+     * @throws ParsingException if the configuration has no instance name
+     */
+    @Nonnull
+    static PeertubeInstanceMetadata fromConfig(@Nonnull final String baseUrl,
+                                               @Nonnull final JsonObject config)
+            throws ParsingException {
+        final String name = JsonUtils.getString(config, "instance.name");
+        final JsonObject search = config.getObject("search", new JsonObject());
+        final JsonObject searchIndex = search.getObject("searchIndex", new JsonObject());
+        final String searchIndexUrl = searchIndex.getString("url");
+
+        return new PeertubeInstanceMetadata(baseUrl, name,
+                config.getString("serverVersion"),
+                config.getObject("live", new JsonObject()).getBoolean("enabled", false),
+                search.getObject("remoteUri", new JsonObject()).getBoolean("anonymous", false),
+                searchIndex.getBoolean("enabled", false) && !Utils.isBlank(searchIndexUrl)
+                        ? searchIndexUrl : null);
+    }
+
+    /**
+     * @return the base URL of the instance, without trailing slash
+     */
+    @Nonnull
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return the URL of the REST API of the instance, to which the endpoints are appended
+     */
+    @Nonnull
+    public String getApiUrl() {
+        return baseUrl + API_PATH;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the version of PeerTube run by the instance, e.g. {@code 4.2.1}, or {@code null}
+     * if the instance doesn't tell it
+     */
+    @Nullable
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param major the major version
+     * @param minor the minor version
+     * @return whether the instance runs at least the given version of PeerTube. Unknown versions
+     * are considered older than all the versions.
+     */
+    public boolean isVersionAtLeast(final int major, final int minor) {
+        if (version == null) {
+            return false;
+        }
+        final String[] parts = version.split("[.-]");
+        try {
+            final int actualMajor = Integer.parseInt(parts[0]);
+            final int actualMinor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return actualMajor > major || (actualMajor == major && actualMinor >= minor);
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return whether the instance supports the short {@code /w/} and {@code /a/} paths of
+     * PeerTube 3.3.0
+     */
+    public boolean supportsShortPaths() {
+        return isVersionAtLeast(3, 3);
+    }
+
+    /**
+     * @return whether the users of the instance can stream live
+     */
+    public boolean isLiveEnabled() {
+        return liveEnabled;
+    }
+
+    /**
+     * @return whether anonymous searches of the instance also return remote videos and channels,
+     * which it doesn't know yet
+     */
+    public boolean isRemoteSearchEnabled() {
+        return remoteSearchEnabled;
+    }
+
+    /**
+     * @return the URL of the global search index, e.g. Sepia search, which is used by the
+     * instance for its searches, or {@code null} if it uses none
+     */
+    @Nullable
+    public String getSearchIndexUrl() {
+        return searchIndexUrl;
+    }
+}
@@ -0,0 +1,598 @@
+package org.schabi.newpipe.extractor.services.peertube;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+import org.schabi.newpipe.extractor.services.peertube.extractors.PeertubeTrendingExtractor;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeChannelLinkHandlerFactory;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubePlaylistLinkHandlerFactory;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeSearchQueryHandlerFactory;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeStreamLinkHandlerFactory;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeTrendingLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Sends the same request to several PeerTube instances at once.
+ *
+ * <p>
+ * Each instance of the pool gets its own {@link PeertubeService}, so the instance set with
+ * {@link PeertubeService#setInstance(PeertubeInstance)} is left untouched. For each request, the
+ * {@link Builder#fanOut(int) best} healthy instances are queried concurrently and their results
+ * are merged, with the results of the healthiest instances first. A video, channel or playlist
+ * which is federated to several of them is only kept once, as they share the same UUID or name.
+ * </p>
+ *
+ * <p>
+ * The latency and the error rate of each instance are tracked as exponentially weighted moving
+ * averages. An instance whose error rate reaches the {@link Builder#errorThreshold(double)
+ * threshold} is unhealthy: it is left out of the requests, except for one request every
+ * {@link Builder#retryAfter(Duration) now and then} which checks whether it has recovered.
+ * </p>
+ */
+public final class PeertubeInstancePool {
+    /**
+     * The weight of the last request in the averages of an instance.
+     */
+    static final double SMOOTHING = 0.3;
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            DaemonExecutors.newPool("PeerTube instances", 8);
+
+    private final List<PeertubeInstance> instances;
+    private final Map<PeertubeInstance, PeertubeService> services;
+    private final Map<PeertubeInstance, Stats> stats;
+    private final int fanOut;
+    private final Duration timeout;
+    private final double errorThreshold;
+    private final long retryAfterNanos;
+    private final ExecutorService executor;
+    private final LongSupplier nanoClock;
+
+    /**
+     * The health of an instance, as measured by the requests of the pool.
+     */
+    public static final class Health {
+        private final double latencyNanos;
+        private final double errorRate;
+        private final long requests;
+        private final long failures;
+        private final boolean healthy;
+
+        Health(final double latencyNanos,
+               final double errorRate,
+               final long requests,
+               final long failures,
+               final boolean healthy) {
+            this.latencyNanos = latencyNanos;
+            this.errorRate = errorRate;
+            this.requests = requests;
+            this.failures = failures;
+            this.healthy = healthy;
+        }
+
+        /**
+         * @return the average latency of the requests, in nanoseconds, or 0 if there was none
+         */
+        public double getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * @return the average error rate of the requests, between 0 and 1
+         */
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return whether the error rate is below the threshold of the pool
+         */
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    /**
+     * The merged result of a request sent to several instances.
+     *
+     * @param <T> the type of the items
+     */
+    public static final class Result<T extends InfoItem> {
+        private final List<T> items;
+        private final Map<PeertubeInstance, InfoItemsPage<T>> pages;
+        private final Map<PeertubeInstance, Throwable> errors;
+
+        Result(@Nonnull final List<T> items,
+               @Nonnull final Map<PeertubeInstance, InfoItemsPage<T>> pages,
+               @Nonnull final Map<PeertubeInstance, Throwable> errors) {
+            this.items = Collections.unmodifiableList(items);
+            this.pages = Collections.unmodifiableMap(pages);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * @return the items of all the instances which completed in time, without duplicates
+         */
+        @Nonnull
+        public List<T> getItems() {
+            return items;
+        }
+
+        /**
+         * @return the pages of the instances which completed in time, from the healthiest
+         * instance to the least healthy one, e.g. to get their next pages with
+         * {@link PeertubeInstancePool#getService(PeertubeInstance)}
+         */
+        @Nonnull
+        public Map<PeertubeInstance, InfoItemsPage<T>> getPages() {
+            return pages;
+        }
+
+        /**
+         * @return the errors of the instances which failed, which are {@link TimeoutException}s
+         * for the ones which did not complete in time
+         */
+        @Nonnull
+        public Map<PeertubeInstance, Throwable> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return whether all the queried instances completed in time
+         */
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+    }
+
+    /**
+     * Creates the extractor of a request for the service of an instance.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    private interface ExtractorFactory<T extends InfoItem> {
+        @Nonnull
+        ListExtractor<T> create(@Nonnull PeertubeService service) throws ExtractionException;
+    }
+
+    /**
+     * The mutable health of an instance, guarded by the pool.
+     */
+    private static final class Stats {
+        private double latencyNanos;
+        private double errorRate;
+        private long requests;
+        private long failures;
+        private long lastSelectedNanos;
+    }
+
+    /**
+     * The page of an instance, or the reason why it could not be fetched.
+     *
+     * @param <T> the type of the items
+     */
+    private static final class Outcome<T extends InfoItem> {
+        @Nullable
+        private final InfoItemsPage<T> page;
+        @Nullable
+        private final Exception error;
+        private final long latencyNanos;
+
+        Outcome(@Nullable final InfoItemsPage<T> page,
+                @Nullable final Exception error,
+                final long latencyNanos) {
+            this.page = page;
+            this.error = error;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+
+    private PeertubeInstancePool(@Nonnull final Builder builder) {
+        this.instances = Collections.unmodifiableList(new ArrayList<>(builder.instances));
+        this.services = new LinkedHashMap<>();
+        this.stats = new LinkedHashMap<>();
+        for (final PeertubeInstance instance : instances) {
+            services.put(instance,
+                    new PeertubeService(ServiceList.PeerTube.getServiceId(), instance));
+            stats.put(instance, new Stats());
+        }
+        this.fanOut = builder.fanOut;
+        this.timeout = builder.timeout;
+        this.errorThreshold = builder.errorThreshold;
+        this.retryAfterNanos = builder.retryAfter.toNanos();
+        this.executor = builder.executor;
+        this.nanoClock = builder.nanoClock;
+    }
+
+    @Nonnull
+    public List<PeertubeInstance> getInstances() {
+        return instances;
+    }
+
+    /**
+     * @param instance an instance of the pool
+     * @return the service which is bound to the instance, e.g. to get the next pages of a
+     * {@link Result}
+     */
+    @Nonnull
+    public PeertubeService getService(@Nonnull final PeertubeInstance instance) {
+        final PeertubeService service = services.get(instance);
+        if (service == null) {
+            throw new IllegalArgumentException(instance.getUrl() + " is not in the pool");
+        }
+        return service;
+    }
+
+    /**
+     * @return the current health of each instance, in the order of the instances
+     */
+    @Nonnull
+    public synchronized Map<PeertubeInstance, Health> getHealth() {
+        final Map<PeertubeInstance, Health> health = new LinkedHashMap<>();
+        stats.forEach((instance, s) -> health.put(instance, new Health(s.latencyNanos,
+                s.errorRate, s.requests, s.failures, s.errorRate < errorThreshold)));
+        return Collections.unmodifiableMap(health);
+    }
+
+    /**
+     * Search videos on the instances, with the context of the current thread.
+     *
+     * @see #search(String, List, String)
+     */
+    @Nonnull
+    public Result<InfoItem> search(@Nonnull final String query)
+            throws InterruptedIOException {
+        return search(query, Collections.singletonList(PeertubeSearchQueryHandlerFactory.VIDEOS),
+                "");
+    }
+
+    /**
+     * Search the instances, with the context of the current thread.
+     *
+     * @param query          the search query
+     * @param contentFilters the content filters of
+     *                       {@link PeertubeSearchQueryHandlerFactory#getAvailableContentFilter()},
+     *                       except the Sepia ones, as Sepia search already covers several
+     *                       instances
+     * @param sortFilter     the sort filter
+     * @return the merged results and the errors of the instances
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the instances
+     */
+    @Nonnull
+    public Result<InfoItem> search(@Nonnull final String query,
+                                   @Nonnull final List<String> contentFilters,
+                                   @Nonnull final String sortFilter)
+            throws InterruptedIOException {
+        if (!contentFilters.isEmpty() && contentFilters.get(0).startsWith("sepia_")) {
+            throw new IllegalArgumentException("Sepia search can't be sent to instances");
+        }
+        return fanOut(service -> {
+            final String url = PeertubeSearchQueryHandlerFactory.getInstance()
+                    .getUrl(query, contentFilters, sortFilter, service.getBaseUrl());
+            return service.getSearchExtractor(
+                    new SearchQueryHandler(url, url, query, contentFilters, sortFilter));
+        });
+    }
+
+    /**
+     * Get a kiosk of the instances, with the context of the current thread.
+     *
+     * @param kioskId the id of the kiosk, e.g.
+     *                {@link PeertubeTrendingLinkHandlerFactory#KIOSK_TRENDING}
+     * @return the merged streams and the errors of the instances
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the instances
+     */
+    @Nonnull
+    public Result<StreamInfoItem> getKiosk(@Nonnull final String kioskId)
+            throws InterruptedIOException {
+        if (!PeertubeTrendingLinkHandlerFactory.KIOSK_MAP.containsKey(kioskId)) {
+            throw new IllegalArgumentException("Unknown kiosk " + kioskId);
+        }
+        return fanOut(service -> new PeertubeTrendingExtractor(service,
+                PeertubeTrendingLinkHandlerFactory.getInstance()
+                        .fromId(kioskId, service.getBaseUrl()),
+                kioskId));
+    }
+
+    /**
+     * Get the streams of a channel or an account from the instances, with the context of the
+     * current thread. As instances only know the streams which are federated to them, this
+     * gets the streams of a remote channel even when its own instance is down.
+     *
+     * @param channelId the id of the channel, e.g. {@code video-channels/name@host} or
+     *                  {@code accounts/name@host}
+     * @return the merged streams and the errors of the instances
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the instances
+     */
+    @Nonnull
+    public Result<StreamInfoItem> getChannel(@Nonnull final String channelId)
+            throws InterruptedIOException {
+        return fanOut(service -> service.getChannelExtractor(
+                PeertubeChannelLinkHandlerFactory.getInstance()
+                        .fromId(channelId, service.getBaseUrl())));
+    }
+
+    @Nonnull
+    private <T extends InfoItem> Result<T> fanOut(@Nonnull final ExtractorFactory<T> factory)
+            throws InterruptedIOException {
+        final ExtractorContext context = NewPipe.getContext();
+        final List<PeertubeInstance> selected = select();
+        final long startNanos = System.nanoTime();
+        final Map<PeertubeInstance, Future<Outcome<T>>> futures = new LinkedHashMap<>();
+
+        try {
+            for (final PeertubeInstance instance : selected) {
+                final PeertubeService service = services.get(instance);
+                futures.put(instance, executor.submit(() -> context.run(() -> {
+                    final long requestStart = nanoClock.getAsLong();
+                    try {
+                        final ListExtractor<T> extractor = factory.create(service);
+                        extractor.fetchPage();
+                        final InfoItemsPage<T> page = extractor.getInitialPage();
+                        return new Outcome<>(page, null, nanoClock.getAsLong() - requestStart);
+                    } catch (final Exception e) {
+                        return new Outcome<>(null, e, nanoClock.getAsLong() - requestStart);
+                    }
+                })));
+            }
+
+            final Map<PeertubeInstance, InfoItemsPage<T>> pages = new LinkedHashMap<>();
+            final Map<PeertubeInstance, Throwable> errors = new LinkedHashMap<>();
+            for (final Map.Entry<PeertubeInstance, Future<Outcome<T>>> entry
+                    : futures.entrySet()) {
+                final PeertubeInstance instance = entry.getKey();
+                final Future<Outcome<T>> future = entry.getValue();
+                try {
+                    final Outcome<T> outcome = future.get(
+                            startNanos + timeout.toNanos() - System.nanoTime(),
+                            TimeUnit.NANOSECONDS);
+                    record(instance, outcome.error == null, outcome.latencyNanos);
+                    if (outcome.error == null) {
+                        pages.put(instance, outcome.page);
+                    } else {
+                        errors.put(instance, outcome.error);
+                    }
+                } catch (final TimeoutException e) {
+                    future.cancel(true);
+                    record(instance, false, timeout.toNanos());
+                    errors.put(instance, new TimeoutException(
+                            instance.getUrl() + " did not respond in time"));
+                } catch (final ExecutionException e) {
+                    record(instance, false, 0);
+                    errors.put(instance, e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while querying instances");
+                }
+            }
+
+            return new Result<>(merge(pages), pages, errors);
+        } finally {
+            // Cancel the queries which are still running if the thread was interrupted
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Choose the instances of a request: the {@link #fanOut} healthy instances with the lowest
+     * latency, adjusted by their error rate, plus one unhealthy instance which was not tried
+     * for {@link #retryAfterNanos}. If no instance is healthy, the least failing ones are used
+     * anyway.
+     */
+    @Nonnull
+    private synchronized List<PeertubeInstance> select() {
+        final long now = nanoClock.getAsLong();
+        final List<PeertubeInstance> healthy = new ArrayList<>();
+        final List<PeertubeInstance> unhealthy = new ArrayList<>();
+        for (final PeertubeInstance instance : instances) {
+            (stats.get(instance).errorRate < errorThreshold ? healthy : unhealthy).add(instance);
+        }
+        healthy.sort(Comparator.comparingDouble(instance -> {
+            final Stats s = stats.get(instance);
+            return s.latencyNanos / Math.max(0.05, 1 - s.errorRate);
+        }));
+        unhealthy.sort(Comparator.comparingDouble(instance -> stats.get(instance).errorRate));
+
+        final List<PeertubeInstance> selected =
+                new ArrayList<>(healthy.subList(0, Math.min(fanOut, healthy.size())));
+        if (selected.isEmpty()) {
+            selected.addAll(unhealthy.subList(0, Math.min(fanOut, unhealthy.size())));
+        } else {
+            unhealthy.stream()
+                    .filter(instance ->
+                            now - stats.get(instance).lastSelectedNanos >= retryAfterNanos)
+                    .findFirst()
+                    .ifPresent(selected::add);
+        }
+
+        for (final PeertubeInstance instance : selected) {
+            stats.get(instance).lastSelectedNanos = now;
+        }
+        return selected;
+    }
+
+    private synchronized void record(@Nonnull final PeertubeInstance instance,
+                                     final boolean success,
+                                     final long latencyNanos) {
+        final Stats s = stats.get(instance);
+        s.latencyNanos = s.requests == 0 ? latencyNanos
+                : SMOOTHING * latencyNanos + (1 - SMOOTHING) * s.latencyNanos;
+        s.errorRate = SMOOTHING * (success ? 0 : 1) + (1 - SMOOTHING) * s.errorRate;
+        s.requests++;
+        if (!success) {
+            s.failures++;
+        }
+    }
+
+    /**
+     * Take the first item of each instance in turn, then the second ones, and so on, skipping
+     * the items which were already taken from another instance.
+     */
+    @Nonnull
+    private static <T extends InfoItem> List<T> merge(
+            @Nonnull final Map<PeertubeInstance, InfoItemsPage<T>> pages) {
+        final List<T> merged = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        final int maxSize = pages.values().stream()
+                .mapToInt(page -> page.getItems().size()).max().orElse(0);
+        for (int i = 0; i < maxSize; i++) {
+            for (final InfoItemsPage<T> page : pages.values()) {
+                if (i < page.getItems().size()) {
+                    final T item = page.getItems().get(i);
+                    if (seen.add(getKey(item))) {
+                        merged.add(item);
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return the UUID of a video or of a playlist, or the name of a channel, which are the same
+     * on all the instances, or the URL of the item if it has none
+     */
+    @Nonnull
+    static String getKey(@Nonnull final InfoItem item) {
+        try {
+            switch (item.getInfoType()) {
+                case STREAM:
+                    return "stream:" + PeertubeStreamLinkHandlerFactory.getInstance()
+                            .getId(item.getUrl());
+                case PLAYLIST:
+                    return "playlist:" + PeertubePlaylistLinkHandlerFactory.getInstance()
+                            .getId(item.getUrl());
+                case CHANNEL:
+                    return "channel:" + PeertubeChannelLinkHandlerFactory.getInstance()
+                            .getId(item.getUrl());
+                default:
+                    return item.getUrl();
+            }
+        } catch (final ParsingException | IllegalArgumentException e) {
+            return item.getUrl();
+        }
+    }
+
+    /**
+     * A builder of {@link PeertubeInstancePool}s.
+     */
+    public static final class Builder {
+        private final List<PeertubeInstance> instances = new ArrayList<>();
+        private int fanOut = 3;
+        private Duration timeout = Duration.ofSeconds(10);
+        private double errorThreshold = 0.5;
+        private Duration retryAfter = Duration.ofMinutes(1);
+        private ExecutorService executor = DEFAULT_EXECUTOR;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        /**
+         * Add instances to the pool.
+         */
+        public Builder instances(@Nonnull final List<PeertubeInstance> instancesToAdd) {
+            this.instances.addAll(instancesToAdd);
+            return this;
+        }
+
+        /**
+         * Add an instance to the pool.
+         */
+        public Builder instance(@Nonnull final PeertubeInstance instance) {
+            this.instances.add(instance);
+            return this;
+        }
+
+        /**
+         * How many healthy instances to query for each request, 3 by default.
+         */
+        public Builder fanOut(final int fanOutToSet) {
+            if (fanOutToSet < 1) {
+                throw new IllegalArgumentException("fanOut must be at least 1");
+            }
+            this.fanOut = fanOutToSet;
+            return this;
+        }
+
+        /**
+         * How long to wait for the instances of a request, 10 seconds by default. The instances
+         * which did not respond in time count as failures.
+         */
+        public Builder timeout(@Nonnull final Duration timeoutToSet) {
+            this.timeout = timeoutToSet;
+            return this;
+        }
+
+        /**
+         * The error rate from which an instance is unhealthy, 0.5 by default, i.e. after two
+         * failed requests in a row.
+         */
+        public Builder errorThreshold(final double errorThresholdToSet) {
+            this.errorThreshold = errorThresholdToSet;
+            return this;
+        }
+
+        /**
+         * How long to wait before trying an unhealthy instance again, 1 minute by default.
+         */
+        public Builder retryAfter(@Nonnull final Duration retryAfterToSet) {
+            this.retryAfter = retryAfterToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which the instances are queried. By default, a pool of eight daemon
+         * threads shared by all the pools, on which the queries waiting for a thread count
+         * against the {@link #timeout(Duration) timeout}. The executor is never shut down.
+         */
+        public Builder executor(@Nonnull final ExecutorService executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        Builder nanoClock(@Nonnull final LongSupplier nanoClockToSet) {
+            this.nanoClock = nanoClockToSet;
+            return this;
+        }
+
+        public PeertubeInstancePool build() {
+            if (instances.isEmpty()) {
+                throw new IllegalStateException("The pool has no instances");
+            }
+            return new PeertubeInstancePool(this);
+        }
+    }
+}
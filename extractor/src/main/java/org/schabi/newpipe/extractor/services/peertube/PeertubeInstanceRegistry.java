@@ -0,0 +1,162 @@
+package org.schabi.newpipe.extractor.services.peertube;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+import org.schabi.newpipe.extractor.utils.Utils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A registry of the {@link PeertubeInstanceMetadata metadata} of PeerTube instances, so that
+ * switching instances or resolving URLs of many instances doesn't query their configuration
+ * again and again.
+ *
+ * <p>
+ * Applications using the default context share a single registry for the whole process. The
+ * metadata are keyed by the base URL of the instances and fetched on first use with the
+ * downloader of the context of the registry, using the URL as given, while the scheme and the
+ * host of the key are compared in lower case. Concurrent requests of an instance which is not
+ * known yet share the same request. The metadata are fresh for {@link #TTL_NANOS 1 hour}, and
+ * are then fetched again, returning the previous ones for at most
+ * {@link #MAX_STALE_NANOS 1 day} while they are fetched or if that fails. At most
+ * {@link #MAX_ENTRIES} instances are kept, dropping the least recently used ones.
+ * </p>
+ */
+public final class PeertubeInstanceRegistry {
+    private static final ExtractorContext.CacheKey<PeertubeInstanceRegistry> KEY =
+            new ExtractorContext.CacheKey<>("peertube.instances");
+    static final long TTL_NANOS = TimeUnit.HOURS.toNanos(1);
+    static final long MAX_STALE_NANOS = TimeUnit.DAYS.toNanos(1);
+    static final int MAX_ENTRIES = 256;
+
+    private final Downloader downloader;
+    private final ExpiringCache<String, PeertubeInstanceMetadata> instances;
+
+    PeertubeInstanceRegistry(@Nonnull final Downloader downloader,
+                             @Nonnull final LongSupplier nanoClock) {
+        this.downloader = downloader;
+        this.instances = new ExpiringCache.Builder<String, PeertubeInstanceMetadata>(
+                Duration.ofNanos(TTL_NANOS))
+                .maxStale(Duration.ofNanos(MAX_STALE_NANOS))
+                .maxEntries(MAX_ENTRIES)
+                .nanoClock(nanoClock)
+                .build();
+    }
+
+    /**
+     * @param context the context of an extractor
+     * @return the registry of the context
+     */
+    @Nonnull
+    public static PeertubeInstanceRegistry of(@Nonnull final ExtractorContext context) {
+        final Supplier<PeertubeInstanceRegistry> creator =
+                () -> new PeertubeInstanceRegistry(context.getDownloader(), System::nanoTime);
+        return context.getCached(KEY, creator);
+    }
+
+    /**
+     * Get the metadata of an instance, fetching them if they are not known or are outdated.
+     *
+     * @param baseUrl the base URL of the instance
+     * @return the metadata of the instance
+     * @throws ExtractionException if the metadata could not be fetched or parsed, and there are no
+     *                             previous ones which are recent enough
+     */
+    @Nonnull
+    public PeertubeInstanceMetadata get(@Nonnull final String baseUrl)
+            throws ExtractionException {
+        final String url = trim(baseUrl);
+        try {
+            return instances.get(normalize(url), () -> fetch(url));
+        } catch (final IOException e) {
+            throw new ExtractionException("Unable to configure instance " + url, e);
+        }
+    }
+
+    /**
+     * Get the metadata of an instance if they are known and fresh, without fetching them.
+     *
+     * @param baseUrl the base URL of the instance
+     * @return the metadata of the instance, or {@code null} if they would need to be fetched
+     */
+    @Nullable
+    public PeertubeInstanceMetadata getIfPresent(@Nonnull final String baseUrl) {
+        return instances.getIfPresent(normalize(baseUrl));
+    }
+
+    /**
+     * Forget the metadata of an instance, e.g. because it was upgraded.
+     *
+     * @param baseUrl the base URL of the instance
+     */
+    public void invalidate(@Nonnull final String baseUrl) {
+        instances.remove(normalize(baseUrl));
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * @return the base URL without surrounding spaces and trailing slashes
+     */
+    @Nonnull
+    private static String trim(@Nonnull final String baseUrl) {
+        String url = baseUrl.trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    /**
+     * @return the key of an instance, i.e. its trimmed base URL with the scheme and the host in
+     * lower case, as they are case-insensitive while the path is not
+     */
+    @Nonnull
+    static String normalize(@Nonnull final String baseUrl) {
+        final String url = trim(baseUrl);
+        final int schemeEnd = url.indexOf("://");
+        final int hostEnd = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+        final int end = hostEnd < 0 ? url.length() : hostEnd;
+        return url.substring(0, end).toLowerCase(Locale.ROOT) + url.substring(end);
+    }
+
+    @Nonnull
+    private PeertubeInstanceMetadata fetch(@Nonnull final String baseUrl)
+            throws ExtractionException {
+        final Response response;
+        try {
+            response = downloader.get(baseUrl + PeertubeInstanceMetadata.CONFIG_ENDPOINT);
+        } catch (final ReCaptchaException | IOException e) {
+            throw new ExtractionException("Unable to configure instance " + baseUrl, e);
+        }
+
+        if (response == null || Utils.isBlank(response.responseBody())) {
+            throw new ExtractionException("Unable to configure instance " + baseUrl);
+        }
+
+        try {
+            final JsonObject json = JsonParser.object().from(response.responseBody());
+            return PeertubeInstanceMetadata.fromConfig(baseUrl, json);
+        } catch (final JsonParserException e) {
+            throw new ExtractionException("Unable to parse instance config", e);
+        }
+    }
+}
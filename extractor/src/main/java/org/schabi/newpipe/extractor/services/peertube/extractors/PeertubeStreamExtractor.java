@@ -9,7 +9,6 @@ import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 
 import org.schabi.newpipe.extractor.MediaFormat;
-import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.downloader.Response;
@@ -61,7 +60,9 @@ public class PeertubeStreamExtractor extends StreamExtractor {
     private final List<AudioStream> audioStreams = new ArrayList<>();
     private final List<VideoStream> videoStreams = new ArrayList<>();
 
+    private boolean subtitlesLoaded = false;
     private ParsingException subtitlesException = null;
+    private Description description = null;
 
     public PeertubeStreamExtractor(final StreamingService service, final LinkHandler linkHandler)
             throws ParsingException {
@@ -94,26 +95,45 @@ public class PeertubeStreamExtractor extends StreamExtractor {
     @Nonnull
     @Override
     public Description getDescription() throws ParsingException {
+        if (description != null) {
+            return description;
+        }
+
         String text;
         try {
             text = JsonUtils.getString(json, "description");
         } catch (final ParsingException e) {
             return Description.EMPTY_DESCRIPTION;
         }
-        if (text.length() == 250 && text.substring(247).equals("...")) {
+        if (isDescriptionShortened(text)) {
             // If description is shortened, get full description
-            final Downloader dl = NewPipe.getDownloader();
             try {
-                final Response response = dl.get(baseUrl
-                        + PeertubeStreamLinkHandlerFactory.VIDEO_API_ENDPOINT
-                        + getId() + "/description");
-                final JsonObject jsonObject = JsonParser.object().from(response.responseBody());
+                final String body = PeertubeVideoResources.of(getContext())
+                        .get(getContext(), getDescriptionUrl());
+                final JsonObject jsonObject = JsonParser.object().from(body);
                 text = JsonUtils.getString(jsonObject, "description");
-            } catch (final IOException | ReCaptchaException | JsonParserException ignored) {
+            } catch (final IOException | ExtractionException | JsonParserException ignored) {
                 // Something went wrong when getting the full description, use the shortened one
             }
         }
-        return new Description(text, Description.MARKDOWN);
+        description = new Description(text, Description.MARKDOWN);
+        return description;
+    }
+
+    private static boolean isDescriptionShortened(@Nonnull final String text) {
+        return text.length() == 250 && text.substring(247).equals("...");
+    }
+
+    @Nonnull
+    private String getDescriptionUrl() throws ParsingException {
+        return baseUrl + PeertubeStreamLinkHandlerFactory.VIDEO_API_ENDPOINT + getId()
+                + "/description";
+    }
+
+    @Nonnull
+    private String getCaptionsUrl() throws ParsingException {
+        return baseUrl + PeertubeStreamLinkHandlerFactory.VIDEO_API_ENDPOINT + getId()
+                + "/captions";
     }
 
     @Override
@@ -265,6 +285,7 @@ public class PeertubeStreamExtractor extends StreamExtractor {
     @Nonnull
     @Override
     public List<SubtitlesStream> getSubtitlesDefault() throws ParsingException {
+        loadSubtitles();
         if (subtitlesException != null) {
             throw subtitlesException;
         }
@@ -274,6 +295,7 @@ public class PeertubeStreamExtractor extends StreamExtractor {
     @Nonnull
     @Override
     public List<SubtitlesStream> getSubtitles(final MediaFormat format) throws ParsingException {
+        loadSubtitles();
         if (subtitlesException != null) {
             throw subtitlesException;
         }
@@ -388,7 +410,14 @@ public class PeertubeStreamExtractor extends StreamExtractor {
             throw new ExtractionException("Could not extract PeerTube channel data");
         }
 
-        loadSubtitles();
+        if (getContext().isPrefetchingSecondaryResources()) {
+            // Only once the video was got, so that nothing is fetched in vain if it fails
+            final PeertubeVideoResources resources = PeertubeVideoResources.of(getContext());
+            resources.prefetch(getContext(), getCaptionsUrl());
+            if (isDescriptionShortened(json.getString("description", ""))) {
+                resources.prefetch(getContext(), getDescriptionUrl());
+            }
+        }
     }
 
     private void setInitialData(final String responseBody) throws ExtractionException {
@@ -404,12 +433,12 @@ public class PeertubeStreamExtractor extends StreamExtractor {
     }
 
     private void loadSubtitles() {
-        if (subtitles.isEmpty()) {
+        if (!subtitlesLoaded) {
+            subtitlesLoaded = true;
             try {
-                final Response response = getDownloader().get(baseUrl
-                        + PeertubeStreamLinkHandlerFactory.VIDEO_API_ENDPOINT
-                        + getId() + "/captions");
-                final JsonObject captionsJson = JsonParser.object().from(response.responseBody());
+                final String body = PeertubeVideoResources.of(getContext())
+                        .get(getContext(), getCaptionsUrl());
+                final JsonObject captionsJson = JsonParser.object().from(body);
                 final JsonArray captions = JsonUtils.getArray(captionsJson, "data");
                 for (final Object c : captions) {
                     if (c instanceof JsonObject) {
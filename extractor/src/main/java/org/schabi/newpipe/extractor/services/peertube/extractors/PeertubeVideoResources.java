@@ -0,0 +1,104 @@
+package org.schabi.newpipe.extractor.services.peertube.extractors;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Caches the secondary resources of PeerTube videos, i.e. their full description and their
+ * captions, which {@link PeertubeStreamExtractor} only fetches when they are used.
+ *
+ * <p>
+ * Extractors of the same video share its resources if they are run with the same context. Each
+ * resource is identified by its API URL and kept for {@link #MAX_AGE_NANOS 10 minutes}, and at
+ * most {@link #MAX_ENTRIES} resources are kept. Concurrent requests of a resource share the same
+ * request, which may also be started in the background before the resource is needed with
+ * {@link #prefetch(ExtractorContext, String)}. Failed requests are not cached.
+ * </p>
+ */
+final class PeertubeVideoResources {
+    private static final ExtractorContext.CacheKey<PeertubeVideoResources> KEY =
+            new ExtractorContext.CacheKey<>("peertube.videoResources");
+    static final int MAX_ENTRIES = 64;
+    static final long MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final ExecutorService EXECUTOR =
+            DaemonExecutors.newPool("PeerTube video resources", 2);
+
+    /**
+     * The response bodies of the resources, keyed by their API URL.
+     */
+    private final ExpiringCache<String, String> bodies;
+
+    PeertubeVideoResources(@Nonnull final LongSupplier nanoClock) {
+        this.bodies = new ExpiringCache.Builder<String, String>(Duration.ofNanos(MAX_AGE_NANOS))
+                .maxEntries(MAX_ENTRIES)
+                .refreshExecutor(EXECUTOR)
+                .nanoClock(nanoClock)
+                .build();
+    }
+
+    /**
+     * @param context the context of an extractor
+     * @return the cache of the context
+     */
+    @Nonnull
+    static PeertubeVideoResources of(@Nonnull final ExtractorContext context) {
+        final Supplier<PeertubeVideoResources> creator =
+                () -> new PeertubeVideoResources(System::nanoTime);
+        return context.getCached(KEY, creator);
+    }
+
+    /**
+     * Start fetching a resource in the background, unless it is cached or already being
+     * fetched.
+     *
+     * @param context the context with which the resource is fetched
+     * @param url     the API URL of the resource
+     */
+    void prefetch(@Nonnull final ExtractorContext context, @Nonnull final String url) {
+        if (bodies.getIfPresent(url) == null) {
+            bodies.refresh(url, () -> load(context, url));
+        }
+    }
+
+    /**
+     * Get the body of a resource, fetching it if it is not cached, or waiting for it if it is
+     * being fetched.
+     *
+     * @param context the context with which the resource is fetched
+     * @param url     the API URL of the resource
+     * @return the body of the response
+     */
+    @Nonnull
+    String get(@Nonnull final ExtractorContext context, @Nonnull final String url)
+            throws IOException, ExtractionException {
+        return bodies.get(url, () -> load(context, url));
+    }
+
+    @Nonnull
+    private static String load(@Nonnull final ExtractorContext context,
+                               @Nonnull final String url)
+            throws IOException, ExtractionException {
+        final Response response = context.run(() -> context.getDownloader().get(url));
+        if (response == null || response.responseBody() == null) {
+            throw new ExtractionException("Could not get " + url);
+        }
+        return response.responseBody();
+    }
+
+    int size() {
+        return bodies.size();
+    }
+}
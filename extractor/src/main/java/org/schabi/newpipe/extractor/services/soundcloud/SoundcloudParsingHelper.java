@@ -13,6 +13,7 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.channel.ChannelInfoItemsCollector;
 import org.schabi.newpipe.extractor.downloader.Downloader;
@@ -41,18 +42,34 @@ import java.util.Map;
 import javax.annotation.Nonnull;
 
 public final class SoundcloudParsingHelper {
-    private static String clientId;
+    private static final ExtractorContext.CacheKey<String> CLIENT_ID_KEY =
+            new ExtractorContext.CacheKey<>("soundcloud.clientId");
     public static final String SOUNDCLOUD_API_V2_URL = "https://api-v2.soundcloud.com/";
 
     private SoundcloudParsingHelper() {
     }
 
-    public static synchronized String clientId() throws ExtractionException, IOException {
-        if (!isNullOrEmpty(clientId)) {
-            return clientId;
-        }
+    /**
+     * Get the client id needed by the SoundCloud API for the current context.
+     *
+     * @see #clientId(ExtractorContext)
+     */
+    public static String clientId() throws ExtractionException, IOException {
+        return clientId(NewPipe.getContext());
+    }
 
-        final Downloader dl = NewPipe.getDownloader();
+    /**
+     * Get the client id needed by the SoundCloud API, which is fetched once per
+     * {@link ExtractorContext} with its downloader. Concurrent requests wait for the same fetch.
+     */
+    public static String clientId(@Nonnull final ExtractorContext context)
+            throws ExtractionException, IOException {
+        final ExtractorContext.Task<String> loader = () -> fetchClientId(context.getDownloader());
+        return context.getCached(CLIENT_ID_KEY, loader);
+    }
+
+    private static String fetchClientId(final Downloader dl)
+            throws ExtractionException, IOException {
 
         final Response download = dl.get("https://soundcloud.com");
         final String responseBody = download.responseBody();
@@ -70,9 +87,11 @@ public final class SoundcloudParsingHelper {
             final String srcUrl = element.attr("src");
             if (!isNullOrEmpty(srcUrl)) {
                 try {
-                    clientId = Parser.matchGroup1(clientIdPattern, dl.get(srcUrl, headers)
-                            .responseBody());
-                    return clientId;
+                    final String clientId = Parser.matchGroup1(clientIdPattern,
+                            dl.get(srcUrl, headers).responseBody());
+                    if (!isNullOrEmpty(clientId)) {
+                        return clientId;
+                    }
                 } catch (final RegexException ignored) {
                     // Ignore it and proceed to try searching other script
                 }
@@ -126,8 +145,18 @@ public final class SoundcloudParsingHelper {
      */
     public static String resolveUrlWithEmbedPlayer(final String apiUrl) throws IOException,
             ReCaptchaException {
+        return resolveUrlWithEmbedPlayer(NewPipe.getDownloader(), apiUrl);
+    }
+
+    /**
+     * Same as {@link #resolveUrlWithEmbedPlayer(String)}, but fetches the embed player with the
+     * given downloader instead of the one of the current context.
+     */
+    public static String resolveUrlWithEmbedPlayer(@Nonnull final Downloader downloader,
+                                                   final String apiUrl) throws IOException,
+            ReCaptchaException {
 
-        final String response = NewPipe.getDownloader().get("https://w.soundcloud.com/player/?url="
+        final String response = downloader.get("https://w.soundcloud.com/player/?url="
                 + Utils.encodeUrlUtf8(apiUrl), SoundCloud.getLocalization()).responseBody();
 
         return Jsoup.parse(response).select("link[rel=\"canonical\"]").first()
@@ -141,6 +170,16 @@ public final class SoundcloudParsingHelper {
      */
     public static String resolveIdWithWidgetApi(final String urlString) throws IOException,
             ParsingException {
+        return resolveIdWithWidgetApi(NewPipe.getContext(), urlString);
+    }
+
+    /**
+     * Same as {@link #resolveIdWithWidgetApi(String)}, but uses the client id and the downloader
+     * of the given context instead of the ones of the current context.
+     */
+    public static String resolveIdWithWidgetApi(@Nonnull final ExtractorContext context,
+                                                final String urlString) throws IOException,
+            ParsingException {
         // Remove the tailing slash from URLs due to issues with the SoundCloud API
         String fixedUrl = urlString;
         if (fixedUrl.charAt(fixedUrl.length() - 1) == '/') {
@@ -160,8 +199,8 @@ public final class SoundcloudParsingHelper {
         try {
             final String widgetUrl = "https://api-widget.soundcloud.com/resolve?url="
                     + Utils.encodeUrlUtf8(url.toString())
-                    + "&format=json&client_id=" + SoundcloudParsingHelper.clientId();
-            final String response = NewPipe.getDownloader().get(widgetUrl,
+                    + "&format=json&client_id=" + SoundcloudParsingHelper.clientId(context);
+            final String response = context.getDownloader().get(widgetUrl,
                     SoundCloud.getLocalization()).responseBody();
             final JsonObject o = JsonParser.object().from(response);
             return String.valueOf(JsonUtils.getValue(o, "id"));
@@ -176,20 +215,22 @@ public final class SoundcloudParsingHelper {
     /**
      * Fetch the users from the given API and commit each of them to the collector.
      * <p>
-     * This differ from {@link #getUsersFromApi(ChannelInfoItemsCollector, String)} in the sense
-     * that they will always get MIN_ITEMS or more.
+     * This differ from {@link #getUsersFromApi(ExtractorContext, ChannelInfoItemsCollector,
+     * String)} in the sense that they will always get MIN_ITEMS or more.
      *
      * @param minItems the method will return only when it have extracted that many items
      *                 (equal or more)
      */
-    public static String getUsersFromApiMinItems(final int minItems,
+    public static String getUsersFromApiMinItems(@Nonnull final ExtractorContext context,
+                                                 final int minItems,
                                                  final ChannelInfoItemsCollector collector,
                                                  final String apiUrl) throws IOException,
             ReCaptchaException, ParsingException {
-        String nextPageUrl = SoundcloudParsingHelper.getUsersFromApi(collector, apiUrl);
+        String nextPageUrl = SoundcloudParsingHelper.getUsersFromApi(context, collector, apiUrl);
 
         while (!nextPageUrl.isEmpty() && collector.getItems().size() < minItems) {
-            nextPageUrl = SoundcloudParsingHelper.getUsersFromApi(collector, nextPageUrl);
+            nextPageUrl = SoundcloudParsingHelper.getUsersFromApi(context, collector,
+                    nextPageUrl);
         }
 
         return nextPageUrl;
@@ -200,10 +241,12 @@ public final class SoundcloudParsingHelper {
      *
      * @return the next streams url, empty if don't have
      */
-    public static String getUsersFromApi(final ChannelInfoItemsCollector collector,
+    public static String getUsersFromApi(@Nonnull final ExtractorContext context,
+                                         final ChannelInfoItemsCollector collector,
                                          final String apiUrl) throws IOException,
             ReCaptchaException, ParsingException {
-        final String response = NewPipe.getDownloader().get(apiUrl, SoundCloud.getLocalization())
+        final String response = context.getDownloader()
+                .get(apiUrl, SoundCloud.getLocalization())
                 .responseBody();
         final JsonObject responseObject;
 
@@ -225,7 +268,7 @@ public final class SoundcloudParsingHelper {
         try {
             nextPageUrl = responseObject.getString("next_href");
             if (!nextPageUrl.contains("client_id=")) {
-                nextPageUrl += "&client_id=" + SoundcloudParsingHelper.clientId();
+                nextPageUrl += "&client_id=" + SoundcloudParsingHelper.clientId(context);
             }
         } catch (final Exception ignored) {
             nextPageUrl = "";
@@ -237,20 +280,22 @@ public final class SoundcloudParsingHelper {
     /**
      * Fetch the streams from the given API and commit each of them to the collector.
      * <p>
-     * This differ from {@link #getStreamsFromApi(StreamInfoItemsCollector, String)} in the sense
-     * that they will always get MIN_ITEMS or more items.
+     * This differ from {@link #getStreamsFromApi(ExtractorContext, StreamInfoItemsCollector,
+     * String)} in the sense that they will always get MIN_ITEMS or more items.
      *
      * @param minItems the method will return only when it have extracted that many items
      *                 (equal or more)
      */
-    public static String getStreamsFromApiMinItems(final int minItems,
+    public static String getStreamsFromApiMinItems(@Nonnull final ExtractorContext context,
+                                                   final int minItems,
                                                    final StreamInfoItemsCollector collector,
                                                    final String apiUrl) throws IOException,
             ReCaptchaException, ParsingException {
-        String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(collector, apiUrl);
+        String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(context, collector, apiUrl);
 
         while (!nextPageUrl.isEmpty() && collector.getItems().size() < minItems) {
-            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(collector, nextPageUrl);
+            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(context, collector,
+                    nextPageUrl);
         }
 
         return nextPageUrl;
@@ -261,11 +306,12 @@ public final class SoundcloudParsingHelper {
      *
      * @return the next streams url, empty if don't have
      */
-    public static String getStreamsFromApi(final StreamInfoItemsCollector collector,
+    public static String getStreamsFromApi(@Nonnull final ExtractorContext context,
+                                           final StreamInfoItemsCollector collector,
                                            final String apiUrl,
                                            final boolean charts) throws IOException,
             ReCaptchaException, ParsingException {
-        final Response response = NewPipe.getDownloader().get(apiUrl, SoundCloud
+        final Response response = context.getDownloader().get(apiUrl, SoundCloud
                 .getLocalization());
         if (response.responseCode() >= 400) {
             throw new IOException("Could not get streams from API, HTTP " + response
@@ -292,7 +338,7 @@ public final class SoundcloudParsingHelper {
         try {
             nextPageUrl = responseObject.getString("next_href");
             if (!nextPageUrl.contains("client_id=")) {
-                nextPageUrl += "&client_id=" + SoundcloudParsingHelper.clientId();
+                nextPageUrl += "&client_id=" + SoundcloudParsingHelper.clientId(context);
             }
         } catch (final Exception ignored) {
             nextPageUrl = "";
@@ -301,10 +347,11 @@ public final class SoundcloudParsingHelper {
         return nextPageUrl;
     }
 
-    public static String getStreamsFromApi(final StreamInfoItemsCollector collector,
+    public static String getStreamsFromApi(@Nonnull final ExtractorContext context,
+                                           final StreamInfoItemsCollector collector,
                                            final String apiUrl) throws ReCaptchaException,
             ParsingException, IOException {
-        return getStreamsFromApi(collector, apiUrl, false);
+        return getStreamsFromApi(context, collector, apiUrl, false);
     }
 
     @Nonnull
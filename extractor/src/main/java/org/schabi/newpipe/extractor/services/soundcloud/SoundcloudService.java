@@ -36,6 +36,7 @@ import org.schabi.newpipe.extractor.stream.StreamExtractor;
 import org.schabi.newpipe.extractor.subscription.SubscriptionExtractor;
 
 import java.util.List;
+import java.util.Set;
 
 public class SoundcloudService extends StreamingService {
 
@@ -48,6 +49,11 @@ public class SoundcloudService extends StreamingService {
         return "https://soundcloud.com";
     }
 
+    @Override
+    public Set<String> getSupportedHosts() {
+        return Set.of("soundcloud.com", "www.soundcloud.com", "m.soundcloud.com");
+    }
+
     @Override
     public SearchQueryHandlerFactory getSearchQHFactory() {
         return new SoundcloudSearchQueryHandlerFactory();
@@ -114,10 +114,11 @@ public class SoundcloudChannelExtractor extends ChannelExtractor {
                     new StreamInfoItemsCollector(getServiceId());
 
             final String apiUrl = USERS_ENDPOINT + getId() + "/tracks" + "?client_id="
-                    + SoundcloudParsingHelper.clientId() + "&limit=20" + "&linked_partitioning=1";
+                    + SoundcloudParsingHelper.clientId(getContext()) + "&limit=20"
+                    + "&linked_partitioning=1";
 
-            final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApiMinItems(15,
-                    streamInfoItemsCollector, apiUrl);
+            final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApiMinItems(
+                    getContext(), 15, streamInfoItemsCollector, apiUrl);
 
             return new InfoItemsPage<>(streamInfoItemsCollector, new Page(nextPageUrl));
         } catch (final Exception e) {
@@ -133,8 +134,8 @@ public class SoundcloudChannelExtractor extends ChannelExtractor {
         }
 
         final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApiMinItems(15, collector,
-                page.getUrl());
+        final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApiMinItems(
+                getContext(), 15, collector, page.getUrl());
 
         return new InfoItemsPage<>(collector, new Page(nextPageUrl));
     }
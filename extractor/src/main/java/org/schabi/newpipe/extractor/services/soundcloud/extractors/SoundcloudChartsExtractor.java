@@ -14,7 +14,6 @@ import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 
-import static org.schabi.newpipe.extractor.ServiceList.SoundCloud;
 import static org.schabi.newpipe.extractor.services.soundcloud.SoundcloudParsingHelper.SOUNDCLOUD_API_V2_URL;
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
@@ -43,8 +42,8 @@ public class SoundcloudChartsExtractor extends KioskExtractor<StreamInfoItem> {
         }
 
         final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(collector,
-                page.getUrl(), true);
+        final String nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(getContext(),
+                collector, page.getUrl(), true);
 
         return new InfoItemsPage<>(collector, new Page(nextPageUrl));
     }
@@ -55,7 +54,7 @@ public class SoundcloudChartsExtractor extends KioskExtractor<StreamInfoItem> {
         final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
 
         String apiUrl = SOUNDCLOUD_API_V2_URL + "charts" + "?genre=soundcloud:genres:all-music"
-                + "&client_id=" + SoundcloudParsingHelper.clientId();
+                + "&client_id=" + SoundcloudParsingHelper.clientId(getContext());
 
         if (getId().equals("Top 50")) {
             apiUrl += "&kind=top";
@@ -63,7 +62,7 @@ public class SoundcloudChartsExtractor extends KioskExtractor<StreamInfoItem> {
             apiUrl += "&kind=trending";
         }
 
-        final ContentCountry contentCountry = SoundCloud.getContentCountry();
+        final ContentCountry contentCountry = getExtractorContentCountry();
         String apiUrlWithRegion = null;
         if (getService().getSupportedCountries().contains(contentCountry)) {
             apiUrlWithRegion = apiUrl + "&region=soundcloud:regions:"
@@ -72,13 +71,14 @@ public class SoundcloudChartsExtractor extends KioskExtractor<StreamInfoItem> {
 
         String nextPageUrl;
         try {
-            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(collector,
+            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(getContext(), collector,
                     apiUrlWithRegion == null ? apiUrl : apiUrlWithRegion, true);
         } catch (final IOException e) {
             // Request to other region may be geo-restricted.
             // See https://github.com/TeamNewPipe/NewPipeExtractor/issues/537.
             // We retry without the specified region.
-            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(collector, apiUrl, true);
+            nextPageUrl = SoundcloudParsingHelper.getStreamsFromApi(getContext(), collector,
+                    apiUrl, true);
         }
 
         return new InfoItemsPage<>(collector, new Page(nextPageUrl));
@@ -5,7 +5,6 @@ import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 
-import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.comments.CommentsExtractor;
@@ -33,7 +32,7 @@ public class SoundcloudCommentsExtractor extends CommentsExtractor {
     @Override
     public InfoItemsPage<CommentsInfoItem> getInitialPage() throws ExtractionException,
             IOException {
-        final Downloader downloader = NewPipe.getDownloader();
+        final Downloader downloader = getDownloader();
         final Response response = downloader.get(getUrl());
 
         final JsonObject json;
@@ -58,7 +57,7 @@ public class SoundcloudCommentsExtractor extends CommentsExtractor {
             throw new IllegalArgumentException("Page doesn't contain an URL");
         }
 
-        final Downloader downloader = NewPipe.getDownloader();
+        final Downloader downloader = getDownloader();
         final Response response = downloader.get(page.getUrl());
 
         final JsonObject json;
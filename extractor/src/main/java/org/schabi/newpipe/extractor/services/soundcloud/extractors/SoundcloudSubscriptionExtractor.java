@@ -1,5 +1,7 @@
 package org.schabi.newpipe.extractor.services.soundcloud.extractors;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.channel.ChannelInfoItem;
 import org.schabi.newpipe.extractor.channel.ChannelInfoItemsCollector;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
@@ -12,6 +14,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
 
 import static org.schabi.newpipe.extractor.services.soundcloud.SoundcloudParsingHelper.SOUNDCLOUD_API_V2_URL;
 import static org.schabi.newpipe.extractor.utils.Utils.HTTPS;
@@ -21,6 +26,7 @@ import static org.schabi.newpipe.extractor.utils.Utils.replaceHttpWithHttps;
  * Extract the "followings" from a user in SoundCloud.
  */
 public class SoundcloudSubscriptionExtractor extends SubscriptionExtractor {
+    private static final int MAX_FOLLOWINGS = 2500;
 
     public SoundcloudSubscriptionExtractor(final SoundcloudService service) {
         super(service, Collections.singletonList(ContentSource.CHANNEL_URL));
@@ -34,6 +40,23 @@ public class SoundcloudSubscriptionExtractor extends SubscriptionExtractor {
     @Override
     public List<SubscriptionItem> fromChannelUrl(final String channelUrl) throws IOException,
             ExtractionException {
+        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
+        fromChannelUrl(channelUrl, subscriptionItems::add);
+        return subscriptionItems;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The followings are requested page after page, and the ones of a page are passed to the
+     * consumer before the next page is requested.
+     * </p>
+     */
+    @Override
+    public long fromChannelUrl(final String channelUrl,
+                               @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws IOException, ExtractionException {
         if (channelUrl == null) {
             throw new InvalidSourceException("Channel url is null");
         }
@@ -45,14 +68,22 @@ public class SoundcloudSubscriptionExtractor extends SubscriptionExtractor {
             throw new InvalidSourceException(e);
         }
 
-        final String apiUrl = SOUNDCLOUD_API_V2_URL + "users/" + id + "/followings" + "?client_id="
-                + SoundcloudParsingHelper.clientId() + "&limit=200";
-        final ChannelInfoItemsCollector collector = new ChannelInfoItemsCollector(service
-                .getServiceId());
-        // ± 2000 is the limit of followings on SoundCloud, so this minimum should be enough
-        SoundcloudParsingHelper.getUsersFromApiMinItems(2500, collector, apiUrl);
-
-        return toSubscriptionItems(collector.getItems());
+        final ExtractorContext context = NewPipe.getContext();
+        String nextPageUrl = SOUNDCLOUD_API_V2_URL + "users/" + id + "/followings"
+                + "?client_id=" + SoundcloudParsingHelper.clientId(context) + "&limit=200";
+        long count = 0;
+        // ± 2000 is the limit of followings on SoundCloud, so this maximum should be enough
+        while (!nextPageUrl.isEmpty() && count < MAX_FOLLOWINGS) {
+            final ChannelInfoItemsCollector collector = new ChannelInfoItemsCollector(service
+                    .getServiceId());
+            nextPageUrl = SoundcloudParsingHelper.getUsersFromApi(context, collector,
+                    nextPageUrl);
+            for (final ChannelInfoItem item : collector.getItems()) {
+                consumer.accept(toSubscriptionItem(item));
+                count++;
+            }
+        }
+        return count;
     }
 
     private String getUrlFrom(final String channelUrl) {
@@ -70,11 +101,7 @@ public class SoundcloudSubscriptionExtractor extends SubscriptionExtractor {
     // Utils
     //////////////////////////////////////////////////////////////////////////*/
 
-    private List<SubscriptionItem> toSubscriptionItems(final List<ChannelInfoItem> items) {
-        final List<SubscriptionItem> result = new ArrayList<>(items.size());
-        for (final ChannelInfoItem item : items) {
-            result.add(new SubscriptionItem(item.getServiceId(), item.getUrl(), item.getName()));
-        }
-        return result;
+    private SubscriptionItem toSubscriptionItem(final ChannelInfoItem item) {
+        return new SubscriptionItem(item.getServiceId(), item.getUrl(), item.getName());
     }
 }
@@ -7,7 +7,6 @@ import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 
-import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
@@ -30,9 +29,10 @@ public class SoundcloudSuggestionExtractor extends SuggestionExtractor {
     public List<String> suggestionList(final String query) throws IOException,
             ExtractionException {
         final List<String> suggestions = new ArrayList<>();
-        final Downloader dl = NewPipe.getDownloader();
+        final Downloader dl = getDownloader();
         final String url = SOUNDCLOUD_API_V2_URL + "search/queries?q="
-                + Utils.encodeUrlUtf8(query) + "&client_id=" + SoundcloudParsingHelper.clientId()
+                + Utils.encodeUrlUtf8(query)
+                + "&client_id=" + SoundcloudParsingHelper.clientId(getContext())
                 + "&limit=10";
         final String response = dl.get(url, getExtractorLocalization()).responseBody();
 
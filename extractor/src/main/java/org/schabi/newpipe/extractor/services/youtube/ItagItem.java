@@ -7,7 +7,10 @@ import org.schabi.newpipe.extractor.stream.AudioTrackType;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.schabi.newpipe.extractor.MediaFormat.M4A;
 import static org.schabi.newpipe.extractor.MediaFormat.MPEG_4;
@@ -90,27 +93,25 @@ public class ItagItem implements Serializable {
             new ItagItem(315, VIDEO_ONLY, WEBM, "2160p60", 60)
     };
 
+    private static final Map<Integer, ItagItem> ITAGS_BY_ID = Arrays.stream(ITAG_LIST)
+            // Keep the first item of an id, like the previous linear search did
+            .collect(Collectors.toMap(item -> item.id, item -> item, (first, second) -> first));
+
     /*//////////////////////////////////////////////////////////////////////////
     // Utils
     //////////////////////////////////////////////////////////////////////////*/
 
     public static boolean isSupported(final int itag) {
-        for (final ItagItem item : ITAG_LIST) {
-            if (itag == item.id) {
-                return true;
-            }
-        }
-        return false;
+        return ITAGS_BY_ID.containsKey(itag);
     }
 
     @Nonnull
     public static ItagItem getItag(final int itagId) throws ParsingException {
-        for (final ItagItem item : ITAG_LIST) {
-            if (itagId == item.id) {
-                return new ItagItem(item);
-            }
+        final ItagItem item = ITAGS_BY_ID.get(itagId);
+        if (item == null) {
+            throw new ParsingException("itag " + itagId + " is not supported");
         }
-        throw new ParsingException("itag " + itagId + " is not supported");
+        return new ItagItem(item);
     }
 
     /*//////////////////////////////////////////////////////////////////////////
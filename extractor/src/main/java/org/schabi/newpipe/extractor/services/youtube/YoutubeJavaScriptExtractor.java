@@ -5,6 +5,7 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.localization.Localization;
 import org.schabi.newpipe.extractor.utils.Parser;
@@ -22,6 +23,15 @@ import javax.annotation.Nonnull;
 public final class YoutubeJavaScriptExtractor {
 
     private static final String HTTPS = "https:";
+    private static final String[] DEOBFUSCATION_FUNCTION_REGEXES = {
+            "(?:\\b|[^a-zA-Z0-9$])([a-zA-Z0-9$]{2,})\\s*=\\s*function\\(\\s*a\\s*\\)"
+                    + "\\s*\\{\\s*a\\s*=\\s*a\\.split\\(\\s*\"\"\\s*\\)",
+            "\\bm=([a-zA-Z0-9$]{2,})\\(decodeURIComponent\\(h\\.s\\)\\)",
+            "\\bc&&\\(c=([a-zA-Z0-9$]{2,})\\(decodeURIComponent\\(c\\)\\)",
+            "([\\w$]+)\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;",
+            "\\b([\\w$]{2,})\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;",
+            "\\bc\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\("
+    };
     private static String cachedJavaScriptCode;
 
     private YoutubeJavaScriptExtractor() {
@@ -38,15 +48,26 @@ public final class YoutubeJavaScriptExtractor {
      */
     @Nonnull
     public static String extractJavaScriptCode(final String videoId) throws ParsingException {
+        return extractJavaScriptCode(NewPipe.getDownloader(), videoId);
+    }
+
+    /**
+     * Same as {@link #extractJavaScriptCode(String)}, but fetches the JavaScript file with the
+     * given downloader instead of the one of the current context.
+     */
+    @Nonnull
+    public static String extractJavaScriptCode(@Nonnull final Downloader downloader,
+                                               final String videoId) throws ParsingException {
         if (cachedJavaScriptCode == null) {
             String url;
             try {
-                url = YoutubeJavaScriptExtractor.extractJavaScriptUrl();
+                url = YoutubeJavaScriptExtractor.extractJavaScriptUrl(downloader);
             } catch (final Exception i) {
-                url = YoutubeJavaScriptExtractor.extractJavaScriptUrl(videoId);
+                url = YoutubeJavaScriptExtractor.extractJavaScriptUrl(downloader, videoId);
             }
             final String playerJsUrl = YoutubeJavaScriptExtractor.cleanJavaScriptUrl(url);
-            cachedJavaScriptCode = YoutubeJavaScriptExtractor.downloadJavaScriptCode(playerJsUrl);
+            cachedJavaScriptCode =
+                    YoutubeJavaScriptExtractor.downloadJavaScriptCode(downloader, playerJsUrl);
         }
 
         return cachedJavaScriptCode;
@@ -74,9 +95,14 @@ public final class YoutubeJavaScriptExtractor {
     }
 
     public static String extractJavaScriptUrl() throws ParsingException {
+        return extractJavaScriptUrl(NewPipe.getDownloader());
+    }
+
+    public static String extractJavaScriptUrl(@Nonnull final Downloader downloader)
+            throws ParsingException {
         try {
             final String iframeUrl = "https://www.youtube.com/iframe_api";
-            final String iframeContent = NewPipe.getDownloader()
+            final String iframeContent = downloader
                     .get(iframeUrl, Localization.DEFAULT).responseBody();
             final String hashPattern = "player\\\\\\/([a-z0-9]{8})\\\\\\/";
             final String hash = Parser.matchGroup1(hashPattern, iframeContent);
@@ -90,9 +116,14 @@ public final class YoutubeJavaScriptExtractor {
     }
 
     public static String extractJavaScriptUrl(final String videoId) throws ParsingException {
+        return extractJavaScriptUrl(NewPipe.getDownloader(), videoId);
+    }
+
+    public static String extractJavaScriptUrl(@Nonnull final Downloader downloader,
+                                              final String videoId) throws ParsingException {
         try {
             final String embedUrl = "https://www.youtube.com/embed/" + videoId;
-            final String embedPageContent = NewPipe.getDownloader()
+            final String embedPageContent = downloader
                     .get(embedUrl, Localization.DEFAULT).responseBody();
 
             try {
@@ -116,6 +147,59 @@ public final class YoutubeJavaScriptExtractor {
         throw new ParsingException("Embedded info did not provide YouTube player js url");
     }
 
+    /**
+     * Extract the signature deobfuscation code from the JavaScript player: the deobfuscation
+     * function, the helper object whose operations it calls and a caller function with the given
+     * name, so that the code can be run on its own.
+     *
+     * @param playerCode the whole JavaScript player file
+     * @param callerName the name of the function calling the deobfuscation function
+     * @return the deobfuscation code
+     * @throws ParsingException if the deobfuscation function or its helper object could not be
+     *                          found
+     */
+    @Nonnull
+    public static String extractDeobfuscationCode(@Nonnull final String playerCode,
+                                                  @Nonnull final String callerName)
+            throws ParsingException {
+        final String deobfuscationFunctionName = getDeobfuscationFunctionName(playerCode);
+
+        final String functionPattern = "("
+                + deobfuscationFunctionName.replace("$", "\\$")
+                + "=function\\([a-zA-Z0-9_]+\\)\\{.+?\\})";
+        final String deobfuscateFunction = "var " + Parser.matchGroup1(functionPattern,
+                playerCode) + ";";
+
+        final String helperObjectName =
+                Parser.matchGroup1(";([A-Za-z0-9_\\$]{2})\\...\\(", deobfuscateFunction);
+        final String helperPattern =
+                "(var " + helperObjectName.replace("$", "\\$") + "=\\{.+?\\}\\};)";
+        final String helperObject =
+                Parser.matchGroup1(helperPattern, playerCode.replace("\n", ""));
+
+        final String callerFunction = "function " + callerName + "(a){return "
+                + deobfuscationFunctionName + "(a);}";
+
+        return helperObject + deobfuscateFunction + callerFunction;
+    }
+
+    @Nonnull
+    private static String getDeobfuscationFunctionName(@Nonnull final String playerCode)
+            throws ParsingException {
+        Parser.RegexException exception = null;
+        for (final String regex : DEOBFUSCATION_FUNCTION_REGEXES) {
+            try {
+                return Parser.matchGroup1(regex, playerCode);
+            } catch (final Parser.RegexException re) {
+                if (exception == null) {
+                    exception = re;
+                }
+            }
+        }
+        throw new ParsingException(
+                "Could not find deobfuscate function with any of the given patterns.", exception);
+    }
+
     @Nonnull
     private static String cleanJavaScriptUrl(@Nonnull final String playerJsUrl) {
         if (playerJsUrl.startsWith("//")) {
@@ -129,10 +213,11 @@ public final class YoutubeJavaScriptExtractor {
     }
 
     @Nonnull
-    private static String downloadJavaScriptCode(final String playerJsUrl)
+    private static String downloadJavaScriptCode(@Nonnull final Downloader downloader,
+                                                 final String playerJsUrl)
             throws ParsingException {
         try {
-            return NewPipe.getDownloader().get(playerJsUrl, Localization.DEFAULT).responseBody();
+            return downloader.get(playerJsUrl, Localization.DEFAULT).responseBody();
         } catch (final Exception e) {
             throw new ParsingException("Could not get player js code from url: " + playerJsUrl);
         }
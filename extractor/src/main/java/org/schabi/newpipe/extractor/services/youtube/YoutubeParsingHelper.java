@@ -48,6 +48,7 @@ import org.schabi.newpipe.extractor.stream.Description;
 import org.schabi.newpipe.extractor.utils.JsonUtils;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.RandomStringFromAlphabetGenerator;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
 import org.schabi.newpipe.extractor.utils.Utils;
 
 import java.io.IOException;
@@ -70,6 +71,7 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -256,6 +258,12 @@ public final class YoutubeParsingHelper {
             "invidious.moomoo.me", "yt.cyberhost.uk");
     private static final Set<String> YOUTUBE_URLS = Set.of("youtube.com", "www.youtube.com",
             "m.youtube.com", "music.youtube.com");
+    private static final Set<String> SUPPORTED_HOSTS = Stream.of(YOUTUBE_URLS, INVIDIOUS_URLS,
+                    Set.of("www.youtube-nocookie.com", "youtu.be", "hooktube.com", "y2u.be",
+                            // Ads are recognized, in order to throw a FoundAdException
+                            "googleads.g.doubleclick.net"))
+            .flatMap(Set::stream)
+            .collect(Collectors.toUnmodifiableSet());
 
     /**
      * Determines how the consent cookie (that is required for YouTube) will be generated.
@@ -284,6 +292,17 @@ public final class YoutubeParsingHelper {
         }
     }
 
+    /**
+     * Get the hosts of all the URLs which can be handled by the YouTube link handler factories.
+     *
+     * @return the lowercase hosts of YouTube, its short links and embeds, and of the supported
+     * Hooktube and Invidious instances
+     */
+    @Nonnull
+    public static Set<String> getSupportedHosts() {
+        return SUPPORTED_HOSTS;
+    }
+
     public static boolean isYoutubeURL(@Nonnull final URL url) {
         return YOUTUBE_URLS.contains(url.getHost().toLowerCase(Locale.ROOT));
     }
@@ -307,6 +326,26 @@ public final class YoutubeParsingHelper {
         return url.getHost().equalsIgnoreCase("y2u.be");
     }
 
+    public static boolean isYoutubeURL(@Nonnull final TokenizedUrl url) {
+        return YOUTUBE_URLS.contains(url.getHost().toLowerCase(Locale.ROOT));
+    }
+
+    public static boolean isYoutubeServiceURL(@Nonnull final TokenizedUrl url) {
+        return url.isHost("www.youtube-nocookie.com") || url.isHost("youtu.be");
+    }
+
+    public static boolean isHooktubeURL(@Nonnull final TokenizedUrl url) {
+        return url.isHost("hooktube.com");
+    }
+
+    public static boolean isInvidiousURL(@Nonnull final TokenizedUrl url) {
+        return INVIDIOUS_URLS.contains(url.getHost().toLowerCase(Locale.ROOT));
+    }
+
+    public static boolean isY2ubeURL(@Nonnull final TokenizedUrl url) {
+        return url.isHost("y2u.be");
+    }
+
     /**
      * Parses the duration string of the video expecting ":" or "." as separators
      *
@@ -44,6 +44,7 @@ import org.schabi.newpipe.extractor.subscription.SubscriptionExtractor;
 import org.schabi.newpipe.extractor.suggestion.SuggestionExtractor;
 
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
@@ -78,6 +79,11 @@ public class YoutubeService extends StreamingService {
         return "https://youtube.com";
     }
 
+    @Override
+    public Set<String> getSupportedHosts() {
+        return YoutubeParsingHelper.getSupportedHosts();
+    }
+
     @Override
     public LinkHandlerFactory getStreamLHFactory() {
         return YoutubeStreamLinkHandlerFactory.getInstance();
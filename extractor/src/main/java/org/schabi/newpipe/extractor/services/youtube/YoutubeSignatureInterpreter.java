@@ -0,0 +1,240 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A Java implementation of the signature deobfuscation functions of YouTube's player.
+ *
+ * <p>
+ * These functions split the signature into an array of characters, apply a short sequence of
+ * operations of a helper object on it and join the array again. The operations are almost always
+ * reversing the array, removing its first characters and swapping its first character with
+ * another one.
+ * </p>
+ *
+ * <p>
+ * {@link #compile(String, String)} recognizes such a function and turns it into a list of these
+ * operations, which are then executed directly on a {@code char} array, without having to
+ * interpret the JavaScript code with Rhino. When the function or one of the operations it uses
+ * is not recognized, no interpreter is returned and the JavaScript code must be run instead.
+ * </p>
+ */
+public final class YoutubeSignatureInterpreter {
+
+    private static final String NAME = "[a-zA-Z0-9_$]+";
+    private static final Pattern HELPER_MEMBER_PATTERN = Pattern.compile("(" + NAME
+            + "|\"[^\"]*\"):function\\((" + NAME + ")(?:,(" + NAME + "))?\\)\\{([^}]*)}");
+    private static final Pattern HELPER_CALL_PATTERN = Pattern.compile("(" + NAME
+            + ")(?:\\.(" + NAME + ")|\\[\"([^\"]*)\"])\\((" + NAME + "),(\\d+)\\)");
+
+    private enum Operation {
+        REVERSE,
+        SPLICE,
+        SWAP,
+        /**
+         * A swap which doesn't wrap the index when assigning the first character. It is only
+         * supported when the index is lower than the length of the signature.
+         */
+        SWAP_UNCHECKED
+    }
+
+    private final Operation[] operations;
+    private final int[] arguments;
+
+    private YoutubeSignatureInterpreter(@Nonnull final Operation[] operations,
+                                        @Nonnull final int[] arguments) {
+        this.operations = operations;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Compile the signature deobfuscation code extracted from YouTube's player.
+     *
+     * @param deobfuscationCode the code containing the helper object, the deobfuscation function
+     *                          and a function calling it
+     * @param callerName        the name of the function calling the deobfuscation function with
+     *                          its only parameter
+     * @return an interpreter of the deobfuscation function, or {@code null} if the function or
+     * one of the operations it uses is not recognized
+     */
+    @Nullable
+    public static YoutubeSignatureInterpreter compile(@Nonnull final String deobfuscationCode,
+                                                      @Nonnull final String callerName) {
+        final Matcher callerMatcher = Pattern.compile("function " + Pattern.quote(callerName)
+                + "\\((" + NAME + ")\\)\\{return (" + NAME + ")\\(\\1\\);?}")
+                .matcher(deobfuscationCode);
+        if (!callerMatcher.find()) {
+            return null;
+        }
+
+        final Matcher functionMatcher = Pattern.compile("(?<![a-zA-Z0-9_$])"
+                + Pattern.quote(callerMatcher.group(2))
+                + "=function\\((" + NAME + ")\\)\\{([^}]*)}").matcher(deobfuscationCode);
+        if (!functionMatcher.find()) {
+            return null;
+        }
+        final String parameter = Pattern.quote(functionMatcher.group(1));
+        final String[] statements = functionMatcher.group(2).split(";");
+        if (statements.length < 2
+                || !statements[0].matches(parameter + "=" + parameter + "\\.split\\(\"\"\\)")
+                || !statements[statements.length - 1].matches(
+                        "return " + parameter + "\\.join\\(\"\"\\)")) {
+            return null;
+        }
+
+        final int count = statements.length - 2;
+        final Operation[] operations = new Operation[count];
+        final int[] arguments = new int[count];
+        Map<String, Operation> helper = null;
+        String helperName = null;
+        for (int i = 0; i < count; i++) {
+            final Matcher callMatcher = HELPER_CALL_PATTERN.matcher(statements[i + 1]);
+            if (!callMatcher.matches()
+                    || !callMatcher.group(4).equals(functionMatcher.group(1))) {
+                return null;
+            }
+
+            if (helper == null) {
+                helperName = callMatcher.group(1);
+                helper = parseHelperObject(deobfuscationCode, helperName);
+            } else if (!helperName.equals(callMatcher.group(1))) {
+                return null;
+            }
+
+            final String member = callMatcher.group(2) != null
+                    ? callMatcher.group(2) : callMatcher.group(3);
+            operations[i] = helper.get(member);
+            if (operations[i] == null) {
+                return null;
+            }
+            try {
+                arguments[i] = Integer.parseInt(callMatcher.group(5));
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return new YoutubeSignatureInterpreter(operations, arguments);
+    }
+
+    /**
+     * Parse the members of the helper object which are recognized operations.
+     *
+     * @return the recognized operations keyed by the name of their member, which is empty if the
+     * helper object could not be found
+     */
+    @Nonnull
+    private static Map<String, Operation> parseHelperObject(@Nonnull final String code,
+                                                            @Nonnull final String helperName) {
+        final Map<String, Operation> helper = new HashMap<>();
+        final Matcher objectMatcher = Pattern.compile("var " + Pattern.quote(helperName)
+                + "=\\{(.*?)}};").matcher(code);
+        if (!objectMatcher.find()) {
+            return helper;
+        }
+
+        final Matcher memberMatcher = HELPER_MEMBER_PATTERN.matcher(objectMatcher.group(1) + "}");
+        while (memberMatcher.find()) {
+            final String name = memberMatcher.group(1).startsWith("\"")
+                    ? memberMatcher.group(1).substring(1, memberMatcher.group(1).length() - 1)
+                    : memberMatcher.group(1);
+            final Operation operation = parseOperation(memberMatcher.group(2),
+                    memberMatcher.group(3), memberMatcher.group(4).trim());
+            if (operation != null) {
+                helper.put(name, operation);
+            }
+        }
+        return helper;
+    }
+
+    @Nullable
+    private static Operation parseOperation(@Nonnull final String array,
+                                            @Nullable final String index,
+                                            @Nonnull final String body) {
+        final String a = Pattern.quote(array);
+        if (body.matches(a + "\\.reverse\\(\\)")) {
+            return Operation.REVERSE;
+        } else if (index == null) {
+            return null;
+        }
+
+        final String b = Pattern.quote(index);
+        final String wrappedIndex = a + "\\[" + b + "%" + a + "\\.length]";
+        final String swapStart = "var (" + NAME + ")=" + a + "\\[0];" + a + "\\[0]="
+                + wrappedIndex + ";";
+        if (body.matches(a + "\\.splice\\(0," + b + "\\)")) {
+            return Operation.SPLICE;
+        } else if (body.matches(swapStart + wrappedIndex + "=\\1")) {
+            return Operation.SWAP;
+        } else if (body.matches(swapStart + a + "\\[" + b + "]=\\1")) {
+            return Operation.SWAP_UNCHECKED;
+        }
+        return null;
+    }
+
+    /**
+     * Deobfuscate a signature.
+     *
+     * @param signature the obfuscated signature
+     * @return the deobfuscated signature, or {@code null} if the operations can't be applied on
+     * this signature in Java, in which case the JavaScript code must be run instead
+     */
+    @Nullable
+    public String deobfuscate(@Nonnull final String signature) {
+        final char[] chars = signature.toCharArray();
+        int length = chars.length;
+
+        for (int i = 0; i < operations.length; i++) {
+            final int argument = arguments[i];
+            switch (operations[i]) {
+                case REVERSE:
+                    for (int start = 0, end = length - 1; start < end; start++, end--) {
+                        final char c = chars[start];
+                        chars[start] = chars[end];
+                        chars[end] = c;
+                    }
+                    break;
+                case SPLICE:
+                    final int removed = Math.min(argument, length);
+                    System.arraycopy(chars, removed, chars, 0, length - removed);
+                    length -= removed;
+                    break;
+                case SWAP:
+                case SWAP_UNCHECKED:
+                    if (length == 0
+                            || (operations[i] == Operation.SWAP_UNCHECKED && argument >= length)) {
+                        return null;
+                    }
+                    final int index = argument % length;
+                    final char c = chars[0];
+                    chars[0] = chars[index];
+                    chars[index] = c;
+                    break;
+            }
+        }
+
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * @return the names of the operations of the deobfuscation function, in the order in which
+     * they are applied, with their argument
+     */
+    @Nonnull
+    public List<String> getOperations() {
+        final List<String> result = new ArrayList<>(operations.length);
+        for (int i = 0; i < operations.length; i++) {
+            result.add(operations[i].name().toLowerCase(Locale.ROOT) + "(" + arguments[i] + ")");
+        }
+        return result;
+    }
+}
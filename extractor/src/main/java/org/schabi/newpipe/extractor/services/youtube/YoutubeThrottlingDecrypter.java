@@ -1,12 +1,18 @@
 package org.schabi.newpipe.extractor.services.youtube;
 
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.utils.JavaScript;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptExtractor;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -85,21 +91,89 @@ public final class YoutubeThrottlingDecrypter {
             return streamingUrl;
         }
 
+        final String decryptedUrl =
+                applyAll(Collections.singletonList(streamingUrl), videoId).get(streamingUrl);
+        if (decryptedUrl == null) {
+            throw new ParsingException("Could not decrypt n parameter");
+        }
+        return decryptedUrl;
+    }
+
+    /**
+     * Decrypt the throttling parameter of several streaming URLs at once, like
+     * {@link #apply(String, String)} does for each one.
+     *
+     * <p>
+     * The decryption function is evaluated once, for all the distinct {@code n} parameters which
+     * are not cached yet. Streaming URLs of a video usually share the same {@code n} parameter,
+     * so it is decrypted once for all of them.
+     * </p>
+     *
+     * @param streamingUrls the streaming URLs to decrypt, if needed
+     * @param videoId       a video ID, used to fetch the JavaScript code to get the decryption
+     *                      function, see {@link #apply(String, String)}
+     * @return the streaming URLs with their decrypted parameter, keyed by the given URLs. The URLs
+     * without throttling parameter are mapped to themselves and the URLs whose parameter could not
+     * be decrypted are left out.
+     * @throws ParsingException if the decryption function could not be extracted or evaluated
+     */
+    @Nonnull
+    public static Map<String, String> applyAll(@Nonnull final Collection<String> streamingUrls,
+                                               @Nonnull final String videoId)
+            throws ParsingException {
+        return applyAll(NewPipe.getDownloader(), streamingUrls, videoId);
+    }
+
+    /**
+     * Same as {@link #applyAll(Collection, String)}, but fetches the JavaScript code, if it has
+     * not been extracted yet, with the given downloader instead of the one of the current
+     * context.
+     */
+    @Nonnull
+    public static Map<String, String> applyAll(@Nonnull final Downloader downloader,
+                                               @Nonnull final Collection<String> streamingUrls,
+                                               @Nonnull final String videoId)
+            throws ParsingException {
+        final Map<String, String> decryptedUrls = new HashMap<>();
+        final Map<String, String> nParamsByUrl = new HashMap<>();
+        for (final String streamingUrl : streamingUrls) {
+            final Matcher matcher = N_PARAM_PATTERN.matcher(streamingUrl);
+            if (matcher.find()) {
+                nParamsByUrl.put(streamingUrl, matcher.group(1));
+            } else {
+                decryptedUrls.put(streamingUrl, streamingUrl);
+            }
+        }
+
+        if (nParamsByUrl.isEmpty()) {
+            return decryptedUrls;
+        }
+
         try {
             if (decryptFunction == null) {
                 final String playerJsCode
-                        = YoutubeJavaScriptExtractor.extractJavaScriptCode(videoId);
+                        = YoutubeJavaScriptExtractor.extractJavaScriptCode(downloader, videoId);
 
                 decryptFunctionName = parseDecodeFunctionName(playerJsCode);
                 decryptFunction = parseDecodeFunction(playerJsCode, decryptFunctionName);
             }
 
-            final String oldNParam = parseNParam(streamingUrl);
-            final String newNParam = decryptNParam(decryptFunction, decryptFunctionName, oldNParam);
-            return replaceNParam(streamingUrl, oldNParam, newNParam);
+            final Set<String> uncachedNParams = new HashSet<>(nParamsByUrl.values());
+            uncachedNParams.removeAll(N_PARAMS_CACHE.keySet());
+            N_PARAMS_CACHE.putAll(JavaScript.runForEach(decryptFunction, decryptFunctionName,
+                    uncachedNParams));
         } catch (final Exception e) {
             throw new ParsingException("Could not parse, decrypt or replace n parameter", e);
         }
+
+        nParamsByUrl.forEach((streamingUrl, nParam) -> {
+            final String decryptedNParam = N_PARAMS_CACHE.get(nParam);
+            if (decryptedNParam != null) {
+                decryptedUrls.put(streamingUrl,
+                        replaceNParam(streamingUrl, nParam, decryptedNParam));
+            }
+        });
+        return decryptedUrls;
     }
 
     private static String parseDecodeFunctionName(final String playerJsCode)
@@ -162,21 +236,6 @@ public final class YoutubeThrottlingDecrypter {
         return Parser.isMatch(N_PARAM_PATTERN, url);
     }
 
-    private static String parseNParam(final String url) throws Parser.RegexException {
-        return Parser.matchGroup1(N_PARAM_PATTERN, url);
-    }
-
-    private static String decryptNParam(final String function,
-                                        final String functionName,
-                                        final String nParam) {
-        if (N_PARAMS_CACHE.containsKey(nParam)) {
-            return N_PARAMS_CACHE.get(nParam);
-        }
-        final String decryptedNParam = JavaScript.run(function, functionName, nParam);
-        N_PARAMS_CACHE.put(nParam, decryptedNParam);
-        return decryptedNParam;
-    }
-
     @Nonnull
     private static String replaceNParam(@Nonnull final String url,
                                         final String oldValue,
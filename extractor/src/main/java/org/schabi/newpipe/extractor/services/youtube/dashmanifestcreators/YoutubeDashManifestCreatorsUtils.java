@@ -596,9 +596,23 @@ public final class YoutubeDashManifestCreatorsUtils {
      * @return the "initialization" response, without redirections on the network on which the
      * request(s) is/are made
      */
+    @Nonnull
+    public static Response getInitializationResponse(@Nonnull final String baseStreamingUrl,
+                                                     @Nonnull final ItagItem itagItem,
+                                                     final DeliveryType deliveryType)
+            throws CreationException {
+        return getInitializationResponse(NewPipe.getDownloader(), baseStreamingUrl, itagItem,
+                deliveryType);
+    }
+
+    /**
+     * Same as {@link #getInitializationResponse(String, ItagItem, DeliveryType)}, but makes the
+     * request(s) with the given downloader instead of the one of the current context.
+     */
     @SuppressWarnings("checkstyle:FinalParameters")
     @Nonnull
-    public static Response getInitializationResponse(@Nonnull String baseStreamingUrl,
+    public static Response getInitializationResponse(@Nonnull final Downloader downloader,
+                                                     @Nonnull String baseStreamingUrl,
                                                      @Nonnull final ItagItem itagItem,
                                                      final DeliveryType deliveryType)
             throws CreationException {
@@ -611,7 +625,6 @@ public final class YoutubeDashManifestCreatorsUtils {
         }
         baseStreamingUrl = appendRnSqParamsIfNeeded(baseStreamingUrl, deliveryType);
 
-        final Downloader downloader = NewPipe.getDownloader();
         if (isHtml5StreamingUrl) {
             final String mimeTypeExpected = itagItem.getMediaFormat().getMimeType();
             if (!isNullOrEmpty(mimeTypeExpected)) {
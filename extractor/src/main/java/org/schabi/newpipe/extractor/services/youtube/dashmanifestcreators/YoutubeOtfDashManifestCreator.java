@@ -12,6 +12,8 @@ import static org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators
 import static org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators.YoutubeDashManifestCreatorsUtils.setAttribute;
 import static org.schabi.newpipe.extractor.utils.Utils.isBlank;
 
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.services.youtube.DeliveryType;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
@@ -103,6 +105,20 @@ public final class YoutubeOtfDashManifestCreator {
             @Nonnull final String otfBaseStreamingUrl,
             @Nonnull final ItagItem itagItem,
             final long durationSecondsFallback) throws CreationException {
+        return fromOtfStreamingUrl(NewPipe.getDownloader(), otfBaseStreamingUrl, itagItem,
+                durationSecondsFallback);
+    }
+
+    /**
+     * Same as {@link #fromOtfStreamingUrl(String, ItagItem, long)}, but requests the first
+     * sequence of the stream with the given downloader instead of the one of the current context.
+     */
+    @Nonnull
+    public static String fromOtfStreamingUrl(
+            @Nonnull final Downloader downloader,
+            @Nonnull final String otfBaseStreamingUrl,
+            @Nonnull final ItagItem itagItem,
+            final long durationSecondsFallback) throws CreationException {
         if (OTF_STREAMS_CACHE.containsKey(otfBaseStreamingUrl)) {
             return Objects.requireNonNull(OTF_STREAMS_CACHE.get(otfBaseStreamingUrl)).getSecond();
         }
@@ -110,8 +126,8 @@ public final class YoutubeOtfDashManifestCreator {
         String realOtfBaseStreamingUrl = otfBaseStreamingUrl;
         // Try to avoid redirects when streaming the content by saving the last URL we get
         // from video servers.
-        final Response response = getInitializationResponse(realOtfBaseStreamingUrl,
-                itagItem, DeliveryType.OTF);
+        final Response response = getInitializationResponse(downloader,
+                realOtfBaseStreamingUrl, itagItem, DeliveryType.OTF);
         realOtfBaseStreamingUrl = response.latestUrl().replace(SQ_0, "")
                 .replace(RN_0, "").replace(ALR_YES, "");
 
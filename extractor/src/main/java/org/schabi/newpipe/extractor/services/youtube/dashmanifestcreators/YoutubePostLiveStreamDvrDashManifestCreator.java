@@ -12,6 +12,8 @@ import static org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators
 import static org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators.YoutubeDashManifestCreatorsUtils.setAttribute;
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.services.youtube.DeliveryType;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
@@ -112,6 +114,23 @@ public final class YoutubePostLiveStreamDvrDashManifestCreator {
             @Nonnull final ItagItem itagItem,
             final int targetDurationSec,
             final long durationSecondsFallback) throws CreationException {
+        return fromPostLiveStreamDvrStreamingUrl(NewPipe.getDownloader(),
+                postLiveStreamDvrStreamingUrl, itagItem, targetDurationSec,
+                durationSecondsFallback);
+    }
+
+    /**
+     * Same as {@link #fromPostLiveStreamDvrStreamingUrl(String, ItagItem, int, long)}, but
+     * requests the first sequence of the stream with the given downloader instead of the one of
+     * the current context.
+     */
+    @Nonnull
+    public static String fromPostLiveStreamDvrStreamingUrl(
+            @Nonnull final Downloader downloader,
+            @Nonnull final String postLiveStreamDvrStreamingUrl,
+            @Nonnull final ItagItem itagItem,
+            final int targetDurationSec,
+            final long durationSecondsFallback) throws CreationException {
         if (POST_LIVE_DVR_STREAMS_CACHE.containsKey(postLiveStreamDvrStreamingUrl)) {
             return Objects.requireNonNull(
                     POST_LIVE_DVR_STREAMS_CACHE.get(postLiveStreamDvrStreamingUrl)).getSecond();
@@ -128,8 +147,8 @@ public final class YoutubePostLiveStreamDvrDashManifestCreator {
         try {
             // Try to avoid redirects when streaming the content by saving the latest URL we get
             // from video servers.
-            final Response response = getInitializationResponse(realPostLiveStreamDvrStreamingUrl,
-                    itagItem, DeliveryType.LIVE);
+            final Response response = getInitializationResponse(downloader,
+                    realPostLiveStreamDvrStreamingUrl, itagItem, DeliveryType.LIVE);
             realPostLiveStreamDvrStreamingUrl = response.latestUrl().replace(SQ_0, "")
                     .replace(RN_0, "").replace(ALR_YES, "");
 
@@ -393,21 +393,25 @@ public class YoutubeChannelExtractor extends ChannelExtractor {
             throw new IllegalArgumentException("Page doesn't contain an URL");
         }
 
-        final List<String> channelIds = page.getIds();
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final List<String> channelIds = page.getIds();
 
-        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
+            final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
 
-        final JsonObject ajaxJson = getJsonPostResponse("browse", page.getBody(),
-                getExtractorLocalization());
+            final JsonObject ajaxJson = getJsonPostResponse("browse", page.getBody(),
+                    getExtractorLocalization());
 
-        final JsonObject sectionListContinuation = ajaxJson.getArray("onResponseReceivedActions")
-                .getObject(0)
-                .getObject("appendContinuationItemsAction");
+            final JsonObject sectionListContinuation = ajaxJson
+                    .getArray("onResponseReceivedActions")
+                    .getObject(0)
+                    .getObject("appendContinuationItemsAction");
 
-        final JsonObject continuation = collectStreamsFrom(collector, sectionListContinuation
-                .getArray("continuationItems"), channelIds);
+            final JsonObject continuation = collectStreamsFrom(collector, sectionListContinuation
+                    .getArray("continuationItems"), channelIds);
 
-        return new InfoItemsPage<>(collector, getNextPageFrom(continuation, channelIds));
+            return new InfoItemsPage<>(collector, getNextPageFrom(continuation, channelIds));
+        });
     }
 
     @Nullable
@@ -12,6 +12,7 @@ import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
 import org.schabi.newpipe.extractor.localization.Localization;
 import org.schabi.newpipe.extractor.utils.JsonUtils;
 import org.schabi.newpipe.extractor.utils.Utils;
@@ -185,18 +186,21 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
             throw new IllegalArgumentException("Page doesn't have the continuation.");
         }
 
-        final Localization localization = getExtractorLocalization();
-        // @formatter:off
-        final byte[] body = JsonWriter.string(
-                prepareDesktopJsonBuilder(localization, getExtractorContentCountry())
-                    .value("continuation", page.getId())
-                    .done())
-                .getBytes(StandardCharsets.UTF_8);
-        // @formatter:on
-
-        final JsonObject jsonObject = getJsonPostResponse("next", body, localization);
-
-        return extractComments(jsonObject);
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final Localization localization = getExtractorLocalization();
+            // @formatter:off
+            final byte[] body = JsonWriter.string(
+                    prepareDesktopJsonBuilder(localization, getExtractorContentCountry())
+                        .value("continuation", page.getId())
+                        .done())
+                    .getBytes(StandardCharsets.UTF_8);
+            // @formatter:on
+
+            final JsonObject jsonObject = getJsonPostResponse("next", body, localization);
+
+            return extractComments(jsonObject);
+        });
     }
 
     private InfoItemsPage<CommentsInfoItem> extractComments(final JsonObject jsonObject)
@@ -267,16 +271,23 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
         final Localization localization = getExtractorLocalization();
-        // @formatter:off
-        final byte[] body = JsonWriter.string(
-                prepareDesktopJsonBuilder(localization, getExtractorContentCountry())
-                    .value("videoId", getId())
-                    .done())
-                .getBytes(StandardCharsets.UTF_8);
-        // @formatter:on
+        final ContentCountry contentCountry = getExtractorContentCountry();
+
+        // Use the next response of the video if the stream extractor has just fetched it
+        JsonObject nextResponse = YoutubeNextResponseCache.of(getContext())
+                .take(getId(), localization, contentCountry);
+        if (nextResponse == null) {
+            // @formatter:off
+            final byte[] body = JsonWriter.string(
+                    prepareDesktopJsonBuilder(localization, contentCountry)
+                        .value("videoId", getId())
+                        .done())
+                    .getBytes(StandardCharsets.UTF_8);
+            // @formatter:on
+            nextResponse = getJsonPostResponse("next", body, localization);
+        }
 
-        final String initialToken =
-                findInitialCommentsToken(getJsonPostResponse("next", body, localization));
+        final String initialToken = findInitialCommentsToken(nextResponse);
 
         if (initialToken == null) {
             return;
@@ -284,7 +295,7 @@ public class YoutubeCommentsExtractor extends CommentsExtractor {
 
         // @formatter:off
         final byte[] ajaxBody = JsonWriter.string(
-                        prepareDesktopJsonBuilder(localization, getExtractorContentCountry())
+                        prepareDesktopJsonBuilder(localization, contentCountry)
                                 .value("continuation", initialToken)
                                 .done())
                 .getBytes(StandardCharsets.UTF_8);
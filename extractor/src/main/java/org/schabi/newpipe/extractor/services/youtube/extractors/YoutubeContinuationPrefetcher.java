@@ -0,0 +1,159 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import com.grack.nanojson.JsonObject;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches continuations of YouTube lists in the background, before they are requested, and hands
+ * them over to the extractor which requests them.
+ *
+ * <p>
+ * The prefetcher belongs to the context rather than to an extractor, because the pages of a list
+ * are usually requested with a new extractor each. The number of continuations prefetched for
+ * each query is limited, until the first page of the query is fetched again, and a prefetched
+ * continuation which is not requested is cancelled when too many other ones have been prefetched
+ * after it.
+ * </p>
+ */
+final class YoutubeContinuationPrefetcher {
+    private static final ExtractorContext.CacheKey<YoutubeContinuationPrefetcher> KEY =
+            new ExtractorContext.CacheKey<>("youtube.continuationPrefetcher");
+    static final int MAX_PENDING = 8;
+    static final int MAX_QUERIES = 32;
+
+    private static final ExecutorService EXECUTOR =
+            DaemonExecutors.newPool("YouTube continuation prefetch", 2);
+
+    private final Map<String, Future<JsonObject>> pending = new LinkedHashMap<>();
+    private final Map<String, Integer> prefetchCounts = new LinkedHashMap<>();
+
+    /**
+     * @param context the context of an extractor
+     * @return the prefetcher of the context
+     */
+    @Nonnull
+    static YoutubeContinuationPrefetcher of(@Nonnull final ExtractorContext context) {
+        final Supplier<YoutubeContinuationPrefetcher> creator = YoutubeContinuationPrefetcher::new;
+        return context.getCached(KEY, creator);
+    }
+
+    /**
+     * Start fetching a continuation in the background, unless it is already being fetched or the
+     * maximum number of continuations has already been prefetched for the query.
+     *
+     * @param context  the context in which the continuation is fetched
+     * @param query    a key identifying the list, e.g. its search query and filters
+     * @param token    the continuation token
+     * @param maxCount the maximum number of continuations prefetched for the query
+     * @param fetcher  the task fetching the continuation
+     * @return whether the continuation is being prefetched
+     */
+    synchronized boolean prefetch(@Nonnull final ExtractorContext context,
+                                  @Nonnull final String query,
+                                  @Nonnull final String token,
+                                  final int maxCount,
+                                  @Nonnull final ExtractorContext.Task<JsonObject> fetcher) {
+        if (pending.containsKey(token)) {
+            return true;
+        }
+        final int count = prefetchCounts.getOrDefault(query, 0);
+        if (count >= maxCount) {
+            return false;
+        }
+
+        final Future<JsonObject> future;
+        try {
+            future = EXECUTOR.submit(() -> context.run(fetcher));
+        } catch (final RejectedExecutionException e) {
+            return false;
+        }
+
+        prefetchCounts.remove(query);
+        prefetchCounts.put(query, count + 1);
+        pending.put(token, future);
+        evictOldest(prefetchCounts, MAX_QUERIES);
+        for (final Future<JsonObject> evicted : evictOldest(pending, MAX_PENDING)) {
+            evicted.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * Forget the number of continuations prefetched for a query, e.g. because its first page has
+     * been fetched again, so that its next continuations can be prefetched.
+     *
+     * @param query a key identifying the list, see {@link #prefetch(ExtractorContext, String,
+     *              String, int, ExtractorContext.Task)}
+     */
+    synchronized void resetCount(@Nonnull final String query) {
+        prefetchCounts.remove(query);
+    }
+
+    @Nonnull
+    private static <T> List<T> evictOldest(@Nonnull final Map<String, T> map, final int max) {
+        final List<T> evicted = new ArrayList<>();
+        final Iterator<T> iterator = map.values().iterator();
+        while (map.size() > max) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    /**
+     * Take a prefetched continuation, waiting for it if it is still being fetched.
+     *
+     * @param token the continuation token
+     * @return the response of the continuation, or {@code null} if it has not been prefetched or
+     * its prefetch failed or was cancelled, in which case it must be fetched normally
+     */
+    @Nullable
+    JsonObject take(@Nonnull final String token) throws InterruptedIOException {
+        final Future<JsonObject> future;
+        synchronized (this) {
+            future = pending.remove(token);
+        }
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a prefetched page");
+        } catch (final ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cancel all the prefetches which are still running and forget the prefetched continuations
+     * and the prefetch counts of the queries.
+     */
+    synchronized void cancelAll() {
+        for (final Future<JsonObject> future : pending.values()) {
+            future.cancel(true);
+        }
+        pending.clear();
+        prefetchCounts.clear();
+    }
+}
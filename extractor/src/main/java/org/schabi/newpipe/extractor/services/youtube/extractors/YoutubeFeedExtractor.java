@@ -1,9 +1,5 @@
 package org.schabi.newpipe.extractor.services.youtube.extractors;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.schabi.newpipe.extractor.ListExtractor;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.StreamingService;
@@ -12,14 +8,20 @@ import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ContentNotAvailableException;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.feed.FeedExtractor;
+import org.schabi.newpipe.extractor.feed.FeedState;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
 import org.schabi.newpipe.extractor.stream.StreamInfoItem;
-import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class YoutubeFeedExtractor extends FeedExtractor {
     private static final String WEBSITE_CHANNEL_BASE_URL = "https://www.youtube.com/channel/";
@@ -28,32 +30,82 @@ public class YoutubeFeedExtractor extends FeedExtractor {
         super(service, linkHandler);
     }
 
-    private Document document;
-
+    private YoutubeFeedParser.Feed feed;
+    private boolean notModified = false;
+    @Nullable
+    private FeedState state;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The feed is parsed with {@link YoutubeFeedParser}. If a
+     * {@link #setPreviousState(FeedState) previous state} was set, the parsing stops at the first
+     * known entry, as the entries of the feed are sorted from the newest to the oldest one.
+     * </p>
+     */
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
         final String channelIdOrUser = getLinkHandler().getId();
         final String feedUrl = YoutubeParsingHelper.getFeedUrlFrom(channelIdOrUser);
+        final FeedState previousState = getPreviousState();
 
-        final Response response = downloader.get(feedUrl);
+        final Map<String, List<String>> headers = new HashMap<>();
+        if (previousState != null && previousState.getEtag() != null) {
+            headers.put("If-None-Match", Collections.singletonList(previousState.getEtag()));
+        }
+        if (previousState != null && previousState.getLastModified() != null) {
+            headers.put("If-Modified-Since",
+                    Collections.singletonList(previousState.getLastModified()));
+        }
+
+        final Response response = headers.isEmpty()
+                ? downloader.get(feedUrl) : downloader.get(feedUrl, headers);
         if (response.responseCode() == 404) {
             throw new ContentNotAvailableException("Could not get feed: 404 - not found");
         }
-        document = Jsoup.parse(response.responseBody());
+
+        final String etag = response.getHeader("ETag");
+        final String lastModified = response.getHeader("Last-Modified");
+        if (response.responseCode() == 304 && previousState != null) {
+            notModified = true;
+            state = new FeedState(etag != null ? etag : previousState.getEtag(),
+                    lastModified != null ? lastModified : previousState.getLastModified(),
+                    previousState.getNewestItemUrl(), previousState.getNewestUploadDate());
+            return;
+        }
+
+        feed = YoutubeFeedParser.parse(new StringReader(response.responseBody()), getServiceId(),
+                previousState);
+
+        if (feed.getNewestItemUrl() == null && previousState != null) {
+            state = new FeedState(etag, lastModified, previousState.getNewestItemUrl(),
+                    previousState.getNewestUploadDate());
+        } else {
+            state = new FeedState(etag, lastModified, feed.getNewestItemUrl(),
+                    feed.getNewestUploadDate());
+        }
     }
 
     @Nonnull
     @Override
     public ListExtractor.InfoItemsPage<StreamInfoItem> getInitialPage() {
-        final Elements entries = document.select("feed > entry");
-        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-
-        for (final Element entryElement : entries) {
-            collector.commit(new YoutubeFeedInfoItemExtractor(entryElement));
+        if (notModified) {
+            return InfoItemsPage.emptyPage();
         }
+        return new InfoItemsPage<>(feed.getItems(), null, feed.getErrors());
+    }
 
-        return new InfoItemsPage<>(collector, null);
+    @Override
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    @Nullable
+    @Override
+    public FeedState getState() {
+        return state;
     }
 
     @Nonnull
@@ -65,34 +117,19 @@ public class YoutubeFeedExtractor extends FeedExtractor {
     @Nonnull
     @Override
     public String getUrl() {
-        final Element authorUriElement = document.select("feed > author > uri")
-                .first();
-        if (authorUriElement != null) {
-            final String authorUriElementText = authorUriElement.text();
-            if (!authorUriElementText.equals("")) {
-                return authorUriElementText;
-            }
+        if (notModified) {
+            return getLinkHandler().getUrl();
         }
-
-        final Element linkElement = document.select("feed > link[rel*=alternate]")
-                .first();
-        if (linkElement != null) {
-            return linkElement.attr("href");
-        }
-
-        return "";
+        return feed.getUrl();
     }
 
     @Nonnull
     @Override
     public String getName() {
-        final Element nameElement = document.select("feed > author > name")
-                .first();
-        if (nameElement == null) {
+        if (notModified) {
             return "";
         }
-
-        return nameElement.text();
+        return feed.getName();
     }
 
     @Override
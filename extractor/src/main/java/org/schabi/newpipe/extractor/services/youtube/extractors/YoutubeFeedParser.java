@@ -0,0 +1,452 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.feed.FeedState;
+import org.schabi.newpipe.extractor.localization.DateWrapper;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamInfoItemExtractor;
+import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
+import org.schabi.newpipe.extractor.stream.StreamType;
+import org.schabi.newpipe.extractor.utils.XmlPullReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Parses YouTube's Atom feeds ({@code feeds/videos.xml}) while reading them, without building a
+ * document tree.
+ *
+ * <p>
+ * The entries are turned into {@link StreamInfoItem}s as soon as they have been read, with the
+ * same values as {@link YoutubeFeedInfoItemExtractor}. As the entries of the feeds are sorted from
+ * the newest to the oldest one, the parsing stops at the first entry which is
+ * {@link FeedState#isKnown(String, OffsetDateTime) known} by a previous state, or older than a
+ * cutoff, so the rest of the feed is not even read.
+ * </p>
+ */
+public final class YoutubeFeedParser {
+    private YoutubeFeedParser() {
+    }
+
+    /**
+     * What was parsed from a feed.
+     */
+    public static final class Feed {
+        private String name;
+        private String authorUrl;
+        private String alternateUrl;
+        private final StreamInfoItemsCollector collector;
+        private String newestItemUrl;
+        private OffsetDateTime newestUploadDate;
+        private boolean complete = true;
+
+        Feed(final int serviceId) {
+            this.collector = new StreamInfoItemsCollector(serviceId);
+        }
+
+        /**
+         * @return the name of the author of the feed, or an empty string if there is none
+         */
+        @Nonnull
+        public String getName() {
+            return name == null ? "" : name;
+        }
+
+        /**
+         * @return the URL of the channel of the feed, or an empty string if there is none
+         */
+        @Nonnull
+        public String getUrl() {
+            if (authorUrl != null && !authorUrl.isEmpty()) {
+                return authorUrl;
+            }
+            return alternateUrl == null ? "" : alternateUrl;
+        }
+
+        /**
+         * @return the items of the new entries
+         */
+        @Nonnull
+        public List<StreamInfoItem> getItems() {
+            return collector.getItems();
+        }
+
+        /**
+         * @return the errors which occurred while extracting the items
+         */
+        @Nonnull
+        public List<Throwable> getErrors() {
+            return collector.getErrors();
+        }
+
+        /**
+         * @return the URL of the first entry of the feed, even if it is not new, or {@code null}
+         * if the feed has no entries
+         */
+        @Nullable
+        public String getNewestItemUrl() {
+            return newestItemUrl;
+        }
+
+        /**
+         * @return the upload date of the first entry of the feed, even if it is not new, or
+         * {@code null} if the feed has no entries or the date could not be parsed
+         */
+        @Nullable
+        public OffsetDateTime getNewestUploadDate() {
+            return newestUploadDate;
+        }
+
+        /**
+         * @return whether the whole feed was read, i.e. whether there was no known entry
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    /**
+     * Same as {@link #parse(Reader, int, FeedState)}, stopping at the first entry uploaded before
+     * a cutoff.
+     *
+     * @param cutoff the upload date before which entries are ignored, or {@code null} to parse
+     *               the whole feed
+     */
+    @Nonnull
+    public static Feed parse(@Nonnull final Reader reader,
+                             final int serviceId,
+                             @Nullable final OffsetDateTime cutoff)
+            throws IOException, ParsingException {
+        return parse(reader, serviceId, cutoff == null ? null
+                : new FeedState(null, null, null, cutoff));
+    }
+
+    /**
+     * Parse a feed.
+     *
+     * @param reader        the reader of the feed
+     * @param serviceId     the ID of the service of the items
+     * @param previousState the state of the previous fetch of the feed, whose known entries are
+     *                      ignored, or {@code null} to parse the whole feed
+     * @return what was parsed from the feed
+     * @throws IOException      if the feed could not be read
+     * @throws ParsingException if the feed is not well-formed, e.g. if it is truncated
+     */
+    @Nonnull
+    public static Feed parse(@Nonnull final Reader reader,
+                             final int serviceId,
+                             @Nullable final FeedState previousState)
+            throws IOException, ParsingException {
+        final Feed feed = new Feed(serviceId);
+        final XmlPullReader xml = new XmlPullReader(reader);
+        final Deque<String> path = new ArrayDeque<>();
+
+        Entry entry = null;
+        boolean firstEntry = true;
+        // The field whose text is being read, and the depth of its element
+        Field capturedField = null;
+        int capturedDepth = 0;
+        final StringBuilder capturedText = new StringBuilder();
+
+        while (true) {
+            final int event = xml.next();
+            if (event == XmlPullReader.END_DOCUMENT) {
+                if (!path.isEmpty()) {
+                    throw new ParsingException("Feed ended before the end of its <"
+                            + path.peekLast() + "> element");
+                }
+                return feed;
+            } else if (event == XmlPullReader.TEXT) {
+                if (capturedField != null) {
+                    capturedText.append(xml.getText());
+                }
+            } else if (event == XmlPullReader.START_TAG) {
+                final String parent = path.peek();
+                final String name = xml.getName();
+                path.push(name);
+
+                final Field field;
+                if (entry != null) {
+                    field = entry.onStartTag(xml, name, parent);
+                } else if (path.size() == 2 && "feed".equals(parent)) {
+                    if (name.equals("entry")) {
+                        entry = new Entry();
+                    } else if (name.equals("link") && feed.alternateUrl == null) {
+                        final String rel = xml.getAttribute("rel");
+                        if (rel != null && rel.contains("alternate")) {
+                            feed.alternateUrl = attributeOrEmpty(xml, "href");
+                        }
+                    }
+                    field = null;
+                } else if (path.size() == 3 && "author".equals(parent)) {
+                    if (name.equals("name") && feed.name == null) {
+                        field = Field.FEED_NAME;
+                    } else if (name.equals("uri") && feed.authorUrl == null) {
+                        field = Field.FEED_AUTHOR_URL;
+                    } else {
+                        field = null;
+                    }
+                } else {
+                    field = null;
+                }
+
+                if (field != null && capturedField == null) {
+                    capturedField = field;
+                    capturedDepth = path.size();
+                    capturedText.setLength(0);
+                }
+            } else if (event == XmlPullReader.END_TAG) {
+                if (capturedField != null && path.size() == capturedDepth) {
+                    final String text = normalizeText(capturedText);
+                    if (capturedField == Field.FEED_NAME) {
+                        feed.name = text;
+                    } else if (capturedField == Field.FEED_AUTHOR_URL) {
+                        feed.authorUrl = text;
+                    } else if (entry != null) {
+                        entry.set(capturedField, text);
+                    }
+                    capturedField = null;
+                }
+
+                if (entry != null && path.size() == 2) {
+                    final String url = entry.url == null ? "" : entry.url;
+                    final OffsetDateTime uploadDate = entry.parseUploadDate();
+                    if (firstEntry) {
+                        feed.newestItemUrl = url;
+                        feed.newestUploadDate = uploadDate;
+                        firstEntry = false;
+                    }
+                    if (previousState != null && previousState.isKnown(url, uploadDate)) {
+                        feed.complete = false;
+                        return feed;
+                    }
+                    feed.collector.commit(entry);
+                    entry = null;
+                }
+                path.poll();
+            }
+        }
+    }
+
+    @Nonnull
+    private static String attributeOrEmpty(@Nonnull final XmlPullReader xml,
+                                           @Nonnull final String name) {
+        final String value = xml.getAttribute(name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Collapse the whitespace of a text and remove invisible characters, like
+     * {@link org.jsoup.nodes.Element#text()} does, so the values are the same as the ones of
+     * {@link YoutubeFeedInfoItemExtractor}.
+     */
+    @Nonnull
+    static String normalizeText(@Nonnull final CharSequence text) {
+        final StringBuilder builder = new StringBuilder(text.length());
+        boolean lastWasWhitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == '\u00A0') {
+                if (!lastWasWhitespace && builder.length() > 0) {
+                    builder.append(' ');
+                    lastWasWhitespace = true;
+                }
+            } else if (c != '\u200B' && c != '\u00AD') {
+                builder.append(c);
+                lastWasWhitespace = false;
+            }
+        }
+        return builder.toString().trim();
+    }
+
+    private enum Field {
+        FEED_NAME,
+        FEED_AUTHOR_URL,
+        TITLE,
+        PUBLISHED,
+        UPLOADER_NAME,
+        UPLOADER_URL
+    }
+
+    /**
+     * The values of an entry, which are read while parsing it.
+     */
+    private static final class Entry implements StreamInfoItemExtractor {
+        private String title;
+        private String url;
+        private String published;
+        private String uploaderName;
+        private String uploaderUrl;
+        private String thumbnailUrl;
+        private String views;
+
+        /**
+         * Read the attributes of an element of the entry.
+         *
+         * @return the field of the text of the element, if it is needed
+         */
+        @Nullable
+        Field onStartTag(@Nonnull final XmlPullReader xml,
+                         @Nonnull final String name,
+                         @Nullable final String parent) {
+            switch (name) {
+                case "title":
+                    return title == null ? Field.TITLE : null;
+                case "published":
+                    return published == null ? Field.PUBLISHED : null;
+                case "name":
+                    return "author".equals(parent) && uploaderName == null
+                            ? Field.UPLOADER_NAME : null;
+                case "uri":
+                    return "author".equals(parent) && uploaderUrl == null
+                            ? Field.UPLOADER_URL : null;
+                case "link":
+                    if (url == null) {
+                        url = attributeOrEmpty(xml, "href");
+                    }
+                    return null;
+                case "media:thumbnail":
+                    if (thumbnailUrl == null) {
+                        thumbnailUrl = attributeOrEmpty(xml, "url");
+                    }
+                    return null;
+                case "media:statistics":
+                    if (views == null) {
+                        views = attributeOrEmpty(xml, "views");
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        void set(@Nonnull final Field field, @Nonnull final String text) {
+            switch (field) {
+                case TITLE:
+                    title = text;
+                    break;
+                case PUBLISHED:
+                    published = text;
+                    break;
+                case UPLOADER_NAME:
+                    uploaderName = text;
+                    break;
+                case UPLOADER_URL:
+                    uploaderUrl = text;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Nullable
+        OffsetDateTime parseUploadDate() {
+            if (published == null) {
+                return null;
+            }
+            try {
+                return OffsetDateTime.parse(published);
+            } catch (final DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        @Nonnull
+        private static String require(@Nullable final String value, @Nonnull final String what)
+                throws ParsingException {
+            if (value == null) {
+                throw new ParsingException("Could not get " + what);
+            }
+            return value;
+        }
+
+        @Override
+        public StreamType getStreamType() {
+            // It is not possible to determine the stream type using the feed endpoint.
+            // All entries are considered a video stream.
+            return StreamType.VIDEO_STREAM;
+        }
+
+        @Override
+        public boolean isAd() {
+            return false;
+        }
+
+        @Override
+        public long getDuration() {
+            // Not available when fetching through the feed endpoint.
+            return -1;
+        }
+
+        @Override
+        public long getViewCount() throws ParsingException {
+            try {
+                return Long.parseLong(require(views, "view count"));
+            } catch (final NumberFormatException e) {
+                throw new ParsingException("Could not parse view count", e);
+            }
+        }
+
+        @Override
+        public String getUploaderName() throws ParsingException {
+            return require(uploaderName, "uploader name");
+        }
+
+        @Override
+        public String getUploaderUrl() throws ParsingException {
+            return require(uploaderUrl, "uploader url");
+        }
+
+        @Nullable
+        @Override
+        public String getUploaderAvatarUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isUploaderVerified() {
+            return false;
+        }
+
+        @Nullable
+        @Override
+        public String getTextualUploadDate() throws ParsingException {
+            return require(published, "upload date");
+        }
+
+        @Nullable
+        @Override
+        public DateWrapper getUploadDate() throws ParsingException {
+            final OffsetDateTime uploadDate = parseUploadDate();
+            if (uploadDate == null) {
+                throw new ParsingException("Could not parse date (\"" + published + "\")");
+            }
+            return new DateWrapper(uploadDate);
+        }
+
+        @Override
+        public String getName() throws ParsingException {
+            return require(title, "name");
+        }
+
+        @Override
+        public String getUrl() throws ParsingException {
+            return require(url, "url");
+        }
+
+        @Override
+        public String getThumbnailUrl() throws ParsingException {
+            // The hqdefault thumbnail has some black bars at the top and at the bottom, while the
+            // mqdefault doesn't, so return the mqdefault one.
+            return require(thumbnailUrl, "thumbnail url").replace("hqdefault", "mqdefault");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The formats of the streaming data objects of a video, decoded once by
+ * {@link YoutubeStreamExtractor} and indexed by {@link ItagItem.ItagType type}, by itag and by
+ * the client whose streaming data they come from.
+ *
+ * <p>
+ * The formats of each type and of each itag are stored in the order in which they were added,
+ * i.e. the order in which the clients are preferred.
+ * </p>
+ */
+final class YoutubeFormatTable {
+    private final Map<ItagItem.ItagType, List<ItagInfo>> formatsByType =
+            new EnumMap<>(ItagItem.ItagType.class);
+    private final Map<Integer, List<ItagInfo>> formatsByItag = new HashMap<>();
+    private final Map<String, List<ItagInfo>> formatsByClient = new HashMap<>();
+    private final Map<ItagItem.ItagType, RuntimeException> failures =
+            new EnumMap<>(ItagItem.ItagType.class);
+
+    /**
+     * Add a format.
+     *
+     * @param client   the name of the client whose streaming data contains the format
+     * @param itagInfo the decoded format
+     */
+    void add(@Nonnull final String client, @Nonnull final ItagInfo itagInfo) {
+        final ItagItem itagItem = itagInfo.getItagItem();
+        formatsByType.computeIfAbsent(itagItem.itagType, type -> new ArrayList<>()).add(itagInfo);
+        formatsByItag.computeIfAbsent(itagItem.id, itag -> new ArrayList<>()).add(itagInfo);
+        formatsByClient.computeIfAbsent(client, c -> new ArrayList<>()).add(itagInfo);
+    }
+
+    /**
+     * Record that a format of the given type could not be decoded, which makes the streams of
+     * this type unavailable. Only the first failure of each type is kept.
+     */
+    void addFailure(@Nonnull final ItagItem.ItagType type,
+                    @Nonnull final RuntimeException failure) {
+        failures.putIfAbsent(type, failure);
+    }
+
+    /**
+     * @return the failure which occurred when decoding a format of the given type, or
+     * {@code null} if all the formats of this type could be decoded
+     */
+    @Nullable
+    RuntimeException getFailure(@Nonnull final ItagItem.ItagType type) {
+        return failures.get(type);
+    }
+
+    @Nonnull
+    List<ItagInfo> getByType(@Nonnull final ItagItem.ItagType type) {
+        return Collections.unmodifiableList(
+                formatsByType.getOrDefault(type, Collections.emptyList()));
+    }
+
+    @Nonnull
+    List<ItagInfo> getByItag(final int itag) {
+        return Collections.unmodifiableList(
+                formatsByItag.getOrDefault(itag, Collections.emptyList()));
+    }
+
+    @Nonnull
+    List<ItagInfo> getByClient(@Nonnull final String client) {
+        return Collections.unmodifiableList(
+                formatsByClient.getOrDefault(client, Collections.emptyList()));
+    }
+}
@@ -227,23 +227,27 @@ public class YoutubeMixPlaylistExtractor extends PlaylistExtractor {
             throw new IllegalArgumentException("Cookie '" + COOKIE_NAME + "' is missing");
         }
 
-        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
-        // Cookie is required due to consent
-        final var headers = getYouTubeHeaders();
-
-        final Response response = getDownloader().postWithContentTypeJson(page.getUrl(), headers,
-                page.getBody(), getExtractorLocalization());
-        final JsonObject ajaxJson = JsonUtils.toJsonObject(getValidJsonResponseBody(response));
-        final JsonObject playlistJson = ajaxJson.getObject("contents")
-                .getObject("twoColumnWatchNextResults").getObject("playlist").getObject("playlist");
-        final JsonArray allStreams = playlistJson.getArray("contents");
-        // Sublist because YouTube returns up to 24 previous streams in the mix
-        // +1 because the stream of "currentIndex" was already extracted in previous request
-        final List<Object> newStreams =
-                allStreams.subList(playlistJson.getInt("currentIndex") + 1, allStreams.size());
-
-        collectStreamsFrom(collector, newStreams);
-        return new InfoItemsPage<>(collector, getNextPageFrom(playlistJson, page.getCookies()));
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
+            // Cookie is required due to consent
+            final var headers = getYouTubeHeaders();
+
+            final Response response = getDownloader().postWithContentTypeJson(page.getUrl(),
+                    headers, page.getBody(), getExtractorLocalization());
+            final JsonObject ajaxJson = JsonUtils.toJsonObject(getValidJsonResponseBody(response));
+            final JsonObject playlistJson = ajaxJson.getObject("contents")
+                    .getObject("twoColumnWatchNextResults").getObject("playlist")
+                    .getObject("playlist");
+            final JsonArray allStreams = playlistJson.getArray("contents");
+            // Sublist because YouTube returns up to 24 previous streams in the mix
+            // +1 because the stream of "currentIndex" was already extracted in previous request
+            final List<Object> newStreams =
+                    allStreams.subList(playlistJson.getInt("currentIndex") + 1, allStreams.size());
+
+            collectStreamsFrom(collector, newStreams);
+            return new InfoItemsPage<>(collector, getNextPageFrom(playlistJson, page.getCookies()));
+        });
     }
 
     private void collectStreamsFrom(@Nonnull final StreamInfoItemsCollector collector,
@@ -211,56 +211,59 @@ public class YoutubeMusicSearchExtractor extends SearchExtractor {
             throw new IllegalArgumentException("Page doesn't contain an URL");
         }
 
-        final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
-
-        final String[] youtubeMusicKeys = YoutubeParsingHelper.getYoutubeMusicKey();
-
-        // @formatter:off
-        final byte[] json = JsonWriter.string()
-            .object()
-                .object("context")
-                    .object("client")
-                        .value("clientName", "WEB_REMIX")
-                        .value("clientVersion", youtubeMusicKeys[2])
-                        .value("hl", "en")
-                        .value("gl", getExtractorContentCountry().getCountryCode())
-                        .array("experimentIds").end()
-                        .value("experimentsToken", "")
-                        .value("utcOffsetMinutes", 0)
-                        .object("locationInfo").end()
-                        .object("musicAppInfo").end()
-                    .end()
-                    .object("capabilities").end()
-                    .object("request")
-                        .array("internalExperimentFlags").end()
-                        .object("sessionIndex").end()
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+
+            final String[] youtubeMusicKeys = YoutubeParsingHelper.getYoutubeMusicKey();
+
+            // @formatter:off
+            final byte[] json = JsonWriter.string()
+                .object()
+                    .object("context")
+                        .object("client")
+                            .value("clientName", "WEB_REMIX")
+                            .value("clientVersion", youtubeMusicKeys[2])
+                            .value("hl", "en")
+                            .value("gl", getExtractorContentCountry().getCountryCode())
+                            .array("experimentIds").end()
+                            .value("experimentsToken", "")
+                            .value("utcOffsetMinutes", 0)
+                            .object("locationInfo").end()
+                            .object("musicAppInfo").end()
+                        .end()
+                        .object("capabilities").end()
+                        .object("request")
+                            .array("internalExperimentFlags").end()
+                            .object("sessionIndex").end()
+                        .end()
+                        .object("activePlayers").end()
+                        .object("user")
+                            .value("enableSafetyMode", false)
+                        .end()
                     .end()
-                    .object("activePlayers").end()
-                    .object("user")
-                        .value("enableSafetyMode", false)
-                    .end()
-                .end()
-            .end().done().getBytes(StandardCharsets.UTF_8);
-        // @formatter:on
-
-        final String responseBody = getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(
-                        page.getUrl(), getYoutubeMusicHeaders(), json));
-
-        final JsonObject ajaxJson;
-        try {
-            ajaxJson = JsonParser.object().from(responseBody);
-        } catch (final JsonParserException e) {
-            throw new ParsingException("Could not parse JSON", e);
-        }
+                .end().done().getBytes(StandardCharsets.UTF_8);
+            // @formatter:on
+
+            final String responseBody = getValidJsonResponseBody(
+                    getDownloader().postWithContentTypeJson(
+                            page.getUrl(), getYoutubeMusicHeaders(), json));
+
+            final JsonObject ajaxJson;
+            try {
+                ajaxJson = JsonParser.object().from(responseBody);
+            } catch (final JsonParserException e) {
+                throw new ParsingException("Could not parse JSON", e);
+            }
 
-        final JsonObject musicShelfContinuation = ajaxJson.getObject("continuationContents")
-                .getObject("musicShelfContinuation");
+            final JsonObject musicShelfContinuation = ajaxJson.getObject("continuationContents")
+                    .getObject("musicShelfContinuation");
 
-        collectMusicStreamsFrom(collector, musicShelfContinuation.getArray("contents"));
-        final JsonArray continuations = musicShelfContinuation.getArray("continuations");
+            collectMusicStreamsFrom(collector, musicShelfContinuation.getArray("contents"));
+            final JsonArray continuations = musicShelfContinuation.getArray("continuations");
 
-        return new InfoItemsPage<>(collector, getNextPageFrom(continuations));
+            return new InfoItemsPage<>(collector, getNextPageFrom(continuations));
+        });
     }
 
     @SuppressWarnings("MethodLength")
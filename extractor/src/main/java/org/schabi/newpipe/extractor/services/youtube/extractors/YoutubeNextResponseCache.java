@@ -0,0 +1,88 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import com.grack.nanojson.JsonObject;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Hands the {@code next} response of a video fetched by {@link YoutubeStreamExtractor} over to
+ * {@link YoutubeCommentsExtractor}, so that extracting the stream and the comments of a video
+ * only needs one {@code next} request.
+ *
+ * <p>
+ * Only the few most recent responses are kept, for a short time, and a response is removed once
+ * it has been taken, so that fetching the comments of a video again always returns fresh ones.
+ * The responses which are never taken are dropped once they are outdated, when other ones are
+ * stored.
+ * </p>
+ */
+final class YoutubeNextResponseCache {
+    private static final ExtractorContext.CacheKey<YoutubeNextResponseCache> KEY =
+            new ExtractorContext.CacheKey<>("youtube.nextResponses");
+    static final int MAX_ENTRIES = 16;
+    static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private final ExpiringCache<String, JsonObject> responses;
+
+    YoutubeNextResponseCache(@Nonnull final LongSupplier nanoClock) {
+        responses = new ExpiringCache.Builder<String, JsonObject>(MAX_AGE)
+                .maxEntries(MAX_ENTRIES)
+                .nanoClock(nanoClock)
+                .build();
+    }
+
+    /**
+     * @param context the context of an extractor
+     * @return the cache of the context
+     */
+    @Nonnull
+    static YoutubeNextResponseCache of(@Nonnull final ExtractorContext context) {
+        final Supplier<YoutubeNextResponseCache> creator =
+                () -> new YoutubeNextResponseCache(System::nanoTime);
+        return context.getCached(KEY, creator);
+    }
+
+    @Nonnull
+    private static String key(@Nonnull final String videoId,
+                              @Nonnull final Localization localization,
+                              @Nonnull final ContentCountry contentCountry) {
+        return videoId + '\n' + localization.getLocalizationCode() + '\n'
+                + contentCountry.getCountryCode();
+    }
+
+    /**
+     * Store the {@code next} response of a video, replacing the previous one.
+     */
+    void put(@Nonnull final String videoId,
+             @Nonnull final Localization localization,
+             @Nonnull final ContentCountry contentCountry,
+             @Nonnull final JsonObject nextResponse) {
+        responses.put(key(videoId, localization, contentCountry), nextResponse);
+    }
+
+    /**
+     * Remove and return the {@code next} response of a video, if it has been stored recently
+     * with the same localization and content country.
+     *
+     * @return the response or {@code null} if there is none
+     */
+    @Nullable
+    JsonObject take(@Nonnull final String videoId,
+                    @Nonnull final Localization localization,
+                    @Nonnull final ContentCountry contentCountry) {
+        return responses.remove(key(videoId, localization, contentCountry));
+    }
+
+    int size() {
+        return responses.size();
+    }
+}
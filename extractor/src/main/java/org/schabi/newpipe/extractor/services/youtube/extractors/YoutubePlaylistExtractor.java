@@ -353,19 +353,22 @@ public class YoutubePlaylistExtractor extends PlaylistExtractor {
             throw new IllegalArgumentException("Page doesn't contain an URL");
         }
 
-        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(getServiceId());
 
-        final JsonObject ajaxJson = getJsonPostResponse("browse", page.getBody(),
-                getExtractorLocalization());
+            final JsonObject ajaxJson = getJsonPostResponse("browse", page.getBody(),
+                    getExtractorLocalization());
 
-        final JsonArray continuation = ajaxJson.getArray("onResponseReceivedActions")
-                .getObject(0)
-                .getObject("appendContinuationItemsAction")
-                .getArray("continuationItems");
+            final JsonArray continuation = ajaxJson.getArray("onResponseReceivedActions")
+                    .getObject(0)
+                    .getObject("appendContinuationItemsAction")
+                    .getArray("continuationItems");
 
-        collectStreamsFrom(collector, continuation);
+            collectStreamsFrom(collector, continuation);
 
-        return new InfoItemsPage<>(collector, getNextPageFrom(continuation));
+            return new InfoItemsPage<>(collector, getNextPageFrom(continuation));
+        });
     }
 
     @Nullable
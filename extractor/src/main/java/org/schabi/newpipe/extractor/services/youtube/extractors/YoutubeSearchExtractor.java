@@ -14,6 +14,7 @@ import com.grack.nanojson.JsonBuilder;
 import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonWriter;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.InfoItem;
 import org.schabi.newpipe.extractor.MetaInfo;
 import org.schabi.newpipe.extractor.MultiInfoItemsCollector;
@@ -57,6 +58,7 @@ import javax.annotation.Nullable;
  */
 
 public class YoutubeSearchExtractor extends SearchExtractor {
+
     private JsonObject initialData;
 
     public YoutubeSearchExtractor(final StreamingService service,
@@ -90,6 +92,7 @@ public class YoutubeSearchExtractor extends SearchExtractor {
         final byte[] body = JsonWriter.string(jsonBody.done()).getBytes(StandardCharsets.UTF_8);
 
         initialData = getJsonPostResponse("search", body, localization);
+        YoutubeContinuationPrefetcher.of(getContext()).resetCount(getPrefetchQuery());
     }
 
     @Nonnull
@@ -172,6 +175,7 @@ public class YoutubeSearchExtractor extends SearchExtractor {
             }
         }
 
+        prefetchContinuation(nextPage);
         return new InfoItemsPage<>(collector, nextPage);
     }
 
@@ -182,31 +186,74 @@ public class YoutubeSearchExtractor extends SearchExtractor {
             throw new IllegalArgumentException("Page doesn't contain an URL");
         }
 
+        // The helpers use the downloader of the current context
+        return getContext().run(() -> {
+            final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+
+            JsonObject ajaxJson = YoutubeContinuationPrefetcher.of(getContext()).take(page.getId());
+            if (ajaxJson == null) {
+                ajaxJson = fetchContinuation(page.getId());
+            }
+
+            final JsonArray continuationItems = ajaxJson.getArray("onResponseReceivedCommands")
+                    .getObject(0)
+                    .getObject("appendContinuationItemsAction")
+                    .getArray("continuationItems");
+
+            final JsonArray contents = continuationItems.getObject(0)
+                    .getObject("itemSectionRenderer")
+                    .getArray("contents");
+            collectStreamsFrom(collector, contents);
+
+            final Page nextPage = getNextPageFrom(continuationItems.getObject(1)
+                    .getObject("continuationItemRenderer"));
+            prefetchContinuation(nextPage);
+            return new InfoItemsPage<>(collector, nextPage);
+        });
+    }
+
+    @Nonnull
+    private JsonObject fetchContinuation(@Nonnull final String token)
+            throws IOException, ExtractionException {
         final Localization localization = getExtractorLocalization();
-        final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
 
         // @formatter:off
         final byte[] json = JsonWriter.string(prepareDesktopJsonBuilder(localization,
                 getExtractorContentCountry())
-                .value("continuation", page.getId())
+                .value("continuation", token)
                 .done())
                 .getBytes(StandardCharsets.UTF_8);
         // @formatter:on
 
-        final JsonObject ajaxJson = getJsonPostResponse("search", json, localization);
+        return getJsonPostResponse("search", json, localization);
+    }
 
-        final JsonArray continuationItems = ajaxJson.getArray("onResponseReceivedCommands")
-                .getObject(0)
-                .getObject("appendContinuationItemsAction")
-                .getArray("continuationItems");
+    /**
+     * Start fetching the given page in the background if the context of this extractor
+     * {@link ExtractorContext#getMaxPrefetchedPages() prefetches pages}, so that it is ready
+     * when {@link #getPage(Page)} is called with it. At most that number of pages are
+     * prefetched for each search query.
+     */
+    private void prefetchContinuation(@Nullable final Page nextPage) throws ParsingException {
+        final int maxCount = getContext().getMaxPrefetchedPages();
+        if (maxCount <= 0 || nextPage == null || isNullOrEmpty(nextPage.getId())) {
+            return;
+        }
 
-        final JsonArray contents = continuationItems.getObject(0)
-                .getObject("itemSectionRenderer")
-                .getArray("contents");
-        collectStreamsFrom(collector, contents);
+        final String token = nextPage.getId();
+        YoutubeContinuationPrefetcher.of(getContext()).prefetch(getContext(), getPrefetchQuery(),
+                token, maxCount, () -> fetchContinuation(token));
+    }
 
-        return new InfoItemsPage<>(collector, getNextPageFrom(continuationItems.getObject(1)
-                .getObject("continuationItemRenderer")));
+    /**
+     * @return the key of the search for {@link YoutubeContinuationPrefetcher}, i.e. its query,
+     * filters, localization and content country
+     */
+    @Nonnull
+    private String getPrefetchQuery() throws ParsingException {
+        return super.getUrl()
+                + "&hl=" + getExtractorLocalization().getLocalizationCode()
+                + "&gl=" + getExtractorContentCountry().getCountryCode();
     }
 
     private void collectStreamsFrom(final MultiInfoItemsCollector collector,
@@ -249,4 +296,14 @@ public class YoutubeSearchExtractor extends SearchExtractor {
 
         return new Page(url, token);
     }
+
+    /**
+     * Cancel the prefetches of search continuations made with the given context which are still
+     * running, and forget the pages which have been prefetched but not requested yet.
+     *
+     * @param context the context of the search extractors, e.g. {@link #getContext()}
+     */
+    public static void cancelContinuationPrefetches(@Nonnull final ExtractorContext context) {
+        YoutubeContinuationPrefetcher.of(context).cancelAll();
+    }
 }
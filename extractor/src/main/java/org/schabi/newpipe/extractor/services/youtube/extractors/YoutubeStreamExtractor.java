@@ -44,9 +44,6 @@ import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonWriter;
 
-import org.mozilla.javascript.Context;
-import org.mozilla.javascript.Function;
-import org.mozilla.javascript.ScriptableObject;
 import org.schabi.newpipe.extractor.MediaFormat;
 import org.schabi.newpipe.extractor.MetaInfo;
 import org.schabi.newpipe.extractor.MultiInfoItemsCollector;
@@ -69,6 +66,7 @@ import org.schabi.newpipe.extractor.localization.TimeAgoPatternsManager;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeJavaScriptExtractor;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeSignatureInterpreter;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeThrottlingDecrypter;
 import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeChannelLinkHandlerFactory;
 import org.schabi.newpipe.extractor.stream.AudioStream;
@@ -81,20 +79,25 @@ import org.schabi.newpipe.extractor.stream.StreamSegment;
 import org.schabi.newpipe.extractor.stream.StreamType;
 import org.schabi.newpipe.extractor.stream.SubtitlesStream;
 import org.schabi.newpipe.extractor.stream.VideoStream;
+import org.schabi.newpipe.extractor.utils.JavaScript;
 import org.schabi.newpipe.extractor.utils.JsonUtils;
 import org.schabi.newpipe.extractor.utils.LocaleCompat;
-import org.schabi.newpipe.extractor.utils.Pair;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.Utils;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -120,6 +123,8 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Nullable
     private static String cachedDeobfuscationCode = null;
     @Nullable
+    private static YoutubeSignatureInterpreter cachedSignatureInterpreter = null;
+    @Nullable
     private static String sts = null;
     @Nullable
     private static String playerCode = null;
@@ -151,6 +156,10 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     private String androidCpn;
     private String iosCpn;
 
+    // The formats of all the streaming data objects, decoded on first use
+    @Nullable
+    private YoutubeFormatTable formatTable;
+
     public YoutubeStreamExtractor(final StreamingService service, final LinkHandler linkHandler) {
         super(service, linkHandler);
     }
@@ -630,40 +639,45 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Override
     public List<AudioStream> getAudioStreams() throws ExtractionException {
         assertPageFetched();
-        return getItags(ADAPTIVE_FORMATS, ItagItem.ItagType.AUDIO,
-                getAudioStreamBuilderHelper(), "audio");
+        return getItags(ItagItem.ItagType.AUDIO, getAudioStreamBuilderHelper(), "audio");
     }
 
     @Override
     public List<VideoStream> getVideoStreams() throws ExtractionException {
         assertPageFetched();
-        return getItags(FORMATS, ItagItem.ItagType.VIDEO,
-                getVideoStreamBuilderHelper(false), "video");
+        return getItags(ItagItem.ItagType.VIDEO, getVideoStreamBuilderHelper(false), "video");
     }
 
     @Override
     public List<VideoStream> getVideoOnlyStreams() throws ExtractionException {
         assertPageFetched();
-        return getItags(ADAPTIVE_FORMATS, ItagItem.ItagType.VIDEO_ONLY,
-                getVideoStreamBuilderHelper(true), "video-only");
+        return getItags(ItagItem.ItagType.VIDEO_ONLY, getVideoStreamBuilderHelper(true),
+                "video-only");
     }
 
     /**
-     * Try to decrypt a streaming URL and fall back to the given URL, because decryption may fail
-     * if YouTube changes break something.
+     * Try to decrypt streaming URLs, because decryption may fail if YouTube changes break
+     * something. The URLs which could not be decrypted should be used as they are.
      *
      * <p>
      * This way a breaking change from YouTube does not result in a broken extractor.
      * </p>
      *
-     * @param streamingUrl the streaming URL to decrypt with {@link YoutubeThrottlingDecrypter}
-     * @param videoId      the video ID to use when extracting JavaScript player code, if needed
+     * @param downloader    the downloader to fetch the JavaScript player code with, if needed
+     * @param streamingUrls the streaming URLs to decrypt with {@link YoutubeThrottlingDecrypter}
+     * @param videoId       the video ID to use when extracting JavaScript player code, if needed
+     * @return the decrypted URLs keyed by the given ones, without the URLs which could not be
+     * decrypted
      */
-    private String tryDecryptUrl(final String streamingUrl, final String videoId) {
+    @Nonnull
+    private static Map<String, String> tryDecryptUrls(
+            @Nonnull final Downloader downloader,
+            @Nonnull final Collection<String> streamingUrls,
+            @Nonnull final String videoId) {
         try {
-            return YoutubeThrottlingDecrypter.apply(streamingUrl, videoId);
+            return YoutubeThrottlingDecrypter.applyAll(downloader, streamingUrls, videoId);
         } catch (final ParsingException e) {
-            return streamingUrl;
+            return Collections.emptyMap();
         }
     }
 
@@ -800,23 +814,14 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     private static final String SIGNATURE_CIPHER = "signatureCipher";
     private static final String CIPHER = "cipher";
 
-    private static final String[] REGEXES = {
-            "(?:\\b|[^a-zA-Z0-9$])([a-zA-Z0-9$]{2,})\\s*=\\s*function\\(\\s*a\\s*\\)"
-                    + "\\s*\\{\\s*a\\s*=\\s*a\\.split\\(\\s*\"\"\\s*\\)",
-            "\\bm=([a-zA-Z0-9$]{2,})\\(decodeURIComponent\\(h\\.s\\)\\)",
-            "\\bc&&\\(c=([a-zA-Z0-9$]{2,})\\(decodeURIComponent\\(c\\)\\)",
-            "([\\w$]+)\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;",
-            "\\b([\\w$]{2,})\\s*=\\s*function\\((\\w+)\\)\\{\\s*\\2=\\s*\\2\\.split\\(\"\"\\)\\s*;",
-            "\\bc\\s*&&\\s*d\\.set\\([^,]+\\s*,\\s*(:encodeURIComponent\\s*\\()([a-zA-Z0-9$]+)\\("
-    };
     private static final String STS_REGEX = "signatureTimestamp[=:](\\d+)";
 
     @Override
     public void onFetchPage(@Nonnull final Downloader downloader)
             throws IOException, ExtractionException {
-        initStsFromPlayerJsIfNeeded();
-
         final String videoId = getId();
+        initStsFromPlayerJsIfNeeded(downloader, videoId);
+
         final Localization localization = getExtractorLocalization();
         final ContentCountry contentCountry = getExtractorContentCountry();
         html5Cpn = generateContentPlaybackNonce();
@@ -876,6 +881,8 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                         .done())
                 .getBytes(StandardCharsets.UTF_8);
         nextResponse = getJsonPostResponse(NEXT, body, localization);
+        YoutubeNextResponseCache.of(getContext())
+                .put(videoId, localization, contentCountry, nextResponse);
 
         // streamType can only have LIVE_STREAM, POST_LIVE_STREAM and VIDEO_STREAM values (see
         // setStreamType()), so this block will be run only for POST_LIVE_STREAM and VIDEO_STREAM
@@ -1050,7 +1057,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                                              @Nonnull final Localization localization,
                                              @Nonnull final String videoId)
             throws IOException, ExtractionException {
-        initStsFromPlayerJsIfNeeded();
+        initStsFromPlayerJsIfNeeded(getDownloader(), videoId);
 
         // Because a cpn is unique to each request, we need to generate it again
         html5Cpn = generateContentPlaybackNonce();
@@ -1098,56 +1105,20 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 .getString("videoId", ""));
     }
 
-    private static void storePlayerJs() throws ParsingException {
+    private static void storePlayerJs(@Nonnull final Downloader downloader,
+                                      @Nonnull final String videoId) throws ParsingException {
         try {
-            playerCode = YoutubeJavaScriptExtractor.extractJavaScriptCode();
+            playerCode = YoutubeJavaScriptExtractor.extractJavaScriptCode(downloader, videoId);
         } catch (final Exception e) {
             throw new ParsingException("Could not store JavaScript player", e);
         }
     }
 
-    private static String getDeobfuscationFuncName(final String thePlayerCode)
-            throws DeobfuscateException {
-        Parser.RegexException exception = null;
-        for (final String regex : REGEXES) {
-            try {
-                return Parser.matchGroup1(regex, thePlayerCode);
-            } catch (final Parser.RegexException re) {
-                if (exception == null) {
-                    exception = re;
-                }
-            }
-        }
-        throw new DeobfuscateException(
-                "Could not find deobfuscate function with any of the given patterns.", exception);
-    }
-
     @Nonnull
     private static String loadDeobfuscationCode() throws DeobfuscateException {
         try {
-            final String deobfuscationFunctionName = getDeobfuscationFuncName(playerCode);
-
-            final String functionPattern = "("
-                    + deobfuscationFunctionName.replace("$", "\\$")
-                    + "=function\\([a-zA-Z0-9_]+\\)\\{.+?\\})";
-            final String deobfuscateFunction = "var " + Parser.matchGroup1(functionPattern,
-                    playerCode) + ";";
-
-            final String helperObjectName =
-                    Parser.matchGroup1(";([A-Za-z0-9_\\$]{2})\\...\\(",
-                            deobfuscateFunction);
-            final String helperPattern =
-                    "(var " + helperObjectName.replace("$", "\\$")
-                            + "=\\{.+?\\}\\};)";
-            final String helperObject =
-                    Parser.matchGroup1(helperPattern, Objects.requireNonNull(playerCode).replace(
-                            "\n", ""));
-
-            final String callerFunction =
-                    "function " + DEOBFUSCATION_FUNC_NAME + "(a){return "
-                            + deobfuscationFunctionName + "(a);}";
-
-            return helperObject + deobfuscateFunction + callerFunction;
+            return YoutubeJavaScriptExtractor.extractDeobfuscationCode(
+                    Objects.requireNonNull(playerCode), DEOBFUSCATION_FUNC_NAME);
         } catch (final Exception e) {
             throw new DeobfuscateException("Could not parse deobfuscate function ", e);
         }
@@ -1161,16 +1132,20 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             }
 
             cachedDeobfuscationCode = loadDeobfuscationCode();
+            cachedSignatureInterpreter = YoutubeSignatureInterpreter.compile(
+                    cachedDeobfuscationCode, DEOBFUSCATION_FUNC_NAME);
         }
         return cachedDeobfuscationCode;
     }
 
-    private static void initStsFromPlayerJsIfNeeded() throws ParsingException {
+    private static void initStsFromPlayerJsIfNeeded(@Nonnull final Downloader downloader,
+                                                    @Nonnull final String videoId)
+            throws ParsingException {
         if (!isNullOrEmpty(sts)) {
             return;
         }
         if (playerCode == null) {
-            storePlayerJs();
+            storePlayerJs(downloader, videoId);
             if (playerCode == null) {
                 throw new ParsingException("playerCode is null");
             }
@@ -1178,23 +1153,49 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         sts = Parser.matchGroup1(STS_REGEX, playerCode);
     }
 
-    private String deobfuscateSignature(final String obfuscatedSig) throws ParsingException {
+    /**
+     * Deobfuscate signatures.
+     *
+     * <p>
+     * The signatures are deobfuscated in Java if the deobfuscation function could be compiled
+     * with {@link YoutubeSignatureInterpreter}; the remaining ones are deobfuscated by evaluating
+     * the deobfuscation code once for all of them.
+     * </p>
+     *
+     * @param obfuscatedSignatures the signatures to deobfuscate
+     * @return the deobfuscated signatures keyed by the obfuscated ones, without the ones which
+     * could not be deobfuscated
+     */
+    @Nonnull
+    private static Map<String, String> deobfuscateSignatures(
+            @Nonnull final Collection<String> obfuscatedSignatures) throws ParsingException {
+        if (obfuscatedSignatures.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
         final String deobfuscationCode = getDeobfuscationCode();
+        final YoutubeSignatureInterpreter interpreter = cachedSignatureInterpreter;
+        final Map<String, String> signatures = new HashMap<>();
+        final List<String> remainingSignatures = new ArrayList<>();
+        for (final String obfuscatedSignature : obfuscatedSignatures) {
+            final String signature = interpreter == null
+                    ? null : interpreter.deobfuscate(obfuscatedSignature);
+            if (signature == null) {
+                remainingSignatures.add(obfuscatedSignature);
+            } else {
+                signatures.put(obfuscatedSignature, signature);
+            }
+        }
 
-        final Context context = Context.enter();
-        context.setOptimizationLevel(-1);
-        final Object result;
-        try {
-            final ScriptableObject scope = context.initSafeStandardObjects();
-            context.evaluateString(scope, deobfuscationCode, "deobfuscationCode", 1, null);
-            final Function deobfuscateFunc = (Function) scope.get(DEOBFUSCATION_FUNC_NAME, scope);
-            result = deobfuscateFunc.call(context, scope, scope, new Object[]{obfuscatedSig});
-        } catch (final Exception e) {
-            throw new DeobfuscateException("Could not get deobfuscate signature", e);
-        } finally {
-            Context.exit();
+        if (!remainingSignatures.isEmpty()) {
+            try {
+                signatures.putAll(JavaScript.runForEach(deobfuscationCode,
+                        DEOBFUSCATION_FUNC_NAME, remainingSignatures));
+            } catch (final Exception e) {
+                throw new DeobfuscateException("Could not get deobfuscate signatures", e);
+            }
         }
-        return Objects.toString(result, "");
+        return signatures;
     }
 
     /*//////////////////////////////////////////////////////////////////////////
@@ -1239,43 +1240,200 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
     @Nonnull
     private <T extends Stream> List<T> getItags(
-            final String streamingDataKey,
             final ItagItem.ItagType itagTypeWanted,
             final java.util.function.Function<ItagInfo, T> streamBuilderHelper,
             final String streamTypeExceptionMessage) throws ParsingException {
         try {
-            final String videoId = getId();
-            final List<T> streamList = new ArrayList<>();
-
-            java.util.stream.Stream.of(
-                    // Use the androidStreamingData object first because there is no n param and no
-                    // signatureCiphers in streaming URLs of the Android client
-                    new Pair<>(androidStreamingData, androidCpn),
-                    new Pair<>(html5StreamingData, html5Cpn),
-                    // Use the iosStreamingData object in the last position because most of the
-                    // available streams can be extracted with the Android and web clients and also
-                    // because the iOS client is only enabled by default on livestreams
-                    new Pair<>(iosStreamingData, iosCpn)
-            )
-                    .flatMap(pair -> getStreamsFromStreamingDataKey(videoId, pair.getFirst(),
-                            streamingDataKey, itagTypeWanted, pair.getSecond()))
-                    .map(streamBuilderHelper)
-                    .forEachOrdered(stream -> {
-                        if (!Stream.containSimilarStream(stream, streamList)) {
-                            streamList.add(stream);
-                        }
-                    });
+            final YoutubeFormatTable table = getFormatTable();
+            final RuntimeException failure = table.getFailure(itagTypeWanted);
+            if (failure != null) {
+                throw failure;
+            }
 
-            return streamList;
+            return Stream.removeSimilarStreams(table.getByType(itagTypeWanted).stream()
+                    .map(streamBuilderHelper)
+                    .collect(Collectors.toList()));
         } catch (final Exception e) {
             throw new ParsingException(
                     "Could not get " + streamTypeExceptionMessage + " streams", e);
         }
     }
 
+    /**
+     * Get the formats of all the streaming data objects, which are decoded on the first call
+     * only.
+     *
+     * <p>
+     * Decoding the formats, which includes deobfuscating their signature and decrypting their
+     * throttling parameter, is done once for the audio, video and video-only streams.
+     * </p>
+     *
+     * @return the format table of the video
+     */
+    @Nonnull
+    private YoutubeFormatTable getFormatTable() throws ParsingException {
+        if (formatTable != null) {
+            return formatTable;
+        }
+
+        final List<PendingFormat> formats = new ArrayList<>();
+        // Use the androidStreamingData object first because there is no n param and no
+        // signatureCiphers in streaming URLs of the Android client
+        collectFormats(formats, "android", androidStreamingData, androidCpn);
+        collectFormats(formats, "web", html5StreamingData, html5Cpn);
+        // Use the iosStreamingData object in the last position because most of the available
+        // streams can be extracted with the Android and web clients and also because the iOS
+        // client is only enabled by default on livestreams
+        collectFormats(formats, "ios", iosStreamingData, iosCpn);
+
+        // Deobfuscate the signatures and decrypt the n parameters of all the formats at once, as
+        // many formats share the same n parameter
+        Map<String, String> signatures;
+        try {
+            signatures = deobfuscateSignatures(formats.stream()
+                    .map(format -> format.obfuscatedSignature)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+        } catch (final ParsingException e) {
+            // The formats with an obfuscated signature are skipped
+            signatures = Collections.emptyMap();
+        }
+
+        final Map<PendingFormat, String> streamUrls = new LinkedHashMap<>();
+        for (final PendingFormat format : formats) {
+            final String streamUrl = format.getStreamUrl(signatures);
+            if (streamUrl != null) {
+                streamUrls.put(format, streamUrl);
+            }
+        }
+        final Map<String, String> decryptedUrls =
+                tryDecryptUrls(getDownloader(), new HashSet<>(streamUrls.values()), getId());
+
+        final YoutubeFormatTable table = new YoutubeFormatTable();
+        streamUrls.forEach((format, streamUrl) -> {
+            final ItagItem.ItagType itagType = format.itagItem.itagType;
+            if (table.getFailure(itagType) != null) {
+                return;
+            }
+
+            try {
+                table.add(format.client, buildItagInfo(format.formatData, format.itagItem,
+                        decryptedUrls.getOrDefault(streamUrl, streamUrl)));
+            } catch (final RuntimeException e) {
+                table.addFailure(itagType, e);
+            }
+        });
+
+        formatTable = table;
+        return formatTable;
+    }
+
+    /**
+     * Add the supported formats of a streaming data object to the given list.
+     */
+    private static void collectFormats(@Nonnull final List<PendingFormat> formats,
+                                       @Nonnull final String client,
+                                       @Nullable final JsonObject streamingData,
+                                       @Nonnull final String contentPlaybackNonce) {
+        if (streamingData == null) {
+            return;
+        }
+
+        for (final String streamingDataKey : Arrays.asList(FORMATS, ADAPTIVE_FORMATS)) {
+            // Video streams (with audio) are in formats, audio and video-only streams in
+            // adaptiveFormats
+            final boolean wantsVideoStreams = streamingDataKey.equals(FORMATS);
+            for (final Object format : streamingData.getArray(streamingDataKey)) {
+                if (!(format instanceof JsonObject)) {
+                    continue;
+                }
+
+                final JsonObject formatData = (JsonObject) format;
+                final ItagItem itagItem;
+                try {
+                    itagItem = ItagItem.getItag(formatData.getInt("itag"));
+                } catch (final ParsingException ignored) {
+                    // The itag is not supported
+                    continue;
+                }
+
+                if ((itagItem.itagType == ItagItem.ItagType.VIDEO) != wantsVideoStreams) {
+                    continue;
+                }
+
+                try {
+                    formats.add(new PendingFormat(client, formatData, itagItem,
+                            contentPlaybackNonce));
+                } catch (final UnsupportedEncodingException ignored) {
+                    // The signature cipher could not be parsed, so skip the format
+                }
+            }
+        }
+    }
+
+    /**
+     * A format whose signature and throttling parameter are not decoded yet.
+     */
+    private static final class PendingFormat {
+        private final String client;
+        private final JsonObject formatData;
+        private final ItagItem itagItem;
+        private final String contentPlaybackNonce;
+        private final String baseUrl;
+        @Nullable
+        private final String signatureParameter;
+        @Nullable
+        private final String obfuscatedSignature;
+
+        PendingFormat(@Nonnull final String client,
+                      @Nonnull final JsonObject formatData,
+                      @Nonnull final ItagItem itagItem,
+                      @Nonnull final String contentPlaybackNonce)
+                throws UnsupportedEncodingException {
+            this.client = client;
+            this.formatData = formatData;
+            this.itagItem = itagItem;
+            this.contentPlaybackNonce = contentPlaybackNonce;
+
+            if (formatData.has("url")) {
+                baseUrl = formatData.getString("url");
+                signatureParameter = null;
+                obfuscatedSignature = null;
+            } else {
+                // This url has an obfuscated signature
+                final String cipherString = formatData.has(CIPHER)
+                        ? formatData.getString(CIPHER)
+                        : formatData.getString(SIGNATURE_CIPHER);
+                final Map<String, String> cipher = Parser.compatParseMap(cipherString);
+                baseUrl = cipher.get("url");
+                signatureParameter = cipher.get("sp");
+                obfuscatedSignature = cipher.get("s");
+            }
+        }
+
+        /**
+         * @return the stream URL with the deobfuscated signature and the content playback nonce,
+         * or {@code null} if the signature could not be deobfuscated
+         */
+        @Nullable
+        String getStreamUrl(@Nonnull final Map<String, String> signatures) {
+            String streamUrl = baseUrl;
+            if (obfuscatedSignature != null) {
+                final String signature = signatures.get(obfuscatedSignature);
+                if (signature == null) {
+                    return null;
+                }
+                streamUrl += "&" + signatureParameter + "=" + signature;
+            }
+
+            // Add the content playback nonce to the stream URL
+            return streamUrl + "&" + CPN + "=" + contentPlaybackNonce;
+        }
+    }
+
     /**
      * Get the stream builder helper which will be used to build {@link AudioStream}s in
-     * {@link #getItags(String, ItagItem.ItagType, java.util.function.Function, String)}
+     * {@link #getItags(ItagItem.ItagType, java.util.function.Function, String)}
      *
      * <p>
      * The {@code StreamBuilderHelper} will set the following attributes in the
@@ -1328,7 +1486,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
     /**
      * Get the stream builder helper which will be used to build {@link VideoStream}s in
-     * {@link #getItags(String, ItagItem.ItagType, java.util.function.Function, String)}
+     * {@link #getItags(ItagItem.ItagType, java.util.function.Function, String)}
      *
      * <p>
      * The {@code StreamBuilderHelper} will set the following attributes in the
@@ -1386,61 +1544,10 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         };
     }
 
-    @Nonnull
-    private java.util.stream.Stream<ItagInfo> getStreamsFromStreamingDataKey(
-            final String videoId,
-            final JsonObject streamingData,
-            final String streamingDataKey,
-            @Nonnull final ItagItem.ItagType itagTypeWanted,
-            @Nonnull final String contentPlaybackNonce) {
-        if (streamingData == null || !streamingData.has(streamingDataKey)) {
-            return java.util.stream.Stream.empty();
-        }
-
-        return streamingData.getArray(streamingDataKey).stream()
-                .filter(JsonObject.class::isInstance)
-                .map(JsonObject.class::cast)
-                .map(formatData -> {
-                    try {
-                        final ItagItem itagItem = ItagItem.getItag(formatData.getInt("itag"));
-                        if (itagItem.itagType == itagTypeWanted) {
-                            return buildAndAddItagInfoToList(videoId, formatData, itagItem,
-                                    itagItem.itagType, contentPlaybackNonce);
-                        }
-                    } catch (final IOException | ExtractionException ignored) {
-                        // if the itag is not supported and getItag fails, we end up here
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull);
-    }
-
-    private ItagInfo buildAndAddItagInfoToList(
-            @Nonnull final String videoId,
-            @Nonnull final JsonObject formatData,
-            @Nonnull final ItagItem itagItem,
-            @Nonnull final ItagItem.ItagType itagType,
-            @Nonnull final String contentPlaybackNonce) throws IOException, ExtractionException {
-        String streamUrl;
-        if (formatData.has("url")) {
-            streamUrl = formatData.getString("url");
-        } else {
-            // This url has an obfuscated signature
-            final String cipherString = formatData.has(CIPHER)
-                    ? formatData.getString(CIPHER)
-                    : formatData.getString(SIGNATURE_CIPHER);
-            final Map<String, String> cipher = Parser.compatParseMap(
-                    cipherString);
-            streamUrl = cipher.get("url") + "&" + cipher.get("sp") + "="
-                    + deobfuscateSignature(cipher.get("s"));
-        }
-
-        // Add the content playback nonce to the stream URL
-        streamUrl += "&" + CPN + "=" + contentPlaybackNonce;
-
-        // Decrypt the n parameter if it is present
-        streamUrl = tryDecryptUrl(streamUrl, videoId);
-
+    private ItagInfo buildItagInfo(@Nonnull final JsonObject formatData,
+                                   @Nonnull final ItagItem itagItem,
+                                   @Nonnull final String streamUrl) {
+        final ItagItem.ItagType itagType = itagItem.itagType;
         final JsonObject initRange = formatData.getObject("initRange");
         final JsonObject indexRange = formatData.getObject("indexRange");
         final String mimeType = formatData.getString("mimeType", "");
@@ -1717,6 +1824,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
      */
     public static void resetDeobfuscationCode() {
         cachedDeobfuscationCode = null;
+        cachedSignatureInterpreter = null;
         playerCode = null;
         sts = null;
         YoutubeJavaScriptExtractor.resetJavaScriptCode();
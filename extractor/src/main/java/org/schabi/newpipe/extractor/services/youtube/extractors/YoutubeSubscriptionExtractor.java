@@ -2,8 +2,8 @@ package org.schabi.newpipe.extractor.services.youtube.extractors;
 
 import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
-import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonReader;
 
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeService;
@@ -17,10 +17,12 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import static org.schabi.newpipe.extractor.subscription.SubscriptionExtractor.ContentSource.INPUT_STREAM;
 
@@ -49,17 +51,34 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
     public List<SubscriptionItem> fromInputStream(@Nonnull final InputStream contentInputStream,
                                                   @Nonnull final String contentType)
             throws ExtractionException {
+        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
+        fromInputStream(contentInputStream, contentType, subscriptionItems::add);
+        return subscriptionItems;
+    }
+
+    @Override
+    public long fromInputStream(@Nonnull final InputStream contentInputStream,
+                                @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
+        return fromJsonInputStream(contentInputStream, consumer);
+    }
+
+    @Override
+    public long fromInputStream(@Nonnull final InputStream contentInputStream,
+                                @Nonnull final String contentType,
+                                @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
         switch (contentType) {
             case "json":
             case "application/json":
-                return fromJsonInputStream(contentInputStream);
+                return fromJsonInputStream(contentInputStream, consumer);
             case "csv":
             case "text/csv":
             case "text/comma-separated-values":
-                return fromCsvInputStream(contentInputStream);
+                return fromCsvInputStream(contentInputStream, consumer);
             case "zip":
             case "application/zip":
-                return fromZipInputStream(contentInputStream);
+                return fromZipInputStream(contentInputStream, consumer);
             default:
                 throw new InvalidSourceException("Unsupported content type: " + contentType);
         }
@@ -67,55 +86,131 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
 
     public List<SubscriptionItem> fromJsonInputStream(@Nonnull final InputStream contentInputStream)
             throws ExtractionException {
-        final JsonArray subscriptions;
-        try {
-            subscriptions = JsonParser.array().from(contentInputStream);
-        } catch (final JsonParserException e) {
-            throw new InvalidSourceException("Invalid json input stream", e);
-        }
+        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
+        fromJsonInputStream(contentInputStream, subscriptionItems::add);
+        return subscriptionItems;
+    }
 
+    /**
+     * Extract the subscriptions of a JSON export, passing each of them to the consumer.
+     *
+     * <p>
+     * The array of subscriptions is read element by element, so only one subscription is kept in
+     * memory at a time.
+     * </p>
+     *
+     * @return the number of subscriptions passed to the consumer
+     */
+    public long fromJsonInputStream(@Nonnull final InputStream contentInputStream,
+                                    @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
         boolean foundInvalidSubscription = false;
-        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
-        for (final Object subscriptionObject : subscriptions) {
-            if (!(subscriptionObject instanceof JsonObject)) {
-                foundInvalidSubscription = true;
-                continue;
-            }
+        long count = 0;
+        try {
+            final JsonReader reader = JsonReader.from(contentInputStream);
+            reader.array();
+            while (reader.next()) {
+                final Object subscriptionObject = readValue(reader);
+                if (!(subscriptionObject instanceof JsonObject)) {
+                    foundInvalidSubscription = true;
+                    continue;
+                }
 
-            final JsonObject subscription = ((JsonObject) subscriptionObject).getObject("snippet");
-            final String id = subscription.getObject("resourceId").getString("channelId", "");
-            if (id.length() != 24) { // e.g. UCsXVk37bltHxD1rDPwtNM8Q
-                foundInvalidSubscription = true;
-                continue;
-            }
+                final JsonObject subscription = ((JsonObject) subscriptionObject)
+                        .getObject("snippet", new JsonObject());
+                final String id = subscription.getObject("resourceId", new JsonObject())
+                        .getString("channelId", "");
+                if (id.length() != 24) { // e.g. UCsXVk37bltHxD1rDPwtNM8Q
+                    foundInvalidSubscription = true;
+                    continue;
+                }
 
-            subscriptionItems.add(new SubscriptionItem(service.getServiceId(),
-                    BASE_CHANNEL_URL + id, subscription.getString("title", "")));
+                consumer.accept(new SubscriptionItem(service.getServiceId(),
+                        BASE_CHANNEL_URL + id, subscription.getString("title", "")));
+                count++;
+            }
+        } catch (final JsonParserException e) {
+            throw new InvalidSourceException("Invalid json input stream", e);
         }
 
-        if (foundInvalidSubscription && subscriptionItems.isEmpty()) {
+        if (foundInvalidSubscription && count == 0) {
             throw new InvalidSourceException("Found only invalid channel ids");
         }
-        return subscriptionItems;
+        return count;
+    }
+
+    /**
+     * Read the current value of the reader, i.e. a single element of the array of subscriptions.
+     */
+    @Nullable
+    private static Object readValue(@Nonnull final JsonReader reader)
+            throws JsonParserException {
+        switch (reader.current()) {
+            case OBJECT:
+                final JsonObject object = new JsonObject();
+                reader.object();
+                while (reader.next()) {
+                    final String key = reader.key();
+                    object.put(key, readValue(reader));
+                }
+                return object;
+            case ARRAY:
+                final JsonArray array = new JsonArray();
+                reader.array();
+                while (reader.next()) {
+                    array.add(readValue(reader));
+                }
+                return array;
+            default:
+                return reader.value();
+        }
     }
 
     public List<SubscriptionItem> fromZipInputStream(@Nonnull final InputStream contentInputStream)
             throws ExtractionException {
+        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
+        fromZipInputStream(contentInputStream, subscriptionItems::add);
+        return subscriptionItems;
+    }
+
+    /**
+     * Extract the subscriptions of the first CSV file of a takeout archive which contains
+     * subscriptions, passing each of them to the consumer.
+     *
+     * <p>
+     * The archive is read entry by entry, without extracting it. As the subscriptions are passed
+     * to the consumer while they are read, an error occurring in a CSV file after some of its
+     * subscriptions were passed is thrown instead of trying the next file.
+     * </p>
+     *
+     * @return the number of subscriptions passed to the consumer
+     */
+    public long fromZipInputStream(@Nonnull final InputStream contentInputStream,
+                                   @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
         try (ZipInputStream zipInputStream = new ZipInputStream(contentInputStream)) {
             ZipEntry zipEntry;
             while ((zipEntry = zipInputStream.getNextEntry()) != null) {
                 if (zipEntry.getName().toLowerCase().endsWith(".csv")) {
+                    final long[] count = {0};
                     try {
-                        final List<SubscriptionItem> csvItems = fromCsvInputStream(zipInputStream);
-
-                        // Return it only if it has items (it exits early if it's the wrong file
-                        // format), otherwise try the next file
-                        if (csvItems.size() > 0) {
-                            return csvItems;
-                        }
+                        // The reader is not closed, as that would close the whole archive
+                        readCsv(new BufferedReader(new InputStreamReader(zipInputStream)), item -> {
+                            consumer.accept(item);
+                            count[0]++;
+                        });
                     } catch (final ExtractionException e) {
+                        if (count[0] > 0) {
+                            throw e;
+                        }
                         // Ignore error and go to next file
                     }
+
+                    // Return only if it had items (it exits early if it's the wrong file
+                    // format), otherwise try the next file
+                    if (count[0] > 0) {
+                        return count[0];
+                    }
                 }
             }
         } catch (final IOException e) {
@@ -128,6 +223,31 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
 
     public List<SubscriptionItem> fromCsvInputStream(@Nonnull final InputStream contentInputStream)
             throws ExtractionException {
+        final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
+        fromCsvInputStream(contentInputStream, subscriptionItems::add);
+        return subscriptionItems;
+    }
+
+    /**
+     * Extract the subscriptions of a CSV export, passing each of them to the consumer as soon as
+     * its line is read.
+     *
+     * @return the number of subscriptions passed to the consumer
+     */
+    public long fromCsvInputStream(@Nonnull final InputStream contentInputStream,
+                                   @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(contentInputStream))) {
+            return readCsv(br, consumer);
+        } catch (final IOException e) {
+            // Thrown when closing the reader, the errors while reading are handled by readCsv
+            throw new InvalidSourceException("Error reading CSV file", e);
+        }
+    }
+
+    private long readCsv(@Nonnull final BufferedReader br,
+                         @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
         // Expected format of CSV file:
         // Channel Id,Channel Url,Channel Title
         //UC1JTQBa5QxZCpXrFSkMxmPw,http://www.youtube.com/channel/UC1JTQBa5QxZCpXrFSkMxmPw,Raycevick
@@ -141,10 +261,9 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
 
         int currentLine = 0;
         String line = "";
+        long count = 0;
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(contentInputStream))) {
-            final List<SubscriptionItem> subscriptionItems = new ArrayList<>();
-
+        try {
             // ignore header and skip first line
             currentLine = 1;
             line = br.readLine();
@@ -154,7 +273,7 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
 
                 // Exit early if we've read the first few lines and we haven't added any items
                 // It's likely we're in the wrong file
-                if (currentLine > 5 && subscriptionItems.size() == 0) {
+                if (currentLine > 5 && count == 0) {
                     break;
                 }
 
@@ -187,12 +306,12 @@ public class YoutubeSubscriptionExtractor extends SubscriptionExtractor {
                 // Channel title from third entry
                 final String channelTitle = line.substring(i2 + 1, i3);
 
-                final SubscriptionItem newItem
-                        = new SubscriptionItem(service.getServiceId(), channelUrl, channelTitle);
-                subscriptionItems.add(newItem);
+                consumer.accept(
+                        new SubscriptionItem(service.getServiceId(), channelUrl, channelTitle));
+                count++;
             }
 
-            return subscriptionItems;
+            return count;
         } catch (final IOException e) {
             if (line == null) {
                 line = "<null>";
@@ -27,7 +27,6 @@ import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 
-import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
@@ -61,7 +60,7 @@ public class YoutubeSuggestionExtractor extends SuggestionExtractor {
         headers.put("Origin", Collections.singletonList("https://www.youtube.com"));
         headers.put("Referer", Collections.singletonList("https://www.youtube.com"));
 
-        final Response response = NewPipe.getDownloader()
+        final Response response = getDownloader()
                 .get(url, headers, getExtractorLocalization());
 
         final String contentTypeHeader = response.getHeader("Content-Type");
@@ -23,10 +23,9 @@ package org.schabi.newpipe.extractor.services.youtube.linkHandler;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandlerFactory;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
-import org.schabi.newpipe.extractor.utils.Utils;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
 
 import javax.annotation.Nonnull;
-import java.net.URL;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -86,10 +85,10 @@ public final class YoutubeChannelLinkHandlerFactory extends ListLinkHandlerFacto
     @Override
     public String getId(final String url) throws ParsingException {
         try {
-            final URL urlObj = Utils.stringToURL(url);
+            final TokenizedUrl urlObj = TokenizedUrl.parse(url);
             String path = urlObj.getPath();
 
-            if (!Utils.isHTTP(urlObj) || !(YoutubeParsingHelper.isYoutubeURL(urlObj)
+            if (!urlObj.isHttp() || !(YoutubeParsingHelper.isYoutubeURL(urlObj)
                     || YoutubeParsingHelper.isInvidiousURL(urlObj)
                     || YoutubeParsingHelper.isHooktubeURL(urlObj))) {
                 throw new ParsingException("The URL given is not a YouTube URL");
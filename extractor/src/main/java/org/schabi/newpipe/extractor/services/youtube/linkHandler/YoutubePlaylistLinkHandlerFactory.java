@@ -6,16 +6,19 @@ import org.schabi.newpipe.extractor.linkhandler.LinkHandler;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandlerFactory;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
-import org.schabi.newpipe.extractor.utils.Utils;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
 
 public final class YoutubePlaylistLinkHandlerFactory extends ListLinkHandlerFactory {
 
     private static final YoutubePlaylistLinkHandlerFactory INSTANCE =
             new YoutubePlaylistLinkHandlerFactory();
+    private static final Pattern LIST_ID_PATTERN = Pattern.compile("[a-zA-Z0-9_-]{10,}");
 
     private YoutubePlaylistLinkHandlerFactory() {
     }
@@ -32,10 +35,22 @@ public final class YoutubePlaylistLinkHandlerFactory extends ListLinkHandlerFact
 
     @Override
     public String getId(final String url) throws ParsingException {
+        final TokenizedUrl urlObj;
         try {
-            final URL urlObj = Utils.stringToURL(url);
+            urlObj = TokenizedUrl.parse(url);
+        } catch (final MalformedURLException exception) {
+            throw new ParsingException("Error could not parse URL: " + exception.getMessage(),
+                    exception);
+        }
+        return getId(urlObj);
+    }
 
-            if (!Utils.isHTTP(urlObj) || !(YoutubeParsingHelper.isYoutubeURL(urlObj)
+    /**
+     * Same as {@link #getId(String)}, for an URL which has already been tokenized.
+     */
+    private String getId(@Nonnull final TokenizedUrl urlObj) throws ParsingException {
+        try {
+            if (!urlObj.isHttp() || !(YoutubeParsingHelper.isYoutubeURL(urlObj)
                     || YoutubeParsingHelper.isInvidiousURL(urlObj))) {
                 throw new ParsingException("the url given is not a YouTube-URL");
             }
@@ -45,19 +60,19 @@ public final class YoutubePlaylistLinkHandlerFactory extends ListLinkHandlerFact
                 throw new ParsingException("the url given is neither a video nor a playlist URL");
             }
 
-            final String listID = Utils.getQueryValue(urlObj, "list");
+            final String listID = urlObj.getQueryValue("list");
 
             if (listID == null) {
                 throw new ParsingException("the URL given does not include a playlist");
             }
 
-            if (!listID.matches("[a-zA-Z0-9_-]{10,}")) {
+            if (!LIST_ID_PATTERN.matcher(listID).matches()) {
                 throw new ParsingException(
                         "the list-ID given in the URL does not match the list pattern");
             }
 
             if (YoutubeParsingHelper.isYoutubeChannelMixId(listID)
-                    && Utils.getQueryValue(urlObj, "v") == null) {
+                    && urlObj.getQueryValue("v") == null) {
                 // Video id can't be determined from the channel mix id.
                 // See YoutubeParsingHelper#extractVideoIdFromMixId
                 throw new ContentNotSupportedException(
@@ -81,6 +96,18 @@ public final class YoutubePlaylistLinkHandlerFactory extends ListLinkHandlerFact
         return true;
     }
 
+    /**
+     * Same as {@link #acceptUrl(String)}, for an URL which has already been tokenized.
+     */
+    boolean acceptUrl(@Nonnull final TokenizedUrl url) {
+        try {
+            getId(url);
+        } catch (final ParsingException e) {
+            return false;
+        }
+        return true;
+    }
+
     /**
      * If it is a mix (auto-generated playlist) URL, return a {@link LinkHandler} where the URL is
      * like {@code https://youtube.com/watch?v=videoId&list=playlistId}
@@ -89,10 +116,10 @@ public final class YoutubePlaylistLinkHandlerFactory extends ListLinkHandlerFact
     @Override
     public ListLinkHandler fromUrl(final String url) throws ParsingException {
         try {
-            final URL urlObj = Utils.stringToURL(url);
-            final String listID = Utils.getQueryValue(urlObj, "list");
+            final TokenizedUrl urlObj = TokenizedUrl.parse(url);
+            final String listID = urlObj.getQueryValue("list");
             if (listID != null && YoutubeParsingHelper.isYoutubeMixId(listID)) {
-                String videoID = Utils.getQueryValue(urlObj, "v");
+                String videoID = urlObj.getQueryValue("v");
                 if (videoID == null) {
                     videoID = YoutubeParsingHelper.extractVideoIdFromMixId(listID);
                 }
@@ -29,23 +29,19 @@ import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper
 import org.schabi.newpipe.extractor.exceptions.FoundAdException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.linkhandler.LinkHandlerFactory;
-import org.schabi.newpipe.extractor.utils.Utils;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
 
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
 
-    private static final Pattern YOUTUBE_VIDEO_ID_REGEX_PATTERN
-            = Pattern.compile("^([a-zA-Z0-9_-]{11})");
+    private static final int VIDEO_ID_LENGTH = 11;
     private static final YoutubeStreamLinkHandlerFactory INSTANCE
             = new YoutubeStreamLinkHandlerFactory();
     private static final List<String> SUBPATHS
@@ -58,13 +54,24 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
         return INSTANCE;
     }
 
+    /**
+     * @return the first 11 characters of the given string if they form a video id, i.e. if they
+     * all are in {@code [a-zA-Z0-9_-]}
+     */
     @Nullable
     private static String extractId(@Nullable final String id) {
-        if (id != null) {
-            final Matcher m = YOUTUBE_VIDEO_ID_REGEX_PATTERN.matcher(id);
-            return m.find() ? m.group(1) : null;
+        if (id == null || id.length() < VIDEO_ID_LENGTH) {
+            return null;
         }
-        return null;
+
+        for (int i = 0; i < VIDEO_ID_LENGTH; i++) {
+            final char c = id.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '_' || c == '-')) {
+                return null;
+            }
+        }
+        return id.substring(0, VIDEO_ID_LENGTH);
     }
 
     @Nonnull
@@ -90,8 +97,9 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
             throws ParsingException, IllegalArgumentException {
         String urlString = theUrlString;
         try {
-            final URI uri = new URI(urlString);
-            final String scheme = uri.getScheme();
+            // Avoid parsing the URI of the common http(s) URLs
+            final URI uri = urlString.startsWith("vnd.youtube") ? new URI(urlString) : null;
+            final String scheme = uri == null ? null : uri.getScheme();
 
             if (scheme != null
                     && (scheme.equals("vnd.youtube") || scheme.equals("vnd.youtube.launch"))) {
@@ -110,9 +118,9 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
         } catch (final URISyntaxException ignored) {
         }
 
-        final URL url;
+        final TokenizedUrl url;
         try {
-            url = Utils.stringToURL(urlString);
+            url = TokenizedUrl.parse(urlString);
         } catch (final MalformedURLException e) {
             throw new IllegalArgumentException("The given URL is not valid");
         }
@@ -124,16 +132,16 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
             path = path.substring(1);
         }
 
-        if (!Utils.isHTTP(url) || !(isYoutubeURL(url) || isYoutubeServiceURL(url)
+        if (!url.isHttp() || !(isYoutubeURL(url) || isYoutubeServiceURL(url)
                 || isHooktubeURL(url) || isInvidiousURL(url) || isY2ubeURL(url))) {
-            if (host.equalsIgnoreCase("googleads.g.doubleclick.net")) {
+            if (url.isHost("googleads.g.doubleclick.net")) {
                 throw new FoundAdException("Error: found ad: " + urlString);
             }
 
             throw new ParsingException("The URL is not a YouTube URL");
         }
 
-        if (YoutubePlaylistLinkHandlerFactory.getInstance().acceptUrl(urlString)) {
+        if (YoutubePlaylistLinkHandlerFactory.getInstance().acceptUrl(url)) {
             throw new ParsingException("Error: no suitable URL: " + urlString);
         }
 
@@ -153,16 +161,16 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
             case "M.YOUTUBE.COM":
             case "MUSIC.YOUTUBE.COM": {
                 if (path.equals("attribution_link")) {
-                    final String uQueryValue = Utils.getQueryValue(url, "u");
+                    final String uQueryValue = url.getQueryValue("u");
 
-                    final URL decodedURL;
+                    final TokenizedUrl decodedURL;
                     try {
-                        decodedURL = Utils.stringToURL("https://www.youtube.com" + uQueryValue);
+                        decodedURL = TokenizedUrl.parse("https://www.youtube.com" + uQueryValue);
                     } catch (final MalformedURLException e) {
                         throw new ParsingException("Error: no suitable URL: " + urlString);
                     }
 
-                    final String viewQueryValue = Utils.getQueryValue(decodedURL, "v");
+                    final String viewQueryValue = decodedURL.getQueryValue("v");
                     return assertIsId(viewQueryValue);
                 }
 
@@ -171,13 +179,13 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
                     return maybeId;
                 }
 
-                final String viewQueryValue = Utils.getQueryValue(url, "v");
+                final String viewQueryValue = url.getQueryValue("v");
                 return assertIsId(viewQueryValue);
             }
 
             case "Y2U.BE":
             case "YOUTU.BE": {
-                final String viewQueryValue = Utils.getQueryValue(url, "v");
+                final String viewQueryValue = url.getQueryValue("v");
                 if (viewQueryValue != null) {
                     return assertIsId(viewQueryValue);
                 }
@@ -215,7 +223,7 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
             case "YT.CYBERHOST.UK":
             case "Y.COM.CM": { // code-block for hooktube.com and Invidious instances
                 if (path.equals("watch")) {
-                    final String viewQueryValue = Utils.getQueryValue(url, "v");
+                    final String viewQueryValue = url.getQueryValue("v");
                     if (viewQueryValue != null) {
                         return assertIsId(viewQueryValue);
                     }
@@ -225,7 +233,7 @@ public final class YoutubeStreamLinkHandlerFactory extends LinkHandlerFactory {
                     return maybeId;
                 }
 
-                final String viewQueryValue = Utils.getQueryValue(url, "v");
+                final String viewQueryValue = url.getQueryValue("v");
                 if (viewQueryValue != null) {
                     return assertIsId(viewQueryValue);
                 }
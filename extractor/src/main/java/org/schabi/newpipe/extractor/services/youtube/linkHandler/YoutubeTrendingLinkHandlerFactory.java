@@ -24,10 +24,9 @@ import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.isYoutubeURL;
 
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandlerFactory;
-import org.schabi.newpipe.extractor.utils.Utils;
+import org.schabi.newpipe.extractor.utils.TokenizedUrl;
 
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.List;
 
 public class YoutubeTrendingLinkHandlerFactory extends ListLinkHandlerFactory {
@@ -45,15 +44,15 @@ public class YoutubeTrendingLinkHandlerFactory extends ListLinkHandlerFactory {
 
     @Override
     public boolean onAcceptUrl(final String url) {
-        final URL urlObj;
+        final TokenizedUrl urlObj;
         try {
-            urlObj = Utils.stringToURL(url);
+            urlObj = TokenizedUrl.parse(url);
         } catch (final MalformedURLException e) {
             return false;
         }
 
         final String urlPath = urlObj.getPath();
-        return Utils.isHTTP(urlObj) && (isYoutubeURL(urlObj) || isInvidiousURL(urlObj))
+        return urlObj.isHttp() && (isYoutubeURL(urlObj) || isInvidiousURL(urlObj))
                 && urlPath.equals("/feed/trending");
     }
 }
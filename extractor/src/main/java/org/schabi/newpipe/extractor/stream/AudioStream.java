@@ -377,6 +377,15 @@ public final class AudioStream extends Stream {
                 && Objects.equals(audioLocale, ((AudioStream) cmp).audioLocale);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int statsHashCode() {
+        return Objects.hash(super.statsHashCode(), averageBitrate, audioTrackId, audioTrackType,
+                audioLocale);
+    }
+
     /**
      * Get the average bitrate of the stream.
      *
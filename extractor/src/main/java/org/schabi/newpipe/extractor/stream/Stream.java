@@ -6,7 +6,11 @@ import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
@@ -81,6 +85,53 @@ public abstract class Stream implements Serializable {
         return false;
     }
 
+    /**
+     * Get the streams of the list which don't have the same statistics as a previous stream of the
+     * list.
+     *
+     * <p>
+     * The result is the same as adding the streams one by one to a list if the list doesn't
+     * {@link #containSimilarStream(Stream, List) contain a similar stream} yet, but streams are
+     * only compared to the ones with the same {@link #statsHashCode()}, instead of all the
+     * previous ones.
+     * </p>
+     *
+     * @param streams the streams to de-duplicate
+     * @param <T>     the type of the streams
+     * @return a new list with the first stream of each group of similar streams, in order
+     */
+    @Nonnull
+    public static <T extends Stream> List<T> removeSimilarStreams(
+            @Nonnull final List<? extends T> streams) {
+        final List<T> result = new ArrayList<>(streams.size());
+        final Map<Integer, List<T>> streamsByStatsHash = new HashMap<>();
+        for (final T stream : streams) {
+            if (stream.getFormat() == null) {
+                // Such a stream is never similar to another one
+                result.add(stream);
+                continue;
+            }
+
+            final List<T> candidates = streamsByStatsHash.computeIfAbsent(
+                    stream.statsHashCode(), hash -> new ArrayList<>(1));
+            if (!containSimilarStream(stream, candidates)) {
+                candidates.add(stream);
+                result.add(stream);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A hash code of the statistics compared by {@link #equalStats(Stream)}: streams with equal
+     * statistics have the same stats hash code.
+     *
+     * @return the hash code of the statistics of this stream
+     */
+    public int statsHashCode() {
+        return Objects.hash(mediaFormat == null ? null : mediaFormat.id, deliveryMethod, isUrl);
+    }
+
     /**
      * Reveals whether two streams have the same statistics ({@link MediaFormat media format} and
      * {@link DeliveryMethod delivery method}).
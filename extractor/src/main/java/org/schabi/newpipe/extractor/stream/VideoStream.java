@@ -25,6 +25,7 @@ import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Objects;
 
 public final class VideoStream extends Stream {
     public static final String RESOLUTION_UNKNOWN = "";
@@ -333,6 +334,14 @@ public final class VideoStream extends Stream {
                 && isVideoOnly == ((VideoStream) cmp).isVideoOnly;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int statsHashCode() {
+        return Objects.hash(super.statsHashCode(), resolution, isVideoOnly);
+    }
+
     /**
      * Get the video resolution.
      *
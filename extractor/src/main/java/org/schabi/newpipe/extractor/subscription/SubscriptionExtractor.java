@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 public abstract class SubscriptionExtractor {
 
@@ -96,4 +97,72 @@ public abstract class SubscriptionExtractor {
         throw new UnsupportedOperationException("Service " + service.getServiceInfo().getName()
                 + " doesn't support extracting from an InputStream");
     }
+
+    /**
+     * Reads and parse the {@link SubscriptionItem}s of the given channel url, passing each of them
+     * to the consumer as soon as it is extracted, so that huge sources can be imported without
+     * keeping all their subscriptions in memory.
+     *
+     * <p>
+     * By default, the subscriptions are extracted with {@link #fromChannelUrl(String)} and then
+     * passed to the consumer; services able to extract them incrementally override this method.
+     * </p>
+     *
+     * @return the number of subscriptions passed to the consumer
+     * @throws InvalidSourceException when the channelUrl doesn't exist or is invalid
+     */
+    public long fromChannelUrl(final String channelUrl,
+                               @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws IOException, ExtractionException {
+        return passTo(fromChannelUrl(channelUrl), consumer);
+    }
+
+    /**
+     * Reads and parse the {@link SubscriptionItem}s of the given InputStream, passing each of them
+     * to the consumer as soon as it is extracted.
+     *
+     * <p>
+     * By default, the subscriptions are extracted with {@link #fromInputStream(InputStream)} and
+     * then passed to the consumer; services able to extract them incrementally override this
+     * method.
+     * </p>
+     *
+     * @return the number of subscriptions passed to the consumer
+     * @throws InvalidSourceException when the content read from the InputStream is invalid and can
+     *                                not be parsed
+     */
+    public long fromInputStream(@Nonnull final InputStream contentInputStream,
+                                @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
+        return passTo(fromInputStream(contentInputStream), consumer);
+    }
+
+    /**
+     * Reads and parse the {@link SubscriptionItem}s of the given InputStream, passing each of them
+     * to the consumer as soon as it is extracted.
+     *
+     * <p>
+     * By default, the subscriptions are extracted with
+     * {@link #fromInputStream(InputStream, String)} and then passed to the consumer; services able
+     * to extract them incrementally override this method.
+     * </p>
+     *
+     * @return the number of subscriptions passed to the consumer
+     * @throws InvalidSourceException when the content read from the InputStream is invalid and can
+     *                                not be parsed
+     */
+    public long fromInputStream(@Nonnull final InputStream contentInputStream,
+                                @Nonnull final String contentType,
+                                @Nonnull final Consumer<SubscriptionItem> consumer)
+            throws ExtractionException {
+        return passTo(fromInputStream(contentInputStream, contentType), consumer);
+    }
+
+    private static long passTo(@Nonnull final List<SubscriptionItem> items,
+                               @Nonnull final Consumer<SubscriptionItem> consumer) {
+        for (final SubscriptionItem item : items) {
+            consumer.accept(item);
+        }
+        return items.size();
+    }
 }
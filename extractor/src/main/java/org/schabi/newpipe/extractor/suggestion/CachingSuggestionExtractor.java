@@ -0,0 +1,345 @@
+package org.schabi.newpipe.extractor.suggestion;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.utils.DaemonExecutors;
+import org.schabi.newpipe.extractor.utils.ExpiringCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link SuggestionExtractor} which caches the suggestions of another one and avoids
+ * requesting suggestions which are not needed anymore.
+ *
+ * <p>
+ * The suggestions are cached per localization, content country and query. When the
+ * suggestions of a query are not cached, but the ones of a prefix of the query are complete, i.e.
+ * when there were less of them than the {@link Builder#resultLimit(int) maximum} the service
+ * returns and they all start with the prefix, the suggestions of the query are the ones of the
+ * prefix starting with the query, so no request is needed. Queries are compared trimmed, with
+ * collapsed whitespace and in lower case. Concurrent requests of the same suggestions share the
+ * same request.
+ * </p>
+ *
+ * <p>
+ * {@link #requestSuggestions(String)} is meant to be called on each keystroke: it waits for a
+ * short delay before requesting the suggestions, and cancels the previous call if it is still
+ * waiting or running, as its suggestions are not needed anymore. Only the delay is waited for on
+ * the {@link Builder#scheduler(ScheduledExecutorService) scheduler}: the suggestions are fetched
+ * on the {@link Builder#executor(Executor) executor}, so that a slow request doesn't delay the
+ * others.
+ * </p>
+ */
+public final class CachingSuggestionExtractor extends SuggestionExtractor {
+    private static final ScheduledExecutorService DEFAULT_SCHEDULER =
+            DaemonExecutors.newScheduler("Suggestions scheduler");
+    private static final ExecutorService DEFAULT_EXECUTOR =
+            DaemonExecutors.newPool("Suggestions", 2);
+
+    private final SuggestionExtractor delegate;
+    private final int resultLimit;
+    private final Duration debounceDelay;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    /**
+     * The suggestions, keyed by {@link #getCacheKey(String)}.
+     */
+    private final ExpiringCache<String, Suggestions> cache;
+
+    @Nullable
+    private PendingRequest pendingRequest;
+
+    private static final class Suggestions {
+        private final List<String> list;
+        /**
+         * Whether these are all the suggestions starting with their query.
+         */
+        private final boolean complete;
+
+        Suggestions(@Nonnull final List<String> list, final boolean complete) {
+            this.list = list;
+            this.complete = complete;
+        }
+    }
+
+    private static final class PendingRequest {
+        private final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        @Nullable
+        private ScheduledFuture<?> scheduled;
+    }
+
+    private CachingSuggestionExtractor(@Nonnull final Builder builder) {
+        super(builder.delegate.getService());
+        this.delegate = builder.delegate;
+        this.resultLimit = builder.resultLimit;
+        this.debounceDelay = builder.debounceDelay;
+        this.scheduler = builder.scheduler;
+        this.executor = builder.executor;
+        this.cache = new ExpiringCache.Builder<String, Suggestions>(builder.ttl)
+                .maxEntries(builder.maxEntries)
+                .nanoClock(builder.nanoClock)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The suggestions are taken from the cache if possible.
+     * </p>
+     */
+    @Override
+    public List<String> suggestionList(final String query)
+            throws IOException, ExtractionException {
+        final String normalizedQuery = normalizeQuery(query);
+        final List<String> cached = getCached(normalizedQuery);
+        if (cached != null) {
+            return cached;
+        }
+
+        return cache.get(getCacheKey(normalizedQuery), () -> {
+            final List<String> suggestions = delegate.suggestionList(query);
+            return new Suggestions(Collections.unmodifiableList(suggestions),
+                    resultLimit > 0 && suggestions.size() < resultLimit
+                            && suggestions.stream().allMatch(suggestion ->
+                                    normalizeQuery(suggestion).startsWith(normalizedQuery)));
+        }).list;
+    }
+
+    /**
+     * Get the suggestions of a query after the debounce delay, unless another query is requested
+     * in the meantime. Cached suggestions are returned at once.
+     *
+     * <p>
+     * The previous request made with this method is cancelled, i.e. its future is cancelled, if it
+     * has not completed yet. If its suggestions were already being fetched, they are still cached
+     * once fetched.
+     * </p>
+     *
+     * @param query the query
+     * @return the future suggestions of the query
+     */
+    @Nonnull
+    public CompletableFuture<List<String>> requestSuggestions(@Nonnull final String query) {
+        cancelPendingRequest();
+
+        final List<String> cached = getCached(normalizeQuery(query));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        final ExtractorContext context = delegate.getContext();
+        final PendingRequest request = new PendingRequest();
+        synchronized (this) {
+            pendingRequest = request;
+            request.scheduled = scheduler.schedule(
+                    () -> fetch(context, query, request.result),
+                    debounceDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return request.result;
+    }
+
+    private void fetch(@Nonnull final ExtractorContext context,
+                       @Nonnull final String query,
+                       @Nonnull final CompletableFuture<List<String>> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(context.run(() -> suggestionList(query)));
+                } catch (final Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Cancel the last request made with {@link #requestSuggestions(String)}, if it has not
+     * completed yet.
+     */
+    public void cancelPendingRequest() {
+        final PendingRequest request;
+        synchronized (this) {
+            request = pendingRequest;
+            pendingRequest = null;
+        }
+        if (request != null) {
+            request.result.cancel(false);
+            if (request.scheduled != null) {
+                request.scheduled.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Remove all the cached suggestions.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Override
+    public void forceLocalization(@Nullable final Localization localization) {
+        super.forceLocalization(localization);
+        delegate.forceLocalization(localization);
+    }
+
+    @Override
+    public void forceContentCountry(@Nullable final ContentCountry contentCountry) {
+        super.forceContentCountry(contentCountry);
+        delegate.forceContentCountry(contentCountry);
+    }
+
+    @Nonnull
+    static String normalizeQuery(@Nonnull final String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @Nonnull
+    private String getCacheKey(@Nonnull final String normalizedQuery) {
+        return delegate.getExtractorLocalization().getLocalizationCode() + '\u0000'
+                + delegate.getExtractorContentCountry().getCountryCode() + '\u0000'
+                + normalizedQuery;
+    }
+
+    /**
+     * @return the cached suggestions of the query, or the complete suggestions of its longest
+     * prefix starting with the query, or {@code null} if there are none
+     */
+    @Nullable
+    private List<String> getCached(@Nonnull final String normalizedQuery) {
+        final Suggestions suggestions = cache.getIfPresent(getCacheKey(normalizedQuery));
+        if (suggestions != null) {
+            return suggestions.list;
+        }
+
+        for (int length = normalizedQuery.length() - 1; length >= 0; length--) {
+            final String prefixKey = getCacheKey(normalizedQuery.substring(0, length));
+            // Peek not to mark the incomplete suggestions of the prefixes as used
+            final Suggestions prefix = cache.peek(prefixKey);
+            if (prefix != null && prefix.complete && cache.getIfPresent(prefixKey) != null) {
+                return prefix.list.stream()
+                        .filter(suggestion -> normalizeQuery(suggestion)
+                                .startsWith(normalizedQuery))
+                        .collect(Collectors.collectingAndThen(Collectors.toList(),
+                                Collections::unmodifiableList));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A builder of {@link CachingSuggestionExtractor}s.
+     */
+    public static final class Builder {
+        private final SuggestionExtractor delegate;
+        private int resultLimit = 0;
+        private int maxEntries = 256;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration debounceDelay = Duration.ofMillis(250);
+        private ScheduledExecutorService scheduler = DEFAULT_SCHEDULER;
+        private Executor executor = DEFAULT_EXECUTOR;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        /**
+         * @param delegate the extractor fetching the suggestions
+         */
+        public Builder(@Nonnull final SuggestionExtractor delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * The maximum number of suggestions the service returns. Lists of suggestions which are
+         * shorter are complete, and are used for the queries they are a prefix of. If it is
+         * {@code 0}, the default, the suggestions of a query are only used for the same query.
+         */
+        public Builder resultLimit(final int resultLimitToSet) {
+            this.resultLimit = resultLimitToSet;
+            return this;
+        }
+
+        /**
+         * The maximum number of cached lists of suggestions, 256 by default.
+         */
+        public Builder maxEntries(final int maxEntriesToSet) {
+            if (maxEntriesToSet < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntriesToSet;
+            return this;
+        }
+
+        /**
+         * How long suggestions are cached, 10 minutes by default.
+         */
+        public Builder ttl(@Nonnull final Duration ttlToSet) {
+            this.ttl = ttlToSet;
+            return this;
+        }
+
+        /**
+         * How long {@link #requestSuggestions(String)} waits before fetching suggestions,
+         * 250 milliseconds by default.
+         */
+        public Builder debounceDelay(@Nonnull final Duration debounceDelayToSet) {
+            this.debounceDelay = debounceDelayToSet;
+            return this;
+        }
+
+        /**
+         * The scheduler on which {@link #requestSuggestions(String)} waits for the debounce
+         * delay. By default, a single daemon thread shared by all the extractors is used.
+         */
+        public Builder scheduler(@Nonnull final ScheduledExecutorService schedulerToSet) {
+            this.scheduler = schedulerToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which {@link #requestSuggestions(String)} fetches suggestions. By
+         * default, a pool of two daemon threads shared by all the extractors is used.
+         */
+        public Builder executor(@Nonnull final Executor executorToSet) {
+            this.executor = executorToSet;
+            return this;
+        }
+
+        /**
+         * @see ExpiringCache.Builder#nanoClock(LongSupplier)
+         */
+        Builder nanoClock(@Nonnull final LongSupplier nanoClockToSet) {
+            this.nanoClock = nanoClockToSet;
+            return this;
+        }
+
+        public CachingSuggestionExtractor build() {
+            return new CachingSuggestionExtractor(this);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package org.schabi.newpipe.extractor.suggestion;
 
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.downloader.Downloader;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.localization.ContentCountry;
 import org.schabi.newpipe.extractor.localization.Localization;
@@ -12,11 +15,13 @@ import java.util.List;
 
 public abstract class SuggestionExtractor {
     private final StreamingService service;
+    private final ExtractorContext context;
     @Nullable private Localization forcedLocalization;
     @Nullable private ContentCountry forcedContentCountry;
 
     public SuggestionExtractor(final StreamingService service) {
         this.service = service;
+        this.context = NewPipe.getContext();
     }
 
     public abstract List<String> suggestionList(String query)
@@ -30,6 +35,19 @@ public abstract class SuggestionExtractor {
         return service;
     }
 
+    /**
+     * @return the context this extractor was created with, which is used to get the suggestions
+     */
+    @Nonnull
+    public ExtractorContext getContext() {
+        return context;
+    }
+
+    @Nullable
+    public Downloader getDownloader() {
+        return context.getDownloader();
+    }
+
     // TODO: Create a more general Extractor class
 
     public void forceLocalization(@Nullable final Localization localization) {
@@ -42,12 +60,13 @@ public abstract class SuggestionExtractor {
 
     @Nonnull
     public Localization getExtractorLocalization() {
-        return forcedLocalization == null ? getService().getLocalization() : forcedLocalization;
+        return forcedLocalization == null
+                ? getService().getLocalization(context) : forcedLocalization;
     }
 
     @Nonnull
     public ContentCountry getExtractorContentCountry() {
         return forcedContentCountry == null
-                ? getService().getContentCountry() : forcedContentCountry;
+                ? getService().getContentCountry(context) : forcedContentCountry;
     }
 }
@@ -0,0 +1,61 @@
+package org.schabi.newpipe.extractor.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Executors for the work the extractor does in the background, e.g. prefetching pages. Their
+ * threads are daemon threads, so that they never keep the process of the application alive.
+ */
+public final class DaemonExecutors {
+    private DaemonExecutors() {
+    }
+
+    /**
+     * Create a pool running tasks on up to the given number of threads, which stop after 30
+     * seconds without tasks. Tasks submitted while all the threads are busy are queued.
+     *
+     * @param name    the name of the threads
+     * @param threads the maximum number of threads
+     * @return the pool
+     */
+    @Nonnull
+    public static ExecutorService newPool(@Nonnull final String name, final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Create a scheduler running delayed tasks on a single thread. The tasks must be short, e.g.
+     * hand blocking work over to a {@link #newPool(String, int) pool}, as they delay each other.
+     * Cancelled tasks are removed at once.
+     *
+     * @param name the name of the thread
+     * @return the scheduler
+     */
+    @Nonnull
+    public static ScheduledExecutorService newScheduler(@Nonnull final String name) {
+        final ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(1, threadFactory(name));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Nonnull
+    private static ThreadFactory threadFactory(@Nonnull final String name) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
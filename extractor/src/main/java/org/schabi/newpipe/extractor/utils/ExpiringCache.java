@@ -0,0 +1,418 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe cache whose entries expire after a time to live, with at most a given number of
+ * entries, the least recently used ones being evicted first.
+ *
+ * <p>
+ * Values can be {@link #put(Object, Object) put} directly, or {@link #get(Object, Loader) loaded}
+ * on demand. Loads are single-flight: concurrent requests of a key which is being loaded wait
+ * for the same load, for the {@link Builder#maxWait(Duration) maximum wait} at most, and failed
+ * loads are not cached.
+ * </p>
+ *
+ * <p>
+ * With a {@link Builder#maxStale(Duration) maximum staleness}, expired values are still returned
+ * for a while by {@link #get(Object, Loader)} while a new one is loaded, and if loading a new one
+ * fails. The new value is loaded by the first request which finds the value expired, or in the
+ * background if the cache has a {@link Builder#refreshExecutor(Executor) refresh executor}.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class ExpiringCache<K, V> {
+    /**
+     * Loads the value of a key.
+     *
+     * @param <V> the type of the value
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        @Nonnull
+        V load() throws IOException, ExtractionException;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedNanos;
+
+        Entry(@Nonnull final V value, final long loadedNanos) {
+            this.value = value;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final long maxWaitNanos;
+    @Nullable
+    private final Executor refreshExecutor;
+    private final Predicate<? super V> cacheable;
+    private final LongSupplier nanoClock;
+
+    /**
+     * The entries, from the least to the most recently used one.
+     */
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, CompletableFuture<V>> loads = new HashMap<>();
+
+    private ExpiringCache(@Nonnull final Builder<K, V> builder) {
+        this.maxEntries = builder.maxEntries;
+        this.ttlNanos = builder.ttl.toNanos();
+        this.maxStaleNanos = builder.maxStale.toNanos();
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.refreshExecutor = builder.refreshExecutor;
+        this.cacheable = builder.cacheable;
+        this.nanoClock = builder.nanoClock;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key if it has not expired, or {@code null}
+     */
+    @Nullable
+    public synchronized V getIfPresent(@Nonnull final K key) {
+        final Entry<V> entry = getEntry(key);
+        return entry == null || isExpired(entry) ? null : entry.value;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key if it has not expired or is not too stale, or {@code null}.
+     * The entry is not marked as used.
+     */
+    @Nullable
+    public synchronized V peek(@Nonnull final K key) {
+        final Entry<V> entry = entries.get(key);
+        return entry == null || isTooStale(entry) ? null : entry.value;
+    }
+
+    /**
+     * Get the value of a key, loading it if it is not cached or has expired.
+     *
+     * @param key    the key
+     * @param loader the loader of the value, used if it needs to be loaded
+     * @return the cached or loaded value, or a stale one if loading a new one fails
+     */
+    @Nonnull
+    public V get(@Nonnull final K key, @Nonnull final Loader<V> loader)
+            throws IOException, ExtractionException {
+        final V stale;
+        final CompletableFuture<V> running;
+        final CompletableFuture<V> load = new CompletableFuture<>();
+        synchronized (this) {
+            final Entry<V> entry = getEntry(key);
+            if (entry != null && !isExpired(entry)) {
+                return entry.value;
+            }
+
+            stale = entry == null ? null : entry.value;
+            running = loads.get(key);
+            if (running == null) {
+                loads.put(key, load);
+            } else if (stale != null) {
+                // Another request is already loading a new value
+                return stale;
+            }
+        }
+
+        if (running != null) {
+            return await(running);
+        }
+        if (stale != null && refreshExecutor != null) {
+            loadInBackground(key, load, loader);
+            return stale;
+        }
+
+        try {
+            return load(key, load, loader);
+        } catch (final IOException | ExtractionException | RuntimeException e) {
+            if (stale != null) {
+                return stale;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Load a new value of a key in the background, with the
+     * {@link Builder#refreshExecutor(Executor) refresh executor} or on the calling thread if
+     * there is none, unless it is already being loaded. The current value is kept until the new
+     * one is loaded, and if loading it fails.
+     *
+     * @param key    the key
+     * @param loader the loader of the value
+     */
+    public void refresh(@Nonnull final K key, @Nonnull final Loader<V> loader) {
+        final CompletableFuture<V> load = new CompletableFuture<>();
+        synchronized (this) {
+            if (loads.containsKey(key)) {
+                return;
+            }
+            loads.put(key, load);
+        }
+
+        if (refreshExecutor != null) {
+            loadInBackground(key, load, loader);
+        } else {
+            try {
+                load(key, load, loader);
+            } catch (final IOException | ExtractionException | RuntimeException ignored) {
+                // The current value is kept
+            }
+        }
+    }
+
+    /**
+     * Store a value, replacing the previous one. The entries which are too stale are removed.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public synchronized void put(@Nonnull final K key, @Nonnull final V value) {
+        entries.values().removeIf(this::isTooStale);
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+
+        final Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove the value of a key.
+     *
+     * @param key the key
+     * @return the removed value if it had not expired, or {@code null}
+     */
+    @Nullable
+    public synchronized V remove(@Nonnull final K key) {
+        final Entry<V> entry = entries.remove(key);
+        return entry == null || isExpired(entry) ? null : entry.value;
+    }
+
+    /**
+     * Remove the values of the keys matching a predicate.
+     *
+     * @param predicate the predicate of the keys to remove
+     */
+    public synchronized void removeIf(@Nonnull final Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Remove all the values. The values being loaded are still stored once loaded.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached values, including the ones which have expired but have not
+     * been removed yet
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the entry of the key, or {@code null} if there is none or if it is too stale, in
+     * which case it is removed
+     */
+    @Nullable
+    private Entry<V> getEntry(@Nonnull final K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry != null && isTooStale(entry)) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isExpired(@Nonnull final Entry<V> entry) {
+        return nanoClock.getAsLong() - entry.loadedNanos >= ttlNanos;
+    }
+
+    private boolean isTooStale(@Nonnull final Entry<V> entry) {
+        return nanoClock.getAsLong() - entry.loadedNanos - ttlNanos >= maxStaleNanos;
+    }
+
+    private void loadInBackground(@Nonnull final K key,
+                                  @Nonnull final CompletableFuture<V> load,
+                                  @Nonnull final Loader<V> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, load, loader);
+                } catch (final Throwable ignored) {
+                    // The current value is kept, and the waiting requests get the error
+                }
+            });
+        } catch (final Throwable e) {
+            // e.g. a RejectedExecutionException
+            synchronized (this) {
+                loads.remove(key, load);
+            }
+            load.completeExceptionally(e);
+        }
+    }
+
+    @Nonnull
+    private V load(@Nonnull final K key,
+                   @Nonnull final CompletableFuture<V> load,
+                   @Nonnull final Loader<V> loader) throws IOException, ExtractionException {
+        try {
+            final V value = loader.load();
+            synchronized (this) {
+                loads.remove(key, load);
+                if (cacheable.test(value)) {
+                    put(key, value);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (final Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Even if an error was thrown, so that the next request loads the value again
+            synchronized (this) {
+                loads.remove(key, load);
+            }
+        }
+    }
+
+    @Nonnull
+    private V await(@Nonnull final CompletableFuture<V> future)
+            throws IOException, ExtractionException {
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a cached value");
+        } catch (final TimeoutException e) {
+            // The load goes on for the next requests
+            throw new InterruptedIOException("Timed out while waiting for a cached value");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ExtractionException) {
+                throw (ExtractionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExtractionException(cause);
+        }
+    }
+
+    /**
+     * A builder of {@link ExpiringCache}s.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    public static final class Builder<K, V> {
+        private final Duration ttl;
+        private int maxEntries = Integer.MAX_VALUE;
+        private Duration maxStale = Duration.ZERO;
+        private Duration maxWait = Duration.ofMinutes(1);
+        @Nullable
+        private Executor refreshExecutor;
+        private Predicate<? super V> cacheable = value -> true;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        /**
+         * @param ttl how long values are fresh
+         */
+        public Builder(@Nonnull final Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        /**
+         * The maximum number of values, unlimited by default.
+         */
+        public Builder<K, V> maxEntries(final int maxEntriesToSet) {
+            if (maxEntriesToSet < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntriesToSet;
+            return this;
+        }
+
+        /**
+         * How long expired values are still returned by {@link ExpiringCache#get(Object, Loader)}
+         * while a new one is loaded, or if loading it fails. None by default.
+         */
+        public Builder<K, V> maxStale(@Nonnull final Duration maxStaleToSet) {
+            this.maxStale = maxStaleToSet;
+            return this;
+        }
+
+        /**
+         * How long a request waits for a value which another request is loading, before
+         * failing with an {@link InterruptedIOException}, 1 minute by default.
+         */
+        public Builder<K, V> maxWait(@Nonnull final Duration maxWaitToSet) {
+            this.maxWait = maxWaitToSet;
+            return this;
+        }
+
+        /**
+         * The executor on which expired values are loaded again, while
+         * {@link ExpiringCache#get(Object, Loader)} returns the stale value at once. By default,
+         * they are loaded by the request which finds them expired.
+         */
+        public Builder<K, V> refreshExecutor(@Nullable final Executor refreshExecutorToSet) {
+            this.refreshExecutor = refreshExecutorToSet;
+            return this;
+        }
+
+        /**
+         * Which loaded values are cached, e.g. not the ones with errors. All by default.
+         */
+        public Builder<K, V> cacheIf(@Nonnull final Predicate<? super V> cacheableToSet) {
+            this.cacheable = cacheableToSet;
+            return this;
+        }
+
+        /**
+         * The source of {@link System#nanoTime()}-like times, which tests replace to control the
+         * age of the values.
+         */
+        public Builder<K, V> nanoClock(@Nonnull final LongSupplier nanoClockToSet) {
+            this.nanoClock = nanoClockToSet;
+            return this;
+        }
+
+        @Nonnull
+        public ExpiringCache<K, V> build() {
+            return new ExpiringCache<>(this);
+        }
+    }
+}
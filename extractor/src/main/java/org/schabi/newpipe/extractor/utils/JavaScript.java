@@ -2,7 +2,15 @@ package org.schabi.newpipe.extractor.utils;
 
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
 import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
 
 public final class JavaScript {
 
@@ -38,4 +46,51 @@ public final class JavaScript {
         }
     }
 
+    /**
+     * Evaluate the code once and call the function with each of the given parameters, instead of
+     * evaluating the code again for every parameter like {@link #run(String, String, String...)}.
+     *
+     * @param function     the code declaring the function
+     * @param functionName the name of the function to call
+     * @param parameters   the parameters to call the function with, one at a time
+     * @return the results of the function, keyed by parameter, without the parameters for which
+     * the function threw an exception or returned {@code null} or {@code undefined}
+     */
+    @Nonnull
+    public static Map<String, String> runForEach(@Nonnull final String function,
+                                                 @Nonnull final String functionName,
+                                                 @Nonnull final Collection<String> parameters) {
+        final Map<String, String> results = new HashMap<>();
+        if (parameters.isEmpty()) {
+            return results;
+        }
+
+        try {
+            final Context context = Context.enter();
+            context.setOptimizationLevel(-1);
+            final ScriptableObject scope = context.initSafeStandardObjects();
+
+            context.evaluateString(scope, function, functionName, 1, null);
+            final Function jsFunction = (Function) scope.get(functionName, scope);
+            for (final String parameter : parameters) {
+                if (results.containsKey(parameter)) {
+                    continue;
+                }
+
+                try {
+                    final Object result = jsFunction.call(context, scope, scope,
+                            new Object[]{parameter});
+                    if (result != null && !Undefined.isUndefined(result)) {
+                        results.put(parameter, result.toString());
+                    }
+                } catch (final RhinoException ignored) {
+                    // Leave this parameter out of the results, the other ones can still be run
+                }
+            }
+            return results;
+        } finally {
+            Context.exit();
+        }
+    }
+
 }
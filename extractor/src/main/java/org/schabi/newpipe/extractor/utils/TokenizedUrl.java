@@ -0,0 +1,330 @@
+package org.schabi.newpipe.extractor.utils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A lightweight replacement of {@link URL} for link handlers which only need to look at the
+ * protocol, host, port, path and query of a URL.
+ *
+ * <p>
+ * Common HTTP(S) URLs are tokenized into spans over the original string, without creating a
+ * {@link URL} object or running regular expressions. Any URL using a syntax which {@link URL}
+ * treats specially (other protocols, user info, IPv6 hosts, relative path segments, surrounding
+ * whitespace, ...) is parsed with {@link Utils#stringToURL(String)} instead, so the components
+ * returned are always the ones {@link URL} would return.
+ * </p>
+ */
+public final class TokenizedUrl {
+    private static final int MAX_PORT_DIGITS = 5;
+
+    private final String source;
+    private final int protocolEnd;
+    private final int hostStart;
+    private final int hostEnd;
+    private final int port;
+    private final int pathStart;
+    private final int pathEnd;
+    // -1 if there is no query
+    private final int queryStart;
+    private final int queryEnd;
+
+    @SuppressWarnings("ParameterNumber")
+    private TokenizedUrl(final String source,
+                         final int protocolEnd,
+                         final int hostStart,
+                         final int hostEnd,
+                         final int port,
+                         final int pathStart,
+                         final int pathEnd,
+                         final int queryStart,
+                         final int queryEnd) {
+        this.source = source;
+        this.protocolEnd = protocolEnd;
+        this.hostStart = hostStart;
+        this.hostEnd = hostEnd;
+        this.port = port;
+        this.pathStart = pathStart;
+        this.pathEnd = pathEnd;
+        this.queryStart = queryStart;
+        this.queryEnd = queryEnd;
+    }
+
+    /**
+     * Parse a URL like {@link Utils#stringToURL(String)} does, i.e. defaulting to HTTPS if no
+     * protocol is given.
+     *
+     * @param url the URL to parse
+     * @return the tokenized URL
+     * @throws MalformedURLException if {@link Utils#stringToURL(String)} would throw it
+     */
+    @Nonnull
+    public static TokenizedUrl parse(@Nonnull final String url) throws MalformedURLException {
+        final TokenizedUrl tokenizedUrl = tokenize(url);
+        if (tokenizedUrl != null) {
+            return tokenizedUrl;
+        }
+        return fromUrl(Utils.stringToURL(url));
+    }
+
+    /**
+     * Build a tokenized URL from the components of an already parsed {@link URL}.
+     *
+     * @param url the parsed URL
+     * @return the tokenized URL
+     */
+    @Nonnull
+    public static TokenizedUrl fromUrl(@Nonnull final URL url) {
+        final String protocol = url.getProtocol();
+        final String host = url.getHost();
+        final String path = url.getPath();
+        final String query = url.getQuery();
+
+        final StringBuilder source = new StringBuilder(protocol).append("://").append(host)
+                .append(path);
+        final int hostStart = protocol.length() + 3;
+        final int hostEnd = hostStart + host.length();
+        final int pathEnd = hostEnd + path.length();
+        if (query == null) {
+            return new TokenizedUrl(source.toString(), protocol.length(), hostStart, hostEnd,
+                    url.getPort(), hostEnd, pathEnd, -1, -1);
+        }
+
+        source.append('?').append(query);
+        return new TokenizedUrl(source.toString(), protocol.length(), hostStart, hostEnd,
+                url.getPort(), hostEnd, pathEnd, pathEnd + 1, source.length());
+    }
+
+    /**
+     * Tokenize the URL if it is an HTTP(S) URL without any syntax needing {@link URL}'s parser.
+     *
+     * @return the tokenized URL or {@code null} if the URL has to be parsed by {@link URL}
+     */
+    @Nullable
+    private static TokenizedUrl tokenize(@Nonnull final String url) {
+        final int length = url.length();
+        // URL trims whitespace and control characters and gives a special meaning to a leading #
+        if (length == 0 || url.charAt(0) <= ' ' || url.charAt(length - 1) <= ' '
+                || url.charAt(0) == '#' || url.charAt(0) == '/') {
+            return null;
+        }
+
+        // Like URL, look for the protocol before the first slash
+        int colon = -1;
+        for (int i = 0; i < length; i++) {
+            final char c = url.charAt(i);
+            if (c == '/') {
+                break;
+            } else if (c == ':') {
+                colon = i;
+                break;
+            }
+        }
+
+        final String source;
+        final int protocolEnd;
+        final int authorityStart;
+        if (colon == -1) {
+            // No protocol, so HTTPS is used
+            source = Utils.HTTPS + url;
+            protocolEnd = Utils.HTTPS.length() - 3;
+            authorityStart = Utils.HTTPS.length();
+        } else if ((colon == 4 && url.regionMatches(true, 0, "http", 0, 4)
+                || colon == 5 && url.regionMatches(true, 0, "https", 0, 5))
+                && url.startsWith("//", colon + 1)) {
+            source = url.startsWith(colon == 4 ? "http" : "https")
+                    ? url : url.substring(0, colon).toLowerCase(Locale.ROOT) + url.substring(colon);
+            protocolEnd = colon;
+            authorityStart = colon + 3;
+        } else {
+            return null;
+        }
+
+        final int sourceLength = source.length();
+        final int fragmentStart = indexOf(source, '#', authorityStart, sourceLength);
+        final int limit = fragmentStart == -1 ? sourceLength : fragmentStart;
+
+        // The authority ends at the first slash, question mark or number sign
+        int authorityEnd = authorityStart;
+        int portStart = -1;
+        while (authorityEnd < limit) {
+            final char c = source.charAt(authorityEnd);
+            if (c == '/' || c == '?') {
+                break;
+            } else if (c == ':' && portStart == -1) {
+                portStart = authorityEnd + 1;
+            } else if (!(portStart == -1 ? isHostChar(c) : c >= '0' && c <= '9')) {
+                // User info, IPv6 addresses and unusual hosts or ports
+                return null;
+            }
+            authorityEnd++;
+        }
+
+        final int hostEnd = portStart == -1 ? authorityEnd : portStart - 1;
+        if (hostEnd == authorityStart) {
+            return null;
+        }
+
+        int port = -1;
+        if (portStart != -1) {
+            if (portStart == authorityEnd || authorityEnd - portStart > MAX_PORT_DIGITS) {
+                return null;
+            }
+            port = Integer.parseInt(source, portStart, authorityEnd, 10);
+        }
+
+        final int queryMark = indexOf(source, '?', authorityEnd, limit);
+        final int pathEnd = queryMark == -1 ? limit : queryMark;
+        if (indexOf(source, '.', authorityEnd, pathEnd) != -1
+                && source.substring(authorityEnd, pathEnd).contains("/.")) {
+            // URL resolves relative path segments
+            return null;
+        }
+
+        return new TokenizedUrl(source, protocolEnd, authorityStart, hostEnd, port, authorityEnd,
+                pathEnd, queryMark == -1 ? -1 : queryMark + 1, queryMark == -1 ? -1 : limit);
+    }
+
+    private static boolean isHostChar(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                || c == '.' || c == '-' || c == '_';
+    }
+
+    private static int indexOf(final String string, final char c, final int from, final int to) {
+        final int index = string.indexOf(c, from);
+        return index < to ? index : -1;
+    }
+
+    /**
+     * @return the lowercase protocol, e.g. {@code https}
+     * @see URL#getProtocol()
+     */
+    @Nonnull
+    public String getProtocol() {
+        return source.substring(0, protocolEnd);
+    }
+
+    /**
+     * @see URL#getHost()
+     */
+    @Nonnull
+    public String getHost() {
+        return source.substring(hostStart, hostEnd);
+    }
+
+    /**
+     * Whether the host of the URL is the given one, ignoring case.
+     *
+     * @param host the host to compare to
+     * @return whether the hosts are equal, ignoring case
+     */
+    public boolean isHost(@Nonnull final String host) {
+        return hostEnd - hostStart == host.length()
+                && source.regionMatches(true, hostStart, host, 0, host.length());
+    }
+
+    /**
+     * @return the port or {@code -1} if none is set
+     * @see URL#getPort()
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @see URL#getPath()
+     */
+    @Nonnull
+    public String getPath() {
+        return source.substring(pathStart, pathEnd);
+    }
+
+    /**
+     * @see URL#getQuery()
+     */
+    @Nullable
+    public String getQuery() {
+        return queryStart == -1 ? null : source.substring(queryStart, queryEnd);
+    }
+
+    /**
+     * Same as {@link Utils#isHTTP(URL)}.
+     *
+     * @return whether the protocol is HTTP or HTTPS with no port or the default one
+     */
+    public boolean isHttp() {
+        if (protocolEnd == 4 && source.startsWith("http")) {
+            return port == -1 || port == 80;
+        } else if (protocolEnd == 5 && source.startsWith("https")) {
+            return port == -1 || port == 443;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link Utils#getQueryValue(URL, String)}: get the value of the first URL-query
+     * with the given name.
+     *
+     * <p>
+     * Names and values are only decoded if they contain encoded characters. Queries without a
+     * value (i.e. without {@code =}) are ignored.
+     * </p>
+     *
+     * @param parameterName the name of the query
+     * @return the decoded value of the query or {@code null} if there is no such query
+     */
+    @Nullable
+    public String getQueryValue(@Nonnull final String parameterName) {
+        if (queryStart == -1) {
+            return null;
+        }
+
+        int paramStart = queryStart;
+        while (paramStart < queryEnd) {
+            int paramEnd = source.indexOf('&', paramStart);
+            if (paramEnd == -1 || paramEnd > queryEnd) {
+                paramEnd = queryEnd;
+            }
+
+            final int equals = indexOf(source, '=', paramStart, paramEnd);
+            final int nameEnd = equals == -1 ? paramEnd : equals;
+            if (decodedEquals(paramStart, nameEnd, parameterName) && equals != -1) {
+                return decode(equals + 1, paramEnd);
+            }
+
+            paramStart = paramEnd + 1;
+        }
+        return null;
+    }
+
+    private boolean decodedEquals(final int start, final int end, final String string) {
+        if (isEncoded(start, end)) {
+            return decode(start, end).equals(string);
+        }
+        return end - start == string.length() && source.startsWith(string, start);
+    }
+
+    @Nonnull
+    private String decode(final int start, final int end) {
+        final String encoded = source.substring(start, end);
+        if (!isEncoded(start, end)) {
+            return encoded;
+        }
+
+        try {
+            return Utils.decodeUrlUtf8(encoded);
+        } catch (final UnsupportedEncodingException e) {
+            // Cannot decode string with UTF-8, using the string without decoding
+            return encoded;
+        }
+    }
+
+    private boolean isEncoded(final int start, final int end) {
+        return indexOf(source, '%', start, end) != -1 || indexOf(source, '+', start, end) != -1;
+    }
+}
@@ -0,0 +1,364 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A minimal pull parser of XML documents, reading them from a {@link Reader} without building a
+ * tree, so documents can be processed as they are read and abandoned early.
+ *
+ * <p>
+ * It is meant for well-formed documents of services, like feeds, and is not a validating parser:
+ * processing instructions, comments and document type declarations are skipped, CDATA sections
+ * are returned as text, and only the predefined and numeric character references are decoded.
+ * Namespaces are not resolved, so prefixed names are returned as they are written, e.g.
+ * {@code media:group}.
+ * </p>
+ *
+ * <p>
+ * The {@code javax.xml.stream} API is not used as it is not available on Android.
+ * </p>
+ */
+public final class XmlPullReader {
+    public static final int START_TAG = 1;
+    public static final int END_TAG = 2;
+    public static final int TEXT = 3;
+    public static final int END_DOCUMENT = 4;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    private int event = 0;
+    private String name;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private final StringBuilder text = new StringBuilder();
+    /**
+     * Whether the current start tag is self-closing, in which case the next event is its end tag.
+     */
+    private boolean pendingEndTag = false;
+
+    public XmlPullReader(@Nonnull final Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next event.
+     *
+     * @return {@link #START_TAG}, {@link #END_TAG}, {@link #TEXT} or {@link #END_DOCUMENT}
+     * @throws IOException      if the document could not be read
+     * @throws ParsingException if the document is malformed
+     */
+    public int next() throws IOException, ParsingException {
+        attributes.clear();
+        text.setLength(0);
+        event = readEvent();
+        return event;
+    }
+
+    private int readEvent() throws IOException, ParsingException {
+        if (pendingEndTag) {
+            pendingEndTag = false;
+            return END_TAG;
+        }
+
+        while (true) {
+            final int c = read();
+            if (c == -1) {
+                name = null;
+                return END_DOCUMENT;
+            }
+            if (c != '<') {
+                readText(c);
+                return TEXT;
+            }
+
+            final int afterBracket = read();
+            if (afterBracket == '?') {
+                skipUntil("?>");
+            } else if (afterBracket == '!') {
+                if (readMarkup()) {
+                    return TEXT;
+                }
+            } else if (afterBracket == '/') {
+                name = readName(read());
+                skipWhitespace();
+                expect('>');
+                return END_TAG;
+            } else {
+                readStartTag(afterBracket);
+                return START_TAG;
+            }
+        }
+    }
+
+    /**
+     * @return the current event, i.e. the one returned by the last call to {@link #next()}
+     */
+    public int getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the name of the current start or end tag
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param attributeName the name of an attribute, as written in the document
+     * @return the decoded value of the attribute of the current start tag, or {@code null} if it
+     * has no such attribute
+     */
+    @Nullable
+    public String getAttribute(@Nonnull final String attributeName) {
+        return attributes.get(attributeName);
+    }
+
+    /**
+     * @return the decoded text of the current text event
+     */
+    @Nonnull
+    public String getText() {
+        return text.toString();
+    }
+
+    private int read() throws IOException {
+        final int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            final int count = reader.read(buffer);
+            if (count <= 0) {
+                return -1;
+            }
+            position = 0;
+            limit = count;
+        }
+        return buffer[position];
+    }
+
+    private int readRequired() throws IOException, ParsingException {
+        final int c = read();
+        if (c == -1) {
+            throw new ParsingException("Unexpected end of XML document");
+        }
+        return c;
+    }
+
+    private void expect(final char expected) throws IOException, ParsingException {
+        final int c = readRequired();
+        if (c != expected) {
+            throw new ParsingException("Expected '" + expected + "' in XML document, but got '"
+                    + (char) c + "'");
+        }
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (isWhitespace(peek())) {
+            read();
+        }
+    }
+
+    private void skipUntil(@Nonnull final String terminator) throws IOException, ParsingException {
+        int matched = 0;
+        while (matched < terminator.length()) {
+            final int c = readRequired();
+            if (c == terminator.charAt(matched)) {
+                matched++;
+            } else {
+                // Keep the longest end of what was read which starts the terminator, e.g. "--"
+                // when reading "--->" until "-->"
+                final String read = terminator.substring(0, matched) + (char) c;
+                matched = 0;
+                for (int length = read.length() - 1; length > 0; length--) {
+                    if (terminator.startsWith(read.substring(read.length() - length))) {
+                        matched = length;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    private String readName(final int first) throws IOException, ParsingException {
+        if (first == -1 || isWhitespace(first) || first == '>' || first == '/' || first == '=') {
+            throw new ParsingException("Expected a name in XML document");
+        }
+        final StringBuilder builder = new StringBuilder();
+        builder.append((char) first);
+        int c = peek();
+        while (c != -1 && !isWhitespace(c) && c != '>' && c != '/' && c != '=') {
+            builder.append((char) read());
+            c = peek();
+        }
+        return builder.toString();
+    }
+
+    private void readStartTag(final int first) throws IOException, ParsingException {
+        name = readName(first);
+        while (true) {
+            skipWhitespace();
+            final int c = readRequired();
+            if (c == '>') {
+                return;
+            } else if (c == '/') {
+                expect('>');
+                pendingEndTag = true;
+                return;
+            }
+
+            final String attributeName = readName(c);
+            skipWhitespace();
+            expect('=');
+            skipWhitespace();
+            final int quote = readRequired();
+            if (quote != '"' && quote != '\'') {
+                throw new ParsingException("Expected a quoted attribute value in XML document");
+            }
+            final StringBuilder value = new StringBuilder();
+            int valueChar = readRequired();
+            while (valueChar != quote) {
+                if (valueChar == '&') {
+                    readReference(value);
+                } else {
+                    value.append((char) valueChar);
+                }
+                valueChar = readRequired();
+            }
+            attributes.put(attributeName, value.toString());
+        }
+    }
+
+    private void readText(final int first) throws IOException, ParsingException {
+        int c = first;
+        while (true) {
+            if (c == '&') {
+                readReference(text);
+            } else {
+                text.append((char) c);
+            }
+            final int next = peek();
+            if (next == -1 || next == '<') {
+                return;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Read the markup after {@code <!}.
+     *
+     * @return whether it was a CDATA section, whose content is now the text
+     */
+    private boolean readMarkup() throws IOException, ParsingException {
+        final int c = readRequired();
+        if (c == '-') {
+            expect('-');
+            skipUntil("-->");
+            return false;
+        } else if (c == '[') {
+            for (final char expected : "CDATA[".toCharArray()) {
+                expect(expected);
+            }
+            int matched = 0;
+            while (matched < 3) {
+                final int cdataChar = readRequired();
+                if (cdataChar == ']' && matched < 2) {
+                    matched++;
+                } else if (cdataChar == '>' && matched == 2) {
+                    matched++;
+                } else if (cdataChar == ']') {
+                    // A "]" before the last two ones which may end the section
+                    text.append(']');
+                } else {
+                    text.append("]]", 0, matched);
+                    text.append((char) cdataChar);
+                    matched = 0;
+                }
+            }
+            return true;
+        } else {
+            // A document type declaration, possibly with an internal subset
+            int depth = 1;
+            while (depth > 0) {
+                final int declarationChar = readRequired();
+                if (declarationChar == '<') {
+                    depth++;
+                } else if (declarationChar == '>') {
+                    depth--;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void readReference(@Nonnull final StringBuilder output)
+            throws IOException, ParsingException {
+        final StringBuilder reference = new StringBuilder();
+        int c = readRequired();
+        while (c != ';') {
+            if (reference.length() > 10 || c == '<' || c == '&' || isWhitespace(c)) {
+                throw new ParsingException("Malformed character reference in XML document: &"
+                        + reference);
+            }
+            reference.append((char) c);
+            c = readRequired();
+        }
+
+        final String ref = reference.toString();
+        switch (ref) {
+            case "lt":
+                output.append('<');
+                return;
+            case "gt":
+                output.append('>');
+                return;
+            case "amp":
+                output.append('&');
+                return;
+            case "quot":
+                output.append('"');
+                return;
+            case "apos":
+                output.append('\'');
+                return;
+            default:
+                break;
+        }
+
+        if (ref.startsWith("#")) {
+            try {
+                final int codePoint = ref.startsWith("#x") || ref.startsWith("#X")
+                        ? Integer.parseInt(ref.substring(2), 16)
+                        : Integer.parseInt(ref.substring(1));
+                output.appendCodePoint(codePoint);
+                return;
+            } catch (final IllegalArgumentException e) {
+                throw new ParsingException("Invalid character reference in XML document: &"
+                        + ref + ";", e);
+            }
+        }
+        // Entities declared in a document type declaration are not supported
+        output.append('&').append(ref).append(';');
+    }
+}
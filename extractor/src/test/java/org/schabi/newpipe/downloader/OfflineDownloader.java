@@ -0,0 +1,39 @@
+package org.schabi.newpipe.downloader;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A downloader for tests which must not download anything: every request fails, and is counted.
+ */
+public final class OfflineDownloader extends Downloader {
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * @return a new context whose downloader is a new {@link OfflineDownloader}
+     */
+    @Nonnull
+    public static ExtractorContext context() {
+        return new ExtractorContext.Builder().downloader(new OfflineDownloader()).build();
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request) throws IOException {
+        requests.incrementAndGet();
+        throw new IOException("No network in this test");
+    }
+
+    /**
+     * @return the number of requests made so far
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+}
@@ -0,0 +1,146 @@
+package org.schabi.newpipe.downloader;
+
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A downloader for tests which answers the requests with a script instead of the network.
+ *
+ * <p>
+ * The requested URLs are recorded. Requests can also be made to fail, or to wait until the test
+ * lets them through, e.g. to check that concurrent requests of a cache share the same fetch.
+ * </p>
+ */
+public final class ScriptedDownloader extends Downloader {
+    /**
+     * Answers the requests of a {@link ScriptedDownloader}.
+     */
+    @FunctionalInterface
+    public interface Script {
+        @Nonnull
+        Response respond(@Nonnull Request request) throws IOException;
+    }
+
+    private final Script script;
+    private final List<String> urls = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean failing = false;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    public ScriptedDownloader(@Nonnull final Script script) {
+        this.script = script;
+    }
+
+    /**
+     * @param body the body of the responses
+     * @return a downloader answering every request with a 200 response with the given body
+     */
+    @Nonnull
+    public static ScriptedDownloader returning(@Nonnull final String body) {
+        return new ScriptedDownloader(request -> ok(request, body));
+    }
+
+    /**
+     * @param responses the responses of the first requests
+     * @return a downloader answering the requests with the given responses in order, and then
+     * with empty 200 responses
+     */
+    @Nonnull
+    public static ScriptedDownloader inOrder(@Nonnull final Response... responses) {
+        final Queue<Response> queue = new ConcurrentLinkedQueue<>(List.of(responses));
+        return new ScriptedDownloader(request -> {
+            final Response response = queue.poll();
+            return response == null ? ok(request, "") : response;
+        });
+    }
+
+    /**
+     * @return a 200 response to the request with the given body
+     */
+    @Nonnull
+    public static Response ok(@Nonnull final Request request, @Nonnull final String body) {
+        return new Response(200, "OK", Collections.emptyMap(), body, request.url());
+    }
+
+    /**
+     * @return a new context whose downloader is this one
+     */
+    @Nonnull
+    public ExtractorContext context() {
+        return new ExtractorContext.Builder().downloader(this).build();
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request) throws IOException {
+        urls.add(request.url());
+        try {
+            gate.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while held");
+        }
+        if (failing) {
+            throw new IOException("Failing on purpose");
+        }
+        return script.respond(request);
+    }
+
+    /**
+     * Make the next requests fail with an {@link IOException}, or answer them again.
+     */
+    public void setFailing(final boolean failingToSet) {
+        this.failing = failingToSet;
+    }
+
+    /**
+     * Make the next requests wait until the returned latch is counted down. They are recorded
+     * before they wait.
+     *
+     * @return the latch to count down to let the requests through
+     */
+    @Nonnull
+    public CountDownLatch hold() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        gate = latch;
+        return latch;
+    }
+
+    /**
+     * @return the number of requests made so far
+     */
+    public int getRequests() {
+        return urls.size();
+    }
+
+    /**
+     * @param url a URL
+     * @return the number of requests of the URL made so far
+     */
+    public int getRequests(@Nonnull final String url) {
+        synchronized (urls) {
+            return (int) urls.stream().filter(url::equals).count();
+        }
+    }
+
+    /**
+     * @return the URLs requested so far, in order
+     */
+    @Nonnull
+    public List<String> getUrls() {
+        synchronized (urls) {
+            return List.copyOf(urls);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.schabi.newpipe.extractor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.schabi.newpipe.extractor.ServiceList.MediaCCC;
+import static org.schabi.newpipe.extractor.ServiceList.SoundCloud;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.comments.CommentsInfoItem;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.kiosk.KioskExtractor;
+import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.services.soundcloud.extractors.SoundcloudCommentsExtractor;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class ExtractorContextTest {
+    private static final Localization GERMAN = new Localization("de", "DE");
+
+    @Test
+    public void runBindsContextToThreadTest() throws Exception {
+        final ExtractorContext defaultContext = NewPipe.getContext();
+        final ExtractorContext outer = new ExtractorContext.Builder().build();
+        final ExtractorContext inner = new ExtractorContext.Builder().build();
+
+        outer.run(() -> {
+            assertSame(outer, NewPipe.getContext());
+            inner.run(() -> {
+                assertSame(inner, NewPipe.getContext());
+                return null;
+            });
+            assertSame(outer, NewPipe.getContext());
+            return null;
+        });
+        assertSame(defaultContext, NewPipe.getContext());
+    }
+
+    @Test
+    public void staticApiDelegatesToContextTest() throws Exception {
+        final Downloader downloader = new OfflineDownloader();
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .localization(GERMAN)
+                .contentCountry(new ContentCountry("DE"))
+                .build();
+
+        context.run(() -> {
+            assertSame(downloader, NewPipe.getDownloader());
+            assertEquals(GERMAN, NewPipe.getPreferredLocalization());
+            assertEquals(new ContentCountry("DE"), NewPipe.getPreferredContentCountry());
+            assertEquals(new ContentCountry("DE"), YouTube.getContentCountry());
+            return null;
+        });
+        assertNotSame(downloader, NewPipe.getDownloader());
+    }
+
+    @Test
+    public void extractorKeepsContextTest() throws Exception {
+        final OfflineDownloader downloader = new OfflineDownloader();
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .contentCountry(new ContentCountry("DE"))
+                .build();
+
+        final StreamExtractor extractor = context.run(() ->
+                YouTube.getStreamExtractor("https://www.youtube.com/watch?v=dQw4w9WgXcQ"));
+        assertSame(context, extractor.getContext());
+        assertSame(downloader, extractor.getDownloader());
+        assertEquals(new ContentCountry("DE"), extractor.getExtractorContentCountry());
+    }
+
+    @Test
+    public void pageOutsideRunUsesExtractorContextTest() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final Downloader downloader = new Downloader() {
+            @Override
+            public Response execute(final Request request) {
+                requests.incrementAndGet();
+                return new Response(200, "OK", Collections.emptyMap(),
+                        "{\"collection\":[],\"next_href\":null}", request.url());
+            }
+        };
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .build();
+        final String url = "https://api-v2.soundcloud.com/tracks/1/comments";
+
+        final SoundcloudCommentsExtractor extractor = context.run(() ->
+                new SoundcloudCommentsExtractor(SoundCloud,
+                        new ListLinkHandler(url, url, "1", List.of(), "")));
+        final ListExtractor.InfoItemsPage<CommentsInfoItem> page =
+                extractor.getPage(new Page(url + "?offset=10"));
+
+        // The page is requested with the downloader of the extractor's context, not with the
+        // one of the default context, even though no context is run here
+        assertEquals(1, requests.get());
+        assertEquals(0, page.getItems().size());
+    }
+
+    @Test
+    public void fetchPageMetricsTest() throws Exception {
+        final OfflineDownloader downloader = new OfflineDownloader();
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .build();
+
+        final KioskExtractor<?> extractor = context.run(() ->
+                MediaCCC.getKioskList().getDefaultKioskExtractor());
+        assertThrows(IOException.class, extractor::fetchPage);
+
+        assertEquals(1, downloader.getRequests());
+        assertEquals(0, context.getMetrics().get(ExtractorContext.Metrics.PAGES_FETCHED));
+        assertEquals(1, context.getMetrics().get(ExtractorContext.Metrics.PAGE_FETCH_ERRORS));
+    }
+
+    @Test
+    public void cacheTest() throws Exception {
+        final ExtractorContext.CacheKey<String> key = new ExtractorContext.CacheKey<>("test");
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final ExtractorContext derived = context.toBuilder().localization(GERMAN).build();
+        final ExtractorContext other = new ExtractorContext.Builder().build();
+        final AtomicInteger loads = new AtomicInteger();
+
+        final Supplier<String> loader = () -> String.valueOf(loads.incrementAndGet());
+
+        assertEquals("1", context.getCached(key, loader));
+        assertEquals("1", context.getCached(key, loader));
+        // Derived contexts share the cache, other contexts don't
+        assertEquals("1", derived.getCached(key, loader));
+        assertEquals("2", other.getCached(key, loader));
+
+        context.invalidate(key);
+        assertEquals("3", context.getCached(key, loader));
+
+        // Failures are not cached
+        final ExtractorContext.CacheKey<String> failingKey =
+                new ExtractorContext.CacheKey<>("failing");
+        final ExtractorContext.Task<String> failing = () -> {
+            throw new IOException("Failing on purpose");
+        };
+        assertThrows(IOException.class, () -> other.getCached(failingKey, failing));
+        final Supplier<String> failingWithError = () -> {
+            throw new AssertionError("Failing on purpose");
+        };
+        assertThrows(AssertionError.class, () -> other.getCached(failingKey, failingWithError));
+        assertEquals("4", other.getCached(failingKey, loader));
+    }
+
+    @Test
+    public void cacheLoadsOnceTest() throws Exception {
+        final ExtractorContext.CacheKey<String> key = new ExtractorContext.CacheKey<>("test");
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final ExtractorContext.Task<String> loader = () -> {
+            loads.incrementAndGet();
+            try {
+                gate.await();
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            }
+            return "loaded";
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            final Future<String> first = executor.submit(() -> context.getCached(key, loader));
+            final Future<String> second = executor.submit(() -> context.getCached(key, loader));
+            Thread.sleep(100);
+            gate.countDown();
+            assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+            assertEquals("loaded", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.schabi.newpipe.extractor;
+
+import org.schabi.newpipe.extractor.services.bandcamp.BandcampService;
+
+/**
+ * A service for tests to override with fake extractors, whose id is not the one of a real
+ * service. The extractors which are not overridden are the Bandcamp ones.
+ */
+public class FakeService extends BandcampService {
+    public static final int ID = 100;
+
+    public FakeService() {
+        this(ID);
+    }
+
+    public FakeService(final int id) {
+        super(id);
+    }
+}
@@ -1,14 +1,25 @@
 package org.schabi.newpipe.extractor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.schabi.newpipe.extractor.NewPipe.getServiceByUrl;
+import static org.schabi.newpipe.extractor.NewPipe.routeUrl;
+import static org.schabi.newpipe.extractor.NewPipe.routeUrls;
+import static org.schabi.newpipe.extractor.ServiceList.MediaCCC;
+import static org.schabi.newpipe.extractor.ServiceList.PeerTube;
 import static org.schabi.newpipe.extractor.ServiceList.SoundCloud;
 import static org.schabi.newpipe.extractor.ServiceList.YouTube;
 
 import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.StreamingService.LinkType;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.FoundAdException;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class NewPipeTest {
     @Test
@@ -43,4 +54,97 @@ public class NewPipeTest {
         assertEquals(getServiceByUrl("https://soundcloud.com/pegboardnerds"), SoundCloud);
         assertEquals(getServiceByUrl("https://www.google.com/url?sa=t&url=https%3A%2F%2Fsoundcloud.com%2Fciaoproduction&rct=j&q=&esrc=s&source=web&cd="), SoundCloud);
     }
+
+    @Test
+    public void routeUrlTest() throws Exception {
+        UrlRouter.Route route = routeUrl("https://youtu.be/_r6CgaFNAGg");
+        assertEquals(YouTube, route.getService());
+        assertEquals(LinkType.STREAM, route.getLinkType());
+        assertEquals("_r6CgaFNAGg", route.getId());
+
+        route = routeUrl("https://www.google.it/url?sa=t&rct=j&q=&esrc=s&cd=&cad=rja&uact=8&url=https%3A%2F%2Fwww.youtube.com%2Fplaylist%3Flist%3DPLRqwX-V7Uu6ZiZxtDDRCi6uhfTH4FilpH&source=video");
+        assertEquals(YouTube, route.getService());
+        assertEquals(LinkType.PLAYLIST, route.getLinkType());
+        assertEquals("https://www.youtube.com/playlist?list=PLRqwX-V7Uu6ZiZxtDDRCi6uhfTH4FilpH", route.getUrl());
+        assertEquals("PLRqwX-V7Uu6ZiZxtDDRCi6uhfTH4FilpH", route.getId());
+
+        route = routeUrl("vnd.youtube://_r6CgaFNAGg");
+        assertEquals(YouTube, route.getService());
+        assertEquals("_r6CgaFNAGg", route.getId());
+
+        route = routeUrl("https://INVIDIO.US/channel/UCi2bIyFtz-JdI-ou8kaqsqg");
+        assertEquals(YouTube, route.getService());
+        assertEquals(LinkType.CHANNEL, route.getLinkType());
+
+        route = routeUrl("https://soundcloud.com/pegboardnerds");
+        assertEquals(SoundCloud, route.getService());
+        assertEquals(LinkType.CHANNEL, route.getLinkType());
+
+        route = routeUrl("https://media.ccc.de/v/35c3-9566-the_mars_rover_on-board_computer");
+        assertEquals(MediaCCC, route.getService());
+        assertEquals("35c3-9566-the_mars_rover_on-board_computer", route.getId());
+
+        // PeerTube instances are not known beforehand
+        route = routeUrl("https://framatube.org/videos/watch/9c9de5e8-0a1e-484a-b099-e80766180a6d");
+        assertEquals(PeerTube, route.getService());
+        assertEquals(LinkType.STREAM, route.getLinkType());
+        assertEquals("9c9de5e8-0a1e-484a-b099-e80766180a6d", route.getId());
+    }
+
+    @Test
+    public void routeUnsupportedUrlTest() {
+        assertThrows(ExtractionException.class, () -> routeUrl("https://www.youtube.com/feed/library"));
+        assertThrows(FoundAdException.class, () -> routeUrl("https://googleads.g.doubleclick.net/pagead/ads?v=abc"));
+    }
+
+    @Test
+    public void supportedHostsAreLowercaseTest() {
+        for (final StreamingService service : NewPipe.getServices()) {
+            for (final String host : service.getSupportedHosts()) {
+                assertEquals(host.toLowerCase(), host, service + " host is not lowercase");
+            }
+        }
+    }
+
+    @Test
+    public void routeUrlsTest() throws Exception {
+        final List<String> urls = List.of(
+                "https://www.youtube.com/watch?v=_r6CgaFNAGg",
+                "https://youtu.be/_r6CgaFNAGg",
+                "https://invidio.us/watch?v=_r6CgaFNAGg",
+                "https://hooktube.com/watch?v=_r6CgaFNAGg",
+                "https://www.youtube.com/watch?v=_r6CgaFNAGg",
+                "https://www.youtube.com/playlist?list=PLRqwX-V7Uu6ZiZxtDDRCi6uhfTH4FilpH",
+                "https://media.ccc.de/v/35c3-9566-the_mars_rover_on-board_computer",
+                "https://www.youtube.com/feed/library");
+
+        for (final ForkJoinPool pool : new ForkJoinPool[]{null, ForkJoinPool.commonPool()}) {
+            final UrlRouter.BatchResult result = routeUrls(urls, pool);
+
+            assertEquals(6, result.getRoutes().size());
+            assertEquals(YouTube, result.getRoutes().get("https://youtu.be/_r6CgaFNAGg").getService());
+
+            assertEquals(3, result.getDistinctRoutes().size());
+            assertEquals("https://www.youtube.com/watch?v=_r6CgaFNAGg",
+                    result.getDistinctRoutes().get(0).getLinkHandler().getUrl());
+            assertEquals(LinkType.PLAYLIST, result.getDistinctRoutes().get(1).getLinkType());
+            assertEquals(MediaCCC, result.getDistinctRoutes().get(2).getService());
+
+            assertEquals(1, result.getErrors().size());
+            assertTrue(result.getErrors().get("https://www.youtube.com/feed/library")
+                    instanceof ExtractionException);
+        }
+    }
+
+    @Test
+    public void serviceRouteUrlsTest() throws Exception {
+        final UrlRouter.BatchResult result = YouTube.routeUrls(List.of(
+                "https://youtu.be/_r6CgaFNAGg",
+                "https://media.ccc.de/v/35c3-9566-the_mars_rover_on-board_computer"), null);
+
+        assertEquals(1, result.getRoutes().size());
+        assertTrue(result.getRoutes().get("https://youtu.be/_r6CgaFNAGg")
+                .isEquivalentTo(routeUrl("https://www.youtube.com/watch?v=_r6CgaFNAGg")));
+        assertFalse(result.getErrors().isEmpty());
+    }
 }
@@ -0,0 +1,171 @@
+package org.schabi.newpipe.extractor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PageCursorTest {
+    @Test
+    void testRoundTripWithAllFields() throws ParsingException {
+        final Map<String, String> cookies = new LinkedHashMap<>();
+        cookies.put("session", "abc");
+        cookies.put("é", "ü");
+        final Page page = new Page("https://example.com/next?p=2", "token",
+                Arrays.asList("a", "", "c"), cookies, new byte[]{0, 1, (byte) 0xFF});
+        final PageCursor cursor = new PageCursor(3, PageCursor.Kind.SEARCH,
+                "https://example.com/search?q=x", "the query", Arrays.asList("videos", "music"),
+                "newest", page);
+
+        final String encoded = cursor.encode();
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+
+        final PageCursor decoded = PageCursor.decode(encoded);
+        assertEquals(3, decoded.getServiceId());
+        assertSame(PageCursor.Kind.SEARCH, decoded.getKind());
+        assertEquals("https://example.com/search?q=x", decoded.getUrl());
+        assertEquals("the query", decoded.getId());
+        assertEquals(Arrays.asList("videos", "music"), decoded.getContentFilters());
+        assertEquals("newest", decoded.getSortFilter());
+        assertEquals(page.getUrl(), decoded.getPage().getUrl());
+        assertEquals(page.getId(), decoded.getPage().getId());
+        assertEquals(page.getIds(), decoded.getPage().getIds());
+        assertEquals(cookies, decoded.getPage().getCookies());
+        assertArrayEquals(page.getBody(), decoded.getPage().getBody());
+        assertEquals(encoded, decoded.encode());
+    }
+
+    @Test
+    void testRoundTripKeepsNullAndEmptyValuesApart() throws ParsingException {
+        final PageCursor withNulls = PageCursor.decode(new PageCursor(0, PageCursor.Kind.CHANNEL,
+                null, null, null, null, new Page((String) null)).encode());
+        assertNull(withNulls.getUrl());
+        assertNull(withNulls.getId());
+        assertEquals(Collections.emptyList(), withNulls.getContentFilters());
+        assertNull(withNulls.getSortFilter());
+        assertNull(withNulls.getPage().getUrl());
+        assertNull(withNulls.getPage().getIds());
+        assertNull(withNulls.getPage().getCookies());
+        assertNull(withNulls.getPage().getBody());
+
+        final PageCursor withEmpty = PageCursor.decode(new PageCursor(0, PageCursor.Kind.KIOSK,
+                "", "", Collections.emptyList(), "", new Page("", "", Collections.emptyList(),
+                Collections.emptyMap(), new byte[0])).encode());
+        assertEquals("", withEmpty.getUrl());
+        assertEquals("", withEmpty.getSortFilter());
+        assertEquals("", withEmpty.getPage().getUrl());
+        assertEquals(Collections.emptyList(), withEmpty.getPage().getIds());
+        assertEquals(Collections.emptyMap(), withEmpty.getPage().getCookies());
+        assertArrayEquals(new byte[0], withEmpty.getPage().getBody());
+    }
+
+    @Test
+    void testEncodingIsCompact() {
+        final String pageUrl = "https://www.youtube.com/youtubei/v1/browse?key=abcdefghij";
+        final PageCursor cursor = new PageCursor(0, PageCursor.Kind.PLAYLIST,
+                "https://www.youtube.com/playlist?list=PL0123456789", "PL0123456789", null, null,
+                new Page(pageUrl, "continuation"));
+        final int rawLength = ("https://www.youtube.com/playlist?list=PL0123456789PL0123456789"
+                + pageUrl + "continuation").length();
+        // A few bytes of version, kinds and lengths, then 4 Base64 characters per 3 bytes
+        assertTrue(cursor.encode().length() <= (rawLength + 16) * 4 / 3);
+    }
+
+    @Test
+    void testWithPageKeepsTheListing() throws ParsingException {
+        final PageCursor cursor = new PageCursor(1, PageCursor.Kind.COMMENTS, "url", "id",
+                null, null, new Page("first"));
+        final PageCursor next = PageCursor.decode(cursor.withPage(new Page("second")).encode());
+        assertSame(PageCursor.Kind.COMMENTS, next.getKind());
+        assertEquals("url", next.getUrl());
+        assertEquals("second", next.getPage().getUrl());
+    }
+
+    @Test
+    void testRejectsWrongKind() {
+        final PageCursor cursor = new PageCursor(0, PageCursor.Kind.CHANNEL, "url", "id", null,
+                null, new Page("page"));
+        assertThrows(ParsingException.class,
+                () -> cursor.requireService(PageCursor.Kind.PLAYLIST));
+    }
+
+    @Test
+    void testAcceptsPagesOnTheSiteOfTheService() throws Exception {
+        final PageCursor channel = new PageCursor(0, PageCursor.Kind.CHANNEL,
+                "https://www.youtube.com/channel/UC_aEa8K-EOJ3D6gOs7HcyNg", "id", null, null,
+                new Page("https://www.youtube.com/youtubei/v1/browse?key=key", "token"));
+        assertSame(ServiceList.YouTube, channel.requireService(PageCursor.Kind.CHANNEL));
+
+        final PageCursor search = new PageCursor(0, PageCursor.Kind.SEARCH, null, "query",
+                null, null, new Page("https://music.youtube.com/youtubei/v1/search", "token"));
+        assertSame(ServiceList.YouTube, search.requireService(PageCursor.Kind.SEARCH));
+    }
+
+    @Test
+    void testRejectsTamperedCursors() {
+        final Page page = new Page("https://www.youtube.com/youtubei/v1/browse?key=key", "t");
+        final String channelUrl = "https://www.youtube.com/channel/UC_aEa8K-EOJ3D6gOs7HcyNg";
+
+        // A listing which is not one of the service
+        assertThrows(ParsingException.class, () -> new PageCursor(0, PageCursor.Kind.CHANNEL,
+                "https://evil.example/channel/UC_aEa8K-EOJ3D6gOs7HcyNg", "id", null, null, page)
+                .requireService(PageCursor.Kind.CHANNEL));
+        assertThrows(ParsingException.class, () -> new PageCursor(0, PageCursor.Kind.CHANNEL,
+                null, "id", null, null, page).requireService(PageCursor.Kind.CHANNEL));
+
+        // A page on another host, even if it ends like the one of the service
+        for (final String pageUrl : new String[]{"https://evil.example/youtubei/v1/browse",
+                "https://evilyoutube.com/youtubei/v1/browse", "file:///etc/passwd"}) {
+            assertThrows(ParsingException.class, () -> new PageCursor(0,
+                    PageCursor.Kind.CHANNEL, channelUrl, "id", null, null, new Page(pageUrl))
+                    .requireService(PageCursor.Kind.CHANNEL), pageUrl);
+        }
+
+        // A search without search string
+        assertThrows(ParsingException.class, () -> new PageCursor(0, PageCursor.Kind.SEARCH,
+                null, null, null, null, page).requireService(PageCursor.Kind.SEARCH));
+    }
+
+    @Test
+    void testRejectsUnsupportedVersion() {
+        final byte[] bytes = Base64.getUrlDecoder().decode(new PageCursor(0,
+                PageCursor.Kind.CHANNEL, "url", "id", null, null, new Page("page")).encode());
+        bytes[0] = (byte) (PageCursor.VERSION + 1);
+        final ParsingException e = assertThrows(ParsingException.class, () -> PageCursor.decode(
+                Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)));
+        assertTrue(e.getMessage().contains("version"), e.getMessage());
+    }
+
+    @Test
+    void testRejectsMalformedCursors() {
+        final String encoded = new PageCursor(0, PageCursor.Kind.CHANNEL, "url", "id", null,
+                null, new Page("page")).encode();
+        assertThrows(ParsingException.class, () -> PageCursor.decode("not a cursor!"));
+        assertThrows(ParsingException.class, () -> PageCursor.decode(""));
+        assertThrows(ParsingException.class,
+                () -> PageCursor.decode(encoded.substring(0, encoded.length() - 2)));
+        assertThrows(ParsingException.class, () -> PageCursor.decode(encoded + "AA"));
+
+        // A huge length must not be allocated
+        final byte[] hugeLength = {PageCursor.VERSION, 0, 1, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(ParsingException.class, () -> PageCursor.decode(
+                Base64.getUrlEncoder().withoutPadding().encodeToString(hugeLength)));
+        // An unknown kind
+        final byte[] unknownKind = "\u0001\u0000c".getBytes(StandardCharsets.ISO_8859_1);
+        assertThrows(ParsingException.class, () -> PageCursor.decode(
+                Base64.getUrlEncoder().withoutPadding().encodeToString(unknownKind)));
+    }
+}
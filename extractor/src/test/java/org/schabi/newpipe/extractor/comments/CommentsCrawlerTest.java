@@ -0,0 +1,273 @@
+package org.schabi.newpipe.extractor.comments;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.FakeService;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
+import org.schabi.newpipe.extractor.services.peertube.PeertubeInstance;
+import org.schabi.newpipe.extractor.services.peertube.PeertubeService;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnull;
+
+public class CommentsCrawlerTest {
+    private static final int TOP_LEVEL_PAGES = 3;
+    private static final int COMMENTS_PER_PAGE = 5;
+    private static final int REPLY_PAGES = 2;
+    private static final int REPLIES_PER_PAGE = 3;
+    private static final String FAILING_THREAD = "failing";
+
+    /**
+     * A service whose comments are made up: top-level pages {@code top/N} with
+     * {@link #COMMENTS_PER_PAGE} comments, of which every other one has a reply thread of
+     * {@link #REPLY_PAGES} pages.
+     */
+    private static final class CommentsService extends FakeService {
+        private final AtomicInteger concurrentReplyPages = new AtomicInteger();
+        private final AtomicInteger maxConcurrentReplyPages = new AtomicInteger();
+        private final Map<String, Integer> fetchedPages = new ConcurrentHashMap<>();
+        private final boolean failingThread;
+
+        CommentsService(final boolean failingThread) {
+            this.failingThread = failingThread;
+        }
+
+        @Override
+        public CommentsExtractor getCommentsExtractor(final ListLinkHandler linkHandler) {
+            return new FakeCommentsExtractor(this, linkHandler);
+        }
+    }
+
+    private static final class FakeCommentsExtractor extends CommentsExtractor {
+        private final CommentsService service;
+
+        FakeCommentsExtractor(final CommentsService service, final ListLinkHandler linkHandler) {
+            super(service, linkHandler);
+            this.service = service;
+        }
+
+        @Override
+        public void onFetchPage(@Nonnull final Downloader downloader) {
+        }
+
+        @Nonnull
+        @Override
+        public InfoItemsPage<CommentsInfoItem> getInitialPage()
+                throws IOException, ExtractionException {
+            return getPage(new Page("top/0"));
+        }
+
+        @Override
+        public InfoItemsPage<CommentsInfoItem> getPage(final Page page)
+                throws IOException, ExtractionException {
+            service.fetchedPages.merge(page.getUrl(), 1, Integer::sum);
+            final String[] parts = page.getUrl().split("/");
+            final int index = Integer.parseInt(parts[parts.length - 1]);
+            if (parts[0].equals("top")) {
+                final List<CommentsInfoItem> comments = new ArrayList<>();
+                for (int i = 0; i < COMMENTS_PER_PAGE; i++) {
+                    final String name = "c" + (index * COMMENTS_PER_PAGE + i);
+                    final CommentsInfoItem comment = new CommentsInfoItem(getServiceId(), "", name);
+                    if (i % 2 == 0) {
+                        comment.setReplies(new Page(
+                                (service.failingThread && i == 0 ? FAILING_THREAD : name)
+                                        + "/0"));
+                    }
+                    comments.add(comment);
+                }
+                return new InfoItemsPage<>(comments, index + 1 < TOP_LEVEL_PAGES
+                        ? new Page("top/" + (index + 1)) : null, Collections.emptyList());
+            }
+
+            service.maxConcurrentReplyPages.accumulateAndGet(
+                    service.concurrentReplyPages.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                service.concurrentReplyPages.decrementAndGet();
+            }
+            if (parts[0].equals(FAILING_THREAD) && index == 1) {
+                throw new IOException("Could not fetch replies");
+            }
+
+            final List<CommentsInfoItem> replies = new ArrayList<>();
+            for (int i = 0; i < REPLIES_PER_PAGE; i++) {
+                replies.add(new CommentsInfoItem(getServiceId(), "",
+                        parts[0] + "-r" + (index * REPLIES_PER_PAGE + i)));
+            }
+            return new InfoItemsPage<>(replies, index + 1 < REPLY_PAGES
+                    ? new Page(parts[0] + "/" + (index + 1)) : null, Collections.emptyList());
+        }
+    }
+
+    private static CommentsExtractor extractor(final StreamingService service)
+            throws IOException, ExtractionException {
+        // The extractors don't download anything
+        return OfflineDownloader.context().run(() -> service.getCommentsExtractor(
+                new ListLinkHandler("https://example.com/", "https://example.com/", "",
+                        Collections.emptyList(), "")));
+    }
+
+    @Test
+    public void crawlWholeTreeTest() throws Exception {
+        final CommentsService service = new CommentsService(false);
+        final Map<String, String> parents = Collections.synchronizedMap(new HashMap<>());
+        final CommentsCrawler.Result result = new CommentsCrawler.Builder()
+                .parallelism(2)
+                .build()
+                .crawl(extractor(service), (parent, comment) -> parents.put(comment.getName(),
+                        parent == null ? null : parent.getName()));
+
+        final int topLevel = TOP_LEVEL_PAGES * COMMENTS_PER_PAGE;
+        final int threads = TOP_LEVEL_PAGES * ((COMMENTS_PER_PAGE + 1) / 2);
+        final int replies = threads * REPLY_PAGES * REPLIES_PER_PAGE;
+        assertEquals(topLevel + replies, parents.size());
+        assertEquals(topLevel + replies, result.getCommentCount());
+        assertEquals(TOP_LEVEL_PAGES + threads * REPLY_PAGES, result.getPageCount());
+        assertFalse(result.isBudgetExhausted());
+        assertTrue(result.getErrors().isEmpty());
+
+        assertNull(parents.get("c0"));
+        assertEquals("c0", parents.get("c0-r5"));
+        assertEquals("c12", parents.get("c12-r0"));
+        assertTrue(service.maxConcurrentReplyPages.get() <= 2);
+        // Every page is fetched once
+        assertTrue(service.fetchedPages.values().stream().allMatch(count -> count == 1));
+    }
+
+    @Test
+    public void maxCommentsTest() throws Exception {
+        final CommentsService service = new CommentsService(false);
+        final AtomicInteger comments = new AtomicInteger();
+        final CommentsCrawler.Result result = new CommentsCrawler.Builder()
+                .maxComments(7)
+                .build()
+                .crawl(extractor(service), (parent, comment) -> comments.incrementAndGet());
+
+        assertEquals(7, comments.get());
+        assertEquals(7, result.getCommentCount());
+        assertTrue(result.isBudgetExhausted());
+        // The second top-level page has to be fetched to get 7 comments, but not the third one
+        assertFalse(service.fetchedPages.containsKey("top/2"));
+    }
+
+    @Test
+    public void failingThreadTest() throws Exception {
+        final CommentsService service = new CommentsService(true);
+        final AtomicInteger comments = new AtomicInteger();
+        final CommentsCrawler.Result result = new CommentsCrawler.Builder()
+                .build()
+                .crawl(extractor(service), (parent, comment) -> comments.incrementAndGet());
+
+        // The first page of each failing thread is still passed to the consumer
+        assertEquals(TOP_LEVEL_PAGES, result.getErrors().size());
+        assertEquals(comments.get(), result.getCommentCount());
+        assertEquals(15 + 9 * 2 * 3 - 3 * 3, comments.get());
+    }
+
+    /**
+     * @return a PeerTube comment of the thread, with the given number of replies
+     */
+    private static String peertubeComment(final int id, final int threadId, final int replies) {
+        return "{\"id\":" + id + ",\"threadId\":" + threadId + ",\"text\":\"<p>c" + id
+                + "</p>\",\"isDeleted\":false,\"createdAt\":\"2022-01-01T00:00:00.000Z\","
+                + "\"totalReplies\":" + replies + ",\"account\":{\"name\":\"user\","
+                + "\"displayName\":\"User\",\"host\":\"peertube.example\"}}";
+    }
+
+    /**
+     * @return a page of PeerTube comment threads, of which the first one has two replies
+     */
+    private static String peertubeThreads(final int firstId, final int lastId, final int total) {
+        return "{\"total\":" + total + ",\"data\":[" + IntStream.rangeClosed(firstId, lastId)
+                .mapToObj(id -> peertubeComment(id, id, id == firstId ? 2 : 0))
+                .collect(Collectors.joining(",")) + "]}";
+    }
+
+    /**
+     * @return the replies of a PeerTube comment thread
+     */
+    private static String peertubeReplies(final int threadId) {
+        return "{\"comment\":" + peertubeComment(threadId, threadId, 2) + ",\"children\":["
+                + "{\"comment\":" + peertubeComment(threadId * 100, threadId, 0)
+                + ",\"children\":[]},"
+                + "{\"comment\":" + peertubeComment(threadId * 100 + 1, threadId, 0)
+                + ",\"children\":[]}]}";
+    }
+
+    @Test
+    public void crawlPeertubeCommentsTest() throws Exception {
+        final String baseUrl = "https://peertube.example";
+        final String threadsUrl = baseUrl + "/api/v1/videos/abc/comment-threads";
+        final ScriptedDownloader downloader = new ScriptedDownloader(request -> {
+            switch (request.url()) {
+                case threadsUrl + "?start=0&count=12":
+                    return ScriptedDownloader.ok(request, peertubeThreads(1, 12, 14));
+                case threadsUrl + "?start=12&count=12":
+                    return ScriptedDownloader.ok(request, peertubeThreads(13, 14, 14));
+                case threadsUrl + "/1":
+                    return ScriptedDownloader.ok(request, peertubeReplies(1));
+                case threadsUrl + "/13":
+                    return ScriptedDownloader.ok(request, peertubeReplies(13));
+                default:
+                    throw new IOException("Unexpected request " + request.url());
+            }
+        });
+        final StreamingService service = new PeertubeService(
+                ServiceList.PeerTube.getServiceId(), new PeertubeInstance(baseUrl));
+        final CommentsExtractor extractor = downloader.context().run(() ->
+                service.getCommentsExtractor(baseUrl + "/videos/watch/abc"));
+
+        final Map<String, String> parents = Collections.synchronizedMap(new HashMap<>());
+        final CommentsCrawler.Result result = new CommentsCrawler.Builder()
+                .build()
+                .crawl(extractor, (parent, comment) -> parents.put(
+                        comment.getCommentText().getContent(),
+                        parent == null ? null : parent.getCommentText().getContent()));
+
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(14 + 2 * 2, result.getCommentCount());
+        assertEquals(2 + 2, result.getPageCount());
+        assertEquals(14 + 2 * 2, parents.size());
+        assertNull(parents.get("c1"));
+        assertNull(parents.get("c14"));
+        assertEquals("c1", parents.get("c100"));
+        assertEquals("c1", parents.get("c101"));
+        assertEquals("c13", parents.get("c1300"));
+        assertEquals("c13", parents.get("c1301"));
+        assertEquals(4, downloader.getRequests());
+    }
+
+    @Test
+    public void invalidBuilderValuesTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CommentsCrawler.Builder().parallelism(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CommentsCrawler.Builder().maxComments(0));
+    }
+}
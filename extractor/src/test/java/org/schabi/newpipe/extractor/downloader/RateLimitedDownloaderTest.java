@@ -0,0 +1,216 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.downloader.RateLimitedDownloader.HostLimit;
+import org.schabi.newpipe.extractor.downloader.RateLimitedDownloader.HostStats;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateLimitedDownloaderTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * A clock whose time only moves when sleeping.
+     */
+    private static final class FakeClock implements RateLimitedDownloader.Clock {
+        private long nanos;
+
+        @Override
+        public synchronized long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanoTime());
+        }
+
+        @Override
+        public synchronized void sleepNanos(final long sleepNanos) {
+            nanos += sleepNanos;
+        }
+    }
+
+    private static Response tooManyRequests(final String retryAfter) {
+        return new Response(429, "Too Many Requests",
+                Map.of("Retry-After", List.of(retryAfter)), "", "");
+    }
+
+    @Test
+    public void tokenBucketTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        final RateLimitedDownloader downloader =
+                new RateLimitedDownloader.Builder(ScriptedDownloader.inOrder())
+                        .defaultLimit(new HostLimit(10, 2, 2))
+                        .clock(clock)
+                        .build();
+
+        // The burst is sent at once, then requests are spaced by half a second
+        downloader.get("https://example.com/1");
+        downloader.get("https://example.com/2");
+        assertEquals(0, clock.nanoTime());
+        downloader.get("https://example.com/3");
+        assertEquals(SECOND / 2, clock.nanoTime());
+        downloader.get("https://example.com/4");
+        assertEquals(SECOND, clock.nanoTime());
+
+        // Other hosts have their own bucket
+        downloader.get("https://example.org/");
+        assertEquals(SECOND, clock.nanoTime());
+
+        final HostStats stats = downloader.getStats().get("example.com");
+        assertEquals(4, stats.getRequests());
+        assertEquals(SECOND, stats.getTotalWaitNanos());
+        assertEquals(SECOND / 2, stats.getMaxWaitNanos());
+        assertEquals(0, stats.getQueued());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void domainLimitSharedBySubdomainsTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        final RateLimitedDownloader downloader =
+                new RateLimitedDownloader.Builder(ScriptedDownloader.inOrder())
+                        .hostLimit("YouTube.com", new HostLimit(1, 1, 1))
+                        .clock(clock)
+                        .build();
+
+        downloader.get("https://www.youtube.com/watch?v=dQw4w9WgXcQ");
+        downloader.get("https://m.youtube.com/watch?v=dQw4w9WgXcQ");
+        downloader.get("https://notyoutube.com/");
+
+        assertEquals(SECOND, clock.nanoTime());
+        assertEquals(2, downloader.getStats().get("youtube.com").getRequests());
+        assertEquals(1, downloader.getStats().get("notyoutube.com").getRequests());
+        assertEquals(2, downloader.getStats().size());
+    }
+
+    @Test
+    public void retryAfterTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        final ScriptedDownloader delegate = ScriptedDownloader.inOrder(tooManyRequests("3"));
+        final RateLimitedDownloader downloader = new RateLimitedDownloader.Builder(delegate)
+                .clock(clock)
+                .build();
+
+        assertEquals(200, downloader.get("https://example.com/").responseCode());
+        assertEquals(2, delegate.getRequests());
+        assertEquals(3 * SECOND, clock.nanoTime());
+
+        final HostStats stats = downloader.getStats().get("example.com");
+        assertEquals(2, stats.getRequests());
+        assertEquals(1, stats.getThrottled());
+    }
+
+    @Test
+    public void retryAfterHttpDateTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        // The fake clock starts at the epoch
+        final ScriptedDownloader delegate =
+                ScriptedDownloader.inOrder(tooManyRequests("Thu, 01 Jan 1970 00:00:05 GMT"));
+        final RateLimitedDownloader downloader = new RateLimitedDownloader.Builder(delegate)
+                .clock(clock)
+                .build();
+
+        assertEquals(200, downloader.get("https://example.com/").responseCode());
+        assertEquals(5 * SECOND, clock.nanoTime());
+    }
+
+    @Test
+    public void retryAfterTooLongTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        final ScriptedDownloader delegate = ScriptedDownloader.inOrder(tooManyRequests("3600"));
+        final RateLimitedDownloader downloader = new RateLimitedDownloader.Builder(delegate)
+                .clock(clock)
+                .build();
+
+        // The response is returned, but the host is blocked anyway, for the maximum delay only
+        assertEquals(429, downloader.get("https://example.com/").responseCode());
+        assertEquals(0, clock.nanoTime());
+        assertEquals(200, downloader.get("https://example.com/").responseCode());
+        assertEquals(60 * SECOND, clock.nanoTime());
+    }
+
+    @Test
+    public void thrownTooManyRequestsTest() throws Exception {
+        final FakeClock clock = new FakeClock();
+        final AtomicInteger captchas = new AtomicInteger(1);
+        final Downloader delegate = new Downloader() {
+            @Override
+            public Response execute(final Request request) throws ReCaptchaException {
+                // Like the downloaders of the apps, which throw on 429 responses
+                if (captchas.getAndDecrement() > 0) {
+                    throw new ReCaptchaException("reCaptcha Challenge requested", request.url());
+                }
+                return new Response(200, "OK", null, "", request.url());
+            }
+        };
+        final RateLimitedDownloader downloader = new RateLimitedDownloader.Builder(delegate)
+                .clock(clock)
+                .build();
+
+        // The exception is rethrown at once, as retrying doesn't solve the captcha
+        assertThrows(ReCaptchaException.class, () -> downloader.get("https://example.com/"));
+        assertEquals(0, clock.nanoTime());
+        assertEquals(1, downloader.getStats().get("example.com").getThrottled());
+
+        // Nor is the host blocked
+        assertEquals(200, downloader.get("https://example.com/").responseCode());
+        assertEquals(0, clock.nanoTime());
+        assertEquals(2, downloader.getStats().get("example.com").getRequests());
+    }
+
+    @Test
+    public void maxConcurrencyTest() throws Exception {
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final Downloader delegate = new Downloader() {
+            @Override
+            public Response execute(final Request request) throws IOException {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (final InterruptedException e) {
+                    throw new InterruptedIOException();
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+                return new Response(200, "OK", null, "", request.url());
+            }
+        };
+        final RateLimitedDownloader downloader = new RateLimitedDownloader.Builder(delegate)
+                .hostLimit("example.com", new HostLimit(2, Double.POSITIVE_INFINITY, 1))
+                .build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            final List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> downloader.get("https://example.com/")));
+            }
+            for (final Future<Response> future : futures) {
+                assertEquals(200, future.get().responseCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(maxConcurrent.get() <= 2, "max concurrent requests: " + maxConcurrent);
+        assertEquals(6, downloader.getStats().get("example.com").getRequests());
+    }
+}
@@ -0,0 +1,249 @@
+package org.schabi.newpipe.extractor.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.FakeService;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.subscription.SubscriptionItem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+public class FeedRefresherTest {
+    private static final ExtractorContext CONTEXT = OfflineDownloader.context();
+
+    /**
+     * A service whose feeds have a single item named after their URL. Fetching a feed whose URL
+     * contains "fail" fails, and fetching any feed waits until the service is released.
+     */
+    private static class FeedService extends FakeService {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final CountDownLatch released;
+
+        FeedService(final int id, final boolean released) {
+            super(id);
+            this.released = new CountDownLatch(released ? 0 : 1);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public FeedExtractor getFeedExtractor(final String url) {
+            return new FeedExtractor(this, new ListLinkHandler(url, url, url,
+                    Collections.emptyList(), "")) {
+                @Override
+                public void onFetchPage(@Nonnull final Downloader downloader)
+                        throws IOException, ExtractionException {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        if (!released.await(10, TimeUnit.SECONDS)) {
+                            throw new IOException("Not released");
+                        }
+                    } catch (final InterruptedException e) {
+                        throw new InterruptedIOException();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    if (url.contains("fail")) {
+                        throw new IOException("Could not fetch " + url);
+                    }
+                }
+
+                @Nonnull
+                @Override
+                public String getName() {
+                    return url;
+                }
+
+                @Nonnull
+                @Override
+                public InfoItemsPage<StreamInfoItem> getInitialPage() {
+                    return new InfoItemsPage<>(Collections.singletonList(
+                            new StreamInfoItem(getServiceId(), url + "/video", url, null)),
+                            null, Collections.emptyList());
+                }
+
+                @Override
+                public InfoItemsPage<StreamInfoItem> getPage(final Page page) {
+                    return InfoItemsPage.emptyPage();
+                }
+            };
+        }
+    }
+
+    /**
+     * A service without feeds.
+     */
+    private static final class FeedlessService extends FakeService {
+        FeedlessService(final int id) {
+            super(id);
+        }
+    }
+
+    private static class RecordingSink implements FeedRefresher.Sink {
+        private final List<String> feeds = new ArrayList<>();
+        private final Map<String, Throwable> errors = new ConcurrentHashMap<>();
+
+        @Override
+        public void onFeed(@Nonnull final SubscriptionItem subscription,
+                           @Nonnull final FeedInfo info,
+                           @Nonnull final Duration latency) {
+            assertEquals(subscription.getUrl(), info.getName());
+            assertEquals(1, info.getRelatedItems().size());
+            feeds.add(subscription.getUrl());
+        }
+
+        @Override
+        public void onError(@Nonnull final SubscriptionItem subscription,
+                            @Nonnull final Throwable error,
+                            @Nonnull final Duration latency) {
+            errors.put(subscription.getUrl(), error);
+        }
+    }
+
+    private static List<SubscriptionItem> subscriptions(final StreamingService service,
+                                                        final String prefix,
+                                                        final int count) {
+        final List<SubscriptionItem> subscriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            subscriptions.add(new SubscriptionItem(service.getServiceId(), prefix + i, ""));
+        }
+        return subscriptions;
+    }
+
+    @Test
+    void testRefreshesAllSubscriptions() throws Exception {
+        final FeedService fake = new FeedService(100, true);
+        final FeedlessService feedless = new FeedlessService(101);
+        final List<SubscriptionItem> subscriptions = new ArrayList<>(
+                subscriptions(fake, "a", 10));
+        subscriptions.add(new SubscriptionItem(fake.getServiceId(), "fail", ""));
+        subscriptions.add(new SubscriptionItem(feedless.getServiceId(), "feedless", ""));
+        subscriptions.add(new SubscriptionItem(102, "unknown", ""));
+
+        final RecordingSink sink = new RecordingSink();
+        final FeedRefresher.Result result = CONTEXT.run(() -> new FeedRefresher.Builder()
+                .services(Arrays.asList(fake, feedless))
+                .parallelism(3)
+                .build()
+                .refresh(subscriptions, sink));
+
+        assertEquals(10, sink.feeds.size());
+        assertEquals(3, sink.errors.size());
+        assertInstanceOf(IOException.class, sink.errors.get("fail"));
+        assertInstanceOf(IllegalArgumentException.class, sink.errors.get("feedless"));
+        assertInstanceOf(ExtractionException.class, sink.errors.get("unknown"));
+
+        assertEquals(10, result.getRefreshedCount());
+        assertEquals(3, result.getFailedCount());
+        final FeedRefresher.ServiceStats stats = result.getServiceStats().get(100);
+        assertEquals(10, stats.getRefreshedCount());
+        assertEquals(1, stats.getFailedCount());
+        assertTrue(stats.getMaxLatency().compareTo(stats.getAverageLatency()) >= 0);
+        assertEquals(1, result.getServiceStats().get(101).getFailedCount());
+        assertEquals(1, result.getServiceStats().get(102).getFailedCount());
+    }
+
+    @Test
+    void testSlowServiceDoesNotStarveTheOthers() {
+        final FeedService slow = new FeedService(100, false);
+        final FeedService fast = new FeedService(101, true);
+        final List<SubscriptionItem> subscriptions = new ArrayList<>(
+                subscriptions(slow, "slow", 10));
+        subscriptions.addAll(subscriptions(fast, "fast", 10));
+
+        final RecordingSink sink = new RecordingSink() {
+            @Override
+            public void onFeed(@Nonnull final SubscriptionItem subscription,
+                               @Nonnull final FeedInfo info,
+                               @Nonnull final Duration latency) {
+                super.onFeed(subscription, info, latency);
+                if (subscription.getUrl().equals("fast9")) {
+                    // All the feeds of the fast service were refreshed while the slow one hung
+                    assertEquals(10, super.feeds.size());
+                    slow.release();
+                }
+            }
+        };
+
+        final FeedRefresher.Result result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> CONTEXT.run(() -> new FeedRefresher.Builder()
+                        .services(Arrays.asList(slow, fast))
+                        .parallelism(4)
+                        .serviceParallelism(3)
+                        .serviceParallelism(fast, 1)
+                        .build()
+                        .refresh(subscriptions, sink)));
+
+        assertEquals(20, result.getRefreshedCount());
+        assertEquals(3, slow.maxRunning.get());
+        assertEquals(1, fast.maxRunning.get());
+    }
+
+    @Test
+    void testSlowSinkLimitsPendingFetches() throws Exception {
+        final FeedService fake = new FeedService(100, true);
+        final AtomicInteger delivered = new AtomicInteger();
+        final AtomicInteger maxUndelivered = new AtomicInteger();
+        final FeedService counting = new FeedService(100, true) {
+            @Override
+            public FeedExtractor getFeedExtractor(final String url) {
+                maxUndelivered.accumulateAndGet(
+                        Integer.parseInt(url.substring(1)) + 1 - delivered.get(), Math::max);
+                return fake.getFeedExtractor(url);
+            }
+        };
+
+        final RecordingSink sink = new RecordingSink() {
+            @Override
+            public void onFeed(@Nonnull final SubscriptionItem subscription,
+                               @Nonnull final FeedInfo info,
+                               @Nonnull final Duration latency) {
+                super.onFeed(subscription, info, latency);
+                try {
+                    Thread.sleep(5);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.incrementAndGet();
+            }
+        };
+
+        CONTEXT.run(() -> new FeedRefresher.Builder()
+                .services(Collections.singletonList(counting))
+                .parallelism(2)
+                .serviceParallelism(2)
+                .build()
+                .refresh(subscriptions(counting, "s", 20), sink));
+
+        assertEquals(20, sink.feeds.size());
+        // At most parallelism feeds are fetched but not delivered yet
+        assertTrue(maxUndelivered.get() <= 2, String.valueOf(maxUndelivered.get()));
+    }
+}
@@ -0,0 +1,252 @@
+package org.schabi.newpipe.extractor.kiosk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.FakeService;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.services.bandcamp.linkHandler.BandcampFeaturedLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import static org.schabi.newpipe.extractor.services.bandcamp.extractors.BandcampFeaturedExtractor.FEATURED_API_URL;
+import static org.schabi.newpipe.extractor.services.bandcamp.extractors.BandcampFeaturedExtractor.KIOSK_FEATURED;
+
+public class KioskSnapshotCacheTest {
+    private static final ExtractorContext CONTEXT = OfflineDownloader.context();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor();
+
+    /**
+     * A service with a single kiosk, whose snapshots are numbered in its name.
+     */
+    private static final class KioskService extends FakeService {
+        private final AtomicInteger fetches = new AtomicInteger();
+        /**
+         * Released each time a snapshot is fetched.
+         */
+        private final Semaphore fetched = new Semaphore(0);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public List<ContentCountry> getSupportedCountries() {
+            return List.of(ContentCountry.DEFAULT, new ContentCountry("DE"));
+        }
+
+        @Override
+        public KioskList getKioskList() throws ExtractionException {
+            final KioskList list = new KioskList(this);
+            try {
+                list.addKioskEntry((service, url, kioskId) -> new KioskExtractor<StreamInfoItem>(
+                        service, new BandcampFeaturedLinkHandlerFactory().fromUrl(url), kioskId) {
+                    private String name;
+
+                    @Override
+                    public void onFetchPage(@Nonnull final Downloader downloader)
+                            throws IOException {
+                        try {
+                            gate.await();
+                        } catch (final InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                        name = "Snapshot " + fetches.incrementAndGet();
+                        fetched.release();
+                    }
+
+                    @Nonnull
+                    @Override
+                    public String getName() {
+                        return name;
+                    }
+
+                    @Nonnull
+                    @Override
+                    public InfoItemsPage<StreamInfoItem> getInitialPage() {
+                        return new InfoItemsPage<>(Collections.emptyList(), null,
+                                Collections.emptyList());
+                    }
+
+                    @Override
+                    public InfoItemsPage<StreamInfoItem> getPage(final Page page) {
+                        return InfoItemsPage.emptyPage();
+                    }
+                }, new BandcampFeaturedLinkHandlerFactory(), KIOSK_FEATURED);
+            } catch (final Exception e) {
+                throw new ExtractionException(e);
+            }
+            return list;
+        }
+    }
+
+    private static KioskInfo get(final KioskSnapshotCache cache, final KioskService service)
+            throws Exception {
+        return CONTEXT.run(() -> cache.getInfo(service, FEATURED_API_URL));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+        refresher.shutdownNow();
+    }
+
+    @Test
+    public void freshAndStaleSnapshotsTest() throws Exception {
+        final KioskService service = new KioskService();
+        final AtomicLong nanos = new AtomicLong();
+        final KioskSnapshotCache cache = new KioskSnapshotCache.Builder()
+                .ttl(Duration.ofMinutes(1))
+                .maxStale(Duration.ofMinutes(10))
+                .hotRequests(100)
+                .scheduler(scheduler)
+                .executor(refresher)
+                .nanoClock(nanos::get)
+                .build();
+
+        final KioskInfo first = get(cache, service);
+        assertEquals("Snapshot 1", first.getName());
+        assertSame(first, get(cache, service));
+        assertEquals(1, service.fetches.get());
+        service.fetched.acquire();
+
+        // The stale snapshot is returned while a new one is fetched in the background
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertSame(first, get(cache, service));
+        assertTrue(service.fetched.tryAcquire(5, TimeUnit.SECONDS));
+        refresher.submit(() -> { }).get();
+        assertEquals("Snapshot 2", get(cache, service).getName());
+
+        // A snapshot which is too stale is not returned
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        assertEquals("Snapshot 3", get(cache, service).getName());
+        assertEquals(3, service.fetches.get());
+    }
+
+    @Test
+    public void staleSnapshotRefreshedOnceTest() throws Exception {
+        final KioskService service = new KioskService();
+        final AtomicLong nanos = new AtomicLong();
+        final KioskSnapshotCache cache = new KioskSnapshotCache.Builder()
+                .ttl(Duration.ofMinutes(1))
+                .maxStale(Duration.ofMinutes(10))
+                .hotRequests(100)
+                .scheduler(scheduler)
+                .executor(refresher)
+                .nanoClock(nanos::get)
+                .build();
+
+        final KioskInfo first = get(cache, service);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        // While the executor is busy, the stale hits all return the stale snapshot and share a
+        // single pending refresh
+        final CountDownLatch busy = new CountDownLatch(1);
+        refresher.execute(() -> {
+            try {
+                busy.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, get(cache, service));
+        }
+        busy.countDown();
+        refresher.submit(() -> { }).get();
+
+        assertEquals("Snapshot 2", get(cache, service).getName());
+        assertEquals(2, service.fetches.get());
+    }
+
+    @Test
+    public void contentCountryTest() throws Exception {
+        final KioskService service = new KioskService();
+        final KioskSnapshotCache cache = new KioskSnapshotCache.Builder()
+                .scheduler(scheduler)
+                .build();
+
+        final KioskInfo defaultCountry = get(cache, service);
+        final KioskInfo germany = CONTEXT.toBuilder()
+                .contentCountry(new ContentCountry("DE"))
+                .build()
+                .run(() -> cache.getInfo(service, FEATURED_API_URL));
+
+        assertNotSame(defaultCountry, germany);
+        assertSame(defaultCountry, get(cache, service));
+        assertEquals(2, cache.size());
+        assertEquals(2, service.fetches.get());
+    }
+
+    @Test
+    public void concurrentRequestsShareFetchTest() throws Exception {
+        final KioskService service = new KioskService();
+        service.gate = new CountDownLatch(1);
+        final KioskSnapshotCache cache = new KioskSnapshotCache.Builder()
+                .scheduler(scheduler)
+                .build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<KioskInfo> first = executor.submit(() -> get(cache, service));
+            final Future<KioskInfo> second = executor.submit(() -> get(cache, service));
+            // Let both requests reach the cache before the snapshot is fetched
+            Thread.sleep(100);
+            service.gate.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, service.fetches.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void hotKioskRefreshTest() throws Exception {
+        final KioskService service = new KioskService();
+        final KioskSnapshotCache cache = new KioskSnapshotCache.Builder()
+                .ttl(Duration.ofMillis(100))
+                .hotRequests(2)
+                .scheduler(scheduler)
+                .build();
+
+        // The first request fetches the snapshot, the second one makes the kiosk hot
+        get(cache, service);
+        get(cache, service);
+        get(cache, service);
+
+        // The kiosk is refreshed when its snapshot expires, and once more as the first snapshot
+        // was hot, then it is not hot anymore as the second one was not requested
+        assertTrue(service.fetched.tryAcquire(3, 5, TimeUnit.SECONDS));
+        Thread.sleep(400);
+        assertEquals(3, service.fetches.get());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
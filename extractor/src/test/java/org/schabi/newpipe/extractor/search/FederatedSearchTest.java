@@ -0,0 +1,145 @@
+package org.schabi.newpipe.extractor.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.FakeService;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.MetaInfo;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.StreamingService;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+public class FederatedSearchTest {
+    private static final ExtractorContext CONTEXT = OfflineDownloader.context();
+
+    /**
+     * A service whose search returns the given number of results after the given delay, or fails
+     * if the number is negative.
+     */
+    private static final class SearchService extends FakeService {
+        private final int results;
+        private final long delayMillis;
+
+        SearchService(final int id, final int results, final long delayMillis) {
+            super(id);
+            this.results = results;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public SearchExtractor getSearchExtractor(final SearchQueryHandler queryHandler) {
+            return new SearchExtractor(this, queryHandler) {
+                @Override
+                public void onFetchPage(@Nonnull final Downloader downloader)
+                        throws IOException {
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (final InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                    if (results < 0) {
+                        throw new IOException("Service " + getServiceId() + " is down");
+                    }
+                }
+
+                @Nonnull
+                @Override
+                public String getSearchSuggestion() {
+                    return "";
+                }
+
+                @Override
+                public boolean isCorrectedSearch() {
+                    return false;
+                }
+
+                @Nonnull
+                @Override
+                public List<MetaInfo> getMetaInfo() {
+                    return Collections.emptyList();
+                }
+
+                @Nonnull
+                @Override
+                public InfoItemsPage<InfoItem> getInitialPage() {
+                    final List<InfoItem> items = new ArrayList<>();
+                    for (int i = 0; i < results; i++) {
+                        items.add(new StreamInfoItem(getServiceId(), "",
+                                getServiceId() + "/" + i, StreamType.VIDEO_STREAM));
+                    }
+                    return new InfoItemsPage<>(items, null, Collections.emptyList());
+                }
+
+                @Override
+                public InfoItemsPage<InfoItem> getPage(final Page page) {
+                    return InfoItemsPage.emptyPage();
+                }
+            };
+        }
+    }
+
+    private static List<String> names(final List<InfoItem> items) {
+        return items.stream().map(InfoItem::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void interleavedResultsTest() throws Exception {
+        final StreamingService first = new SearchService(100, 3, 0);
+        final StreamingService second = new SearchService(101, 1, 50);
+        final FederatedSearch.Result result = CONTEXT.run(() -> new FederatedSearch.Builder()
+                .services(List.of(first, second))
+                .build()
+                .search("test"));
+
+        assertTrue(result.isComplete());
+        assertEquals(List.of("100/0", "101/0", "100/1", "100/2"), names(result.getItems()));
+        assertEquals("test", result.getInfos().get(second).getSearchString());
+    }
+
+    @Test
+    public void partialResultsTest() throws Exception {
+        final StreamingService fast = new SearchService(100, 2, 0);
+        final StreamingService slow = new SearchService(101, 2, 10_000);
+        final StreamingService failing = new SearchService(102, -1, 0);
+        final long start = System.nanoTime();
+        final FederatedSearch.Result result = CONTEXT.run(() -> new FederatedSearch.Builder()
+                .services(List.of(fast, slow, failing))
+                .serviceTimeout(slow, Duration.ofMillis(100))
+                .ranker((query, results) -> {
+                    final List<InfoItem> items = new ArrayList<>();
+                    results.values().forEach(items::addAll);
+                    Collections.reverse(items);
+                    return items;
+                })
+                .build()
+                .search("test"));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertFalse(result.isComplete());
+        assertEquals(List.of("100/1", "100/0"), names(result.getItems()));
+        assertEquals(List.of(fast), new ArrayList<>(result.getInfos().keySet()));
+        assertInstanceOf(TimeoutException.class, result.getErrors().get(slow));
+        assertInstanceOf(IOException.class, result.getErrors().get(failing));
+    }
+}
@@ -0,0 +1,162 @@
+package org.schabi.newpipe.extractor.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.FakeService;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.MetaInfo;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.linkhandler.SearchQueryHandler;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+public class SearchResultCacheTest {
+    private static final ExtractorContext CONTEXT = OfflineDownloader.context();
+
+    /**
+     * A service whose searches return no results, counting the pages fetched.
+     */
+    private static final class SearchService extends FakeService {
+        private final AtomicInteger initialPages = new AtomicInteger();
+        private final AtomicInteger morePages = new AtomicInteger();
+
+        @Override
+        public SearchExtractor getSearchExtractor(final SearchQueryHandler queryHandler) {
+            return new SearchExtractor(this, queryHandler) {
+                @Override
+                public void onFetchPage(@Nonnull final Downloader downloader) {
+                }
+
+                @Nonnull
+                @Override
+                public String getSearchSuggestion() {
+                    return "";
+                }
+
+                @Override
+                public boolean isCorrectedSearch() {
+                    return false;
+                }
+
+                @Nonnull
+                @Override
+                public List<MetaInfo> getMetaInfo() {
+                    return Collections.emptyList();
+                }
+
+                @Nonnull
+                @Override
+                public InfoItemsPage<InfoItem> getInitialPage() {
+                    initialPages.incrementAndGet();
+                    return new InfoItemsPage<>(Collections.emptyList(), new Page("page/1"),
+                            Collections.emptyList());
+                }
+
+                @Override
+                public InfoItemsPage<InfoItem> getPage(final Page page) {
+                    morePages.incrementAndGet();
+                    return new InfoItemsPage<>(Collections.emptyList(), null,
+                            Collections.emptyList());
+                }
+            };
+        }
+    }
+
+    private static SearchQueryHandler query(final String searchString,
+                                            final String... contentFilters) {
+        return new SearchQueryHandler("", "", searchString, List.of(contentFilters), "");
+    }
+
+    @Test
+    public void normalizedQueryTest() throws Exception {
+        final SearchService service = new SearchService();
+        final SearchResultCache cache = new SearchResultCache.Builder().build();
+
+        CONTEXT.run(() -> {
+            final SearchInfo info = cache.getInfo(service, query("  Never gonna\tgive "));
+            assertSame(info, cache.getInfo(service, query("  Never gonna\tgive ")));
+
+            // Other spellings get the cached results with their own search string
+            final SearchInfo other = cache.getInfo(service, query("never GONNA give"));
+            assertEquals("never GONNA give", other.getSearchString());
+            assertSame(info.getRelatedItems(), other.getRelatedItems());
+            assertEquals(info.getNextPage().getUrl(), other.getNextPage().getUrl());
+            assertNotSame(info, cache.getInfo(service, query("never gonna give", "tracks")));
+            assertEquals(2, service.initialPages.get());
+            return null;
+        });
+    }
+
+    @Test
+    public void morePagesTest() throws Exception {
+        final SearchService service = new SearchService();
+        final SearchResultCache cache = new SearchResultCache.Builder().build();
+
+        CONTEXT.run(() -> {
+            final InfoItemsPage<InfoItem> page =
+                    cache.getMoreItems(service, query("test"), new Page("page/1"));
+            assertSame(page, cache.getMoreItems(service, query("Test"), new Page("page/1")));
+            cache.getMoreItems(service, query("test"), new Page("page/2"));
+            assertEquals(2, service.morePages.get());
+
+            cache.getInfo(service, query("test"));
+            cache.getInfo(service, query("other"));
+            assertEquals(4, cache.size());
+
+            // Invalidating a query removes its continuation pages too
+            cache.invalidate(service, query("test"));
+            assertEquals(1, cache.size());
+            cache.getMoreItems(service, query("test"), new Page("page/1"));
+            assertEquals(3, service.morePages.get());
+            return null;
+        });
+    }
+
+    @Test
+    public void ttlAndLruTest() throws Exception {
+        final SearchService service = new SearchService();
+        final AtomicLong nanos = new AtomicLong();
+        final SearchResultCache cache = new SearchResultCache.Builder()
+                .maxEntries(2)
+                .ttl(Duration.ofMinutes(1))
+                .nanoClock(nanos::get)
+                .build();
+
+        CONTEXT.run(() -> {
+            cache.getInfo(service, query("a"));
+            cache.getInfo(service, query("b"));
+            // "a" becomes the most recently used one, so "b" is evicted
+            cache.getInfo(service, query("a"));
+            cache.getInfo(service, query("c"));
+            assertEquals(3, service.initialPages.get());
+            cache.getInfo(service, query("a"));
+            assertEquals(3, service.initialPages.get());
+            cache.getInfo(service, query("b"));
+            assertEquals(4, service.initialPages.get());
+
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+            cache.getInfo(service, query("b"));
+            assertEquals(5, service.initialPages.get());
+            return null;
+        });
+    }
+
+    @Test
+    public void normalizeSearchStringTest() {
+        assertEquals("rick astley", SearchResultCache.normalizeSearchString(" Rick \n Astley "));
+    }
+}
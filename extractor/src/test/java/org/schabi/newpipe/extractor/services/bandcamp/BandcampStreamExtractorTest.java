@@ -160,7 +160,8 @@ public class BandcampStreamExtractorTest extends DefaultStreamExtractorTest {
         // To add tests: look at website's source, search for `band_id` and `item_id`
         assertEquals(
                 "https://teaganbear.bandcamp.com/track/just-for-the-halibut-creative-commons-attribution",
-                BandcampExtractorHelper.getStreamUrlFromIds(3877364987L, 3486455278L, "track")
+                BandcampExtractorHelper.getStreamUrlFromIds(NewPipe.getDownloader(),
+                        3877364987L, 3486455278L, "track")
         );
     }
 
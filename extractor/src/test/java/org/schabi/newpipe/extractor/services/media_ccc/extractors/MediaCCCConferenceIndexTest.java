@@ -0,0 +1,112 @@
+package org.schabi.newpipe.extractor.services.media_ccc.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.localization.Localization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class MediaCCCConferenceIndexTest {
+    private static final String CONFERENCES = "{\"conferences\":["
+            + "{\"acronym\":\"36c3\",\"title\":\"36C3: Resource Exhaustion\","
+            + "\"url\":\"https://api.media.ccc.de/public/conferences/36c3\"},"
+            + "{\"acronym\":\"camp2019\",\"title\":\"Chaos Communication Camp 2019\","
+            + "\"url\":\"https://api.media.ccc.de/public/conferences/camp2019\"},"
+            + "{\"acronym\":\"akademy2021\",\"title\":\"KDE Akademy 2021\","
+            + "\"url\":\"https://api.media.ccc.de/public/conferences/akademy2021\"},"
+            + "{\"acronym\":\"gpn19\",\"title\":\"GPN19 - Gulaschprogrammiernacht\","
+            + "\"url\":\"https://api.media.ccc.de/public/conferences/gpn19\"},"
+            + "{\"acronym\":\"jev22\",\"title\":\"Über den Tellerrand: Jahresendveranstaltungen\","
+            + "\"url\":\"https://api.media.ccc.de/public/conferences/jev22\"}"
+            + "]}";
+
+    private static MediaCCCConferenceIndex.Index index() throws Exception {
+        return new MediaCCCConferenceIndex.Index(
+                JsonParser.object().from(CONFERENCES).getArray("conferences"));
+    }
+
+    private static List<String> titles(final List<JsonObject> conferences) {
+        return conferences.stream()
+                .map(conference -> conference.getString("title"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void wordAndPrefixSearchTest() throws Exception {
+        final MediaCCCConferenceIndex.Index index = index();
+
+        assertEquals(List.of("Chaos Communication Camp 2019"), titles(index.search("camp")));
+        assertEquals(List.of("Chaos Communication Camp 2019"),
+                titles(index.search("  CHAOS comm")));
+        assertEquals(List.of("36C3: Resource Exhaustion", "Chaos Communication Camp 2019",
+                "GPN19 - Gulaschprogrammiernacht"), titles(index.search("c")));
+        assertEquals(List.of("KDE Akademy 2021"), titles(index.search("kde 2021")));
+        assertEquals(List.of("Über den Tellerrand: Jahresendveranstaltungen"),
+                titles(index.search("über")));
+        // Acronyms are indexed too
+        assertEquals(List.of("Über den Tellerrand: Jahresendveranstaltungen"),
+                titles(index.search("jev")));
+        assertTrue(index.search("kde camp").isEmpty());
+        assertTrue(index.search("nothing").isEmpty());
+        assertEquals(5, index.search(" ").size());
+    }
+
+    @Test
+    public void substringParityTest() throws Exception {
+        final MediaCCCConferenceIndex.Index index = index();
+
+        // A single word matches the same conferences as the previous substring search on titles
+        for (final String query : List.of("c3", "36c3", "CHAOS", "2019", "nacht", "gpn", "2021",
+                "exhaustion", "a", "1", "über", "zzz")) {
+            final List<String> expected = index.getConferences().stream()
+                    .map(conference -> conference.getString("title"))
+                    .filter(title -> title.toUpperCase(Locale.ROOT)
+                            .contains(query.toUpperCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+            final List<String> actual = titles(index.search(query));
+            // Acronyms are indexed too, so there may be more matches
+            assertTrue(actual.containsAll(expected), query + ": " + actual);
+        }
+    }
+
+    @Test
+    public void fetchedOnceTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(CONFERENCES);
+        final AtomicLong nanos = new AtomicLong();
+        final List<Runnable> rebuilds = new ArrayList<>();
+        final MediaCCCConferenceIndex conferenceIndex =
+                new MediaCCCConferenceIndex(nanos::get, rebuilds::add);
+
+        assertEquals(1, conferenceIndex.search(downloader, Localization.DEFAULT, "kde").size());
+        assertEquals(1, conferenceIndex.search(downloader, Localization.DEFAULT, "gpn").size());
+        assertEquals(List.of(MediaCCCConferenceIndex.CONFERENCES_URL), downloader.getUrls());
+
+        // Outdated indexes are still searched while a single rebuild runs in the background
+        nanos.addAndGet(MediaCCCConferenceIndex.TTL_NANOS);
+        assertEquals(1, conferenceIndex.search(downloader, Localization.DEFAULT, "36c3").size());
+        assertEquals(1, conferenceIndex.search(downloader, Localization.DEFAULT, "jev").size());
+        assertEquals(1, rebuilds.size());
+        assertEquals(1, downloader.getRequests());
+
+        rebuilds.remove(0).run();
+        assertEquals(2, downloader.getRequests());
+        assertEquals(1, conferenceIndex.search(downloader, Localization.DEFAULT, "camp").size());
+        assertTrue(rebuilds.isEmpty());
+    }
+
+    @Test
+    public void tokenizeTest() {
+        assertEquals(List.of("36c3", "resource", "exhaustion"),
+                MediaCCCConferenceIndex.tokenize("36C3: Resource-Exhaustion!"));
+        assertTrue(MediaCCCConferenceIndex.tokenize(" - ").isEmpty());
+    }
+}
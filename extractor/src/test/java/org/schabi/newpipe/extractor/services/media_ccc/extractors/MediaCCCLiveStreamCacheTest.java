@@ -0,0 +1,130 @@
+package org.schabi.newpipe.extractor.services.media_ccc.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.localization.Localization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MediaCCCLiveStreamCacheTest {
+    private static final String LIVE_STREAMS = "[{\"conference\":\"Conference\","
+            + "\"slug\":\"conf\",\"groups\":[{\"group\":\"Lecture rooms\",\"rooms\":["
+            + "{\"slug\":\"hall1\",\"display\":\"Hall 1\"},"
+            + "{\"slug\":\"hall2\",\"display\":\"Hall 2\"}]}]},"
+            + "{\"conference\":\"Other\",\"slug\":\"other\",\"groups\":[{\"group\":\"Live\","
+            + "\"rooms\":[{\"slug\":\"stage\",\"display\":\"Stage\"}]}]}]";
+
+    @Test
+    public void roomIndexTest() throws Exception {
+        final MediaCCCLiveStreamCache cache =
+                new MediaCCCLiveStreamCache(System::nanoTime, Runnable::run);
+        final MediaCCCLiveStreamCache.LiveStreams liveStreams =
+                cache.get(ScriptedDownloader.returning(LIVE_STREAMS), Localization.DEFAULT);
+
+        assertEquals(2, liveStreams.getJson().size());
+        assertEquals(3, liveStreams.getRooms().size());
+        assertEquals("hall1", liveStreams.getRooms().get(0).getRoom().getString("slug"));
+
+        final MediaCCCLiveStreamCache.Room room = liveStreams.getRoom("conf/hall2");
+        assertEquals("Hall 2", room.getRoom().getString("display"));
+        assertEquals("Conference", room.getConference().getString("conference"));
+        assertEquals("Lecture rooms", room.getGroup());
+        assertEquals("Stage", liveStreams.getRoom("other/stage").getRoom().getString("display"));
+        assertNull(liveStreams.getRoom("conf/stage"));
+    }
+
+    @Test
+    public void ttlAndStaleTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(LIVE_STREAMS);
+        final AtomicLong nanos = new AtomicLong();
+        final List<Runnable> refreshes = new ArrayList<>();
+        final MediaCCCLiveStreamCache cache =
+                new MediaCCCLiveStreamCache(nanos::get, refreshes::add);
+
+        final MediaCCCLiveStreamCache.LiveStreams first =
+                cache.get(downloader, Localization.DEFAULT);
+        assertSame(first, cache.get(downloader, Localization.DEFAULT));
+        assertEquals(1, downloader.getRequests());
+
+        // Outdated live streams are still returned while they are fetched again in the background
+        nanos.addAndGet(MediaCCCLiveStreamCache.TTL_NANOS);
+        assertSame(first, cache.get(downloader, Localization.DEFAULT));
+        assertSame(first, cache.get(downloader, Localization.DEFAULT));
+        assertEquals(1, refreshes.size());
+        assertEquals(1, downloader.getRequests());
+
+        refreshes.remove(0).run();
+        final MediaCCCLiveStreamCache.LiveStreams second =
+                cache.get(downloader, Localization.DEFAULT);
+        assertNotSame(first, second);
+        assertEquals(2, downloader.getRequests());
+
+        // The previous live streams are returned if fetching new ones fails...
+        downloader.setFailing(true);
+        nanos.addAndGet(MediaCCCLiveStreamCache.TTL_NANOS);
+        assertSame(second, cache.get(downloader, Localization.DEFAULT));
+        refreshes.remove(0).run();
+        assertEquals(3, downloader.getRequests());
+
+        // ...unless they are too old
+        nanos.addAndGet(MediaCCCLiveStreamCache.MAX_STALE_NANOS);
+        assertThrows(ExtractionException.class,
+                () -> cache.get(downloader, Localization.DEFAULT));
+    }
+
+    @Test
+    public void singleFlightRefreshTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(LIVE_STREAMS);
+        final AtomicLong nanos = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final MediaCCCLiveStreamCache cache = new MediaCCCLiveStreamCache(nanos::get, executor);
+
+        try {
+            // Concurrent requests of live streams which are not cached share the same request
+            final CountDownLatch fetch = downloader.hold();
+            final Future<MediaCCCLiveStreamCache.LiveStreams> first =
+                    executor.submit(() -> cache.get(downloader, Localization.DEFAULT));
+            final Future<MediaCCCLiveStreamCache.LiveStreams> second =
+                    executor.submit(() -> cache.get(downloader, Localization.DEFAULT));
+            Thread.sleep(100);
+            fetch.countDown();
+            final MediaCCCLiveStreamCache.LiveStreams liveStreams = first.get(5, TimeUnit.SECONDS);
+            assertSame(liveStreams, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, downloader.getRequests());
+
+            // While outdated live streams are fetched again, they are returned to all requests
+            nanos.addAndGet(MediaCCCLiveStreamCache.TTL_NANOS);
+            final CountDownLatch refresh = downloader.hold();
+            assertSame(liveStreams, cache.get(downloader, Localization.DEFAULT));
+            while (downloader.getRequests() < 2) {
+                Thread.sleep(10);
+            }
+            assertSame(liveStreams, cache.get(downloader, Localization.DEFAULT));
+            refresh.countDown();
+
+            MediaCCCLiveStreamCache.LiveStreams refreshed = liveStreams;
+            for (int i = 0; i < 500 && refreshed == liveStreams; i++) {
+                Thread.sleep(10);
+                refreshed = cache.get(downloader, Localization.DEFAULT);
+            }
+            assertNotSame(liveStreams, refreshed);
+            assertEquals(2, downloader.getRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
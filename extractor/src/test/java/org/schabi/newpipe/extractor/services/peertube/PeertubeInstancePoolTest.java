@@ -0,0 +1,168 @@
+package org.schabi.newpipe.extractor.services.peertube;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeSearchQueryHandlerFactory;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeTrendingLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class PeertubeInstancePoolTest {
+    private static final PeertubeInstance FIRST = new PeertubeInstance("https://first.example");
+    private static final PeertubeInstance SECOND = new PeertubeInstance("https://second.example");
+    private static final PeertubeInstance THIRD = new PeertubeInstance("https://third.example");
+
+    /**
+     * @param videos the uuids of the videos of each instance, by URL. Instances without videos
+     *               fail.
+     * @param slow   the URLs of the instances which don't respond
+     * @return a downloader returning the given videos for each instance
+     */
+    private static ScriptedDownloader downloader(final Map<String, List<String>> videos,
+                                                 final Set<String> slow) {
+        return new ScriptedDownloader(request -> {
+            final String host = request.url().substring(0, request.url().indexOf("/api/"));
+            if (slow.contains(host)) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (final InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            final List<String> uuids = videos.get(host);
+            if (uuids == null) {
+                throw new IOException(host + " is down");
+            }
+            final String data = uuids.stream()
+                    .map(uuid -> "{\"uuid\":\"" + uuid + "\",\"name\":\"" + uuid + "\","
+                            + "\"thumbnailPath\":\"/thumbnail.jpg\",\"views\":1,"
+                            + "\"account\":{\"name\":\"account\",\"host\":\"first.example\","
+                            + "\"displayName\":\"Account\"},"
+                            + "\"publishedAt\":\"2021-01-01T00:00:00.000Z\","
+                            + "\"isLive\":false,\"duration\":60}")
+                    .collect(Collectors.joining(","));
+            return ScriptedDownloader.ok(request,
+                    "{\"total\":" + uuids.size() + ",\"data\":[" + data + "]}");
+        });
+    }
+
+    private static int requests(final ScriptedDownloader downloader,
+                                final PeertubeInstance instance) {
+        return (int) downloader.getUrls().stream()
+                .filter(url -> url.startsWith(instance.getUrl() + "/api/"))
+                .count();
+    }
+
+    private static List<String> names(final List<? extends InfoItem> items) {
+        return items.stream().map(InfoItem::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void mergedWithoutDuplicatesTest() throws Exception {
+        final ScriptedDownloader downloader = downloader(Map.of(FIRST.getUrl(), List.of("1", "2"),
+                SECOND.getUrl(), List.of("2", "3"), THIRD.getUrl(), List.of("4")), Set.of());
+        // Without latencies, the instances are queried and merged in their order
+        final PeertubeInstancePool pool = new PeertubeInstancePool.Builder()
+                .instances(List.of(FIRST, SECOND, THIRD))
+                .nanoClock(() -> 0)
+                .build();
+
+        final PeertubeInstancePool.Result<InfoItem> result =
+                downloader.context().run(() -> pool.search("test"));
+        assertTrue(result.isComplete());
+        assertEquals(List.of("1", "2", "4", "3"), names(result.getItems()));
+        assertEquals(List.of(FIRST, SECOND, THIRD), List.copyOf(result.getPages().keySet()));
+        // Items link to the instance they were got from
+        assertTrue(result.getItems().get(1).getUrl().startsWith(SECOND.getUrl()));
+
+        final PeertubeInstancePool.Result<StreamInfoItem> trending = downloader.context().run(
+                () -> pool.getKiosk(PeertubeTrendingLinkHandlerFactory.KIOSK_TRENDING));
+        assertEquals(List.of("1", "2", "4", "3"), names(trending.getItems()));
+        assertEquals(2, requests(downloader, FIRST));
+
+        assertThrows(IllegalArgumentException.class, () -> pool.search("test",
+                List.of(PeertubeSearchQueryHandlerFactory.SEPIA_VIDEOS), ""));
+    }
+
+    @Test
+    public void unhealthyInstancesTest() throws Exception {
+        final Map<String, List<String>> videos = new ConcurrentHashMap<>();
+        videos.put(SECOND.getUrl(), List.of("1"));
+        videos.put(THIRD.getUrl(), List.of("2"));
+        final ScriptedDownloader downloader = downloader(videos, Set.of());
+        final AtomicLong nanos = new AtomicLong();
+        final PeertubeInstancePool pool = new PeertubeInstancePool.Builder()
+                .instances(List.of(FIRST, SECOND, THIRD))
+                .fanOut(2)
+                .retryAfter(Duration.ofMinutes(1))
+                .nanoClock(nanos::get)
+                .build();
+        final ExtractorContext context = downloader.context();
+
+        // The first instance fails twice in a row, and is then unhealthy
+        for (int i = 0; i < 2; i++) {
+            final PeertubeInstancePool.Result<InfoItem> result =
+                    context.run(() -> pool.search("test"));
+            assertInstanceOf(IOException.class, result.getErrors().get(FIRST));
+            assertEquals(List.of("1"), names(result.getItems()));
+        }
+        final PeertubeInstancePool.Health health = pool.getHealth().get(FIRST);
+        assertFalse(health.isHealthy());
+        assertEquals(2, health.getRequests());
+        assertEquals(2, health.getFailures());
+        assertTrue(pool.getHealth().get(SECOND).isHealthy());
+
+        // Requests are routed around it...
+        PeertubeInstancePool.Result<InfoItem> result = context.run(() -> pool.search("test"));
+        assertTrue(result.isComplete());
+        assertEquals(List.of("1", "2"), names(result.getItems()));
+        assertEquals(2, requests(downloader, FIRST));
+
+        // ...until it is tried again, which makes it healthy again once it has recovered
+        videos.put(FIRST.getUrl(), List.of("3"));
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        result = context.run(() -> pool.search("test"));
+        assertEquals(List.of("1", "2", "3"), names(result.getItems()));
+        assertEquals(3, requests(downloader, FIRST));
+        assertTrue(pool.getHealth().get(FIRST).isHealthy());
+    }
+
+    @Test
+    public void timeoutTest() throws Exception {
+        final ScriptedDownloader downloader = downloader(
+                Map.of(FIRST.getUrl(), List.of("1"), SECOND.getUrl(), List.of("2")),
+                Set.of(SECOND.getUrl()));
+        final PeertubeInstancePool pool = new PeertubeInstancePool.Builder()
+                .instance(FIRST)
+                .instance(SECOND)
+                .timeout(Duration.ofMillis(200))
+                .build();
+
+        final long start = System.nanoTime();
+        final PeertubeInstancePool.Result<StreamInfoItem> result =
+                downloader.context().run(() -> pool.getChannel("accounts/account@first.example"));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertFalse(result.isComplete());
+        assertEquals(List.of(FIRST), List.copyOf(result.getPages().keySet()));
+        assertInstanceOf(TimeoutException.class, result.getErrors().get(SECOND));
+        assertEquals(1, pool.getHealth().get(SECOND).getFailures());
+    }
+}
@@ -0,0 +1,143 @@
+package org.schabi.newpipe.extractor.services.peertube;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PeertubeInstanceRegistryTest {
+    private static final String CONFIG = "{\"instance\":{\"name\":\"Example\"},"
+            + "\"serverVersion\":\"4.2.1\",\"live\":{\"enabled\":true},"
+            + "\"search\":{\"remoteUri\":{\"users\":true,\"anonymous\":false},"
+            + "\"searchIndex\":{\"enabled\":true,\"url\":\"https://sepiasearch.org\"}}}";
+
+    @Test
+    public void sharedByInstancesTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(CONFIG);
+        final ExtractorContext context = downloader.context();
+        final PeertubeInstance instance = new PeertubeInstance("https://peertube.example");
+        final PeertubeInstance sameInstance = new PeertubeInstance("https://PeerTube.example/");
+
+        assertEquals("PeerTube", context.run(instance::getName));
+        final PeertubeInstanceMetadata metadata = context.run(instance::getMetadata);
+        assertEquals("Example", metadata.getName());
+        assertEquals("https://peertube.example/api/v1", metadata.getApiUrl());
+        assertEquals("4.2.1", metadata.getVersion());
+        assertTrue(metadata.isVersionAtLeast(4, 2));
+        assertFalse(metadata.isVersionAtLeast(4, 3));
+        assertTrue(metadata.supportsShortPaths());
+        assertTrue(metadata.isLiveEnabled());
+        assertFalse(metadata.isRemoteSearchEnabled());
+        assertEquals("https://sepiasearch.org", metadata.getSearchIndexUrl());
+
+        // Other objects of the same instance don't fetch the metadata again
+        assertEquals("Example", context.run(sameInstance::getName));
+        assertSame(metadata, context.run(sameInstance::getMetadata));
+        assertEquals(1, downloader.getRequests());
+        assertEquals(List.of("https://peertube.example/api/v1/config"), downloader.getUrls());
+
+        // Names given explicitly are kept
+        assertEquals("Mine", context.run(
+                () -> new PeertubeInstance("https://peertube.example", "Mine").getName()));
+    }
+
+    @Test
+    public void ttlAndStaleTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(CONFIG);
+        final ExtractorContext context = downloader.context();
+        final AtomicLong nanos = new AtomicLong();
+        final PeertubeInstanceRegistry registry =
+                new PeertubeInstanceRegistry(downloader, nanos::get);
+
+        final PeertubeInstanceMetadata first =
+                context.run(() -> registry.get("https://peertube.example"));
+        assertSame(first, registry.getIfPresent("https://peertube.example"));
+
+        // Outdated metadata are fetched again
+        nanos.addAndGet(PeertubeInstanceRegistry.TTL_NANOS);
+        assertNull(registry.getIfPresent("https://peertube.example"));
+        final PeertubeInstanceMetadata second =
+                context.run(() -> registry.get("https://peertube.example"));
+        assertNotSame(first, second);
+        assertEquals(2, downloader.getRequests());
+
+        // The previous metadata are returned if fetching new ones fails...
+        downloader.setFailing(true);
+        nanos.addAndGet(PeertubeInstanceRegistry.TTL_NANOS);
+        assertSame(second, context.run(() -> registry.get("https://peertube.example")));
+
+        // ...unless they are too old
+        nanos.addAndGet(PeertubeInstanceRegistry.MAX_STALE_NANOS);
+        assertThrows(ExtractionException.class,
+                () -> context.run(() -> registry.get("https://peertube.example")));
+
+        // Failed instances are not kept
+        registry.invalidate("https://peertube.example/");
+        assertEquals(0, registry.size());
+        assertThrows(ExtractionException.class,
+                () -> context.run(() -> registry.get("https://peertube.example")));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void singleFlightTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(CONFIG);
+        final ExtractorContext context = downloader.context();
+        final PeertubeInstanceRegistry registry = new PeertubeInstanceRegistry(downloader,
+                System::nanoTime);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            final CountDownLatch fetch = downloader.hold();
+            final Future<PeertubeInstanceMetadata> first = executor.submit(
+                    () -> context.run(() -> registry.get("https://peertube.example")));
+            final Future<PeertubeInstanceMetadata> second = executor.submit(
+                    () -> context.run(() -> registry.get("https://peertube.example/")));
+            Thread.sleep(100);
+            fetch.countDown();
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, downloader.getRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void caseOfPathKeptTest() throws Exception {
+        final ScriptedDownloader downloader = ScriptedDownloader.returning(CONFIG);
+        final ExtractorContext context = downloader.context();
+        final PeertubeInstanceRegistry registry = new PeertubeInstanceRegistry(downloader,
+                System::nanoTime);
+
+        assertEquals("https://peertube.example/Sub",
+                PeertubeInstanceRegistry.normalize(" HTTPS://PeerTube.Example/Sub/ "));
+
+        // The configuration is fetched with the URL as given...
+        final PeertubeInstanceMetadata metadata =
+                context.run(() -> registry.get("HTTPS://PeerTube.example/Sub/"));
+        assertEquals(List.of("HTTPS://PeerTube.example/Sub/api/v1/config"), downloader.getUrls());
+        assertEquals("HTTPS://PeerTube.example/Sub/api/v1", metadata.getApiUrl());
+
+        // ...while only the case of the scheme and the host is ignored
+        assertSame(metadata, context.run(() -> registry.get("https://peertube.example/Sub")));
+        assertEquals(1, downloader.getRequests());
+        assertNotSame(metadata, context.run(() -> registry.get("https://peertube.example/sub")));
+        assertEquals(2, downloader.getRequests());
+    }
+}
@@ -0,0 +1,148 @@
+package org.schabi.newpipe.extractor.services.peertube.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.ScriptedDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.peertube.PeertubeInstance;
+import org.schabi.newpipe.extractor.services.peertube.PeertubeService;
+import org.schabi.newpipe.extractor.services.peertube.linkHandler.PeertubeStreamLinkHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+import org.schabi.newpipe.extractor.stream.SubtitlesStream;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+public class PeertubeVideoResourcesTest {
+    private static final String BASE_URL = "https://peertube.example";
+    private static final String VIDEO_URL = BASE_URL + "/videos/watch/abc";
+    private static final String API_URL = BASE_URL + "/api/v1/videos/abc";
+    private static final String FULL_DESCRIPTION = "a".repeat(300);
+    private static final PeertubeService SERVICE = new PeertubeService(
+            ServiceList.PeerTube.getServiceId(), new PeertubeInstance(BASE_URL));
+
+    /**
+     * @param failingCaptions whether requests of the captions fail
+     * @return a downloader returning a video with a shortened description, its full description
+     * and its captions
+     */
+    private static ScriptedDownloader downloader(final BooleanSupplier failingCaptions) {
+        return new ScriptedDownloader(request -> {
+            switch (request.url()) {
+                case API_URL:
+                    return ScriptedDownloader.ok(request, "{\"uuid\":\"abc\",\"description\":\""
+                            + FULL_DESCRIPTION.substring(0, 247) + "...\"}");
+                case API_URL + "/description":
+                    return ScriptedDownloader.ok(request,
+                            "{\"description\":\"" + FULL_DESCRIPTION + "\"}");
+                case API_URL + "/captions":
+                    if (failingCaptions.getAsBoolean()) {
+                        throw new IOException("Failing on purpose");
+                    }
+                    return ScriptedDownloader.ok(request, "{\"total\":1,\"data\":[{\"captionPath\":"
+                            + "\"/lazy-static/video-captions/abc-en.vtt\","
+                            + "\"language\":{\"id\":\"en\",\"label\":\"English\"}}]}");
+                default:
+                    throw new IOException("Unexpected request " + request.url());
+            }
+        });
+    }
+
+    private static StreamExtractor fetchedExtractor(final ExtractorContext context)
+            throws Exception {
+        return context.run(() -> {
+            final StreamExtractor extractor = SERVICE.getStreamExtractor(
+                    PeertubeStreamLinkHandlerFactory.getInstance().fromUrl(VIDEO_URL));
+            extractor.fetchPage();
+            return extractor;
+        });
+    }
+
+    @Test
+    public void lazyAndSharedTest() throws Exception {
+        final ScriptedDownloader downloader = downloader(() -> false);
+        final ExtractorContext context = downloader.context();
+
+        // Only the video is requested when it is fetched
+        final StreamExtractor extractor = fetchedExtractor(context);
+        assertEquals(1, downloader.getRequests());
+
+        assertEquals(FULL_DESCRIPTION, extractor.getDescription().getContent());
+        assertEquals(FULL_DESCRIPTION, extractor.getDescription().getContent());
+        assertEquals(2, downloader.getRequests());
+
+        final List<SubtitlesStream> subtitles = extractor.getSubtitlesDefault();
+        assertEquals(1, subtitles.size());
+        assertEquals("en", subtitles.get(0).getLanguageTag());
+        assertEquals(1, extractor.getSubtitles(MediaFormat.VTT).size());
+        assertEquals(3, downloader.getRequests());
+
+        // Other extractors of the video share the resources
+        final StreamExtractor other = fetchedExtractor(context);
+        assertEquals(FULL_DESCRIPTION, other.getDescription().getContent());
+        assertEquals(1, other.getSubtitlesDefault().size());
+        assertEquals(4, downloader.getRequests());
+        assertEquals(2, downloader.getRequests(API_URL));
+    }
+
+    @Test
+    public void failuresNotCachedTest() throws Exception {
+        final AtomicBoolean failingCaptions = new AtomicBoolean(true);
+        final ScriptedDownloader downloader = downloader(failingCaptions::get);
+        final ExtractorContext context = downloader.context();
+
+        final StreamExtractor extractor = fetchedExtractor(context);
+        assertThrows(ParsingException.class, extractor::getSubtitlesDefault);
+        assertThrows(ParsingException.class, extractor::getSubtitlesDefault);
+        assertEquals(1, downloader.getRequests(API_URL + "/captions"));
+
+        failingCaptions.set(false);
+        assertEquals(1, fetchedExtractor(context).getSubtitlesDefault().size());
+        assertEquals(2, downloader.getRequests(API_URL + "/captions"));
+    }
+
+    @Test
+    public void prefetchTest() throws Exception {
+        final ScriptedDownloader downloader = downloader(() -> false);
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .prefetchSecondaryResources(true)
+                .build();
+
+        final StreamExtractor extractor = fetchedExtractor(context);
+        final long deadline = System.nanoTime() + 5_000_000_000L;
+        while (downloader.getRequests() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, downloader.getRequests(API_URL + "/captions"));
+        assertEquals(1, downloader.getRequests(API_URL + "/description"));
+
+        assertEquals(FULL_DESCRIPTION, extractor.getDescription().getContent());
+        assertEquals(1, extractor.getSubtitlesDefault().size());
+        assertEquals(3, downloader.getRequests());
+        assertTrue(PeertubeVideoResources.of(context).size() >= 2);
+    }
+
+    @Test
+    public void noPrefetchWhenVideoFailsTest() throws Exception {
+        final ScriptedDownloader downloader = downloader(() -> false);
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(downloader)
+                .prefetchSecondaryResources(true)
+                .build();
+
+        downloader.setFailing(true);
+        assertThrows(IOException.class, () -> fetchedExtractor(context));
+        Thread.sleep(100);
+        assertEquals(List.of(API_URL), downloader.getUrls());
+        assertEquals(0, PeertubeVideoResources.of(context).size());
+    }
+}
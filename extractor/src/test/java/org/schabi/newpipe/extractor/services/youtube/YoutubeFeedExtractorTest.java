@@ -1,6 +1,8 @@
 package org.schabi.newpipe.extractor.services.youtube;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.schabi.newpipe.extractor.ServiceList.YouTube;
@@ -8,15 +10,32 @@ import static org.schabi.newpipe.extractor.services.DefaultTests.assertNoMoreIte
 import static org.schabi.newpipe.extractor.services.DefaultTests.defaultTestRelatedItems;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.grack.nanojson.JsonParser;
 import org.schabi.newpipe.downloader.DownloaderFactory;
+import org.schabi.newpipe.extractor.ExtractorContext;
 import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ContentNotAvailableException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.feed.FeedInfo;
+import org.schabi.newpipe.extractor.feed.FeedState;
 import org.schabi.newpipe.extractor.services.BaseListExtractorTest;
 import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeFeedExtractor;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
 
 public class YoutubeFeedExtractorTest {
 
@@ -92,4 +111,91 @@ public class YoutubeFeedExtractorTest {
             assertThrows(ContentNotAvailableException.class, extractor::fetchPage);
         }
     }
-}
\ No newline at end of file
+
+    public static class ConditionalFetch {
+        private static final String ETAG = "\"feed-etag\"";
+        private static String feedBody;
+        private final List<Request> requests = new ArrayList<>();
+        private boolean honorConditions = true;
+        private ExtractorContext context;
+
+        @BeforeAll
+        public static void loadFeed() throws Exception {
+            try (InputStream mock = new FileInputStream(
+                    RESOURCE_PATH + "generated_mock_0.json")) {
+                feedBody = JsonParser.object().from(mock).getObject("response")
+                        .getString("responseBody");
+            }
+        }
+
+        @BeforeEach
+        public void setUp() {
+            context = new ExtractorContext.Builder()
+                    .downloader(new Downloader() {
+                        @Override
+                        public Response execute(@Nonnull final Request request) {
+                            requests.add(request);
+                            if (honorConditions
+                                    && request.headers().containsKey("If-None-Match")) {
+                                return new Response(304, "Not Modified",
+                                        Collections.emptyMap(), null, request.url());
+                            }
+                            return new Response(200, "OK", Collections.singletonMap("ETag",
+                                    Collections.singletonList(ETAG)), feedBody, request.url());
+                        }
+                    })
+                    .build();
+        }
+
+        private FeedInfo fetch(final FeedState previousState) throws Exception {
+            return context.run(() -> FeedInfo.getInfo(YouTube,
+                    "https://www.youtube.com/user/Kurzgesagt", previousState));
+        }
+
+        @Test
+        void testFirstFetchReturnsEverything() throws Exception {
+            final FeedInfo info = fetch(null);
+
+            assertFalse(info.isNotModified());
+            assertEquals(15, info.getRelatedItems().size());
+            assertFalse(requests.get(0).headers().containsKey("If-None-Match"));
+
+            final FeedState state = info.getState();
+            assertNotNull(state);
+            assertEquals(ETAG, state.getEtag());
+            assertEquals(info.getRelatedItems().get(0).getUrl(), state.getNewestItemUrl());
+            assertEquals(info.getRelatedItems().get(0).getUploadDate().offsetDateTime(),
+                    state.getNewestUploadDate());
+        }
+
+        @Test
+        void testNotModified() throws Exception {
+            final FeedState state = fetch(null).getState();
+            final FeedInfo info = fetch(state);
+
+            assertEquals(Collections.singletonList(ETAG),
+                    requests.get(1).headers().get("If-None-Match"));
+            assertTrue(info.isNotModified());
+            assertTrue(info.getRelatedItems().isEmpty());
+            assertEquals(state.getEtag(), info.getState().getEtag());
+            assertEquals(state.getNewestItemUrl(), info.getState().getNewestItemUrl());
+        }
+
+        @Test
+        void testOnlyNewItems() throws Exception {
+            honorConditions = false;
+            final List<StreamInfoItem> allItems = fetch(null).getRelatedItems();
+            final StreamInfoItem knownItem = allItems.get(2);
+            final FeedState state = new FeedState(ETAG, null, knownItem.getUrl(),
+                    knownItem.getUploadDate().offsetDateTime());
+
+            final FeedInfo info = fetch(state);
+            assertFalse(info.isNotModified());
+            assertEquals(allItems.subList(0, 2).stream().map(StreamInfoItem::getUrl)
+                            .collect(Collectors.toList()),
+                    info.getRelatedItems().stream().map(StreamInfoItem::getUrl)
+                            .collect(Collectors.toList()));
+            assertEquals(allItems.get(0).getUrl(), info.getState().getNewestItemUrl());
+        }
+    }
+}
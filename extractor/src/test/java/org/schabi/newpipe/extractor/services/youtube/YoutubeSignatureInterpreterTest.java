@@ -0,0 +1,223 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.JavaScript;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.schabi.newpipe.FileUtils.resolveTestResource;
+
+/**
+ * Compares {@link YoutubeSignatureInterpreter} with Rhino, on the hand-written deobfuscation
+ * snippets in {@code signature/}, whose name starts with {@code unsupported_} if the interpreter
+ * should not recognize them, and on the real players recorded in the stream mocks.
+ */
+class YoutubeSignatureInterpreterTest {
+    private static final String RESOURCE_PATH =
+            "org/schabi/newpipe/extractor/services/youtube/signature";
+    private static final String STREAM_MOCKS_PATH =
+            "org/schabi/newpipe/extractor/services/youtube/extractor/stream";
+    private static final Pattern SIGNATURE_CIPHER_PATTERN =
+            Pattern.compile("\"signatureCipher\":\\s*\"s=([^&\"]+)");
+    private static final String FUNCTION_NAME = "deobfuscate";
+    /**
+     * The operations of the deobfuscation function of the player {@code 041a7965}, and the first
+     * signature recorded with it in the {@code relatedMix} mocks, deobfuscated by hand.
+     */
+    private static final List<String> KNOWN_OPERATIONS = List.of("splice(3)", "swap(43)",
+            "reverse(52)", "splice(1)", "swap(33)", "reverse(49)");
+    private static final String KNOWN_OBFUSCATED = "sOqsOq0QJ8wRgIhAKguFgMt-xcFdoxubLGGKCNB-T6lq"
+            + "lEArnnnEUfIvlWfAiEA0GntF85uXL=RTjw_3AY64uvmoYQ2a3tgU2HTCtd0i-Mjj";
+    private static final String KNOWN_DEOBFUSCATED = "AOq0QJ8wRgIhAKguFgMt-xcFdoxubLGGKCNB-T6lq"
+            + "lEsrnnnEUfIvlWfAiEA0GntF85uXLjRTjw_3AY64uvmoYQ2a3tgU2HTCtd0i-M=";
+    private static final String ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_=.";
+
+    private static List<String> randomSignatures(final Random random) {
+        final List<String> signatures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final StringBuilder signature = new StringBuilder();
+            final int length = i < 10 ? i : 80 + random.nextInt(60);
+            for (int j = 0; j < length; j++) {
+                signature.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            signatures.add(signature.toString());
+        }
+        return signatures;
+    }
+
+    @Test
+    void testMatchesRhino() throws IOException {
+        final File[] files = resolveTestResource(RESOURCE_PATH).listFiles();
+        assertNotNull(files);
+        final Random random = new Random(1);
+        int compiled = 0;
+
+        for (final File file : files) {
+            final String code = new String(Files.readAllBytes(file.toPath()),
+                    StandardCharsets.UTF_8);
+            final YoutubeSignatureInterpreter interpreter =
+                    YoutubeSignatureInterpreter.compile(code, FUNCTION_NAME);
+            if (file.getName().startsWith("unsupported_")) {
+                assertNull(interpreter, file.getName());
+                continue;
+            }
+            assertNotNull(interpreter, file.getName());
+            compiled++;
+
+            final List<String> signatures = randomSignatures(random);
+            final Map<String, String> expected =
+                    JavaScript.runForEach(code, FUNCTION_NAME, signatures);
+            for (final String signature : signatures) {
+                final String actual = interpreter.deobfuscate(signature);
+                if (signature.length() >= 80) {
+                    // Long enough for every operation of the recorded functions
+                    assertNotNull(actual, file.getName() + ": " + signature);
+                }
+                if (actual != null) {
+                    assertEquals(expected.get(signature), actual,
+                            file.getName() + ": " + signature);
+                }
+            }
+        }
+        assertTrue(compiled > 0);
+    }
+
+    /**
+     * @return the bodies of the JavaScript players recorded in the stream mocks, keyed by their
+     * URL, and the obfuscated signatures of the formats recorded with each player
+     */
+    private static Map<String, String> readMockedPlayers(
+            final Map<String, List<String>> signaturesByPlayer)
+            throws IOException, JsonParserException {
+        final File[] directories = resolveTestResource(STREAM_MOCKS_PATH).listFiles();
+        assertNotNull(directories);
+        final Map<String, String> players = new HashMap<>();
+
+        for (final File directory : directories) {
+            final File[] mocks = directory.listFiles();
+            if (mocks == null) {
+                continue;
+            }
+            String playerUrl = null;
+            final List<String> signatures = new ArrayList<>();
+            for (final File mock : mocks) {
+                final JsonObject json = JsonParser.object().from(new String(
+                        Files.readAllBytes(mock.toPath()), StandardCharsets.UTF_8));
+                final String url = json.getObject("request").getString("url");
+                final String body = json.getObject("response").getString("responseBody", "");
+                if (url.endsWith("/base.js")) {
+                    playerUrl = url;
+                    players.put(url, body);
+                    continue;
+                }
+                final Matcher matcher = SIGNATURE_CIPHER_PATTERN.matcher(body);
+                while (matcher.find()) {
+                    signatures.add(URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8));
+                }
+            }
+            if (playerUrl != null) {
+                signaturesByPlayer.computeIfAbsent(playerUrl, u -> new ArrayList<>())
+                        .addAll(signatures);
+            }
+        }
+        return players;
+    }
+
+    @Test
+    void testMockedPlayersMatchRhino() throws Exception {
+        final Map<String, List<String>> signaturesByPlayer = new HashMap<>();
+        final Map<String, String> players = readMockedPlayers(signaturesByPlayer);
+        assertTrue(players.size() >= 2, "players: " + players.keySet());
+        final Random random = new Random(1);
+        int recordedSignatures = 0;
+
+        for (final Map.Entry<String, String> player : players.entrySet()) {
+            final String code = YoutubeJavaScriptExtractor.extractDeobfuscationCode(
+                    player.getValue(), FUNCTION_NAME);
+            final YoutubeSignatureInterpreter interpreter =
+                    YoutubeSignatureInterpreter.compile(code, FUNCTION_NAME);
+            assertNotNull(interpreter, player.getKey());
+
+            final List<String> signatures = randomSignatures(random);
+            signatures.addAll(signaturesByPlayer.get(player.getKey()));
+            recordedSignatures += signaturesByPlayer.get(player.getKey()).size();
+            final Map<String, String> expected =
+                    JavaScript.runForEach(code, FUNCTION_NAME, signatures);
+            for (final String signature : signatures) {
+                final String actual = interpreter.deobfuscate(signature);
+                if (signature.length() >= 80) {
+                    assertNotNull(actual, player.getKey() + ": " + signature);
+                }
+                if (actual != null) {
+                    assertEquals(expected.get(signature), actual,
+                            player.getKey() + ": " + signature);
+                }
+            }
+        }
+        assertTrue(recordedSignatures > 0);
+    }
+
+    @Test
+    void testKnownDeobfuscation() throws Exception {
+        final Map<String, String> players = readMockedPlayers(new HashMap<>());
+        final String code = YoutubeJavaScriptExtractor.extractDeobfuscationCode(players.get(
+                "https://www.youtube.com/s/player/041a7965/player_ias.vflset/en_US/base.js"),
+                FUNCTION_NAME);
+        final YoutubeSignatureInterpreter interpreter =
+                YoutubeSignatureInterpreter.compile(code, FUNCTION_NAME);
+        assertNotNull(interpreter);
+
+        assertEquals(KNOWN_OPERATIONS, interpreter.getOperations());
+        assertEquals(KNOWN_DEOBFUSCATED, interpreter.deobfuscate(KNOWN_OBFUSCATED));
+    }
+
+    @Test
+    void testUnknownPlayer() {
+        assertThrows(ParsingException.class, () -> YoutubeJavaScriptExtractor
+                .extractDeobfuscationCode("var a=1;", FUNCTION_NAME));
+    }
+
+    @Test
+    void testOperations() {
+        final YoutubeSignatureInterpreter interpreter = YoutubeSignatureInterpreter.compile(
+                "var Ab={cd:function(a){a.reverse()},ef:function(a,b){a.splice(0,b)}};"
+                        + "var Gh=function(a){a=a.split(\"\");Ab.ef(a,3);Ab.cd(a,9);"
+                        + "return a.join(\"\")};function deobfuscate(a){return Gh(a);}",
+                FUNCTION_NAME);
+        assertNotNull(interpreter);
+        assertEquals(Arrays.asList("splice(3)", "reverse(9)"), interpreter.getOperations());
+        assertEquals("gfed", interpreter.deobfuscate("abcdefg"));
+        assertEquals("", interpreter.deobfuscate("ab"));
+    }
+
+    @Test
+    void testUnknownFunction() {
+        assertNull(YoutubeSignatureInterpreter.compile(
+                "var Gh=function(a){return a};function deobfuscate(a){return Gh(a);}",
+                FUNCTION_NAME));
+        assertNull(YoutubeSignatureInterpreter.compile("", FUNCTION_NAME));
+    }
+}
@@ -17,11 +17,17 @@ import org.schabi.newpipe.extractor.subscription.SubscriptionExtractor;
 import org.schabi.newpipe.extractor.subscription.SubscriptionItem;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Test for {@link YoutubeSubscriptionExtractor}
@@ -158,4 +164,120 @@ public class YoutubeSubscriptionExtractorTest {
             assertSubscriptionItems(subscriptionItems);
         }
     }
+
+    /**
+     * An input stream generating its content line by line, so that huge sources can be tested
+     * without keeping them in memory.
+     */
+    private static final class GeneratedInputStream extends InputStream {
+        private final int lineCount;
+        private final IntFunction<String> lineGenerator;
+        private int nextLine = 0;
+        private byte[] current = new byte[0];
+        private int position = 0;
+
+        GeneratedInputStream(final int lineCount, final IntFunction<String> lineGenerator) {
+            this.lineCount = lineCount;
+            this.lineGenerator = lineGenerator;
+        }
+
+        @Override
+        public int read() {
+            while (position == current.length) {
+                if (nextLine == lineCount) {
+                    return -1;
+                }
+                current = lineGenerator.apply(nextLine++).getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return current[position++] & 0xFF;
+        }
+    }
+
+    private static String channelId(final int index) {
+        return String.format("UC%022d", index);
+    }
+
+    @Test
+    public void testConsumerReceivesSameItemsAsList() throws Exception {
+        final List<SubscriptionItem> expected = subscriptionExtractor.fromInputStream(
+                new FileInputStream(resolveTestResource("youtube_takeout_import_test.json")));
+
+        final List<SubscriptionItem> consumed = new ArrayList<>();
+        final long count = subscriptionExtractor.fromInputStream(
+                new FileInputStream(resolveTestResource("youtube_takeout_import_test.json")),
+                consumed::add);
+
+        assertEquals(expected.size(), count);
+        assertEquals(expected.size(), consumed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUrl(), consumed.get(i).getUrl());
+            assertEquals(expected.get(i).getName(), consumed.get(i).getName());
+        }
+    }
+
+    @Test
+    public void testStreamsHugeJsonSource() throws Exception {
+        final int subscriptions = 100_000;
+        final InputStream source = new GeneratedInputStream(subscriptions + 2, line -> {
+            if (line == 0) {
+                return "[";
+            } else if (line == subscriptions + 1) {
+                return "]";
+            }
+            return (line > 1 ? "," : "") + "{\"snippet\":{\"resourceId\":{\"kind\":"
+                    + "\"youtube#channel\",\"channelId\":\"" + channelId(line) + "\"},"
+                    + "\"thumbnails\":[{\"url\":\"https://example.com\"}],\"title\":\"Channel "
+                    + line + "\"}}\n";
+        });
+
+        final long[] consumed = {0};
+        final long count = subscriptionExtractor.fromInputStream(source, "json", item -> {
+            consumed[0]++;
+            assertEquals("https://www.youtube.com/channel/" + channelId((int) consumed[0]),
+                    item.getUrl());
+            assertEquals("Channel " + consumed[0], item.getName());
+        });
+        assertEquals(subscriptions, count);
+        assertEquals(subscriptions, consumed[0]);
+    }
+
+    @Test
+    public void testStreamsHugeCsvSource() throws Exception {
+        final int subscriptions = 100_000;
+        final InputStream source = new GeneratedInputStream(subscriptions + 1, line -> line == 0
+                ? "Channel Id,Channel Url,Channel Title\n"
+                : channelId(line) + ",http://www.youtube.com/channel/" + channelId(line)
+                        + ",Channel " + line + "\n");
+
+        final long[] consumed = {0};
+        final long count = subscriptionExtractor.fromInputStream(source, "csv", item -> {
+            consumed[0]++;
+            assertEquals("https://www.youtube.com/channel/" + channelId((int) consumed[0]),
+                    item.getUrl());
+        });
+        assertEquals(subscriptions, count);
+        assertEquals(subscriptions, consumed[0]);
+    }
+
+    @Test
+    public void testZipSkipsCsvFilesWithoutSubscriptions() throws Exception {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            zipOutputStream.putNextEntry(new ZipEntry("Takeout/YouTube/playlists/music.csv"));
+            zipOutputStream.write(("Video Id,Time Added\na,1\nb,2\nc,3\nd,4\ne,5\nf,6\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.putNextEntry(new ZipEntry("Takeout/YouTube/subscriptions.csv"));
+            zipOutputStream.write(("Channel Id,Channel Url,Channel Title\n" + channelId(1)
+                    + ",http://www.youtube.com/channel/" + channelId(1) + ",Channel 1\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        final List<SubscriptionItem> consumed = new ArrayList<>();
+        final long count = subscriptionExtractor.fromZipInputStream(
+                new ByteArrayInputStream(zip.toByteArray()), consumed::add);
+        assertEquals(1, count);
+        assertEquals("https://www.youtube.com/channel/" + channelId(1), consumed.get(0).getUrl());
+        assertEquals("Channel 1", consumed.get(0).getName());
+    }
 }
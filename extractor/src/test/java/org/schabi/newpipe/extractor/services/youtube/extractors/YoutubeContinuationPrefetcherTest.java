@@ -0,0 +1,175 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import com.grack.nanojson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.DownloaderFactory;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor.InfoItemsPage;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+import org.schabi.newpipe.extractor.search.SearchExtractor;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeTestsUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class YoutubeContinuationPrefetcherTest {
+
+    @Test
+    public void prefetchedPageTakenOnceTest() throws Exception {
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final YoutubeContinuationPrefetcher prefetcher = YoutubeContinuationPrefetcher.of(context);
+        final JsonObject response = new JsonObject();
+        final AtomicReference<ExtractorContext> fetchContext = new AtomicReference<>();
+
+        assertTrue(prefetcher.prefetch(context, "query", "token", 1, () -> {
+            fetchContext.set(NewPipe.getContext());
+            return response;
+        }));
+        assertSame(response, prefetcher.take("token"));
+        assertSame(context, fetchContext.get());
+        assertNull(prefetcher.take("token"));
+    }
+
+    @Test
+    public void maxCountPerQueryTest() throws Exception {
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final YoutubeContinuationPrefetcher prefetcher = YoutubeContinuationPrefetcher.of(context);
+        final AtomicInteger fetches = new AtomicInteger();
+        final ExtractorContext.Task<JsonObject> fetcher = () -> {
+            fetches.incrementAndGet();
+            return new JsonObject();
+        };
+
+        assertTrue(prefetcher.prefetch(context, "query", "token1", 2, fetcher));
+        // The same continuation is only prefetched once
+        assertTrue(prefetcher.prefetch(context, "query", "token1", 2, fetcher));
+        assertTrue(prefetcher.prefetch(context, "query", "token2", 2, fetcher));
+        assertFalse(prefetcher.prefetch(context, "query", "token3", 2, fetcher));
+        assertTrue(prefetcher.prefetch(context, "other query", "token4", 2, fetcher));
+
+        // Fetching the first page again allows prefetching its continuations again
+        prefetcher.resetCount("query");
+        assertTrue(prefetcher.prefetch(context, "query", "token3", 2, fetcher));
+
+        prefetcher.take("token1");
+        prefetcher.take("token2");
+        prefetcher.take("token3");
+        prefetcher.take("token4");
+        assertEquals(4, fetches.get());
+    }
+
+    @Test
+    public void failedPrefetchTest() throws Exception {
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final YoutubeContinuationPrefetcher prefetcher = YoutubeContinuationPrefetcher.of(context);
+
+        assertTrue(prefetcher.prefetch(context, "query", "token", 1, () -> {
+            throw new IOException("No network in this test");
+        }));
+        assertNull(prefetcher.take("token"));
+    }
+
+    @Test
+    public void cancelAllTest() throws Exception {
+        final ExtractorContext context = new ExtractorContext.Builder().build();
+        final YoutubeContinuationPrefetcher prefetcher = YoutubeContinuationPrefetcher.of(context);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertTrue(prefetcher.prefetch(context, "query", "token", 1, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new JsonObject();
+        }));
+        started.await();
+        prefetcher.cancelAll();
+
+        interrupted.await();
+        assertNull(prefetcher.take("token"));
+        // The counts are reset too
+        assertTrue(prefetcher.prefetch(context, "query", "token2", 1, JsonObject::new));
+        prefetcher.take("token2");
+    }
+
+    @Test
+    public void searchExtractorPrefetchTest() throws Exception {
+        YoutubeTestsUtils.ensureStateless();
+        // The client version and the key are taken from the recorded mocks
+        final Downloader mock = DownloaderFactory.getDownloader(DownloaderFactory.RESOURCE_PATH
+                + "services/youtube/extractor/search/all");
+        final AtomicInteger continuations = new AtomicInteger();
+        final ExtractorContext context = new ExtractorContext.Builder()
+                .downloader(new Downloader() {
+                    @Override
+                    public Response execute(final Request request)
+                            throws IOException, ReCaptchaException {
+                        if (!request.url().contains("/youtubei/v1/search")) {
+                            return mock.execute(request);
+                        }
+
+                        final String body;
+                        if (new String(request.dataToSend(), StandardCharsets.UTF_8)
+                                .contains("\"continuation\"")) {
+                            continuations.incrementAndGet();
+                            body = "{\"onResponseReceivedCommands\":[{"
+                                    + "\"appendContinuationItemsAction\":{\"continuationItems\":"
+                                    + sections("page3") + "}}]}";
+                        } else {
+                            body = "{\"contents\":{\"twoColumnSearchResultsRenderer\":{"
+                                    + "\"primaryContents\":{\"sectionListRenderer\":{"
+                                    + "\"contents\":" + sections("page2") + "}}}}}";
+                        }
+                        return new Response(200, "OK", Collections.emptyMap(), body,
+                                request.url());
+                    }
+                })
+                .maxPrefetchedPages(1)
+                .build();
+
+        final SearchExtractor extractor = context.run(() -> YouTube.getSearchExtractor("test"));
+        extractor.fetchPage();
+        final InfoItemsPage<InfoItem> initialPage = extractor.getInitialPage();
+        assertEquals("page2", initialPage.getNextPage().getId());
+
+        // The second page is requested in the background...
+        final long deadline = System.nanoTime() + 5_000_000_000L;
+        while (continuations.get() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, continuations.get());
+
+        // ...and handed over, without prefetching the third one beyond the limit
+        final InfoItemsPage<InfoItem> secondPage = extractor.getPage(initialPage.getNextPage());
+        assertEquals("page3", secondPage.getNextPage().getId());
+        assertEquals(1, continuations.get());
+    }
+
+    /**
+     * @return search results without items, followed by the continuation with the given token
+     */
+    private static String sections(final String nextToken) {
+        return "[{\"itemSectionRenderer\":{\"contents\":[]}},{\"continuationItemRenderer\":"
+                + "{\"continuationEndpoint\":{\"continuationCommand\":{\"token\":\""
+                + nextToken + "\"}}}}]";
+    }
+}
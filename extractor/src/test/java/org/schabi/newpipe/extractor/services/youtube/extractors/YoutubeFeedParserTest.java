@@ -0,0 +1,212 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.DownloaderFactory;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.feed.FeedState;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class YoutubeFeedParserTest {
+    private static final int SERVICE_ID = 0;
+
+    /**
+     * @return the bodies of all the recorded YouTube feeds
+     */
+    private static List<String> recordedFeeds() throws Exception {
+        final List<Path> mocks;
+        try (Stream<Path> paths = Files.walk(Paths.get(DownloaderFactory.RESOURCE_PATH,
+                "services", "youtube"))) {
+            mocks = paths.filter(path -> path.toString().endsWith(".json"))
+                    .collect(Collectors.toList());
+        }
+
+        final List<String> feeds = new ArrayList<>();
+        for (final Path mock : mocks) {
+            final String content = new String(Files.readAllBytes(mock), StandardCharsets.UTF_8);
+            if (!content.contains("feeds/videos.xml")) {
+                continue;
+            }
+            final JsonObject recorded = JsonParser.object().from(content);
+            if (recorded.getObject("request").getString("url").contains("feeds/videos.xml")
+                    && recorded.getObject("response").getInt("responseCode") == 200) {
+                feeds.add(recorded.getObject("response").getString("responseBody"));
+            }
+        }
+        return feeds;
+    }
+
+    /**
+     * Extract the items of a feed like the extractor did before the streaming parser.
+     */
+    private static StreamInfoItemsCollector parseWithJsoup(final String body) {
+        final Document document = Jsoup.parse(body);
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(SERVICE_ID);
+        for (final Element entry : document.select("feed > entry")) {
+            collector.commit(new YoutubeFeedInfoItemExtractor(entry));
+        }
+        return collector;
+    }
+
+    private static void assertSameItems(final List<StreamInfoItem> expected,
+                                        final List<StreamInfoItem> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final StreamInfoItem expectedItem = expected.get(i);
+            final StreamInfoItem actualItem = actual.get(i);
+            assertEquals(expectedItem.getUrl(), actualItem.getUrl());
+            assertEquals(expectedItem.getName(), actualItem.getName());
+            assertEquals(expectedItem.getStreamType(), actualItem.getStreamType());
+            assertEquals(expectedItem.getDuration(), actualItem.getDuration());
+            assertEquals(expectedItem.getViewCount(), actualItem.getViewCount());
+            assertEquals(expectedItem.getUploaderName(), actualItem.getUploaderName());
+            assertEquals(expectedItem.getUploaderUrl(), actualItem.getUploaderUrl());
+            assertEquals(expectedItem.getTextualUploadDate(), actualItem.getTextualUploadDate());
+            assertEquals(expectedItem.getUploadDate() == null ? null
+                            : expectedItem.getUploadDate().offsetDateTime(),
+                    actualItem.getUploadDate() == null ? null
+                            : actualItem.getUploadDate().offsetDateTime());
+            assertEquals(expectedItem.getThumbnailUrl(), actualItem.getThumbnailUrl());
+        }
+    }
+
+    @Test
+    void testParityWithJsoupOnRecordedFeeds() throws Exception {
+        final List<String> feeds = recordedFeeds();
+        assertFalse(feeds.isEmpty());
+
+        for (final String body : feeds) {
+            final StreamInfoItemsCollector expected = parseWithJsoup(body);
+            final YoutubeFeedParser.Feed feed = YoutubeFeedParser.parse(new StringReader(body),
+                    SERVICE_ID, (FeedState) null);
+
+            assertSameItems(expected.getItems(), feed.getItems());
+            assertEquals(expected.getErrors().size(), feed.getErrors().size());
+            assertTrue(feed.isComplete());
+
+            final Document document = Jsoup.parse(body);
+            final Element name = document.selectFirst("feed > author > name");
+            assertEquals(name == null ? "" : name.text(), feed.getName());
+            final Element uri = document.selectFirst("feed > author > uri");
+            if (uri != null && !uri.text().isEmpty()) {
+                assertEquals(uri.text(), feed.getUrl());
+            }
+        }
+    }
+
+    @Test
+    void testParityWithJsoupOnEdgeCases() throws Exception {
+        final String body = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!-- A comment -->\n"
+                + "<feed xmlns:media=\"http://search.yahoo.com/mrss/\">\n"
+                + " <link rel=\"alternate\" href=\"https://www.youtube.com/channel/UCx\"/>\n"
+                + " <author><name>  Tom &amp; Jerry\n &#39;s   channel </name><uri></uri></author>\n"
+                + " <entry>\n"
+                + "  <title>\n   A &lt;b&gt; &quot;title&quot; &#x263A; </title>\n"
+                + "  <link rel='alternate' href='https://www.youtube.com/watch?v=a&amp;t=1'/>\n"
+                + "  <author><name>Tom</name><uri>https://www.youtube.com/channel/UCx</uri></author>\n"
+                + "  <published>2022-11-08T14:59:18+00:00</published>\n"
+                + "  <media:group>\n"
+                + "   <media:title>Not the title</media:title>\n"
+                + "   <media:thumbnail url=\"https://i2.ytimg.com/vi/a/hqdefault.jpg\"/>\n"
+                + "   <media:community><media:statistics views=\"42\"/></media:community>\n"
+                + "  </media:group>\n"
+                + " </entry>\n"
+                + " <entry>\n"
+                + "  <title>Without statistics</title>\n"
+                + "  <link rel=\"alternate\" href=\"https://www.youtube.com/watch?v=b\"/>\n"
+                + "  <author><name>Tom</name><uri>https://www.youtube.com/channel/UCx</uri></author>\n"
+                + "  <published>not a date</published>\n"
+                + "  <media:group>\n"
+                + "   <media:thumbnail url=\"https://i2.ytimg.com/vi/b/hqdefault.jpg\"/>\n"
+                + "  </media:group>\n"
+                + " </entry>\n"
+                + "</feed>\n";
+
+        final StreamInfoItemsCollector expected = parseWithJsoup(body);
+        final YoutubeFeedParser.Feed feed = YoutubeFeedParser.parse(new StringReader(body),
+                SERVICE_ID, (FeedState) null);
+
+        assertSameItems(expected.getItems(), feed.getItems());
+        assertEquals(expected.getErrors().size(), feed.getErrors().size());
+        assertEquals("A <b> \"title\" ☺", feed.getItems().get(0).getName());
+        assertEquals("https://www.youtube.com/watch?v=a&t=1", feed.getItems().get(0).getUrl());
+        assertEquals(Jsoup.parse(body).selectFirst("feed > author > name").text(),
+                feed.getName());
+        assertEquals("https://www.youtube.com/channel/UCx", feed.getUrl());
+        assertEquals("https://www.youtube.com/watch?v=a&t=1", feed.getNewestItemUrl());
+    }
+
+    @Test
+    void testCdataAndNestedText() throws Exception {
+        final String body = "<feed><entry><title><![CDATA[a <b> ]]]]><![CDATA[>]]> c</title>"
+                + "<link href=\"https://www.youtube.com/watch?v=a\"/></entry></feed>";
+        final YoutubeFeedParser.Feed feed = YoutubeFeedParser.parse(new StringReader(body),
+                SERVICE_ID, (FeedState) null);
+        assertEquals("a <b> ]]> c", feed.getItems().get(0).getName());
+    }
+
+    @Test
+    void testStopsAtCutoff() throws Exception {
+        final String body = recordedFeeds().get(0);
+        final List<StreamInfoItem> allItems = parseWithJsoup(body).getItems();
+        final OffsetDateTime cutoff = allItems.get(3).getUploadDate().offsetDateTime();
+
+        final YoutubeFeedParser.Feed feed = YoutubeFeedParser.parse(new StringReader(body),
+                SERVICE_ID, cutoff);
+        final List<StreamInfoItem> expected = allItems.stream()
+                .filter(item -> !item.getUploadDate().offsetDateTime().isBefore(cutoff))
+                .collect(Collectors.toList());
+        assertSameItems(expected, feed.getItems());
+        assertEquals(allItems.get(0).getUrl(), feed.getNewestItemUrl());
+        assertFalse(feed.isComplete());
+    }
+
+    @Test
+    void testStopsAtKnownEntry() throws Exception {
+        final String body = recordedFeeds().get(0);
+        final List<StreamInfoItem> allItems = parseWithJsoup(body).getItems();
+
+        final YoutubeFeedParser.Feed feed = YoutubeFeedParser.parse(new StringReader(body),
+                SERVICE_ID, new FeedState(null, null, allItems.get(0).getUrl(), null));
+        assertTrue(feed.getItems().isEmpty());
+        assertEquals(allItems.get(0).getUrl(), feed.getNewestItemUrl());
+        assertFalse(feed.isComplete());
+    }
+
+    @Test
+    void testEmptyAndMalformedFeeds() throws IOException, ParsingException {
+        final YoutubeFeedParser.Feed empty = YoutubeFeedParser.parse(
+                new StringReader("<feed></feed>"), SERVICE_ID, (FeedState) null);
+        assertTrue(empty.getItems().isEmpty());
+        assertNull(empty.getNewestItemUrl());
+        assertEquals("", empty.getName());
+        assertEquals("", empty.getUrl());
+
+        assertThrows(ParsingException.class, () -> YoutubeFeedParser.parse(
+                new StringReader("<feed><entry><title>truncated"), SERVICE_ID, (FeedState) null));
+    }
+}
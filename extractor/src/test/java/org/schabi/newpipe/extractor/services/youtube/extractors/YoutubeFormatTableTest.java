@@ -0,0 +1,39 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+
+import java.util.List;
+
+class YoutubeFormatTableTest {
+
+    private static ItagInfo format(final int itag) throws ParsingException {
+        return new ItagInfo("https://example.com/" + itag, ItagItem.getItag(itag));
+    }
+
+    @Test
+    void indexesTest() throws ParsingException {
+        final YoutubeFormatTable table = new YoutubeFormatTable();
+        final ItagInfo android18 = format(18);
+        final ItagInfo android140 = format(140);
+        final ItagInfo web18 = format(18);
+        table.add("android", android18);
+        table.add("android", android140);
+        table.add("web", web18);
+
+        assertEquals(List.of(android18, web18), table.getByItag(18));
+        assertEquals(List.of(android140), table.getByItag(140));
+        assertTrue(table.getByItag(22).isEmpty());
+
+        assertEquals(List.of(android18, android140), table.getByClient("android"));
+        assertEquals(List.of(web18), table.getByClient("web"));
+        assertTrue(table.getByClient("ios").isEmpty());
+
+        assertEquals(List.of(android18, web18), table.getByType(ItagItem.ItagType.VIDEO));
+        assertEquals(List.of(android140), table.getByType(ItagItem.ItagType.AUDIO));
+    }
+}
@@ -0,0 +1,76 @@
+package org.schabi.newpipe.extractor.services.youtube.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import com.grack.nanojson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.downloader.OfflineDownloader;
+import org.schabi.newpipe.extractor.ExtractorContext;
+import org.schabi.newpipe.extractor.comments.CommentsExtractor;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.localization.Localization;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class YoutubeNextResponseCacheTest {
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @Test
+    public void takeRemovesResponseTest() {
+        final YoutubeNextResponseCache cache =
+                YoutubeNextResponseCache.of(new ExtractorContext.Builder().build());
+        final JsonObject response = new JsonObject();
+        cache.put(VIDEO_ID, Localization.DEFAULT, ContentCountry.DEFAULT, response);
+
+        assertNull(cache.take(VIDEO_ID, new Localization("de"), ContentCountry.DEFAULT));
+        assertSame(response, cache.take(VIDEO_ID, Localization.DEFAULT, ContentCountry.DEFAULT));
+        assertNull(cache.take(VIDEO_ID, Localization.DEFAULT, ContentCountry.DEFAULT));
+    }
+
+    @Test
+    public void oldestResponsesEvictedTest() {
+        final YoutubeNextResponseCache cache =
+                YoutubeNextResponseCache.of(new ExtractorContext.Builder().build());
+        for (int i = 0; i <= YoutubeNextResponseCache.MAX_ENTRIES; i++) {
+            cache.put(String.valueOf(i), Localization.DEFAULT, ContentCountry.DEFAULT,
+                    new JsonObject());
+        }
+
+        assertNull(cache.take("0", Localization.DEFAULT, ContentCountry.DEFAULT));
+        assertEquals(new JsonObject(),
+                cache.take("1", Localization.DEFAULT, ContentCountry.DEFAULT));
+    }
+
+    @Test
+    public void outdatedResponsesDroppedTest() {
+        final AtomicLong nanos = new AtomicLong();
+        final YoutubeNextResponseCache cache = new YoutubeNextResponseCache(nanos::get);
+        cache.put("a", Localization.DEFAULT, ContentCountry.DEFAULT, new JsonObject());
+        cache.put("b", Localization.DEFAULT, ContentCountry.DEFAULT, new JsonObject());
+
+        // Responses which are never taken don't stay once they are outdated
+        nanos.addAndGet(YoutubeNextResponseCache.MAX_AGE.toNanos());
+        assertNull(cache.take("a", Localization.DEFAULT, ContentCountry.DEFAULT));
+        cache.put("c", Localization.DEFAULT, ContentCountry.DEFAULT, new JsonObject());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void commentsUseHandedOverResponseTest() throws Exception {
+        final OfflineDownloader downloader = new OfflineDownloader();
+        final ExtractorContext context =
+                new ExtractorContext.Builder().downloader(downloader).build();
+
+        final CommentsExtractor extractor = context.run(() -> YouTube.getCommentsExtractor(
+                "https://www.youtube.com/watch?v=" + VIDEO_ID));
+        // A response without comments, so that no continuation has to be fetched either
+        YoutubeNextResponseCache.of(context).put(VIDEO_ID, extractor.getExtractorLocalization(),
+                extractor.getExtractorContentCountry(), new JsonObject());
+
+        extractor.fetchPage();
+        assertEquals(0, downloader.getRequests());
+    }
+}
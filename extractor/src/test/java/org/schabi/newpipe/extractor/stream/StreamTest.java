@@ -0,0 +1,88 @@
+package org.schabi.newpipe.extractor.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.MediaFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class StreamTest {
+    private static final MediaFormat[] FORMATS = {MediaFormat.MPEG_4, MediaFormat.WEBM, null};
+    private static final DeliveryMethod[] DELIVERY_METHODS =
+            {DeliveryMethod.PROGRESSIVE_HTTP, DeliveryMethod.DASH};
+
+    private static Stream randomStream(final Random random, final int index) {
+        final MediaFormat format = FORMATS[random.nextInt(FORMATS.length)];
+        final DeliveryMethod deliveryMethod =
+                DELIVERY_METHODS[random.nextInt(DELIVERY_METHODS.length)];
+        final boolean isUrl = random.nextBoolean();
+
+        if (random.nextBoolean()) {
+            return new AudioStream.Builder()
+                    .setId(String.valueOf(index))
+                    .setContent("https://example.com/" + index, isUrl)
+                    .setMediaFormat(format)
+                    .setDeliveryMethod(deliveryMethod)
+                    .setAverageBitrate(random.nextInt(3) * 64)
+                    .setAudioTrackId(random.nextBoolean() ? null : "en.1")
+                    .setAudioLocale(random.nextBoolean() ? null : Locale.ENGLISH)
+                    .build();
+        }
+
+        return new VideoStream.Builder()
+                .setId(String.valueOf(index))
+                .setContent("https://example.com/" + index, isUrl)
+                .setMediaFormat(format)
+                .setDeliveryMethod(deliveryMethod)
+                .setIsVideoOnly(random.nextBoolean())
+                .setResolution(random.nextBoolean() ? "720p" : "1080p")
+                .build();
+    }
+
+    @Test
+    public void removeSimilarStreamsMatchesContainSimilarStreamTest() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            final List<Stream> streams = new ArrayList<>();
+            final int size = random.nextInt(40);
+            for (int j = 0; j < size; j++) {
+                streams.add(randomStream(random, j));
+            }
+
+            final List<Stream> expected = new ArrayList<>();
+            for (final Stream stream : streams) {
+                if (!Stream.containSimilarStream(stream, expected)) {
+                    expected.add(stream);
+                }
+            }
+
+            final List<Stream> actual = Stream.removeSimilarStreams(streams);
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertSame(expected.get(j), actual.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void equalStatsImpliesEqualStatsHashCodeTest() {
+        final Random random = new Random(7);
+        final List<Stream> streams = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            streams.add(randomStream(random, i));
+        }
+
+        for (final Stream first : streams) {
+            for (final Stream second : streams) {
+                if (first.equalStats(second)) {
+                    assertEquals(first.statsHashCode(), second.statsHashCode());
+                }
+            }
+        }
+    }
+}
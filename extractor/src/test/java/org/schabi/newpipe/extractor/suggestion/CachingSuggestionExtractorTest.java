@@ -0,0 +1,215 @@
+package org.schabi.newpipe.extractor.suggestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.localization.ContentCountry;
+import org.schabi.newpipe.extractor.services.bandcamp.BandcampService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CachingSuggestionExtractorTest {
+    private static final Map<String, List<String>> SUGGESTIONS = Map.of(
+            "r", List.of("rick astley", "Rick Roll", "rust"),
+            "ri", List.of("rick astley", "rick roll"),
+            "a", List.of("abc", "xyz"));
+
+    /**
+     * Returns the suggestions of {@link #SUGGESTIONS}, recording the queries.
+     */
+    private static class FakeSuggestionExtractor extends SuggestionExtractor {
+        private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+        FakeSuggestionExtractor() {
+            super(new BandcampService(100));
+            forceContentCountry(new ContentCountry("ZZ"));
+        }
+
+        @Override
+        public List<String> suggestionList(final String query) {
+            queries.add(query + "@" + getExtractorContentCountry().getCountryCode());
+            return SUGGESTIONS.getOrDefault(query, Collections.emptyList());
+        }
+    }
+
+    @Test
+    public void completePrefixReusedTest() throws Exception {
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor();
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate).resultLimit(10).build();
+
+        assertEquals(SUGGESTIONS.get("r"), extractor.suggestionList("r"));
+        assertEquals(List.of("rick astley", "Rick Roll"), extractor.suggestionList("Ri"));
+        assertEquals(List.of("Rick Roll"), extractor.suggestionList("rick  r"));
+        assertEquals(SUGGESTIONS.get("r"), extractor.suggestionList(" R "));
+        assertEquals(1, delegate.queries.size());
+
+        // Not all the suggestions of "a" start with "a"
+        extractor.suggestionList("a");
+        extractor.suggestionList("ab");
+        assertEquals(3, delegate.queries.size());
+    }
+
+    @Test
+    public void incompleteListNotReusedTest() throws Exception {
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor();
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate).resultLimit(3).build();
+
+        extractor.suggestionList("r");
+        assertEquals(SUGGESTIONS.get("ri"), extractor.suggestionList("ri"));
+        extractor.suggestionList("ri");
+        assertEquals(List.of("r@ZZ", "ri@ZZ"), delegate.queries);
+    }
+
+    @Test
+    public void perContentCountryTest() throws Exception {
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor();
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate).build();
+
+        extractor.suggestionList("r");
+        extractor.forceContentCountry(new ContentCountry("DE"));
+        extractor.suggestionList("r");
+        extractor.suggestionList("r");
+        assertEquals(List.of("r@ZZ", "r@DE"), delegate.queries);
+    }
+
+    @Test
+    public void ttlAndMaxEntriesTest() throws Exception {
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor();
+        final AtomicLong nanos = new AtomicLong();
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate)
+                        .maxEntries(2)
+                        .ttl(Duration.ofMinutes(1))
+                        .nanoClock(nanos::get)
+                        .build();
+
+        extractor.suggestionList("a");
+        extractor.suggestionList("b");
+        extractor.suggestionList("a");
+        extractor.suggestionList("c");
+        // "b" was evicted
+        extractor.suggestionList("a");
+        extractor.suggestionList("b");
+        assertEquals(List.of("a@ZZ", "b@ZZ", "c@ZZ", "b@ZZ"), delegate.queries);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        extractor.suggestionList("b");
+        assertEquals(5, delegate.queries.size());
+    }
+
+    @Test
+    public void inFlightRequestsSharedTest() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor() {
+            @Override
+            public List<String> suggestionList(final String query) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.suggestionList(query);
+            }
+        };
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate).build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<List<String>> first = executor.submit(() -> extractor.suggestionList("r"));
+            started.await();
+            final Future<List<String>> second =
+                    executor.submit(() -> extractor.suggestionList("R"));
+            // Let the second call wait for the first one before releasing it
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(SUGGESTIONS.get("r"), first.get());
+            assertEquals(SUGGESTIONS.get("r"), second.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, delegate.queries.size());
+    }
+
+    @Test
+    public void debounceTest() throws Exception {
+        final FakeSuggestionExtractor delegate = new FakeSuggestionExtractor();
+        final CachingSuggestionExtractor extractor =
+                new CachingSuggestionExtractor.Builder(delegate)
+                        .debounceDelay(Duration.ofMillis(100))
+                        .build();
+
+        final CompletableFuture<List<String>> first = extractor.requestSuggestions("r");
+        final CompletableFuture<List<String>> second = extractor.requestSuggestions("ri");
+        assertEquals(SUGGESTIONS.get("ri"), second.get());
+        assertTrue(first.isCancelled());
+        assertThrows(CancellationException.class, first::join);
+        assertEquals(List.of("ri@ZZ"), delegate.queries);
+
+        // Cached suggestions are returned at once
+        assertTrue(extractor.requestSuggestions("ri").isDone());
+
+        final CompletableFuture<List<String>> cancelled = extractor.requestSuggestions("a");
+        extractor.cancelPendingRequest();
+        assertTrue(cancelled.isCancelled());
+        Thread.sleep(200);
+        assertEquals(1, delegate.queries.size());
+    }
+
+    @Test
+    public void slowFetchDoesNotDelayOthersTest() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeSuggestionExtractor slowDelegate = new FakeSuggestionExtractor() {
+            @Override
+            public List<String> suggestionList(final String query) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.suggestionList(query);
+            }
+        };
+        final CachingSuggestionExtractor slow = new CachingSuggestionExtractor.Builder(slowDelegate)
+                .debounceDelay(Duration.ofMillis(10))
+                .build();
+        final CachingSuggestionExtractor fast =
+                new CachingSuggestionExtractor.Builder(new FakeSuggestionExtractor())
+                        .debounceDelay(Duration.ofMillis(10))
+                        .build();
+
+        try {
+            final CompletableFuture<List<String>> blocked = slow.requestSuggestions("r");
+            started.await();
+            // The shared scheduler is not blocked by the running fetch
+            assertEquals(SUGGESTIONS.get("a"),
+                    fast.requestSuggestions("a").get(5, TimeUnit.SECONDS));
+            assertFalse(blocked.isDone());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.schabi.newpipe.extractor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExpiringCacheTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    public void ttlAndLruTest() {
+        final AtomicLong nanos = new AtomicLong();
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1))
+                        .maxEntries(2)
+                        .nanoClock(nanos::get)
+                        .build();
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        // "a" becomes the most recently used one, so "b" is evicted
+        assertEquals("A", cache.getIfPresent("a"));
+        cache.put("c", "C");
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+
+        nanos.addAndGet(MINUTE);
+        assertEquals(2, cache.size());
+        // Expired entries are removed when others are stored
+        cache.put("d", "D");
+        assertEquals(1, cache.size());
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("D", cache.remove("d"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void staleTest() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1))
+                        .maxStale(Duration.ofMinutes(10))
+                        .nanoClock(nanos::get)
+                        .build();
+
+        assertEquals("1", cache.get("a", () -> String.valueOf(loads.incrementAndGet())));
+        assertEquals("1", cache.get("a", () -> String.valueOf(loads.incrementAndGet())));
+
+        // Expired values are loaded again...
+        nanos.addAndGet(MINUTE);
+        assertEquals("2", cache.get("a", () -> String.valueOf(loads.incrementAndGet())));
+
+        // ...and returned if that fails...
+        nanos.addAndGet(MINUTE);
+        assertEquals("2", cache.get("a", () -> {
+            throw new IOException("Failing on purpose");
+        }));
+
+        // ...unless they are too stale
+        nanos.addAndGet(10 * MINUTE);
+        assertThrows(IOException.class, () -> cache.get("a", () -> {
+            throw new IOException("Failing on purpose");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void singleFlightTest() throws Exception {
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1)).build();
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("a", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        gate.await();
+                    } catch (final InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return "A";
+                })));
+            }
+            Thread.sleep(100);
+            gate.countDown();
+            for (final Future<String> result : results) {
+                assertEquals("A", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void errorTest() throws Exception {
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1)).build();
+
+        // Loads throwing errors are not left in flight, so the value is loaded again
+        assertThrows(AssertionError.class, () -> cache.get("a", () -> {
+            throw new AssertionError("Failing on purpose");
+        }));
+        assertEquals("A", cache.get("a", () -> "A"));
+    }
+
+    @Test
+    public void maxWaitTest() throws Exception {
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1))
+                        .maxWait(Duration.ofMillis(100))
+                        .build();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<String> loading = executor.submit(() -> cache.get("a", () -> {
+                try {
+                    gate.await();
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return "A";
+            }));
+            Thread.sleep(100);
+
+            // The requests waiting for a load give up, but the load goes on
+            assertThrows(InterruptedIOException.class, () -> cache.get("a", () -> "B"));
+            gate.countDown();
+            assertEquals("A", loading.get(5, TimeUnit.SECONDS));
+            assertEquals("A", cache.get("a", () -> "B"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void backgroundRefreshTest() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        final List<Runnable> tasks = new ArrayList<>();
+        final ExpiringCache<String, String> cache =
+                new ExpiringCache.Builder<String, String>(Duration.ofMinutes(1))
+                        .maxStale(Duration.ofMinutes(10))
+                        .refreshExecutor(tasks::add)
+                        .cacheIf(value -> !value.isEmpty())
+                        .nanoClock(nanos::get)
+                        .build();
+
+        assertEquals("old", cache.get("a", () -> "old"));
+        nanos.addAndGet(MINUTE);
+
+        // The stale value is returned at once, and a single refresh is started
+        assertEquals("old", cache.get("a", () -> "new"));
+        assertEquals("old", cache.get("a", () -> "new"));
+        cache.refresh("a", () -> "new");
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertEquals("new", cache.get("a", () -> "newer"));
+
+        // Values which are not cacheable are returned but not stored
+        assertEquals("", cache.get("b", () -> ""));
+        assertNull(cache.getIfPresent("b"));
+    }
+}
@@ -0,0 +1,28 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class JavaScriptTest {
+    private static final String FUNCTION = "function f(a){"
+            + "if(a==='throw'){throw new Error('test')}"
+            + "if(a==='undefined'){return undefined}"
+            + "return a.split('').reverse().join('')}";
+
+    @Test
+    void testRunForEach() {
+        final Map<String, String> results = JavaScript.runForEach(FUNCTION, "f",
+                Arrays.asList("abc", "throw", "abc", "undefined", "xyz"));
+
+        assertEquals(2, results.size());
+        assertEquals("cba", results.get("abc"));
+        assertEquals("zyx", results.get("xyz"));
+        assertFalse(results.containsKey("throw"));
+        assertFalse(results.containsKey("undefined"));
+    }
+}
@@ -0,0 +1,140 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenizedUrlTest {
+    private static final String[] PROTOCOLS = {"", "", "https://", "http://", "HTTPS://",
+            "Http://", "https:", "https:/", "ftp://", "vnd.youtube:", "vnd.youtube://", "url:",
+            "//", "#", " https://"};
+    private static final String[] USER_INFOS = {"", "", "", "user@", "user:pass@", "a@b@"};
+    private static final String[] HOSTS = {"www.youtube.com", "youtube.com", "YouTube.COM",
+            "m.youtube.com", "youtu.be", "invidio.us", "y.com.cm", "www.youtube-nocookie.com",
+            "[::1]", "[2001:db8::1]", "127.0.0.1", "xn--bcher-kva.example", "host_name.org",
+            "bad host.org", "h%41st.org", "exämple.org", "", "youtube.com.", "-.-"};
+    private static final String[] PORTS = {"", "", "", ":", ":443", ":80", ":8080", ":abc",
+            ":99999999999", ":0443"};
+    private static final String[] PATHS = {"", "", "/", "/watch", "/embed/dQw4w9WgXcQ",
+            "/shorts/dQw4w9WgXcQ", "/dQw4w9WgXcQ", "/./watch", "/a/../watch", "/watch/..",
+            "/watch/.", "/.hidden", "/wa tch", "/wätch", "/attribution_link", "/@handle",
+            "/channel/UC/", "//double", "/a:b", "/a@b", "\\watch"};
+    private static final String[] QUERIES = {"", "", "?", "?v=dQw4w9WgXcQ", "?v=", "?v",
+            "?feature=share&v=dQw4w9WgXcQ", "?list=PL123456789&v=x&v=y", "?%76=encoded",
+            "?v=a+b%20c", "?u=%2Fwatch%3Fv%3DdQw4w9WgXcQ", "?a=1&&v=2", "?v==x", "?a=%zz&v=1",
+            "?list", "?t=1s?v=2", "?v=%E2%82%AC", "?#"};
+    private static final String[] FRAGMENTS = {"", "", "", "#t=10", "#?v=fragment", "#/path",
+            "##"};
+    private static final String[] QUERY_NAMES = {"v", "list", "u", "t", "a", "feature"};
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=10#comments",
+            "HTTP://YouTube.com:80/embed/dQw4w9WgXcQ",
+            "youtu.be/dQw4w9WgXcQ?t=1",
+            "youtu.be?v=dQw4w9WgXcQ",
+            "https://user@www.youtube.com/./watch?v=x",
+            "https://[::1]:8080/watch",
+            "https://www.youtube.com/a/../watch"
+    })
+    void testMatchesUrl(final String url) throws MalformedURLException {
+        assertMatchesUrl(url);
+    }
+
+    @Test
+    void testInvalidUrls() {
+        assertThrows(MalformedURLException.class, () -> TokenizedUrl.parse("vnd.youtube:abc"));
+        assertThrows(MalformedURLException.class,
+                () -> TokenizedUrl.parse("https://youtube.com:abc/watch"));
+    }
+
+    @Test
+    void testAccessors() throws MalformedURLException {
+        final TokenizedUrl url = TokenizedUrl.parse("HTTPS://WWW.YouTube.com:443/watch?v=a+b");
+        assertEquals("https", url.getProtocol());
+        assertEquals("WWW.YouTube.com", url.getHost());
+        assertTrue(url.isHost("www.youtube.com"));
+        assertFalse(url.isHost("youtube.com"));
+        assertEquals(443, url.getPort());
+        assertTrue(url.isHttp());
+        assertEquals("/watch", url.getPath());
+        assertEquals("a b", url.getQueryValue("v"));
+        assertNull(url.getQueryValue("list"));
+
+        assertFalse(TokenizedUrl.parse("https://youtube.com:8080").isHttp());
+        assertNull(TokenizedUrl.parse("https://youtube.com/watch?v").getQueryValue("v"));
+    }
+
+    /**
+     * Property-based test comparing {@link TokenizedUrl} to {@link URL} and to the {@link URL}
+     * based methods of {@link Utils} on randomly assembled URLs.
+     */
+    @Test
+    void testMatchesUrlOnRandomUrls() throws MalformedURLException {
+        final Random random = new Random(0x5eed);
+        for (int i = 0; i < 50_000; i++) {
+            final StringBuilder url = new StringBuilder()
+                    .append(pick(random, PROTOCOLS))
+                    .append(pick(random, USER_INFOS))
+                    .append(pick(random, HOSTS))
+                    .append(pick(random, PORTS))
+                    .append(pick(random, PATHS))
+                    .append(pick(random, QUERIES))
+                    .append(pick(random, FRAGMENTS));
+            if (random.nextInt(10) == 0) {
+                // Insert a random printable or control character anywhere
+                url.insert(random.nextInt(url.length() + 1), (char) random.nextInt(0x80));
+            }
+            assertMatchesUrl(url.toString());
+        }
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void assertMatchesUrl(final String string) throws MalformedURLException {
+        final URL expected;
+        try {
+            expected = Utils.stringToURL(string);
+        } catch (final MalformedURLException e) {
+            assertThrows(MalformedURLException.class, () -> TokenizedUrl.parse(string), string);
+            return;
+        }
+
+        final TokenizedUrl actual = TokenizedUrl.parse(string);
+        assertEquals(expected.getProtocol(), actual.getProtocol(), string);
+        assertEquals(expected.getHost(), actual.getHost(), string);
+        assertTrue(actual.isHost(expected.getHost().toUpperCase()), string);
+        assertEquals(expected.getPort(), actual.getPort(), string);
+        assertEquals(expected.getPath(), actual.getPath(), string);
+        assertEquals(expected.getQuery(), actual.getQuery(), string);
+        assertEquals(Utils.isHTTP(expected), actual.isHttp(), string);
+
+        for (final String name : QUERY_NAMES) {
+            final String expectedValue;
+            try {
+                expectedValue = Utils.getQueryValue(expected, name);
+            } catch (final ArrayIndexOutOfBoundsException e) {
+                // Utils.getQueryValue fails on queries without value, which are ignored instead
+                assertNull(actual.getQueryValue(name), string);
+                continue;
+            } catch (final IllegalArgumentException e) {
+                assertThrows(IllegalArgumentException.class, () -> actual.getQueryValue(name),
+                        string);
+                continue;
+            }
+            assertEquals(expectedValue, actual.getQueryValue(name), string);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.schabi.newpipe.extractor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+public class XmlPullReaderTest {
+    /**
+     * @return the text of the single {@code a} element of the document
+     */
+    private static String textOf(final String document) throws Exception {
+        final XmlPullReader xml = new XmlPullReader(new StringReader(document));
+        assertEquals(XmlPullReader.START_TAG, xml.next());
+        assertEquals("a", xml.getName());
+        final StringBuilder text = new StringBuilder();
+        while (xml.next() == XmlPullReader.TEXT) {
+            text.append(xml.getText());
+        }
+        assertEquals(XmlPullReader.END_TAG, xml.getEvent());
+        assertEquals(XmlPullReader.END_DOCUMENT, xml.next());
+        return text.toString();
+    }
+
+    @Test
+    public void cdataTest() throws Exception {
+        assertEquals("x", textOf("<a><![CDATA[x]]></a>"));
+        assertEquals("<b>&amp;</b>", textOf("<a><![CDATA[<b>&amp;</b>]]></a>"));
+        assertEquals("x]y]]z>", textOf("<a><![CDATA[x]y]]z>]]></a>"));
+    }
+
+    @Test
+    public void cdataEndingWithBracketsTest() throws Exception {
+        assertEquals("x]", textOf("<a><![CDATA[x]]]></a>"));
+        assertEquals("x]]", textOf("<a><![CDATA[x]]]]></a>"));
+        assertEquals("]]]", textOf("<a><![CDATA[]]]]]></a>"));
+    }
+
+    @Test
+    public void commentTest() throws Exception {
+        assertEquals("xy", textOf("<a>x<!-- - -- b -->y</a>"));
+        assertEquals("xy", textOf("<a>x<!-- b --->y</a>"));
+    }
+}
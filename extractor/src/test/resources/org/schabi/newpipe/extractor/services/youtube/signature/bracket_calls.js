@@ -0,0 +1 @@
+var $j={"Xg":function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c},"o$":function(a){a.reverse()},d0:function(a,b){a.splice(0,b)}};var $Qa=function(p){p=p.split("");$j["o$"](p,46);$j.Xg(p,27);$j["d0"](p,2);$j.Xg(p,61);$j["o$"](p,12);return p.join("")};function deobfuscate(a){return $Qa(a);}
\ No newline at end of file
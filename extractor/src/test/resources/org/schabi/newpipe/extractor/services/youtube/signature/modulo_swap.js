@@ -0,0 +1 @@
+var Bw={kx:function(a,b){a.splice(0,b)},Jz:function(a){a.reverse()},Rs:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}};var Iva=function(a){a=a.split("");Bw.Rs(a,2);Bw.kx(a,1);Bw.Jz(a,30);Bw.Rs(a,69);Bw.kx(a,3);Bw.Rs(a,48);Bw.Jz(a,5);return a.join("")};function deobfuscate(a){return Iva(a);}
\ No newline at end of file
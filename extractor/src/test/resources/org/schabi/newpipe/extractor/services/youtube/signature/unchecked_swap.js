@@ -0,0 +1 @@
+var pN={rE:function(a){a.reverse()},wj:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b]=c},Bh:function(a,b){a.splice(0,b)}};var Oy=function(a){a=a.split("");pN.wj(a,53);pN.Bh(a,2);pN.rE(a,8);pN.wj(a,7);pN.Bh(a,1);return a.join("")};function deobfuscate(a){return Oy(a);}
\ No newline at end of file
@@ -0,0 +1 @@
+var Zk={Ab:function(a,b){a.splice(0,b)},Cd:function(a,b){a.push(a.shift())}};var Ef=function(a){a=a.split("");Zk.Ab(a,3);Zk.Cd(a,1);return a.join("")};function deobfuscate(a){return Ef(a);}
\ No newline at end of file